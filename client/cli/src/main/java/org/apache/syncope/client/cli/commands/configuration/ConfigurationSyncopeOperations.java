@@ -22,6 +22,7 @@ import java.util.List;
 import javax.ws.rs.core.Response;
 import org.apache.syncope.client.cli.SyncopeServices;
 import org.apache.syncope.common.lib.to.AttrTO;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.common.rest.api.service.ConfigurationService;
 
 public class ConfigurationSyncopeOperations {
@@ -41,7 +42,7 @@ public class ConfigurationSyncopeOperations {
     }
 
     public Response export() {
-        return configurationService.export();
+        return configurationService.export(ContentExportFormat.XML);
     }
 
     public void delete(final String schema) {
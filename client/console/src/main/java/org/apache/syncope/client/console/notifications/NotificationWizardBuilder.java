@@ -39,6 +39,7 @@ import org.apache.syncope.client.console.rest.NotificationRestClient;
 import org.apache.syncope.client.console.rest.SchemaRestClient;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxCheckBoxPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxDropDownChoicePanel;
+import org.apache.syncope.client.console.wicket.markup.html.form.AjaxSpinnerFieldPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxTextFieldPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.MultiFieldPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.MultiPanel;
@@ -153,6 +154,11 @@ public class NotificationWizardBuilder extends AjaxWizardBuilder<NotificationWra
             traceLevel.addRequiredLabel();
             add(traceLevel);
 
+            AjaxSpinnerFieldPanel<Integer> digestWindow = new AjaxSpinnerFieldPanel.Builder<Integer>().min(0).
+                    build("digestWindow", getString("digestWindow"), Integer.class,
+                            new PropertyModel<>(notificationTO, "digestWindow"));
+            add(digestWindow);
+
             final AjaxCheckBoxPanel isActive = new AjaxCheckBoxPanel("isActive",
                     getString("isActive"), new PropertyModel<>(notificationTO, "active"));
             if (createFlag) {
@@ -21,6 +21,7 @@ package org.apache.syncope.client.console.rest;
 import java.util.List;
 import javax.ws.rs.core.Response;
 import org.apache.syncope.common.lib.to.AttrTO;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.common.rest.api.service.ConfigurationService;
 
 public class ConfRestClient extends BaseRestClient {
@@ -44,6 +45,6 @@ public class ConfRestClient extends BaseRestClient {
     }
 
     public Response dbExport() {
-        return getService(ConfigurationService.class).export();
+        return getService(ConfigurationService.class).export(ContentExportFormat.XML);
     }
 }
@@ -31,6 +31,7 @@ import org.apache.syncope.client.console.wicket.ajax.form.IndicatorAjaxFormCompo
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxCheckBoxPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxDropDownChoicePanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxPalettePanel;
+import org.apache.syncope.client.console.wicket.markup.html.form.AjaxSpinnerFieldPanel;
 import org.apache.syncope.client.console.wicket.markup.html.form.AjaxTextFieldPanel;
 import org.apache.syncope.client.console.wizards.AjaxWizardBuilder;
 import org.apache.syncope.common.lib.to.EntityTO;
@@ -244,6 +245,23 @@ public class SchedTaskWizardBuilder<T extends SchedTaskTO> extends AjaxWizardBui
                     "remediation", "remediation", new PropertyModel<>(taskTO, "remediation"), false);
             pullTaskSpecifics.add(remediation);
 
+            AjaxSpinnerFieldPanel<Integer> concurrentThreads = new AjaxSpinnerFieldPanel.Builder<Integer>().min(1).
+                    build("concurrentThreads", "concurrentThreads", Integer.class,
+                            new PropertyModel<>(taskTO, "concurrentThreads"));
+            pullTaskSpecifics.add(concurrentThreads);
+
+            AjaxSpinnerFieldPanel<Integer> pageSize = new AjaxSpinnerFieldPanel.Builder<Integer>().min(1).
+                    build("pageSize", "pageSize", Integer.class, new PropertyModel<>(taskTO, "pageSize"));
+            pullTaskSpecifics.add(pageSize);
+
+            AjaxTextFieldPanel sortAttribute = new AjaxTextFieldPanel(
+                    "sortAttribute", "sortAttribute", new PropertyModel<>(taskTO, "sortAttribute"), false);
+            pullTaskSpecifics.add(sortAttribute);
+
+            AjaxCheckBoxPanel prefetch = new AjaxCheckBoxPanel(
+                    "prefetch", "prefetch", new PropertyModel<>(taskTO, "prefetch"), false);
+            pullTaskSpecifics.add(prefetch);
+
             // ------------------------------
             // Only for push tasks
             // ------------------------------  
@@ -264,6 +282,11 @@ public class SchedTaskWizardBuilder<T extends SchedTaskTO> extends AjaxWizardBui
             sourceRealm.setNullValid(!(taskTO instanceof PushTaskTO));
             pushTaskSpecifics.add(sourceRealm);
 
+            AjaxSpinnerFieldPanel<Integer> pushConcurrentThreads = new AjaxSpinnerFieldPanel.Builder<Integer>().
+                    min(1).build("concurrentThreads", "concurrentThreads", Integer.class,
+                            new PropertyModel<>(taskTO, "concurrentThreads"));
+            pushTaskSpecifics.add(pushConcurrentThreads);
+
             // ------------------------------
             // For push and pull tasks
             // ------------------------------
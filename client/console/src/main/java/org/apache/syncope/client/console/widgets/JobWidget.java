@@ -53,6 +53,7 @@ import org.apache.syncope.client.console.wizards.AjaxWizard;
 import org.apache.syncope.client.console.wizards.WizardMgtPanel;
 import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.to.ExecTO;
+import org.apache.syncope.common.lib.to.JobProgressTO;
 import org.apache.syncope.common.lib.to.JobTO;
 import org.apache.syncope.common.lib.to.ReportTO;
 import org.apache.syncope.common.lib.to.ProvisioningTaskTO;
@@ -61,6 +62,7 @@ import org.apache.syncope.common.lib.types.JobAction;
 import org.apache.syncope.common.lib.types.JobType;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.wicket.AttributeModifier;
 import org.apache.wicket.PageReference;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.authroles.authorization.strategies.role.metadata.MetaDataRoleAuthorizationStrategy;
@@ -75,6 +77,7 @@ import org.apache.wicket.extensions.markup.html.tabs.AbstractTab;
 import org.apache.wicket.extensions.markup.html.tabs.ITab;
 import org.apache.wicket.markup.html.WebMarkupContainer;
 import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.html.panel.Panel;
 import org.apache.wicket.markup.repeater.Item;
 import org.apache.wicket.model.CompoundPropertyModel;
@@ -346,6 +349,49 @@ public class JobWidget extends BaseWidget {
 
             columns.add(new DatePropertyColumn<>(new ResourceModel("start"), "start", "start"));
 
+            columns.add(new AbstractColumn<JobTO, String>(new ResourceModel("progress")) {
+
+                private static final long serialVersionUID = 2054811145491901166L;
+
+                @Override
+                public void populateItem(
+                        final Item<ICellPopulator<JobTO>> cellItem,
+                        final String componentId,
+                        final IModel<JobTO> rowModel) {
+
+                    JobProgressTO progress = rowModel.getObject().getProgress();
+                    if (progress == null) {
+                        cellItem.add(new Label(componentId, StringUtils.EMPTY));
+                        return;
+                    }
+
+                    Label summary = new Label(componentId, new StringResourceModel(
+                            "progress.summary", AvailableJobsPanel.this).setParameters(
+                            progress.getProcessed(),
+                            progress.getTotal() < 0 ? "?" : String.valueOf(progress.getTotal()),
+                            progress.getLastMinuteThroughput(),
+                            progress.getEstimatedEnd() == null
+                            ? "-"
+                            : SyncopeConsoleSession.get().getDateFormat().format(progress.getEstimatedEnd())));
+
+                    // details by object class and time breakdown are shown on hover
+                    StringBuilder details = new StringBuilder();
+                    progress.getObjectClasses().forEach(objectClass -> details.append(new StringResourceModel(
+                            "progress.objectClass", AvailableJobsPanel.this).setParameters(
+                            objectClass.getObjectClass(),
+                            objectClass.getProcessed(),
+                            objectClass.getSucceeded(),
+                            objectClass.getFailed()).getObject()).append('\n'));
+                    details.append(new StringResourceModel("progress.times", AvailableJobsPanel.this).setParameters(
+                            progress.getConnectorTime() / 1000.0,
+                            progress.getPersistenceTime() / 1000.0,
+                            progress.getPropagationTime() / 1000.0).getObject());
+                    summary.add(new AttributeModifier("title", details.toString()));
+
+                    cellItem.add(summary);
+                }
+            });
+
             columns.add(new AbstractColumn<JobTO, String>(new Model<>(""), "running") {
 
                 private static final long serialVersionUID = -4008579357070833846L;
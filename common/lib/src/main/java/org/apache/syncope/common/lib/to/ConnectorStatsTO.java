@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.to;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+
+/**
+ * Live usage statistics of the connector facades built for a given connector instance, aggregated over all
+ * the external resources using it.
+ * All figures are collected by Syncope around the requests it sends to the connector facades: ConnId does not expose
+ * its pool internals, hence {@link #getInFlight()} and {@link #getPeakInFlight()} count concurrent requests, which
+ * only bound the number of pooled connector instances borrowed at the same time.
+ */
+@XmlRootElement(name = "connectorStats")
+@XmlType
+public class ConnectorStatsTO extends AbstractBaseBean {
+
+    private static final long serialVersionUID = 2466710632950451468L;
+
+    private String connInstance;
+
+    private int facades;
+
+    private int warmUpRequested;
+
+    private int warmUpCompleted;
+
+    private int inFlight;
+
+    private int peakInFlight;
+
+    private long requests;
+
+    private long failures;
+
+    private long timeouts;
+
+    private double averageRequestTime;
+
+    private Integer maxObjects;
+
+    private Integer minIdle;
+
+    private Integer suggestedMaxObjects;
+
+    public String getConnInstance() {
+        return connInstance;
+    }
+
+    public void setConnInstance(final String connInstance) {
+        this.connInstance = connInstance;
+    }
+
+    public int getFacades() {
+        return facades;
+    }
+
+    public void setFacades(final int facades) {
+        this.facades = facades;
+    }
+
+    public int getWarmUpRequested() {
+        return warmUpRequested;
+    }
+
+    public void setWarmUpRequested(final int warmUpRequested) {
+        this.warmUpRequested = warmUpRequested;
+    }
+
+    public int getWarmUpCompleted() {
+        return warmUpCompleted;
+    }
+
+    public void setWarmUpCompleted(final int warmUpCompleted) {
+        this.warmUpCompleted = warmUpCompleted;
+    }
+
+    /**
+     * @return number of requests currently being served, over all facades
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(final int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * @return highest number of requests concurrently served by a single facade
+     */
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    public void setPeakInFlight(final int peakInFlight) {
+        this.peakInFlight = peakInFlight;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(final long requests) {
+        this.requests = requests;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public void setFailures(final long failures) {
+        this.failures = failures;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public void setTimeouts(final long timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    public double getAverageRequestTime() {
+        return averageRequestTime;
+    }
+
+    public void setAverageRequestTime(final double averageRequestTime) {
+        this.averageRequestTime = averageRequestTime;
+    }
+
+    /**
+     * @return maxObjects as configured for the connector instance pool, if any
+     */
+    public Integer getMaxObjects() {
+        return maxObjects;
+    }
+
+    public void setMaxObjects(final Integer maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    public Integer getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(final Integer minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    /**
+     * @return pool size suggested after {@link #getPeakInFlight()}, if any request was served
+     */
+    public Integer getSuggestedMaxObjects() {
+        return suggestedMaxObjects;
+    }
+
+    public void setSuggestedMaxObjects(final Integer suggestedMaxObjects) {
+        this.suggestedMaxObjects = suggestedMaxObjects;
+    }
+}
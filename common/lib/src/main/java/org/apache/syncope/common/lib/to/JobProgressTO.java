@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.lib.to;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import org.apache.syncope.common.lib.AbstractBaseBean;
+
+/**
+ * Live progress of a running pull or push job: objects processed by object class, throughput over sliding windows,
+ * where time was spent and, when the amount of objects to process is known, an estimated end.
+ */
+@XmlRootElement(name = "jobProgress")
+@XmlType
+public class JobProgressTO extends AbstractBaseBean {
+
+    private static final long serialVersionUID = 4512938452618276093L;
+
+    private Date start;
+
+    private long total = -1;
+
+    private long processed;
+
+    private long succeeded;
+
+    private long failed;
+
+    private double throughput;
+
+    private double lastMinuteThroughput;
+
+    private double lastFiveMinutesThroughput;
+
+    private long connectorTime;
+
+    private long persistenceTime;
+
+    private long propagationTime;
+
+    private Date estimatedEnd;
+
+    private final List<ObjectClassProgressTO> objectClasses = new ArrayList<>();
+
+    public Date getStart() {
+        return start == null
+                ? null
+                : new Date(start.getTime());
+    }
+
+    public void setStart(final Date start) {
+        this.start = start == null
+                ? null
+                : new Date(start.getTime());
+    }
+
+    /**
+     * @return objects to process, or -1 if not known
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(final long total) {
+        this.total = total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(final long processed) {
+        this.processed = processed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(final long succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(final long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * @return objects per second, since start
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(final double throughput) {
+        this.throughput = throughput;
+    }
+
+    /**
+     * @return objects per second, over the last minute
+     */
+    public double getLastMinuteThroughput() {
+        return lastMinuteThroughput;
+    }
+
+    public void setLastMinuteThroughput(final double lastMinuteThroughput) {
+        this.lastMinuteThroughput = lastMinuteThroughput;
+    }
+
+    /**
+     * @return objects per second, over the last five minutes
+     */
+    public double getLastFiveMinutesThroughput() {
+        return lastFiveMinutesThroughput;
+    }
+
+    public void setLastFiveMinutesThroughput(final double lastFiveMinutesThroughput) {
+        this.lastFiveMinutesThroughput = lastFiveMinutesThroughput;
+    }
+
+    /**
+     * @return milliseconds spent waiting for the connector, summed over all threads
+     */
+    public long getConnectorTime() {
+        return connectorTime;
+    }
+
+    public void setConnectorTime(final long connectorTime) {
+        this.connectorTime = connectorTime;
+    }
+
+    /**
+     * @return milliseconds spent processing objects, apart from connector and propagation, summed over all threads
+     */
+    public long getPersistenceTime() {
+        return persistenceTime;
+    }
+
+    public void setPersistenceTime(final long persistenceTime) {
+        this.persistenceTime = persistenceTime;
+    }
+
+    /**
+     * @return milliseconds spent in propagation, apart from connector, summed over all threads
+     */
+    public long getPropagationTime() {
+        return propagationTime;
+    }
+
+    public void setPropagationTime(final long propagationTime) {
+        this.propagationTime = propagationTime;
+    }
+
+    public Date getEstimatedEnd() {
+        return estimatedEnd == null
+                ? null
+                : new Date(estimatedEnd.getTime());
+    }
+
+    public void setEstimatedEnd(final Date estimatedEnd) {
+        this.estimatedEnd = estimatedEnd == null
+                ? null
+                : new Date(estimatedEnd.getTime());
+    }
+
+    @XmlElementWrapper(name = "objectClasses")
+    @XmlElement(name = "objectClass")
+    @JsonProperty("objectClasses")
+    public List<ObjectClassProgressTO> getObjectClasses() {
+        return objectClasses;
+    }
+}
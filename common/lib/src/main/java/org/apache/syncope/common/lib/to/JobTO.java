@@ -44,6 +44,8 @@ public class JobTO extends AbstractBaseBean {
 
     private String status;
 
+    private JobProgressTO progress;
+
     public JobType getType() {
         return type;
     }
@@ -104,4 +106,15 @@ public class JobTO extends AbstractBaseBean {
         this.status = status;
     }
 
+    /**
+     * @return structured progress, available only while running jobs supporting it
+     */
+    public JobProgressTO getProgress() {
+        return progress;
+    }
+
+    public void setProgress(final JobProgressTO progress) {
+        this.progress = progress;
+    }
+
 }
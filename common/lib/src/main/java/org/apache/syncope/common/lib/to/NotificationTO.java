@@ -64,6 +64,8 @@ public class NotificationTO extends AbstractBaseBean implements EntityTO {
 
     private TraceLevel traceLevel;
 
+    private Integer digestWindow;
+
     private boolean active;
 
     @JsonProperty
@@ -160,6 +162,14 @@ public class NotificationTO extends AbstractBaseBean implements EntityTO {
         this.traceLevel = traceLevel;
     }
 
+    public Integer getDigestWindow() {
+        return digestWindow;
+    }
+
+    public void setDigestWindow(final Integer digestWindow) {
+        this.digestWindow = digestWindow;
+    }
+
     public boolean isActive() {
         return active;
     }
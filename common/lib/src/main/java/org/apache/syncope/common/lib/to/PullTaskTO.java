@@ -52,6 +52,14 @@ public class PullTaskTO extends ProvisioningTaskTO implements TemplatableTO {
 
     private boolean remediation;
 
+    private int concurrentThreads = 1;
+
+    private int pageSize = 100;
+
+    private String sortAttribute;
+
+    private boolean prefetch;
+
     @XmlTransient
     @JsonProperty("@class")
     @Schema(name = "@class", required = true, example = "org.apache.syncope.common.lib.to.PullTaskTO")
@@ -101,4 +109,60 @@ public class PullTaskTO extends ProvisioningTaskTO implements TemplatableTO {
         this.remediation = remediation;
     }
 
+    /**
+     * Number of threads processing pulled objects: objects are partitioned by connector object key, so that
+     * changes to the same object are always processed in order; values greater than 1 require the configured
+     * pull actions to be thread-safe.
+     *
+     * @return number of threads processing pulled objects
+     */
+    public int getConcurrentThreads() {
+        return concurrentThreads;
+    }
+
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
+
+    /**
+     * Number of objects requested to the connector at once, during reconciliation.
+     *
+     * @return paged results page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * External attribute to sort objects by (ascending), during reconciliation; connector's natural order is
+     * followed if not set.
+     *
+     * @return external attribute to sort objects by
+     */
+    public String getSortAttribute() {
+        return sortAttribute;
+    }
+
+    public void setSortAttribute(final String sortAttribute) {
+        this.sortAttribute = sortAttribute;
+    }
+
+    /**
+     * Whether, during reconciliation, the next page of objects is fetched from the connector while the current one
+     * is being processed.
+     *
+     * @return whether next page of objects is prefetched
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(final boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
 }
@@ -46,6 +46,8 @@ public class PushTaskTO extends ProvisioningTaskTO {
     @XmlJavaTypeAdapter(XmlGenericMapAdapter.class)
     private final Map<String, String> filters = new HashMap<>();
 
+    private int concurrentThreads = 1;
+
     @XmlTransient
     @JsonProperty("@class")
     @Schema(name = "@class", required = true, example = "org.apache.syncope.common.lib.to.PushTaskTO")
@@ -66,4 +68,18 @@ public class PushTaskTO extends ProvisioningTaskTO {
     public Map<String, String> getFilters() {
         return filters;
     }
+
+    /**
+     * Number of threads pushing objects; the actual number is further limited by the maximum size of the
+     * resource's connector pool, if configured.
+     *
+     * @return number of threads pushing objects
+     */
+    public int getConcurrentThreads() {
+        return concurrentThreads;
+    }
+
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
 }
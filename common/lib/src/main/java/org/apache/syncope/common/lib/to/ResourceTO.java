@@ -63,6 +63,8 @@ public class ResourceTO extends AbstractBaseBean implements EntityTO {
 
     private boolean enforceMandatoryCondition;
 
+    private boolean trustLocalState;
+
     private TraceLevel createTraceLevel = TraceLevel.ALL;
 
     private TraceLevel updateTraceLevel = TraceLevel.ALL;
@@ -138,6 +140,14 @@ public class ResourceTO extends AbstractBaseBean implements EntityTO {
         this.randomPwdIfNotProvided = randomPwdIfNotProvided;
     }
 
+    public boolean isTrustLocalState() {
+        return trustLocalState;
+    }
+
+    public void setTrustLocalState(final boolean trustLocalState) {
+        this.trustLocalState = trustLocalState;
+    }
+
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
     }
@@ -35,10 +35,12 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.AttrTO;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 
 /**
  * REST operations for configuration.
@@ -51,13 +53,15 @@ import org.apache.syncope.common.lib.to.AttrTO;
 public interface ConfigurationService extends JAXRSService {
 
     /**
-     * Exports internal storage content as downloadable XML file.
+     * Exports internal storage content as downloadable file, either XML or binary snapshot; the latter can be placed
+     * as {@code <domain>Content.snapshot} among the domain content files, to be loaded in place of XML content.
      *
-     * @return internal storage content as downloadable XML file
+     * @param fmt export format, XML if not specified
+     * @return internal storage content as downloadable file
      */
     @GET
     @Path("stream")
-    Response export();
+    Response export(@QueryParam("format") ContentExportFormat fmt);
 
     /**
      * Returns all configuration parameters.
@@ -46,6 +46,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
 import org.apache.syncope.common.lib.to.ConnIdObjectClassTO;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 import org.apache.syncope.common.rest.api.RESTHeaders;
 
 /**
@@ -102,6 +103,22 @@ public interface ConnectorService extends JAXRSService {
     @Produces({ MediaType.APPLICATION_JSON, SyncopeConstants.APPLICATION_YAML, MediaType.APPLICATION_XML })
     ConnInstanceTO read(@NotNull @PathParam("key") String key, @QueryParam("lang") String lang);
 
+    /**
+     * Returns live usage statistics for the connectors built from the connector instance with matching key:
+     * in-flight and peak concurrent requests, failures, timeouts, average request time, warm-up progress and
+     * suggested pool size.
+     * Statistics are measured by Syncope around the requests sent to connectors, not read from the ConnId pool:
+     * in-flight requests are an upper bound to the pooled connector instances in use. Pool configuration and warm-up
+     * figures are only reported for connector instances with pool configuration, when the connector supports pooling.
+     *
+     * @param key connector instance key
+     * @return live usage statistics for the connector instance with matching key
+     */
+    @GET
+    @Path("{key}/stats")
+    @Produces({ MediaType.APPLICATION_JSON, SyncopeConstants.APPLICATION_YAML, MediaType.APPLICATION_XML })
+    ConnectorStatsTO readStats(@NotNull @PathParam("key") String key);
+
     /**
      * Returns connector instance for matching resource.
      *
@@ -46,6 +46,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.TaskTO;
 import org.apache.syncope.common.lib.to.BulkAction;
 import org.apache.syncope.common.lib.to.BulkActionResult;
+import org.apache.syncope.common.lib.to.JobProgressTO;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.SchedTaskTO;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -142,6 +143,30 @@ public interface TaskService extends ExecutableService {
     @Produces({ MediaType.APPLICATION_JSON, SyncopeConstants.APPLICATION_YAML, MediaType.APPLICATION_XML })
     void delete(@NotNull @PathParam("type") TaskType type, @NotNull @PathParam("key") String key);
 
+    /**
+     * Exports the details about the objects processed by the task execution with matching key, one line each.
+     *
+     * @param executionKey key of task execution to be selected
+     * @return a stream for content download
+     */
+    @GET
+    @Path("executions/{executionKey}/details")
+    @Produces({ MediaType.TEXT_PLAIN })
+    Response exportExecutionDetails(@NotNull @PathParam("executionKey") String executionKey);
+
+    /**
+     * Returns the live progress of the running job for the task matching the given key: objects processed by
+     * object class, throughput, time spent with connector, persistence and propagation, and estimated end.
+     *
+     * @param key task key
+     * @return live progress, or no content if no job is running for the task or it does not provide structured
+     * progress; not found if no task matches the given key
+     */
+    @GET
+    @Path("jobs/{key}/progress")
+    @Produces({ MediaType.APPLICATION_JSON, SyncopeConstants.APPLICATION_YAML, MediaType.APPLICATION_XML })
+    JobProgressTO getJobProgress(@NotNull @PathParam("key") String key);
+
     /**
      * Executes the provided bulk action.
      *
@@ -95,6 +95,7 @@ abstract class AbstractJobLogic<T extends AbstractBaseBean> extends AbstractTran
                                 && ((AbstractInterruptableJob) job).getDelegate() != null) {
 
                             jobTO.setStatus(((AbstractInterruptableJob) job).getDelegate().currentStatus());
+                            jobTO.setProgress(((AbstractInterruptableJob) job).getDelegate().currentProgress());
                         }
                     } catch (NoSuchBeanDefinitionException e) {
                         LOG.warn("Could not find job {} implementation", jobKey, e);
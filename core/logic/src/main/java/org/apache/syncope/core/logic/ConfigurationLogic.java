@@ -23,6 +23,7 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
 import org.apache.syncope.common.lib.to.AttrTO;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.persistence.api.content.ContentExporter;
@@ -53,7 +54,7 @@ public class ConfigurationLogic extends AbstractTransactionalLogic<AttrTO> {
     private ConfigurationDataBinder binder;
 
     @Autowired
-    private ContentExporter exporter;
+    private List<ContentExporter> exporters;
 
     @Autowired
     private UserWorkflowAdapter uwfAdapter;
@@ -110,7 +111,10 @@ public class ConfigurationLogic extends AbstractTransactionalLogic<AttrTO> {
 
     @PreAuthorize("hasRole('" + StandardEntitlement.CONFIGURATION_EXPORT + "')")
     @Transactional(readOnly = true)
-    public void export(final OutputStream os) {
+    public void export(final OutputStream os, final ContentExportFormat format) {
+        ContentExporter exporter = exporters.stream().
+                filter(candidate -> candidate.getFormat() == format).findFirst().
+                orElseThrow(() -> new NotFoundException("Content exporter for " + format));
         try {
             exporter.export(
                     AuthContextUtils.getDomain(),
@@ -30,6 +30,7 @@ import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
 import org.apache.syncope.common.lib.to.ConnIdObjectClassTO;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.persistence.api.dao.ConnInstanceDAO;
@@ -241,6 +242,17 @@ public class ConnectorLogic extends AbstractTransactionalLogic<ConnInstanceTO> {
         connFactory.createConnector(binder.getConnInstance(connInstanceTO)).test();
     }
 
+    @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_READ + "')")
+    @Transactional(readOnly = true)
+    public ConnectorStatsTO readStats(final String key) {
+        ConnInstance connInstance = connInstanceDAO.authFind(key);
+        if (connInstance == null) {
+            throw new NotFoundException("Connector '" + key + "'");
+        }
+
+        return connFactory.getStats(connInstance);
+    }
+
     @PreAuthorize("hasRole('" + StandardEntitlement.CONNECTOR_READ + "')")
     @Transactional(readOnly = true)
     public ConnInstanceTO readByResource(final String resourceName, final String lang) {
@@ -417,6 +417,8 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupPatch> {
             jobDataMap.put(TaskJob.DRY_RUN_JOBDETAIL_KEY, false);
             jobDataMap.put(GroupMemberProvisionTaskJobDelegate.GROUP_KEY_JOBDETAIL_KEY, key);
             jobDataMap.put(GroupMemberProvisionTaskJobDelegate.ACTION_TYPE_JOBDETAIL_KEY, actionType);
+            jobDataMap.put(GroupMemberProvisionTaskJobDelegate.CONCURRENT_THREADS_JOBDETAIL_KEY,
+                    confDAO.find("tasks.bulkMembersAction.concurrentThreads", 1L).intValue());
 
             scheduler.getScheduler().triggerJob(
                     JobNamer.getJobKey(task),
@@ -21,6 +21,7 @@ package org.apache.syncope.core.logic;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeClientException;
@@ -36,6 +37,7 @@ import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.MailTemplate;
 import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.provisioning.java.notification.MailTemplateCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Component;
@@ -53,6 +55,9 @@ public class MailTemplateLogic extends AbstractTransactionalLogic<MailTemplateTO
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private MailTemplateCache mailTemplateCache;
+
     private MailTemplateTO getMailTemplateTO(final String key) {
         MailTemplateTO mailTemplateTO = new MailTemplateTO();
         mailTemplateTO.setKey(key);
@@ -121,6 +126,17 @@ public class MailTemplateLogic extends AbstractTransactionalLogic<MailTemplateTO
             throw new NotFoundException(key);
         }
 
+        // report parse failures now rather than when notifications are sent
+        if (StringUtils.isNotBlank(template)) {
+            try {
+                mailTemplateCache.compile(template);
+            } catch (JexlException e) {
+                SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidValues);
+                sce.getElements().add(e.getMessage());
+                throw sce;
+            }
+        }
+
         if (format == MailTemplateFormat.HTML) {
             mailTemplate.setHTMLTemplate(template);
         } else {
@@ -128,6 +144,7 @@ public class MailTemplateLogic extends AbstractTransactionalLogic<MailTemplateTO
         }
 
         mailTemplateDAO.save(mailTemplate);
+        mailTemplateCache.evict(key);
     }
 
     @PreAuthorize("hasRole('" + StandardEntitlement.MAIL_TEMPLATE_DELETE + "')")
@@ -148,6 +165,7 @@ public class MailTemplateLogic extends AbstractTransactionalLogic<MailTemplateTO
 
         MailTemplateTO deleted = getMailTemplateTO(key);
         mailTemplateDAO.delete(key);
+        mailTemplateCache.evict(key);
         return deleted;
     }
 
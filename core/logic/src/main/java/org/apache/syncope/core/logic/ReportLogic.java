@@ -18,17 +18,21 @@
  */
 package org.apache.syncope.core.logic;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.zip.ZipInputStream;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.transform.Templates;
 import org.apache.cocoon.pipeline.NonCachingPipeline;
 import org.apache.cocoon.pipeline.Pipeline;
 import org.apache.cocoon.sax.SAXPipelineComponent;
@@ -52,6 +56,7 @@ import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.core.logic.cocoon.FopSerializer;
 import org.apache.syncope.core.logic.cocoon.TextSerializer;
 import org.apache.syncope.core.logic.cocoon.XSLTTransformer;
+import org.apache.syncope.core.logic.report.ReportExportCache;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.ReportDAO;
@@ -88,6 +93,9 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private ReportExportCache exportCache;
+
     @PreAuthorize("hasRole('" + StandardEntitlement.REPORT_CREATE + "')")
     public ReportTO create(final ReportTO reportTO) {
         Report report = entityFactory.newEntity(Report.class);
@@ -198,23 +206,113 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
         if (reportExec == null) {
             throw new NotFoundException("Report execution " + executionKey);
         }
-        if (!ReportExecStatus.SUCCESS.name().equals(reportExec.getStatus()) || reportExec.getExecResult() == null) {
+        boolean hasExecResult = reportExecDAO.hasExecResult(executionKey);
+        if (!ReportExecStatus.SUCCESS.name().equals(reportExec.getStatus()) || !hasExecResult) {
             SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidReportExec);
-            sce.getElements().add(reportExec.getExecResult() == null
-                    ? "No report data produced"
-                    : "Report did not run successfully");
+            sce.getElements().add(hasExecResult
+                    ? "Report did not run successfully"
+                    : "No report data produced");
             throw sce;
         }
         return reportExec;
     }
 
+    private static String getXSLT(final ReportExec reportExec, final ReportExecExportFormat format) {
+        switch (format) {
+            case HTML:
+                return reportExec.getReport().getTemplate().getHTMLTemplate();
+
+            case PDF:
+            case RTF:
+                return reportExec.getReport().getTemplate().getFOTemplate();
+
+            case CSV:
+                return reportExec.getReport().getTemplate().getCSVTemplate();
+
+            case XML:
+            default:
+                return null;
+        }
+    }
+
     @PreAuthorize("hasRole('" + StandardEntitlement.REPORT_READ + "')")
     public void exportExecutionResult(final OutputStream os, final ReportExec reportExec,
             final ReportExecExportFormat format) {
 
-        // streaming SAX handler from a compressed byte array stream
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(reportExec.getExecResult());
-                ZipInputStream zis = new ZipInputStream(bais)) {
+        String xslt = getXSLT(reportExec, format);
+        long maxCacheSize = confDAO.find("report.exportCache.maxSize", 100L) * 1024 * 1024;
+        if (xslt == null || maxCacheSize <= 0) {
+            // result is streamed from storage, never loaded in memory
+            reportExecDAO.readExecResult(reportExec.getKey(), content -> export(
+                    os,
+                    reportExec,
+                    format,
+                    xslt == null ? null : exportCache.getTemplates(ReportExportCache.digest(xslt), xslt),
+                    content));
+            return;
+        }
+
+        String digest = ReportExportCache.digest(xslt);
+        Optional<InputStream> cached = exportCache.get(reportExec.getKey(), format, digest);
+        if (cached.isPresent()) {
+            try (InputStream in = cached.get()) {
+                IOUtils.copy(in, os);
+                LOG.debug("Result of {} exported as {} from cache", reportExec, format);
+            } catch (IOException e) {
+                LOG.error("While exporting content", e);
+            }
+            return;
+        }
+
+        // render to a local file first, so that other downloads of the same format can be served from there
+        Templates templates = exportCache.getTemplates(digest, xslt);
+        Path file = null;
+        try {
+            file = exportCache.newFile();
+
+            AtomicBoolean exported = new AtomicBoolean(false);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                reportExecDAO.readExecResult(reportExec.getKey(), content -> exported.set(
+                        export(out, reportExec, format, templates, content)));
+            }
+
+            if (exported.get()) {
+                Files.copy(file, os);
+                exportCache.put(reportExec.getKey(), format, digest, file, maxCacheSize);
+                file = null;
+            }
+        } catch (IOException e) {
+            LOG.error("While exporting content", e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOG.warn("Could not delete {}", file, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Exports the given report execution result.
+     *
+     * @param os output stream
+     * @param reportExec report execution
+     * @param format export format
+     * @param templates compiled XSLT for the given format, null for XML
+     * @param content compressed report execution result
+     * @return whether export was successful
+     */
+    protected boolean export(
+            final OutputStream os,
+            final ReportExec reportExec,
+            final ReportExecExportFormat format,
+            final Templates templates,
+            final InputStream content) {
+
+        // streaming SAX handler from a compressed stream
+        try (ZipInputStream zis = new ZipInputStream(content)) {
 
             // a single ZipEntry in the ZipInputStream (see ReportJob)
             zis.getNextEntry();
@@ -228,40 +326,26 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
             parameters.put("start", reportExec.getStart());
             parameters.put("end", reportExec.getEnd());
 
+            if (templates != null) {
+                XSLTTransformer transformer = new XSLTTransformer(templates);
+                transformer.setParameters(parameters);
+                pipeline.addComponent(transformer);
+            }
+
             switch (format) {
                 case HTML:
-                    XSLTTransformer xsl2html = new XSLTTransformer(new StreamSource(
-                            IOUtils.toInputStream(reportExec.getReport().getTemplate().getHTMLTemplate(),
-                                    StandardCharsets.UTF_8)));
-                    xsl2html.setParameters(parameters);
-                    pipeline.addComponent(xsl2html);
                     pipeline.addComponent(XMLSerializer.createXHTMLSerializer());
                     break;
 
                 case PDF:
-                    XSLTTransformer xsl2pdf = new XSLTTransformer(new StreamSource(
-                            IOUtils.toInputStream(reportExec.getReport().getTemplate().getFOTemplate(),
-                                    StandardCharsets.UTF_8)));
-                    xsl2pdf.setParameters(parameters);
-                    pipeline.addComponent(xsl2pdf);
                     pipeline.addComponent(new FopSerializer(MimeConstants.MIME_PDF));
                     break;
 
                 case RTF:
-                    XSLTTransformer xsl2rtf = new XSLTTransformer(new StreamSource(
-                            IOUtils.toInputStream(reportExec.getReport().getTemplate().getFOTemplate(),
-                                    StandardCharsets.UTF_8)));
-                    xsl2rtf.setParameters(parameters);
-                    pipeline.addComponent(xsl2rtf);
                     pipeline.addComponent(new FopSerializer(MimeConstants.MIME_RTF));
                     break;
 
                 case CSV:
-                    XSLTTransformer xsl2csv = new XSLTTransformer(new StreamSource(
-                            IOUtils.toInputStream(reportExec.getReport().getTemplate().getCSVTemplate(),
-                                    StandardCharsets.UTF_8)));
-                    xsl2csv.setParameters(parameters);
-                    pipeline.addComponent(xsl2csv);
                     pipeline.addComponent(new TextSerializer());
                     break;
 
@@ -274,8 +358,10 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
             pipeline.execute();
 
             LOG.debug("Result of {} successfully exported as {}", reportExec, format);
+            return true;
         } catch (Exception e) {
             LOG.error("While exporting content", e);
+            return false;
         }
     }
 
@@ -287,6 +373,7 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
         }
 
         ReportTO deletedReport = binder.getReportTO(report);
+        report.getExecs().forEach(exec -> exportCache.evict(exec.getKey()));
         jobManager.unregister(report);
         reportDAO.delete(report);
         return deletedReport;
@@ -327,6 +414,7 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
 
         ExecTO reportExecToDelete = binder.getExecTO(reportExec);
         reportExecDAO.delete(reportExec);
+        exportCache.evict(executionKey);
         return reportExecToDelete;
     }
 
@@ -346,6 +434,7 @@ public class ReportLogic extends AbstractExecutableLogic<ReportTO> {
         reportExecDAO.findAll(report, startedBefore, startedAfter, endedBefore, endedAfter).forEach(exec -> {
             try {
                 reportExecDAO.delete(exec);
+                exportCache.evict(exec.getKey());
                 result.getResults().put(String.valueOf(exec.getKey()), BulkActionResult.Status.SUCCESS);
             } catch (Exception e) {
                 LOG.error("Error deleting execution {} of report {}", exec.getKey(), key, e);
@@ -18,11 +18,16 @@
  */
 package org.apache.syncope.core.logic;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -30,6 +35,7 @@ import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.to.TaskTO;
 import org.apache.syncope.common.lib.to.BulkActionResult;
 import org.apache.syncope.common.lib.to.ExecTO;
+import org.apache.syncope.common.lib.to.JobProgressTO;
 import org.apache.syncope.common.lib.to.JobTO;
 import org.apache.syncope.common.lib.to.PropagationTaskTO;
 import org.apache.syncope.common.lib.to.SchedTaskTO;
@@ -327,6 +333,32 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
         return Pair.of(count, result);
     }
 
+    @PreAuthorize("hasRole('" + StandardEntitlement.TASK_READ + "')")
+    @Transactional(readOnly = true)
+    public TaskExec getExecutionWithDetails(final String execKey) {
+        TaskExec taskExec = taskExecDAO.find(execKey);
+        if (taskExec == null) {
+            throw new NotFoundException("Task execution " + execKey);
+        }
+        if (!taskExecDAO.hasDetails(execKey)) {
+            throw new NotFoundException("Details for task execution " + execKey);
+        }
+        return taskExec;
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.TASK_READ + "')")
+    @Transactional(readOnly = true)
+    public void exportExecutionDetails(final OutputStream os, final TaskExec taskExec) {
+        // details are streamed from storage, never loaded in memory
+        taskExecDAO.readDetails(taskExec.getKey(), content -> {
+            try (InputStream is = new GZIPInputStream(content)) {
+                IOUtils.copy(is, os);
+            } catch (IOException e) {
+                LOG.error("While exporting task execution details", e);
+            }
+        });
+    }
+
     @PreAuthorize("hasRole('" + StandardEntitlement.TASK_LIST + "')")
     @Override
     public List<ExecTO> listRecentExecutions(final int max) {
@@ -389,17 +421,9 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
         return super.doListJobs(true);
     }
 
-    @PreAuthorize("hasRole('" + StandardEntitlement.TASK_READ + "')")
-    @Override
-    public JobTO getJob(final String key) {
-        Task task = taskDAO.find(key);
-        if (task == null) {
-            throw new NotFoundException("Task " + key);
-        }
-
-        JobTO jobTO = null;
+    private JobTO getJobTO(final Task task) {
         try {
-            jobTO = getJobTO(JobNamer.getJobKey(task), false);
+            return getJobTO(JobNamer.getJobKey(task), false);
         } catch (SchedulerException e) {
             LOG.error("Problems while retrieving scheduled job {}", JobNamer.getJobKey(task), e);
 
@@ -407,12 +431,35 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
             sce.getElements().add(e.getMessage());
             throw sce;
         }
+    }
+
+    @PreAuthorize("hasRole('" + StandardEntitlement.TASK_READ + "')")
+    @Override
+    public JobTO getJob(final String key) {
+        Task task = taskDAO.find(key);
+        if (task == null) {
+            throw new NotFoundException("Task " + key);
+        }
+
+        JobTO jobTO = getJobTO(task);
         if (jobTO == null) {
             throw new NotFoundException("Job for task " + key);
         }
         return jobTO;
     }
 
+    @PreAuthorize("hasRole('" + StandardEntitlement.TASK_READ + "')")
+    public JobProgressTO getJobProgress(final String key) {
+        Task task = taskDAO.find(key);
+        if (task == null) {
+            throw new NotFoundException("Task " + key);
+        }
+
+        // no job for the task is just like a job not running
+        JobTO jobTO = getJobTO(task);
+        return jobTO == null ? null : jobTO.getProgress();
+    }
+
     @PreAuthorize("hasRole('" + StandardEntitlement.TASK_EXECUTE + "')")
     @Override
     public void actionJob(final String key, final JobAction action) {
@@ -63,11 +63,35 @@ public class XSLTTransformer extends AbstractSAXTransformer implements CachingPi
 
     private Source source;
 
+    /**
+     * Compiles the XSLT from the given source, for sharing among several transformers.
+     *
+     * @param source the XSLT source
+     * @return compiled XSLT
+     */
+    public static Templates compile(final Source source) {
+        try {
+            return TRAX_FACTORY.newTemplates(source);
+        } catch (TransformerConfigurationException e) {
+            throw new SetupException("Impossible to read XSLT from '" + source + "', see nested exception", e);
+        }
+    }
+
     public XSLTTransformer(final Source source) {
         super();
         this.load(source, null);
     }
 
+    /**
+     * Creates a new transformer from an already compiled XSLT.
+     *
+     * @param templates the compiled XSLT, as returned by {@link #compile(javax.xml.transform.Source)}
+     */
+    public XSLTTransformer(final Templates templates) {
+        super();
+        this.templates = templates;
+    }
+
     /**
      * Creates a new transformer reading the XSLT from the Source source and setting the TransformerFactory attributes.
      *
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.report;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.PreDestroy;
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamSource;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.syncope.common.lib.types.ReportExecExportFormat;
+import org.apache.syncope.core.logic.cocoon.XSLTTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Caches what is needed to export report execution results: compiled XSLTs, shared by all exports, and rendered
+ * outputs, as local files whose total size is bounded, evicting the least recently used when needed.
+ *
+ * Rendered outputs are looked up by execution, format and digest of the XSLT used for rendering, so that they are
+ * never served after the report template has changed.
+ */
+@Component
+public class ReportExportCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportExportCache.class);
+
+    /**
+     * Max number of compiled XSLTs kept.
+     */
+    private static final int MAX_TEMPLATES = 50;
+
+    private final Map<String, Templates> templates = new LinkedHashMap<String, Templates>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = -1467268209862592364L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Templates> eldest) {
+            return size() > MAX_TEMPLATES;
+        }
+    };
+
+    private final Map<Triple<String, ReportExecExportFormat, String>, Pair<Path, Long>> rendered =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private long renderedSize;
+
+    private Path directory;
+
+    /**
+     * Computes a digest of the given XSLT, identifying it in this cache.
+     *
+     * @param xslt XSLT
+     * @return digest
+     */
+    public static String digest(final String xslt) {
+        return DigestUtils.md5DigestAsHex(xslt.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the compiled version of the given XSLT, compiling it if not available yet.
+     *
+     * @param digest XSLT digest, as returned by {@link #digest(java.lang.String)}
+     * @param xslt XSLT
+     * @return compiled XSLT
+     */
+    public Templates getTemplates(final String digest, final String xslt) {
+        synchronized (templates) {
+            Templates compiled = templates.get(digest);
+            if (compiled == null) {
+                compiled = XSLTTransformer.compile(
+                        new StreamSource(IOUtils.toInputStream(xslt, StandardCharsets.UTF_8)));
+                templates.put(digest, compiled);
+            }
+            return compiled;
+        }
+    }
+
+    /**
+     * Opens the rendered output for the given execution and format, if available.
+     *
+     * @param execKey report execution key
+     * @param format export format
+     * @param digest digest of the XSLT used for rendering
+     * @return rendered output, if available; to be closed by the caller
+     */
+    public Optional<InputStream> get(final String execKey, final ReportExecExportFormat format, final String digest) {
+        synchronized (rendered) {
+            Pair<Path, Long> file = rendered.get(Triple.of(execKey, format, digest));
+            if (file == null) {
+                return Optional.empty();
+            }
+
+            try {
+                // once opened, the file can be read even if evicted meanwhile
+                return Optional.of(Files.newInputStream(file.getLeft()));
+            } catch (IOException e) {
+                LOG.error("Could not read cached export {}, discarding", file.getLeft(), e);
+                remove(Triple.of(execKey, format, digest));
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Creates a new local file, to render into.
+     *
+     * @return new local file
+     * @throws IOException if the file could not be created
+     */
+    public Path newFile() throws IOException {
+        synchronized (rendered) {
+            if (directory == null || !Files.isDirectory(directory)) {
+                directory = Files.createTempDirectory("reportexports");
+            }
+            return Files.createTempFile(directory, "export", ".tmp");
+        }
+    }
+
+    /**
+     * Takes the given rendered output under cache control, evicting the least recently used outputs if needed; the
+     * given file is deleted straight away if larger than the cache itself.
+     *
+     * @param execKey report execution key
+     * @param format export format
+     * @param digest digest of the XSLT used for rendering
+     * @param file rendered output, as created by {@link #newFile()}
+     * @param maxSize max total size of rendered outputs, in bytes
+     */
+    public void put(
+            final String execKey,
+            final ReportExecExportFormat format,
+            final String digest,
+            final Path file,
+            final long maxSize) {
+
+        synchronized (rendered) {
+            try {
+                long size = Files.size(file);
+                if (size > maxSize) {
+                    Files.deleteIfExists(file);
+                    return;
+                }
+
+                remove(Triple.of(execKey, format, digest));
+
+                Iterator<Pair<Path, Long>> lru = rendered.values().iterator();
+                while (renderedSize + size > maxSize && lru.hasNext()) {
+                    Pair<Path, Long> evicted = lru.next();
+                    lru.remove();
+                    delete(evicted.getLeft());
+                    renderedSize -= evicted.getRight();
+                }
+
+                rendered.put(Triple.of(execKey, format, digest), Pair.of(file, size));
+                renderedSize += size;
+            } catch (IOException e) {
+                LOG.error("Could not cache export {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Discards all rendered outputs for the given execution.
+     *
+     * @param execKey report execution key
+     */
+    public void evict(final String execKey) {
+        synchronized (rendered) {
+            List<Triple<String, ReportExecExportFormat, String>> keys = new ArrayList<>();
+            rendered.keySet().stream().filter(key -> key.getLeft().equals(execKey)).forEach(keys::add);
+            keys.forEach(this::remove);
+        }
+    }
+
+    private void remove(final Triple<String, ReportExecExportFormat, String> key) {
+        Pair<Path, Long> file = rendered.remove(key);
+        if (file != null) {
+            delete(file.getLeft());
+            renderedSize -= file.getRight();
+        }
+    }
+
+    private static void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete cached export {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void clear() {
+        synchronized (rendered) {
+            rendered.values().forEach(file -> delete(file.getLeft()));
+            rendered.clear();
+            renderedSize = 0;
+        }
+    }
+}
@@ -20,10 +20,16 @@ package org.apache.syncope.core.persistence.api.content;
 
 import java.io.OutputStream;
 import javax.xml.transform.TransformerConfigurationException;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.xml.sax.SAXException;
 
 public interface ContentExporter {
 
+    /**
+     * @return format of the exported content
+     */
+    ContentExportFormat getFormat();
+
     void export(String domain, OutputStream output, String uwfPrefix, String gwfPrefix, String awfPrefix) 
             throws SAXException, TransformerConfigurationException;
 }
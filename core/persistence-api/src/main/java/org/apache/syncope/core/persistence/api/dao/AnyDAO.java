@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.api.dao;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
@@ -45,6 +46,29 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
 
     A findByPlainAttrUniqueValue(String schemaName, PlainAttrValue attrUniqueValue, boolean ignoreCaseMatch);
 
+    /**
+     * Find all string values of the given plain schema, paired with the keys of their owners, sorted by owner key;
+     * meant for building in-memory indexes in bulk rather than looking up any objects one by one.
+     * Pages are read by key rather than by offset: the next page starts after the last owner key of the previous one.
+     *
+     * @param schemaName plain schema name
+     * @param lastKey last owner key of the previous page, null for the first page
+     * @param owners maximum number of owners whose values are returned
+     * @return pairs (key, string value)
+     */
+    List<Pair<String, String>> findAllPlainAttrStringValues(String schemaName, String lastKey, int owners);
+
+    /**
+     * Find all keys paired with usernames (for users) or names (for groups and any objects), sorted by key; meant for
+     * building in-memory indexes in bulk rather than looking up any objects one by one.
+     * Pages are read by key rather than by offset: the next page starts after the last key of the previous one.
+     *
+     * @param lastKey last key of the previous page, null for the first page
+     * @param itemsPerPage items per page
+     * @return pairs (key, username or name)
+     */
+    List<Pair<String, String>> findAllNames(String lastKey, int itemsPerPage);
+
     /**
      * Find any objects by derived attribute value. This method could fail if one or more string literals contained
      * into the derived attribute value provided derive from identifier (schema name) replacement. When you are going to
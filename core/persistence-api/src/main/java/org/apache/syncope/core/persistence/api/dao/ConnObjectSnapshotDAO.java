@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.Optional;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.resource.ConnObjectSnapshot;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+
+public interface ConnObjectSnapshotDAO extends DAO<ConnObjectSnapshot> {
+
+    ConnObjectSnapshot find(String anyKey, ExternalResource resource);
+
+    /**
+     * Finds the fingerprint last pulled for the given user, group or any object from the given resource, provided
+     * that it was not changed since.
+     *
+     * @param anyTypeKind any type kind
+     * @param anyKey any key
+     * @param resource external resource
+     * @return fingerprint last pulled, if the any is unchanged since then
+     */
+    Optional<String> findPulledFingerprint(AnyTypeKind anyTypeKind, String anyKey, ExternalResource resource);
+
+    ConnObjectSnapshot save(ConnObjectSnapshot snapshot);
+
+    void delete(String anyKey, ExternalResource resource);
+
+    void deleteByAny(String anyKey);
+
+    void deleteByResource(ExternalResource resource);
+}
@@ -59,6 +59,17 @@ public interface GroupDAO extends AnyDAO<Group> {
 
     Collection<String> findAllResourceKeys(final String key);
 
+    /**
+     * Saves the given group; refreshing dynamic memberships can be skipped when saving changes which cannot affect
+     * dynamic group memberships, as owners: in such case, dynamic realm memberships shall be refreshed by the caller,
+     * once done.
+     *
+     * @param group group to be saved
+     * @param refreshDynMemberships whether dynamic memberships shall be evaluated again
+     * @return saved group
+     */
+    Group save(Group group, boolean refreshDynMemberships);
+
     void clearADynMembers(Group group);
 
     /**
@@ -18,8 +18,10 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Report;
 import org.apache.syncope.core.persistence.api.entity.ReportExec;
@@ -42,6 +44,33 @@ public interface ReportExecDAO extends DAO<ReportExec> {
 
     ReportExec save(ReportExec execution);
 
+    /**
+     * Tells whether the given execution has any result, without reading it.
+     *
+     * @param key execution key
+     * @return whether the given execution has any result
+     */
+    boolean hasExecResult(String key);
+
+    /**
+     * Stores the given content as result of the given execution, streaming it rather than holding it in memory.
+     *
+     * @param key execution key
+     * @param content result content
+     * @param length result length, in bytes
+     */
+    void saveExecResult(String key, InputStream content, long length);
+
+    /**
+     * Reads the result of the given execution as a stream, rather than loading it in memory; the stream is only
+     * available while the given reader runs.
+     *
+     * @param key execution key
+     * @param reader result reader
+     * @return whether any result was found
+     */
+    boolean readExecResult(String key, Consumer<InputStream> reader);
+
     void delete(String key);
 
     void delete(ReportExec execution);
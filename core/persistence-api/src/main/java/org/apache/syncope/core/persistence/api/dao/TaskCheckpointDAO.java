@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.Map;
+import org.apache.syncope.core.persistence.api.entity.task.TaskCheckpoint;
+
+public interface TaskCheckpointDAO extends DAO<TaskCheckpoint> {
+
+    /**
+     * @param taskKey task key
+     * @return checkpoints of the given task, by scope
+     */
+    Map<String, String> findAll(String taskKey);
+
+    /**
+     * Saves the given checkpoint in the caller's transaction, if any, so that it is committed together with the
+     * work it covers.
+     *
+     * @param taskKey task key
+     * @param scope object class or any type
+     * @param checkpoint checkpoint
+     */
+    void save(String taskKey, String scope, String checkpoint);
+
+    /**
+     * Saves the given checkpoint independently from any ongoing transaction, so that it survives should the
+     * task execution fail; meant for work which is itself committed independently from the task execution.
+     *
+     * @param taskKey task key
+     * @param scope object class or any type
+     * @param checkpoint checkpoint
+     */
+    void commit(String taskKey, String scope, String checkpoint);
+
+    void delete(String taskKey, String scope);
+
+    void delete(String taskKey);
+
+    /**
+     * Deletes the checkpoint for the given scope independently from any ongoing transaction; counterpart of
+     * {@link #commit(java.lang.String, java.lang.String, java.lang.String)}.
+     *
+     * @param taskKey task key
+     * @param scope object class or any type
+     */
+    void discard(String taskKey, String scope);
+
+    /**
+     * Deletes all checkpoints of the given task independently from any ongoing transaction; counterpart of
+     * {@link #commit(java.lang.String, java.lang.String, java.lang.String)}.
+     *
+     * @param taskKey task key
+     */
+    void discard(String taskKey);
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Collection;
 import java.util.List;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -67,6 +68,13 @@ public interface TaskDAO extends DAO<Task> {
 
     <T extends Task> T save(T task);
 
+    /**
+     * Save all given tasks within the same transaction, then flush.
+     *
+     * @param tasks tasks to save
+     */
+    void saveAll(Collection<? extends Task> tasks);
+
     void delete(String key);
 
     void delete(Task task);
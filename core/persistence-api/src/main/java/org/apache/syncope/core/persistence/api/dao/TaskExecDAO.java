@@ -18,8 +18,10 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
@@ -43,7 +45,34 @@ public interface TaskExecDAO extends DAO<TaskExec> {
 
     TaskExec save(TaskExec execution);
 
-    void saveAndAdd(String taskKey, TaskExec execution);
+    TaskExec saveAndAdd(String taskKey, TaskExec execution);
+
+    /**
+     * Tells whether the given execution has any details, without reading them.
+     *
+     * @param key execution key
+     * @return whether the given execution has any details
+     */
+    boolean hasDetails(String key);
+
+    /**
+     * Stores the given content as details of the given execution, streaming it rather than holding it in memory.
+     *
+     * @param key execution key
+     * @param content details content
+     * @param length details length, in bytes
+     */
+    void saveDetails(String key, InputStream content, long length);
+
+    /**
+     * Reads the details of the given execution as a stream, rather than loading them in memory; the stream is only
+     * available while the given reader runs.
+     *
+     * @param key execution key
+     * @param reader details reader
+     * @return whether any details were found
+     */
+    boolean readDetails(String key, Consumer<InputStream> reader);
 
     void delete(String key);
 
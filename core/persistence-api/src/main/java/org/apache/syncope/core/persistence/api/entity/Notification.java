@@ -66,6 +66,14 @@ public interface Notification extends Entity {
 
     void setTraceLevel(TraceLevel traceLevel);
 
+    /**
+     * @return minutes during which events for the same recipients are collected into a single notification task;
+     * {@code null} or 0 to create one task per event
+     */
+    Integer getDigestWindow();
+
+    void setDigestWindow(Integer digestWindow);
+
     boolean isActive();
 
     void setActive(boolean active);
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.entity;
+
+import java.util.Date;
+import java.util.Set;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+
+/**
+ * Event collected for a notification in digest mode: it is sent to each of its recipients along with the other events
+ * collected for the same notification and recipient, once the digest is complete.
+ */
+public interface NotificationDigestEvent extends Entity {
+
+    Notification getNotification();
+
+    void setNotification(Notification notification);
+
+    AnyTypeKind getAnyTypeKind();
+
+    void setAnyTypeKind(AnyTypeKind anyTypeKind);
+
+    String getEntityKey();
+
+    void setEntityKey(String entityKey);
+
+    /**
+     * @return recipients whose digest was not sent yet
+     */
+    Set<String> getRecipients();
+
+    /**
+     * @return serialized event model, as available to mail templates
+     */
+    String getModel();
+
+    void setModel(String model);
+
+    Date getCollected();
+
+    void setCollected(Date collected);
+}
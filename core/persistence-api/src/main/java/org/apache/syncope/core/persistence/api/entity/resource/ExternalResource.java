@@ -98,6 +98,10 @@ public interface ExternalResource extends ProvidedKeyEntity {
 
     void setRandomPwdIfNotProvided(boolean condition);
 
+    boolean isTrustLocalState();
+
+    void setTrustLocalState(boolean trustLocalState);
+
     boolean add(Provision provision);
 
     Optional<? extends Provision> getProvision(String anyType);
@@ -49,4 +49,20 @@ public interface PullTask extends ProvisioningTask {
 
     boolean isRemediation();
 
+    int getConcurrentThreads();
+
+    void setConcurrentThreads(int concurrentThreads);
+
+    int getPageSize();
+
+    void setPageSize(int pageSize);
+
+    String getSortAttribute();
+
+    void setSortAttribute(String sortAttribute);
+
+    boolean isPrefetch();
+
+    void setPrefetch(boolean prefetch);
+
 }
@@ -34,4 +34,8 @@ public interface PushTask extends ProvisioningTask {
     Optional<? extends PushTaskAnyFilter> getFilter(AnyType anyType);
 
     List<? extends PushTaskAnyFilter> getFilters();
+
+    int getConcurrentThreads();
+
+    void setConcurrentThreads(int concurrentThreads);
 }
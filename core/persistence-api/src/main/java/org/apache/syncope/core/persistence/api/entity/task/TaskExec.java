@@ -25,4 +25,11 @@ public interface TaskExec extends Exec {
     Task getTask();
 
     void setTask(Task task);
+
+    /**
+     * @return GZIP-compressed, line-oriented details about the objects processed by this execution, if any
+     */
+    byte[] getDetails();
+
+    void setDetails(byte[] details);
 }
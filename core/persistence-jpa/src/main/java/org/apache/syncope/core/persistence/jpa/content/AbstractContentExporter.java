@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.content;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.persistence.api.content.ContentExporter;
+import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAccessToken;
+import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
+import org.apache.syncope.core.persistence.jpa.entity.JPAReportExec;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAMembership;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAARelationship;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUMembership;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrValue;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAURelationship;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * Common logic for exporting internal storage content: which tables and columns are exported, in which order, and
+ * how their rows are read.
+ */
+public abstract class AbstractContentExporter extends AbstractContentDealer implements ContentExporter {
+
+    /**
+     * Handles the current row of a result set.
+     */
+    @FunctionalInterface
+    protected interface RowHandler {
+
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+
+    protected static final Set<String> TABLE_PREFIXES_TO_BE_EXCLUDED = new HashSet<>(Arrays.asList(new String[] {
+        "QRTZ_", "LOGGING", JPAReportExec.TABLE, JPATaskExec.TABLE,
+        JPAUser.TABLE, JPAUPlainAttr.TABLE, JPAUPlainAttrValue.TABLE, JPAUPlainAttrUniqueValue.TABLE,
+        JPAURelationship.TABLE, JPAUMembership.TABLE,
+        JPAAnyObject.TABLE, JPAAPlainAttr.TABLE, JPAAPlainAttrValue.TABLE, JPAAPlainAttrUniqueValue.TABLE,
+        JPAARelationship.TABLE, JPAAMembership.TABLE, JPAAccessToken.TABLE
+    }));
+
+    protected static final Map<String, String> TABLES_TO_BE_FILTERED =
+            Collections.singletonMap("TASK", "DTYPE <> 'PropagationTask'");
+
+    protected static final Map<String, Set<String>> COLUMNS_TO_BE_NULLIFIED =
+            Collections.singletonMap("SYNCOPEGROUP", Collections.singleton("USEROWNER_ID"));
+
+    @Autowired
+    private RealmDAO realmDAO;
+
+    @Value("${content.export.fetchSize:1000}")
+    private int fetchSize;
+
+    private boolean isTableAllowed(final Set<String> tablePrefixesToBeExcluded, final String tableName) {
+        return tablePrefixesToBeExcluded.stream().
+                allMatch(prefix -> !tableName.toUpperCase().startsWith(prefix.toUpperCase()));
+    }
+
+    private List<String> sortByForeignKeys(final String dbSchema, final Connection conn, final Set<String> tableNames)
+            throws SQLException {
+
+        Set<MultiParentNode<String>> roots = new HashSet<>();
+
+        DatabaseMetaData meta = conn.getMetaData();
+
+        Map<String, MultiParentNode<String>> exploited = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> pkTableNames = new HashSet<>();
+
+        for (String tableName : tableNames) {
+            MultiParentNode<String> node = exploited.get(tableName);
+            if (node == null) {
+                node = new MultiParentNode<>(tableName);
+                roots.add(node);
+                exploited.put(tableName, node);
+            }
+
+            pkTableNames.clear();
+
+            ResultSet rs = null;
+            try {
+                rs = meta.getImportedKeys(conn.getCatalog(), dbSchema, tableName);
+
+                // this is to avoid repetition
+                while (rs.next()) {
+                    pkTableNames.add(rs.getString("PKTABLE_NAME"));
+                }
+            } finally {
+                if (rs != null) {
+                    try {
+                        rs.close();
+                    } catch (SQLException e) {
+                        LOG.error("While closing tables result set", e);
+                    }
+                }
+            }
+
+            for (String pkTableName : pkTableNames) {
+                if (!tableName.equalsIgnoreCase(pkTableName)) {
+                    MultiParentNode<String> pkNode = exploited.get(pkTableName);
+                    if (pkNode == null) {
+                        pkNode = new MultiParentNode<>(pkTableName);
+                        roots.add(pkNode);
+                        exploited.put(pkTableName, pkNode);
+                    }
+
+                    pkNode.addChild(node);
+
+                    if (roots.contains(node)) {
+                        roots.remove(node);
+                    }
+                }
+            }
+        }
+
+        List<String> sortedTableNames = new ArrayList<>(tableNames.size());
+        MultiParentNodeOp.traverseTree(roots, sortedTableNames);
+
+        // remove from sortedTableNames any table possibly added during lookup 
+        // but matching some item in this.tablePrefixesToBeExcluded
+        sortedTableNames.retainAll(tableNames);
+
+        LOG.debug("Tables after retainAll {}", sortedTableNames);
+
+        Collections.reverse(sortedTableNames);
+
+        return sortedTableNames;
+    }
+
+    private String getOrderBy(final Connection conn, final String tableName) throws SQLException {
+        StringBuilder orderBy = new StringBuilder();
+
+        // retrieve primary keys to perform an ordered select
+        try (ResultSet pkeyRS = conn.getMetaData().getPrimaryKeys(null, null, tableName)) {
+            while (pkeyRS.next()) {
+                String columnName = pkeyRS.getString("COLUMN_NAME");
+                if (columnName != null) {
+                    if (orderBy.length() > 0) {
+                        orderBy.append(",");
+                    }
+
+                    orderBy.append(columnName);
+                }
+            }
+        }
+
+        return orderBy.toString();
+    }
+
+    protected DataSource getDataSource(final String domain) {
+        DataSource dataSource = domainsHolder.getDomains().get(domain);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Could not find DataSource for domain " + domain);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Returns the tables to be exported for the given domain, sorted so that referenced tables come first.
+     *
+     * @param domain domain
+     * @param dataSource domain data source
+     * @param uwfPrefix prefix of user workflow tables, to be excluded
+     * @param gwfPrefix prefix of group workflow tables, to be excluded
+     * @param awfPrefix prefix of any object workflow tables, to be excluded
+     * @return tables to be exported
+     */
+    protected List<String> getTableNames(
+            final String domain,
+            final DataSource dataSource,
+            final String uwfPrefix,
+            final String gwfPrefix,
+            final String awfPrefix) {
+
+        Set<String> tablePrefixesToBeExcluded = new HashSet<>(TABLE_PREFIXES_TO_BE_EXCLUDED);
+        if (StringUtils.isNotBlank(uwfPrefix)) {
+            tablePrefixesToBeExcluded.add(uwfPrefix);
+        }
+        if (StringUtils.isNotBlank(gwfPrefix)) {
+            tablePrefixesToBeExcluded.add(gwfPrefix);
+        }
+        if (StringUtils.isNotBlank(awfPrefix)) {
+            tablePrefixesToBeExcluded.add(awfPrefix);
+        }
+
+        String schema = ApplicationContextProvider.getBeanFactory().getBean(domain + "DatabaseSchema", String.class);
+
+        List<String> sortedTableNames = Collections.emptyList();
+        Connection conn = null;
+        try {
+            conn = DataSourceUtils.getConnection(dataSource);
+
+            Set<String> tableNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            try (ResultSet rs = conn.getMetaData().getTables(
+                    null, StringUtils.isBlank(schema) ? null : schema, null, new String[] { "TABLE" })) {
+
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    LOG.debug("Found table {}", tableName);
+                    if (isTableAllowed(tablePrefixesToBeExcluded, tableName)) {
+                        tableNames.add(tableName);
+                    }
+                }
+            }
+
+            LOG.debug("Tables to be exported {}", tableNames);
+
+            // then sort tables based on foreign keys
+            sortedTableNames = sortByForeignKeys(schema, conn, tableNames);
+        } catch (SQLException e) {
+            LOG.error("While exporting database content", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+
+        return sortedTableNames;
+    }
+
+    /**
+     * Realms are to be exported parent-first; to be invoked by threads bound to the domain being exported.
+     *
+     * @return realm keys, parent-first
+     */
+    protected List<String> getRealmKeys() {
+        return realmDAO.findAll().stream().map(Realm::getKey).collect(Collectors.toList());
+    }
+
+    protected boolean isNullified(final String tableName, final String columnName) {
+        return COLUMNS_TO_BE_NULLIFIED.containsKey(tableName)
+                && COLUMNS_TO_BE_NULLIFIED.get(tableName).contains(columnName);
+    }
+
+    protected boolean isRealmTable(final String tableName) {
+        return tableName.equalsIgnoreCase(JPARealm.TABLE);
+    }
+
+    /**
+     * Reads the rows to be exported from the given table, ordered by primary key, through a cursor on a connection
+     * of its own.
+     *
+     * @param dataSource data source
+     * @param tableName table name
+     * @param handler invoked for each row
+     * @throws SQLException if table could not be read
+     * @throws IOException if rows could not be handled
+     */
+    protected void readTable(final DataSource dataSource, final String tableName, final RowHandler handler)
+            throws SQLException, IOException {
+
+        LOG.debug("Export table {}", tableName);
+
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            String orderBy = getOrderBy(conn, tableName);
+            String whereClause = TABLES_TO_BE_FILTERED.get(tableName.toUpperCase());
+
+            StringBuilder query = new StringBuilder();
+            query.append("SELECT * FROM ").append(tableName).append(" a");
+            if (StringUtils.isNotBlank(whereClause)) {
+                query.append(" WHERE ").append(whereClause);
+            }
+            if (orderBy.length() > 0) {
+                query.append(" ORDER BY ").append(orderBy);
+            }
+
+            // some drivers only honor fetch size, rather than reading the whole result, outside auto-commit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    query.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                stmt.setFetchSize(fetchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                    }
+                }
+            }
+        } finally {
+            try {
+                conn.rollback();
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                LOG.error("While restoring connection", e);
+            }
+            DataSourceUtils.releaseConnection(conn, dataSource);
+        }
+    }
+}
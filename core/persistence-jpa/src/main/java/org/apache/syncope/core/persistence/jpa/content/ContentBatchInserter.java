@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.content;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inserts rows via JDBC batches: consecutive rows for the same INSERT statement are sent together, up to the given
+ * batch size, so that each statement is prepared once per batch.
+ */
+public class ContentBatchInserter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContentBatchInserter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate txTemplate;
+
+    private final boolean continueOnError;
+
+    private final int batchSize;
+
+    private String batchQuery;
+
+    private final List<Object[]> batch = new ArrayList<>();
+
+    public ContentBatchInserter(final DataSource dataSource, final boolean continueOnError, final int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.continueOnError = continueOnError;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Builds the INSERT statement for the given table and columns.
+     *
+     * @param tableName table name
+     * @param columnNames column names
+     * @return INSERT statement, with one parameter for each column
+     */
+    public static String query(final String tableName, final List<String> columnNames) {
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(tableName).append('(');
+
+        StringBuilder values = new StringBuilder();
+
+        for (int i = 0; i < columnNames.size(); i++) {
+            query.append(columnNames.get(i));
+            values.append('?');
+            if (i < columnNames.size() - 1) {
+                query.append(',');
+                values.append(',');
+            }
+        }
+        query.append(") VALUES (").append(values).append(')');
+
+        return query.toString();
+    }
+
+    /**
+     * Adds a row to be inserted; pending rows are inserted first if for a different statement.
+     *
+     * @param query INSERT statement
+     * @param parameters statement parameters
+     */
+    public void add(final String query, final Object[] parameters) {
+        if (!query.equals(batchQuery)) {
+            flush();
+            batchQuery = query;
+        }
+        batch.add(parameters);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void update(final Object[] parameters) {
+        try {
+            jdbcTemplate.update(batchQuery, parameters);
+        } catch (DataAccessException e) {
+            LOG.error("While trying to perform {} with params {}", batchQuery, parameters, e);
+            if (!continueOnError) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Inserts the pending rows as a single batch, within its own transaction; should the batch fail, it is rolled back
+     * and rows are inserted one by one, so that the failing ones can be reported and, if allowed, skipped.
+     */
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        if (batch.size() == 1) {
+            update(batch.get(0));
+        } else {
+            try {
+                txTemplate.execute(status -> jdbcTemplate.batchUpdate(batchQuery, batch));
+            } catch (DataAccessException e) {
+                LOG.debug("Batch {} failed, inserting {} rows one by one", batchQuery, batch.size(), e);
+                batch.forEach(this::update);
+            }
+        }
+        batch.clear();
+    }
+}
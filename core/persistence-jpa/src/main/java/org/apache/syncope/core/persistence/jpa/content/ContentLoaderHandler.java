@@ -21,14 +21,15 @@ package org.apache.syncope.core.persistence.jpa.content;
 import java.sql.ResultSet;
 import java.sql.Types;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.sql.DataSource;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -36,6 +37,9 @@ import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * SAX handler for generating SQL INSERT statements out of given XML file.
+ *
+ * Consecutive elements for the same table and columns are inserted via JDBC batches of the given size, see
+ * {@link ContentBatchInserter}; column types are read once per table.
  */
 public class ContentLoaderHandler extends DefaultHandler {
 
@@ -43,27 +47,41 @@ public class ContentLoaderHandler extends DefaultHandler {
 
     private final JdbcTemplate jdbcTemplate;
 
+    private final ContentBatchInserter inserter;
+
     private final String rootElement;
 
-    private final boolean continueOnError;
+    private final Map<String, Map<String, Integer>> columnTypes = new HashMap<>();
 
     public ContentLoaderHandler(final DataSource dataSource, final String rootElement, final boolean continueOnError) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this(dataSource, rootElement, continueOnError, ContentBatchInserter.DEFAULT_BATCH_SIZE);
+    }
+
+    public ContentLoaderHandler(
+            final DataSource dataSource,
+            final String rootElement,
+            final boolean continueOnError,
+            final int batchSize) {
+
+        this.inserter = new ContentBatchInserter(dataSource, continueOnError, batchSize);
+        this.jdbcTemplate = inserter.getJdbcTemplate();
         this.rootElement = rootElement;
-        this.continueOnError = continueOnError;
     }
 
-    private Object[] getParameters(final String tableName, final Attributes attrs) {
-        Map<String, Integer> colTypes = jdbcTemplate.query(
+    private Map<String, Integer> getColTypes(final String tableName) {
+        return columnTypes.computeIfAbsent(tableName.toUpperCase(), table -> jdbcTemplate.query(
                 "SELECT * FROM " + tableName + " WHERE 0=1", (final ResultSet rs) -> {
-                    Map<String, Integer> colTypes1 = new HashMap<>();
-                    for (int i = 1; i <= rs.getMetaData().getColumnCount();
-                    i++) {
-                        colTypes1.
-                                put(rs.getMetaData().getColumnName(i).toUpperCase(), rs.getMetaData().getColumnType(i));
+                    Map<String, Integer> tableColTypes = new HashMap<>();
+                    for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                        tableColTypes.put(
+                                rs.getMetaData().getColumnName(i).toUpperCase(), rs.getMetaData().getColumnType(i));
                     }
-                    return colTypes1;
-                });
+                    return tableColTypes;
+                }));
+    }
+
+    private Object[] getParameters(final String tableName, final Attributes attrs) {
+        Map<String, Integer> colTypes = getColTypes(tableName);
 
         Object[] parameters = new Object[attrs.getLength()];
         for (int i = 0; i < attrs.getLength(); i++) {
@@ -169,27 +187,16 @@ public class ContentLoaderHandler extends DefaultHandler {
             return;
         }
 
-        StringBuilder query = new StringBuilder("INSERT INTO ").append(qName).append('(');
-
-        StringBuilder values = new StringBuilder();
-
+        List<String> columnNames = new ArrayList<>(atts.getLength());
         for (int i = 0; i < atts.getLength(); i++) {
-            query.append(atts.getQName(i));
-            values.append('?');
-            if (i < atts.getLength() - 1) {
-                query.append(',');
-                values.append(',');
-            }
-        }
-        query.append(") VALUES (").append(values).append(')');
-
-        try {
-            jdbcTemplate.update(query.toString(), getParameters(qName, atts));
-        } catch (DataAccessException e) {
-            LOG.error("While trying to perform {} with params {}", query, getParameters(qName, atts), e);
-            if (!continueOnError) {
-                throw e;
-            }
+            columnNames.add(atts.getQName(i));
         }
+
+        inserter.add(ContentBatchInserter.query(qName, columnNames), getParameters(qName, atts));
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        inserter.flush();
     }
 }
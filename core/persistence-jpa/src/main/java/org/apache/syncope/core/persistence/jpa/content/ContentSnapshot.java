@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.content;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Binary format for internal storage content, more compact and faster to read than XML.
+ *
+ * A snapshot is a GZIP stream made of a header ({@link #MAGIC} and {@link #VERSION}) followed by tables, in foreign
+ * key order; each table starts with its name and column schema (name and SQL type of each column) and is followed by
+ * its rows, each made of one typed value per column. Tables and rows are preceded by {@link #MORE} and terminated by
+ * {@link #END}.
+ */
+public final class ContentSnapshot {
+
+    public static final String MAGIC = "SYNCOPE-SNAPSHOT";
+
+    public static final int VERSION = 2;
+
+    public static final byte MORE = 1;
+
+    public static final byte END = 0;
+
+    private enum Kind {
+        BOOLEAN,
+        INT,
+        LONG,
+        DECIMAL,
+        DOUBLE,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        BYTES,
+        STRING
+    }
+
+    private static Kind kind(final int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return Kind.BOOLEAN;
+
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return Kind.INT;
+
+            case Types.BIGINT:
+                return Kind.LONG;
+
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return Kind.DECIMAL;
+
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Kind.DOUBLE;
+
+            case Types.DATE:
+                return Kind.DATE;
+
+            case Types.TIME:
+                return Kind.TIME;
+
+            case Types.TIMESTAMP:
+                return Kind.TIMESTAMP;
+
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return Kind.BYTES;
+
+            default:
+                return Kind.STRING;
+        }
+    }
+
+    public static void writeHeader(final DataOutputStream out) throws IOException {
+        out.writeUTF(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public static void readHeader(final DataInputStream in) throws IOException {
+        if (!MAGIC.equals(in.readUTF())) {
+            throw new IOException("Not a content snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported content snapshot version: " + version);
+        }
+    }
+
+    /**
+     * Reads the value of the given column from the current row, as to be written by
+     * {@link #write(java.io.DataOutputStream, int, java.lang.Object)}.
+     *
+     * @param rs result set
+     * @param column column index, starting from 1
+     * @param sqlType column SQL type
+     * @return value, or null
+     * @throws SQLException if value could not be read
+     * @throws IOException if binary value could not be read
+     */
+    public static Object read(final ResultSet rs, final int column, final int sqlType)
+            throws SQLException, IOException {
+
+        Object value;
+        switch (kind(sqlType)) {
+            case BOOLEAN:
+                value = rs.getBoolean(column);
+                break;
+
+            case INT:
+                value = rs.getInt(column);
+                break;
+
+            case LONG:
+                value = rs.getLong(column);
+                break;
+
+            case DECIMAL:
+                value = rs.getBigDecimal(column);
+                break;
+
+            case DOUBLE:
+                value = rs.getDouble(column);
+                break;
+
+            case DATE:
+                value = rs.getDate(column);
+                break;
+
+            case TIME:
+                value = rs.getTime(column);
+                break;
+
+            case TIMESTAMP:
+                value = rs.getTimestamp(column);
+                break;
+
+            case BYTES:
+                if (sqlType == Types.BLOB) {
+                    Blob blob = rs.getBlob(column);
+                    value = blob == null ? null : IOUtils.toByteArray(blob.getBinaryStream());
+                } else {
+                    value = rs.getBytes(column);
+                }
+                break;
+
+            case STRING:
+            default:
+                value = rs.getString(column);
+        }
+
+        return rs.wasNull() ? null : value;
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes a value, as a null flag followed, if not null, by its typed representation.
+     *
+     * @param out output
+     * @param sqlType column SQL type
+     * @param value value, as returned by {@link #read(java.sql.ResultSet, int, int)}
+     * @throws IOException if value could not be written
+     */
+    public static void write(final DataOutputStream out, final int sqlType, final Object value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+
+        switch (kind(sqlType)) {
+            case BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+
+            case INT:
+                out.writeInt((Integer) value);
+                break;
+
+            case LONG:
+                out.writeLong((Long) value);
+                break;
+
+            case DECIMAL:
+                writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+                break;
+
+            case DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+
+            case DATE:
+            case TIME:
+            case TIMESTAMP:
+                // JDBC escape format, as local dates and times are not bound to any time zone; keeps nanoseconds
+                out.writeUTF(value.toString());
+                break;
+
+            case BYTES:
+                writeBytes(out, (byte[]) value);
+                break;
+
+            case STRING:
+            default:
+                writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #write(java.io.DataOutputStream, int, java.lang.Object)}.
+     *
+     * @param in input
+     * @param sqlType column SQL type
+     * @return value, or null
+     * @throws IOException if value could not be read
+     */
+    public static Object read(final DataInputStream in, final int sqlType) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        switch (kind(sqlType)) {
+            case BOOLEAN:
+                return in.readBoolean();
+
+            case INT:
+                return in.readInt();
+
+            case LONG:
+                return in.readLong();
+
+            case DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8));
+
+            case DOUBLE:
+                return in.readDouble();
+
+            case DATE:
+                return Date.valueOf(in.readUTF());
+
+            case TIME:
+                return Time.valueOf(in.readUTF());
+
+            case TIMESTAMP:
+                return Timestamp.valueOf(in.readUTF());
+
+            case BYTES:
+                return readBytes(in);
+
+            case STRING:
+            default:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Private default constructor, for static-only classes.
+     */
+    private ContentSnapshot() {
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.content;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import javax.sql.DataSource;
+
+/**
+ * Loads binary snapshots, as produced by {@link SnapshotContentExporter}, via JDBC batches.
+ */
+public class ContentSnapshotLoader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ContentBatchInserter inserter;
+
+    public ContentSnapshotLoader(final DataSource dataSource, final boolean continueOnError, final int batchSize) {
+        this.inserter = new ContentBatchInserter(dataSource, continueOnError, batchSize);
+    }
+
+    /**
+     * Inserts all rows from the given snapshot.
+     *
+     * @param is snapshot
+     * @return number of rows read
+     * @throws IOException if snapshot could not be read
+     */
+    public int load(final InputStream is) throws IOException {
+        int rows = 0;
+
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(is, BUFFER_SIZE), BUFFER_SIZE));
+        ContentSnapshot.readHeader(in);
+        while (in.readByte() == ContentSnapshot.MORE) {
+            String tableName = in.readUTF();
+
+            int columnCount = in.readInt();
+            List<String> columnNames = new ArrayList<>(columnCount);
+            int[] columnTypes = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnNames.add(in.readUTF());
+                columnTypes[i] = in.readInt();
+            }
+            String query = ContentBatchInserter.query(tableName, columnNames);
+
+            while (in.readByte() == ContentSnapshot.MORE) {
+                Object[] parameters = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    parameters[i] = ContentSnapshot.read(in, columnTypes[i]);
+                }
+                inserter.add(query, parameters);
+                rows++;
+            }
+        }
+        inserter.flush();
+
+        return rows;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.content;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+import javax.xml.transform.TransformerConfigurationException;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+/**
+ * Export internal storage content as binary snapshot, see {@link ContentSnapshot}; such snapshots can be loaded by
+ * {@link XMLContentLoader} in place of XML content, to quickly clone a domain.
+ */
+@Component
+public class SnapshotContentExporter extends AbstractContentExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public ContentExportFormat getFormat() {
+        return ContentExportFormat.SNAPSHOT;
+    }
+
+    private void exportTable(
+            final DataOutputStream out,
+            final DataSource dataSource,
+            final String tableName,
+            final List<String> realmKeys) throws SQLException, IOException {
+
+        Map<String, Object[]> realmRows = new HashMap<>();
+        int[][] columnTypes = new int[1][];
+        String[][] columnNames = new String[1][];
+        try {
+            readTable(dataSource, tableName, rs -> {
+                if (columnTypes[0] == null) {
+                    ResultSetMetaData rsMeta = rs.getMetaData();
+                    columnTypes[0] = new int[rsMeta.getColumnCount()];
+                    columnNames[0] = new String[rsMeta.getColumnCount()];
+                    for (int i = 0; i < rsMeta.getColumnCount(); i++) {
+                        columnNames[0][i] = rsMeta.getColumnName(i + 1);
+                        columnTypes[0][i] = rsMeta.getColumnType(i + 1);
+                    }
+                    writeSchema(out, tableName, columnNames[0], columnTypes[0]);
+                }
+
+                Object[] row = new Object[columnTypes[0].length];
+                for (int i = 0; i < row.length; i++) {
+                    if (!isNullified(tableName, columnNames[0][i])) {
+                        row[i] = ContentSnapshot.read(rs, i + 1, columnTypes[0][i]);
+                    }
+                }
+
+                if (isRealmTable(tableName)) {
+                    for (int i = 0; i < row.length; i++) {
+                        if ("ID".equalsIgnoreCase(columnNames[0][i])) {
+                            realmRows.put(String.valueOf(row[i]), row);
+                        }
+                    }
+                } else {
+                    writeRow(out, columnTypes[0], row);
+                }
+            });
+
+            for (String realmKey : realmKeys) {
+                Object[] row = realmRows.get(realmKey);
+                if (row != null) {
+                    writeRow(out, columnTypes[0], row);
+                }
+            }
+        } finally {
+            // empty tables are not exported at all; otherwise the table is always terminated, to keep output readable
+            if (columnTypes[0] != null) {
+                out.writeByte(ContentSnapshot.END);
+            }
+        }
+    }
+
+    private static void writeSchema(
+            final DataOutputStream out,
+            final String tableName,
+            final String[] columnNames,
+            final int[] columnTypes) throws IOException {
+
+        out.writeByte(ContentSnapshot.MORE);
+        out.writeUTF(tableName);
+        out.writeInt(columnNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            out.writeUTF(columnNames[i]);
+            out.writeInt(columnTypes[i]);
+        }
+    }
+
+    private static void writeRow(final DataOutputStream out, final int[] columnTypes, final Object[] row)
+            throws IOException {
+
+        out.writeByte(ContentSnapshot.MORE);
+        for (int i = 0; i < row.length; i++) {
+            ContentSnapshot.write(out, columnTypes[i], row[i]);
+        }
+    }
+
+    /**
+     * Exports the given domain; tables are read one at a time, in foreign key order, and streamed to the given stream.
+     */
+    @Override
+    public void export(
+            final String domain,
+            final OutputStream os,
+            final String uwfPrefix,
+            final String gwfPrefix,
+            final String awfPrefix)
+            throws SAXException, TransformerConfigurationException {
+
+        DataSource dataSource = getDataSource(domain);
+        List<String> sortedTableNames = getTableNames(domain, dataSource, uwfPrefix, gwfPrefix, awfPrefix);
+        List<String> realmKeys = getRealmKeys();
+
+        try {
+            // not closed, since the given stream is not to be closed here
+            GZIPOutputStream gzip = new GZIPOutputStream(os, BUFFER_SIZE);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+            ContentSnapshot.writeHeader(out);
+            for (String tableName : sortedTableNames) {
+                try {
+                    exportTable(out, dataSource, tableName, realmKeys);
+                } catch (SQLException e) {
+                    LOG.error("Failure exporting table {}", tableName, e);
+                }
+            }
+            out.writeByte(ContentSnapshot.END);
+            out.flush();
+            gzip.finish();
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+}
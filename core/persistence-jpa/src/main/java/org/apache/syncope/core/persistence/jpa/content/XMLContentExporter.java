@@ -21,160 +21,56 @@ package org.apache.syncope.core.persistence.jpa.content;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Blob;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Resource;
 import javax.sql.DataSource;
 import javax.xml.bind.DatatypeConverter;
-import javax.xml.XMLConstants;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
-import javax.xml.transform.stream.StreamResult;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
-import org.apache.syncope.core.spring.ApplicationContextProvider;
-import org.apache.syncope.core.persistence.api.content.ContentExporter;
-import org.apache.syncope.core.persistence.api.dao.RealmDAO;
-import org.apache.syncope.core.persistence.jpa.entity.JPAAccessToken;
-import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
-import org.apache.syncope.core.persistence.jpa.entity.JPAReportExec;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAMembership;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttr;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrUniqueValue;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAPlainAttrValue;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAARelationship;
-import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
-import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAUMembership;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttr;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrUniqueValue;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAUPlainAttrValue;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAURelationship;
-import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.apache.syncope.core.spring.BoundedExecutorService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.xml.sax.SAXException;
-import org.xml.sax.helpers.AttributesImpl;
 
 /**
  * Export internal storage content as XML.
  */
 @Component
-public class XMLContentExporter extends AbstractContentDealer implements ContentExporter {
+@Primary
+public class XMLContentExporter extends AbstractContentExporter {
 
-    protected static final Set<String> TABLE_PREFIXES_TO_BE_EXCLUDED = new HashSet<>(Arrays.asList(new String[] {
-        "QRTZ_", "LOGGING", JPAReportExec.TABLE, JPATaskExec.TABLE,
-        JPAUser.TABLE, JPAUPlainAttr.TABLE, JPAUPlainAttrValue.TABLE, JPAUPlainAttrUniqueValue.TABLE,
-        JPAURelationship.TABLE, JPAUMembership.TABLE,
-        JPAAnyObject.TABLE, JPAAPlainAttr.TABLE, JPAAPlainAttrValue.TABLE, JPAAPlainAttrUniqueValue.TABLE,
-        JPAARelationship.TABLE, JPAAMembership.TABLE, JPAAccessToken.TABLE
-    }));
+    @Value("${content.export.concurrentThreads:2}")
+    private int concurrentThreads;
 
-    protected static final Map<String, String> TABLES_TO_BE_FILTERED =
-            Collections.singletonMap("TASK", "DTYPE <> 'PropagationTask'");
+    @Resource(name = "batchExecutor")
+    private ThreadPoolTaskExecutor batchExecutor;
 
-    protected static final Map<String, Set<String>> COLUMNS_TO_BE_NULLIFIED =
-            Collections.singletonMap("SYNCOPEGROUP", Collections.singleton("USEROWNER_ID"));
-
-    @Autowired
-    private RealmDAO realmDAO;
-
-    private boolean isTableAllowed(final String tableName) {
-        return TABLE_PREFIXES_TO_BE_EXCLUDED.stream().
-                allMatch(prefix -> !tableName.toUpperCase().startsWith(prefix.toUpperCase()));
-    }
-
-    private List<String> sortByForeignKeys(final String dbSchema, final Connection conn, final Set<String> tableNames)
-            throws SQLException {
-
-        Set<MultiParentNode<String>> roots = new HashSet<>();
-
-        DatabaseMetaData meta = conn.getMetaData();
-
-        Map<String, MultiParentNode<String>> exploited = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        Set<String> pkTableNames = new HashSet<>();
-
-        for (String tableName : tableNames) {
-            MultiParentNode<String> node = exploited.get(tableName);
-            if (node == null) {
-                node = new MultiParentNode<>(tableName);
-                roots.add(node);
-                exploited.put(tableName, node);
-            }
-
-            pkTableNames.clear();
-
-            ResultSet rs = null;
-            try {
-                rs = meta.getImportedKeys(conn.getCatalog(), dbSchema, tableName);
-
-                // this is to avoid repetition
-                while (rs.next()) {
-                    pkTableNames.add(rs.getString("PKTABLE_NAME"));
-                }
-            } finally {
-                if (rs != null) {
-                    try {
-                        rs.close();
-                    } catch (SQLException e) {
-                        LOG.error("While closing tables result set", e);
-                    }
-                }
-            }
-
-            for (String pkTableName : pkTableNames) {
-                if (!tableName.equalsIgnoreCase(pkTableName)) {
-                    MultiParentNode<String> pkNode = exploited.get(pkTableName);
-                    if (pkNode == null) {
-                        pkNode = new MultiParentNode<>(pkTableName);
-                        roots.add(pkNode);
-                        exploited.put(pkTableName, pkNode);
-                    }
-
-                    pkNode.addChild(node);
-
-                    if (roots.contains(node)) {
-                        roots.remove(node);
-                    }
-                }
-            }
-        }
-
-        List<String> sortedTableNames = new ArrayList<>(tableNames.size());
-        MultiParentNodeOp.traverseTree(roots, sortedTableNames);
-
-        // remove from sortedTableNames any table possibly added during lookup 
-        // but matching some item in this.tablePrefixesToBeExcluded
-        sortedTableNames.retainAll(tableNames);
-
-        LOG.debug("Tables after retainAll {}", sortedTableNames);
-
-        Collections.reverse(sortedTableNames);
-
-        return sortedTableNames;
+    @Override
+    public ContentExportFormat getFormat() {
+        return ContentExportFormat.XML;
     }
 
     private String getValues(final ResultSet rs, final String columnName, final Integer columnType)
@@ -228,118 +124,108 @@ public class XMLContentExporter extends AbstractContentDealer implements Content
         return res;
     }
 
-    private void exportTable(
-            final TransformerHandler handler,
-            final Connection conn,
-            final String tableName,
-            final String whereClause) throws SQLException, SAXException {
+    private static String escape(final String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        value.chars().forEach(c -> {
+            switch (c) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
 
-        LOG.debug("Export table {}", tableName);
+                case '<':
+                    escaped.append("&lt;");
+                    break;
 
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        try {
-            StringBuilder orderBy = new StringBuilder();
-
-            DatabaseMetaData meta = conn.getMetaData();
-
-            // retrieve primary keys to perform an ordered select
-            ResultSet pkeyRS = null;
-            try {
-                pkeyRS = meta.getPrimaryKeys(null, null, tableName);
-                while (pkeyRS.next()) {
-                    String columnName = pkeyRS.getString("COLUMN_NAME");
-                    if (columnName != null) {
-                        if (orderBy.length() > 0) {
-                            orderBy.append(",");
-                        }
-
-                        orderBy.append(columnName);
-                    }
-                }
-            } finally {
-                if (pkeyRS != null) {
-                    try {
-                        pkeyRS.close();
-                    } catch (SQLException e) {
-                        LOG.error("While closing result set", e);
-                    }
-                }
-            }
+                case '>':
+                    escaped.append("&gt;");
+                    break;
 
-            // ------------------------------------
-            StringBuilder query = new StringBuilder();
-            query.append("SELECT * FROM ").append(tableName).append(" a");
-            if (StringUtils.isNotBlank(whereClause)) {
-                query.append(" WHERE ").append(whereClause);
-            }
-            if (orderBy.length() > 0) {
-                query.append(" ORDER BY ").append(orderBy);
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+
+                case '\n':
+                case '\r':
+                case '\t':
+                    escaped.append("&#").append(c).append(';');
+                    break;
+
+                default:
+                    escaped.append((char) c);
             }
-            stmt = conn.prepareStatement(query.toString());
+        });
+        return escaped.toString();
+    }
 
-            List<Map<String, String>> rows = new ArrayList<>();
+    private static void writeRow(final Writer writer, final String tableName, final Map<String, String> row)
+            throws IOException {
+
+        writer.write('<');
+        writer.write(tableName);
+        for (Map.Entry<String, String> entry : row.entrySet()) {
+            writer.write(' ');
+            writer.write(entry.getKey());
+            writer.write("=\"");
+            writer.write(escape(entry.getValue()));
+            writer.write('"');
+        }
+        writer.write("/>\n");
+    }
 
-            rs = stmt.executeQuery();
-            while (rs.next()) {
-                Map<String, String> row = new HashMap<>();
-                rows.add(row);
+    /**
+     * Writes the rows of the given table to the given file, as XML elements; rows are written as they are read,
+     * except for realms, which need to be sorted parent-first.
+     *
+     * @param dataSource data source
+     * @param tableName table name
+     * @param realmKeys realm keys, parent-first
+     * @param file file to write to
+     * @throws SQLException if table could not be read
+     * @throws IOException if file could not be written
+     */
+    private void exportTable(
+            final DataSource dataSource,
+            final String tableName,
+            final List<String> realmKeys,
+            final Path file) throws SQLException, IOException {
 
+        Map<String, Map<String, String>> realmRows = new HashMap<>();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            readTable(dataSource, tableName, rs -> {
                 ResultSetMetaData rsMeta = rs.getMetaData();
+                Map<String, String> row = new LinkedHashMap<>();
                 for (int i = 0; i < rsMeta.getColumnCount(); i++) {
                     String columnName = rsMeta.getColumnName(i + 1);
                     Integer columnType = rsMeta.getColumnType(i + 1);
 
                     // Retrieve value taking care of binary values.
                     String value = getValues(rs, columnName, columnType);
-                    if (value != null && (!COLUMNS_TO_BE_NULLIFIED.containsKey(tableName)
-                            || !COLUMNS_TO_BE_NULLIFIED.get(tableName).contains(columnName))) {
-
+                    if (value != null && !isNullified(tableName, columnName)) {
                         row.put(columnName, value);
                         LOG.debug("Add for table {}: {}=\"{}\"", tableName, columnName, value);
                     }
                 }
-            }
-
-            if (tableName.equalsIgnoreCase(JPARealm.TABLE)) {
-                List<Map<String, String>> realmRows = new ArrayList<>(rows);
-                rows.clear();
-                realmDAO.findAll().forEach(realm -> {
-                    realmRows.stream().filter(row -> {
-                        String id = row.get("ID");
-                        if (id == null) {
-                            id = row.get("id");
-                        }
-                        return realm.getKey().equals(id);
-                    }).findFirst().ifPresent(row -> rows.add(row));
-                });
-            }
-
-            for (Map<String, String> row : rows) {
-                AttributesImpl attrs = new AttributesImpl();
-                row.forEach((key, value) -> attrs.addAttribute("", "", key, "CDATA", value));
 
-                handler.startElement("", "", tableName, attrs);
-                handler.endElement("", "", tableName);
-            }
-        } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException e) {
-                    LOG.error("While closing result set", e);
+                if (isRealmTable(tableName)) {
+                    realmRows.put(row.containsKey("ID") ? row.get("ID") : row.get("id"), row);
+                } else {
+                    writeRow(writer, tableName, row);
                 }
-            }
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    LOG.error("While closing statement", e);
+            });
+
+            for (String realmKey : realmKeys) {
+                Map<String, String> row = realmRows.get(realmKey);
+                if (row != null) {
+                    writeRow(writer, tableName, row);
                 }
             }
         }
     }
 
+    /**
+     * Exports the given domain; tables are read in parallel, by up to {@code content.export.concurrentThreads}
+     * workers, each into its own temporary file, and then merged into the given stream in foreign key order.
+     */
     @Override
     public void export(
             final String domain,
@@ -349,88 +235,47 @@ public class XMLContentExporter extends AbstractContentDealer implements Content
             final String awfPrefix)
             throws SAXException, TransformerConfigurationException {
 
-        if (StringUtils.isNotBlank(uwfPrefix)) {
-            TABLE_PREFIXES_TO_BE_EXCLUDED.add(uwfPrefix);
-        }
-        if (StringUtils.isNotBlank(gwfPrefix)) {
-            TABLE_PREFIXES_TO_BE_EXCLUDED.add(gwfPrefix);
-        }
-        if (StringUtils.isNotBlank(awfPrefix)) {
-            TABLE_PREFIXES_TO_BE_EXCLUDED.add(awfPrefix);
-        }
+        DataSource dataSource = getDataSource(domain);
+        List<String> sortedTableNames = getTableNames(domain, dataSource, uwfPrefix, gwfPrefix, awfPrefix);
 
-        StreamResult streamResult = new StreamResult(os);
-        SAXTransformerFactory transformerFactory = (SAXTransformerFactory) SAXTransformerFactory.newInstance();
-        transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-        TransformerHandler handler = transformerFactory.newTransformerHandler();
-        Transformer serializer = handler.getTransformer();
-        serializer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
-        serializer.setOutputProperty(OutputKeys.INDENT, "yes");
-        handler.setResult(streamResult);
-        handler.startDocument();
-        handler.startElement("", "", ROOT_ELEMENT, new AttributesImpl());
-
-        DataSource dataSource = domainsHolder.getDomains().get(domain);
-        if (dataSource == null) {
-            throw new IllegalArgumentException("Could not find DataSource for domain " + domain);
-        }
+        // realms are sorted parent-first: read here, since workers are not bound to the domain
+        List<String> realmKeys = getRealmKeys();
 
-        String schema = ApplicationContextProvider.getBeanFactory().getBean(domain + "DatabaseSchema", String.class);
+        ExecutorService workers = new BoundedExecutorService(batchExecutor, concurrentThreads);
 
-        Connection conn = null;
-        ResultSet rs = null;
+        Map<String, Pair<Path, Future<?>>> tables = new LinkedHashMap<>();
         try {
-            conn = DataSourceUtils.getConnection(dataSource);
-            final DatabaseMetaData meta = conn.getMetaData();
-
-            rs = meta.getTables(null, StringUtils.isBlank(schema) ? null : schema, null,
-                    new String[] { "TABLE" });
-
-            final Set<String> tableNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
-
-            while (rs.next()) {
-                String tableName = rs.getString("TABLE_NAME");
-                LOG.debug("Found table {}", tableName);
-                if (isTableAllowed(tableName)) {
-                    tableNames.add(tableName);
-                }
+            for (String tableName : sortedTableNames) {
+                Path file = Files.createTempFile("export", ".xml");
+                tables.put(tableName, Pair.of(file, workers.submit(() -> {
+                    exportTable(dataSource, tableName, realmKeys, file);
+                    return null;
+                })));
             }
 
-            LOG.debug("Tables to be exported {}", tableNames);
-
-            // then sort tables based on foreign keys and dump
-            for (String tableName : sortByForeignKeys(schema, conn, tableNames)) {
+            os.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<" + ROOT_ELEMENT + ">\n").
+                    getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, Pair<Path, Future<?>>> table : tables.entrySet()) {
                 try {
-                    exportTable(handler, conn, tableName, TABLES_TO_BE_FILTERED.get(tableName.toUpperCase()));
-                } catch (Exception e) {
-                    LOG.error("Failure exporting table {}", tableName, e);
+                    table.getValue().getRight().get();
+                    Files.copy(table.getValue().getLeft(), os);
+                } catch (ExecutionException e) {
+                    LOG.error("Failure exporting table {}", table.getKey(), e.getCause());
                 }
             }
-        } catch (SQLException e) {
-            LOG.error("While exporting database content", e);
+            os.write(("</" + ROOT_ELEMENT + ">\n").getBytes(StandardCharsets.UTF_8));
+            os.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SAXException(e);
+        } catch (IOException e) {
+            throw new SAXException(e);
         } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException e) {
-                    LOG.error("While closing tables result set", e);
-                }
-            }
-
-            DataSourceUtils.releaseConnection(conn, dataSource);
-            if (conn != null) {
-                try {
-                    if (!conn.isClosed()) {
-                        conn.close();
-                    }
-                } catch (SQLException e) {
-                    LOG.error("While releasing connection", e);
-                }
-            }
+            workers.shutdown();
+            tables.values().forEach(table -> {
+                table.getRight().cancel(true);
+                FileUtils.deleteQuietly(table.getLeft().toFile());
+            });
         }
-
-        handler.endElement("", "", ROOT_ELEMENT);
-        handler.endDocument();
     }
 }
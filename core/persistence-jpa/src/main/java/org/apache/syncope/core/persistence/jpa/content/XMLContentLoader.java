@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.persistence.jpa.content;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
@@ -26,10 +28,12 @@ import javax.sql.DataSource;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.ResourceWithFallbackLoader;
 import org.apache.syncope.core.persistence.api.content.ContentLoader;
 import org.apache.syncope.core.persistence.jpa.entity.conf.JPAConf;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -49,6 +53,12 @@ public class XMLContentLoader extends AbstractContentDealer implements ContentLo
     @Resource(name = "indexesXML")
     private ResourceWithFallbackLoader indexesXML;
 
+    @Value("${content.batchSize:" + ContentBatchInserter.DEFAULT_BATCH_SIZE + "}")
+    private int batchSize;
+
+    @Value("${content.directory:}")
+    private String contentDirectory;
+
     @Override
     public Integer getPriority() {
         return 0;
@@ -80,22 +90,61 @@ public class XMLContentLoader extends AbstractContentDealer implements ContentLo
                 } catch (IOException e) {
                     LOG.error("[{}] While creating views", domain, e);
                 }
+                try {
+                    File snapshot = getSnapshot(domain);
+                    if (snapshot == null) {
+                        ResourceWithFallbackLoader contentXML = ApplicationContextProvider.getBeanFactory().
+                                getBean(domain + "ContentXML", ResourceWithFallbackLoader.class);
+                        loadDefaultContent(domain, contentXML, datasource);
+                    } else {
+                        loadSnapshot(domain, snapshot, datasource);
+                    }
+                } catch (Exception e) {
+                    LOG.error("[{}] While loading default content", domain, e);
+                }
+                // additional indexes are created once content is loaded, rather than updated at each insert
                 try {
                     createIndexes(domain, datasource);
                 } catch (IOException e) {
                     LOG.error("[{}] While creating indexes", domain, e);
                 }
-                try {
-                    ResourceWithFallbackLoader contentXML = ApplicationContextProvider.getBeanFactory().
-                            getBean(domain + "ContentXML", ResourceWithFallbackLoader.class);
-                    loadDefaultContent(domain, contentXML, datasource);
-                } catch (Exception e) {
-                    LOG.error("[{}] While loading default content", domain, e);
-                }
             }
         });
     }
 
+    /**
+     * Binary snapshots, as exported by {@link SnapshotContentExporter}, are preferred over XML content when found as
+     * {@code ${content.directory}/domains/<domain>Content.snapshot}.
+     *
+     * @param domain domain
+     * @return snapshot file, or null if not available
+     */
+    private File getSnapshot(final String domain) {
+        if (StringUtils.isBlank(contentDirectory)) {
+            return null;
+        }
+
+        File snapshot = new File(contentDirectory, "domains" + File.separator + domain + "Content.snapshot");
+        return snapshot.isFile() ? snapshot : null;
+    }
+
+    /**
+     * Loads the given binary snapshot into the given data source, which is expected to be empty.
+     *
+     * @param domain domain
+     * @param snapshot snapshot file
+     * @param dataSource data source
+     * @throws IOException if snapshot could not be read
+     */
+    public void loadSnapshot(final String domain, final File snapshot, final DataSource dataSource)
+            throws IOException {
+
+        try (InputStream in = new FileInputStream(snapshot)) {
+            int rows = new ContentSnapshotLoader(dataSource, true, batchSize).load(in);
+            LOG.debug("[{}] Content snapshot {} successfully loaded: {} rows", domain, snapshot, rows);
+        }
+    }
+
     private void loadDefaultContent(
             final String domain, final ResourceWithFallbackLoader contentXML, final DataSource dataSource)
             throws IOException, ParserConfigurationException, SAXException {
@@ -103,7 +152,7 @@ public class XMLContentLoader extends AbstractContentDealer implements ContentLo
         SAXParserFactory factory = SAXParserFactory.newInstance();
         try (InputStream in = contentXML.getResource().getInputStream()) {
             SAXParser parser = factory.newSAXParser();
-            parser.parse(in, new ContentLoaderHandler(dataSource, ROOT_ELEMENT, true));
+            parser.parse(in, new ContentLoaderHandler(dataSource, ROOT_ELEMENT, true, batchSize));
             LOG.debug("[{}] Default content successfully loaded", domain);
         }
     }
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -36,8 +37,10 @@ import org.apache.commons.jexl3.parser.Parser;
 import org.apache.commons.jexl3.parser.ParserConstants;
 import org.apache.commons.jexl3.parser.Token;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.core.persistence.api.dao.AllowedSchemas;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
@@ -76,6 +79,8 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
 
     private DynRealmDAO dynRealmDAO;
 
+    private ConnObjectSnapshotDAO connObjectSnapshotDAO;
+
     private AnyUtils anyUtils;
 
     private PlainSchemaDAO plainSchemaDAO() {
@@ -105,6 +110,16 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return dynRealmDAO;
     }
 
+    protected ConnObjectSnapshotDAO connObjectSnapshotDAO() {
+        synchronized (this) {
+            if (connObjectSnapshotDAO == null) {
+                connObjectSnapshotDAO =
+                        ApplicationContextProvider.getApplicationContext().getBean(ConnObjectSnapshotDAO.class);
+            }
+        }
+        return connObjectSnapshotDAO;
+    }
+
     protected abstract AnyUtils init();
 
     protected AnyUtils anyUtils() {
@@ -132,6 +147,24 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return key;
     }
 
+    @SuppressWarnings("unchecked")
+    protected List<Pair<String, String>> findAllNames(
+            final String table, final String lastKey, final int itemsPerPage) {
+
+        Query query = entityManager().createNativeQuery(
+                "SELECT id, " + (JPAUser.TABLE.equals(table) ? "username" : "name") + " FROM " + table
+                + (lastKey == null ? "" : " WHERE id > ?")
+                + " ORDER BY id");
+        if (lastKey != null) {
+            query.setParameter(1, lastKey);
+        }
+        query.setMaxResults(itemsPerPage);
+
+        return ((List<Object[]>) query.getResultList()).stream().
+                map(row -> Pair.of((String) row[0], (String) row[1])).
+                collect(Collectors.toList());
+    }
+
     protected Date findLastChange(final String key, final String table) {
         Query query = entityManager().createNativeQuery(
                 "SELECT creationDate, lastChangeDate FROM " + table + " WHERE id=?");
@@ -247,6 +280,53 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return result;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Pair<String, String>> findAllPlainAttrStringValues(
+            final String schemaKey, final String lastKey, final int owners) {
+
+        PlainSchema schema = plainSchemaDAO().find(schemaKey);
+        if (schema == null) {
+            LOG.error("Invalid schema name '{}'", schemaKey);
+            return Collections.emptyList();
+        }
+
+        String entityName = schema.isUniqueConstraint()
+                ? anyUtils().plainAttrUniqueValueClass().getName()
+                : anyUtils().plainAttrValueClass().getName();
+        String where = " WHERE e.attribute.schema.id = :schemaKey AND e.stringValue IS NOT NULL"
+                + (lastKey == null ? "" : " AND e.attribute.owner.id > :lastKey");
+
+        // first find the owners in page, then all of their values: multivalue attributes are never split across pages
+        Query query = entityManager().createQuery(
+                "SELECT DISTINCT e.attribute.owner.id FROM " + entityName + " e" + where
+                + " ORDER BY e.attribute.owner.id");
+        query.setParameter("schemaKey", schemaKey);
+        if (lastKey != null) {
+            query.setParameter("lastKey", lastKey);
+        }
+        query.setMaxResults(owners);
+        List<String> ownerKeys = query.getResultList();
+        if (ownerKeys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        query = entityManager().createQuery(
+                "SELECT e.attribute.owner.id, e.stringValue FROM " + entityName + " e" + where
+                + " AND e.attribute.owner.id <= :pageLastKey"
+                + " ORDER BY e.attribute.owner.id");
+        query.setParameter("schemaKey", schemaKey);
+        if (lastKey != null) {
+            query.setParameter("lastKey", lastKey);
+        }
+        query.setParameter("pageLastKey", ownerKeys.get(ownerKeys.size() - 1));
+
+        return ((List<Object[]>) query.getResultList()).stream().
+                map(row -> Pair.of((String) row[0], (String) row[1])).
+                collect(Collectors.toList());
+    }
+
     @Override
     public A findByPlainAttrUniqueValue(
             final String schemaKey,
@@ -96,6 +96,12 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
         return findKey(name, JPAAnyObject.TABLE);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Pair<String, String>> findAllNames(final String lastKey, final int itemsPerPage) {
+        return findAllNames(JPAAnyObject.TABLE, lastKey, itemsPerPage);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Date findLastChange(final String key) {
@@ -249,6 +255,7 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
     public void delete(final AnyObject anyObject) {
         groupDAO().removeDynMemberships(anyObject);
         dynRealmDAO().removeDynMemberships(anyObject.getKey());
+        connObjectSnapshotDAO().deleteByAny(anyObject.getKey());
 
         findARelationships(anyObject).forEach(relationship -> {
             relationship.getLeftEnd().getRelationships().remove(relationship);
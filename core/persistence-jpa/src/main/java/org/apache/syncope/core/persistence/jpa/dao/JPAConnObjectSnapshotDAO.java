@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.NoResultException;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ConnObjectSnapshot;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAConnObjectSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class JPAConnObjectSnapshotDAO extends AbstractDAO<ConnObjectSnapshot> implements ConnObjectSnapshotDAO {
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    @Override
+    public ConnObjectSnapshot find(final String anyKey, final ExternalResource resource) {
+        TypedQuery<ConnObjectSnapshot> query = entityManager().createQuery(
+                "SELECT e FROM " + JPAConnObjectSnapshot.class.getSimpleName()
+                + " e WHERE e.anyKey=:anyKey AND e.resource=:resource", ConnObjectSnapshot.class);
+        query.setParameter("anyKey", anyKey);
+        query.setParameter("resource", resource);
+
+        ConnObjectSnapshot result = null;
+        try {
+            result = query.getSingleResult();
+        } catch (NoResultException e) {
+            LOG.debug("No snapshot for {} on {}", anyKey, resource, e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Optional<String> findPulledFingerprint(
+            final AnyTypeKind anyTypeKind, final String anyKey, final ExternalResource resource) {
+
+        TypedQuery<String> query = entityManager().createQuery(
+                "SELECT e.pulledFingerprint FROM " + JPAConnObjectSnapshot.class.getSimpleName() + " e, "
+                + anyUtilsFactory.getInstance(anyTypeKind).anyClass().getSimpleName() + " a "
+                + "WHERE e.anyKey=:anyKey AND e.resource=:resource AND a.id=e.anyKey "
+                + "AND e.pulledLastChange=COALESCE(a.lastChangeDate, a.creationDate)", String.class);
+        query.setParameter("anyKey", anyKey);
+        query.setParameter("resource", resource);
+
+        List<String> result = query.getResultList();
+        return result.isEmpty() ? Optional.empty() : Optional.ofNullable(result.get(0));
+    }
+
+    @Override
+    public ConnObjectSnapshot save(final ConnObjectSnapshot snapshot) {
+        return entityManager().merge(snapshot);
+    }
+
+    @Override
+    public void delete(final String anyKey, final ExternalResource resource) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPAConnObjectSnapshot.class.getSimpleName()
+                + " e WHERE e.anyKey=:anyKey AND e.resource=:resource");
+        query.setParameter("anyKey", anyKey);
+        query.setParameter("resource", resource);
+        query.executeUpdate();
+    }
+
+    @Override
+    public void deleteByAny(final String anyKey) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPAConnObjectSnapshot.class.getSimpleName() + " e WHERE e.anyKey=:anyKey");
+        query.setParameter("anyKey", anyKey);
+        query.executeUpdate();
+    }
+
+    @Override
+    public void deleteByResource(final ExternalResource resource) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPAConnObjectSnapshot.class.getSimpleName() + " e WHERE e.resource=:resource");
+        query.setParameter("resource", resource);
+        query.executeUpdate();
+    }
+}
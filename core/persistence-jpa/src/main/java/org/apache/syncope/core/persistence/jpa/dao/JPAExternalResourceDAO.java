@@ -28,6 +28,7 @@ import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.StandardEntitlement;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceHistoryConfDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
@@ -81,6 +82,8 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
 
     private ExternalResourceHistoryConfDAO externalResourceHistoryConfDAO;
 
+    private ConnObjectSnapshotDAO connObjectSnapshotDAO;
+
     private TaskDAO taskDAO() {
         synchronized (this) {
             if (taskDAO == null) {
@@ -154,6 +157,16 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
         return externalResourceHistoryConfDAO;
     }
 
+    private ConnObjectSnapshotDAO connObjectSnapshotDAO() {
+        synchronized (this) {
+            if (connObjectSnapshotDAO == null) {
+                connObjectSnapshotDAO = ApplicationContextProvider.getApplicationContext().
+                        getBean(ConnObjectSnapshotDAO.class);
+            }
+        }
+        return connObjectSnapshotDAO;
+    }
+
     @Override
     public int count() {
         Query query = entityManager().createQuery(
@@ -332,6 +345,12 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
 
         externalResourceHistoryConfDAO().deleteByEntity(resource);
 
+        connObjectSnapshotDAO().deleteByResource(resource);
+
+        if (resource.getConnector() != null) {
+            connRegistry.unregisterConnector(resource);
+        }
+
         if (resource.getConnector() != null && resource.getConnector().getResources() != null
                 && !resource.getConnector().getResources().isEmpty()) {
 
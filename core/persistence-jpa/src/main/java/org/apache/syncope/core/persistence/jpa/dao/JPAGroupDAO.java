@@ -146,6 +146,12 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return findKey(username, JPAGroup.TABLE);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Pair<String, String>> findAllNames(final String lastKey, final int itemsPerPage) {
+        return findAllNames(JPAGroup.TABLE, lastKey, itemsPerPage);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Date findLastChange(final String key) {
@@ -282,9 +288,18 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     @Override
     public Group save(final Group group) {
+        return save(group, true);
+    }
+
+    @Override
+    public Group save(final Group group, final boolean refreshDynMemberships) {
         Group merged = super.save(group);
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
+        if (!refreshDynMemberships) {
+            return merged;
+        }
+
         // refresh dynamic memberships
         clearUDynMembers(merged);
         if (merged.getUDynMembership() != null) {
@@ -345,6 +360,7 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Override
     public void delete(final Group group) {
         dynRealmDAO().removeDynMemberships(group.getKey());
+        connObjectSnapshotDAO().deleteByAny(group.getKey());
 
         findAMemberships(group).forEach(membership -> {
             AnyObject leftEnd = membership.getLeftEnd();
@@ -23,6 +23,7 @@ import java.util.List;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
+import org.apache.syncope.core.persistence.api.dao.NotificationDigestEventDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Entity;
@@ -40,6 +41,9 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
     @Autowired
     private TaskDAO taskDAO;
 
+    @Autowired
+    private NotificationDigestEventDAO digestEventDAO;
+
     @Transactional(readOnly = true)
     @Override
     public Notification find(final String key) {
@@ -89,6 +93,7 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
         taskDAO.findAll(
                 TaskType.NOTIFICATION, null, notification, null, null, -1, -1, Collections.<OrderByClause>emptyList()).
                 stream().map(Entity::getKey).forEach(task -> delete(task));
+        digestEventDAO.deleteByNotification(notification);
 
         entityManager().remove(notification);
     }
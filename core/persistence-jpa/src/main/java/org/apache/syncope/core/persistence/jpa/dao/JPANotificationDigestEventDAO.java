@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.List;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.core.persistence.api.dao.NotificationDigestEventDAO;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.NotificationDigestEvent;
+import org.apache.syncope.core.persistence.jpa.entity.JPANotificationDigestEvent;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class JPANotificationDigestEventDAO
+        extends AbstractDAO<NotificationDigestEvent> implements NotificationDigestEventDAO {
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<NotificationDigestEvent> findAll() {
+        TypedQuery<NotificationDigestEvent> query = entityManager().createQuery(
+                "SELECT e FROM " + JPANotificationDigestEvent.class.getSimpleName() + " e "
+                + "ORDER BY e.collected", NotificationDigestEvent.class);
+        return query.getResultList();
+    }
+
+    @Override
+    public NotificationDigestEvent save(final NotificationDigestEvent event) {
+        return entityManager().merge(event);
+    }
+
+    @Override
+    public void delete(final NotificationDigestEvent event) {
+        entityManager().remove(event);
+    }
+
+    @Override
+    public void deleteByNotification(final Notification notification) {
+        // removed one by one, for their recipients to be removed as well
+        TypedQuery<NotificationDigestEvent> query = entityManager().createQuery(
+                "SELECT e FROM " + JPANotificationDigestEvent.class.getSimpleName() + " e "
+                + "WHERE e.notification=:notification", NotificationDigestEvent.class);
+        query.setParameter("notification", notification);
+        query.getResultList().forEach(this::delete);
+    }
+}
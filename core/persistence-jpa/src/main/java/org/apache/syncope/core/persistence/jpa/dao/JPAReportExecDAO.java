@@ -18,15 +18,22 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Report;
 import org.apache.syncope.core.persistence.api.entity.ReportExec;
 import org.apache.syncope.core.persistence.jpa.entity.JPAReportExec;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -165,6 +172,73 @@ public class JPAReportExecDAO extends AbstractDAO<ReportExec> implements ReportE
         return entityManager().merge(execution);
     }
 
+    @Override
+    public boolean hasExecResult(final String key) {
+        Query query = entityManager().createQuery(
+                "SELECT COUNT(e) FROM " + JPAReportExec.class.getSimpleName() + " e "
+                + "WHERE e.id=:key AND e.execResult IS NOT NULL");
+        query.setParameter("key", key);
+        return ((Number) query.getSingleResult()).intValue() > 0;
+    }
+
+    /**
+     * LOBs are streamed via JDBC, since JPA has no way to do so: the connection bound to the current transaction
+     * is used, to be released once done.
+     *
+     * @return connection bound to the current transaction
+     */
+    private Connection connection() {
+        return (Connection) OpenJPAPersistence.cast(entityManager()).getConnection();
+    }
+
+    private static void close(final Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.error("While releasing connection", e);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Throwable.class)
+    public void saveExecResult(final String key, final InputStream content, final long length) {
+        // the execution row is updated directly, hence it must be there already
+        entityManager().flush();
+
+        Connection conn = connection();
+        try {
+            new JdbcTemplate(new SingleConnectionDataSource(conn, true)).update(
+                    "UPDATE " + JPAReportExec.TABLE + " SET execResult=? WHERE id=?",
+                    stmt -> {
+                        stmt.setBinaryStream(1, content, length);
+                        stmt.setString(2, key);
+                    });
+        } finally {
+            close(conn);
+        }
+    }
+
+    @Override
+    public boolean readExecResult(final String key, final Consumer<InputStream> reader) {
+        Connection conn = connection();
+        try {
+            return new JdbcTemplate(new SingleConnectionDataSource(conn, true)).query(
+                    "SELECT execResult FROM " + JPAReportExec.TABLE + " WHERE id=?",
+                    stmt -> stmt.setString(1, key),
+                    rs -> {
+                        InputStream content = rs.next() ? rs.getBinaryStream(1) : null;
+                        if (content == null) {
+                            return false;
+                        }
+
+                        reader.accept(content);
+                        return true;
+                    });
+        } finally {
+            close(conn);
+        }
+    }
+
     @Override
     public void delete(final String key) {
         ReportExec execution = find(key);
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.api.entity.task.TaskCheckpoint;
+import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskCheckpoint;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class JPATaskCheckpointDAO extends AbstractDAO<TaskCheckpoint> implements TaskCheckpointDAO {
+
+    private List<TaskCheckpoint> find(final String taskKey, final String scope) {
+        TypedQuery<TaskCheckpoint> query = entityManager().createQuery(
+                "SELECT e FROM " + JPATaskCheckpoint.class.getSimpleName()
+                + " e WHERE e.taskKey=:taskKey"
+                + (scope == null ? "" : " AND e.scope=:scope"), TaskCheckpoint.class);
+        query.setParameter("taskKey", taskKey);
+        if (scope != null) {
+            query.setParameter("scope", scope);
+        }
+        return query.getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, String> findAll(final String taskKey) {
+        Map<String, String> result = new HashMap<>();
+        find(taskKey, null).forEach(checkpoint -> result.put(checkpoint.getScope(), checkpoint.getCheckpoint()));
+        return result;
+    }
+
+    @Transactional
+    @Override
+    public void save(final String taskKey, final String scope, final String checkpoint) {
+        List<TaskCheckpoint> found = find(taskKey, scope);
+        TaskCheckpoint entity = found.isEmpty() ? new JPATaskCheckpoint() : found.get(0);
+        entity.setTaskKey(taskKey);
+        entity.setScope(scope);
+        entity.setCheckpoint(checkpoint);
+        entity.setLastUpdate(new Date());
+        entityManager().merge(entity);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void commit(final String taskKey, final String scope, final String checkpoint) {
+        save(taskKey, scope, checkpoint);
+    }
+
+    @Transactional
+    @Override
+    public void delete(final String taskKey, final String scope) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPATaskCheckpoint.class.getSimpleName()
+                + " e WHERE e.taskKey=:taskKey AND e.scope=:scope");
+        query.setParameter("taskKey", taskKey);
+        query.setParameter("scope", scope);
+        query.executeUpdate();
+    }
+
+    @Transactional
+    @Override
+    public void delete(final String taskKey) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPATaskCheckpoint.class.getSimpleName() + " e WHERE e.taskKey=:taskKey");
+        query.setParameter("taskKey", taskKey);
+        query.executeUpdate();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void discard(final String taskKey, final String scope) {
+        delete(taskKey, scope);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void discard(final String taskKey) {
+        delete(taskKey);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
@@ -32,6 +33,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.RemediationDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Entity;
@@ -60,6 +62,9 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
     @Autowired
     private RemediationDAO remediationDAO;
 
+    @Autowired
+    private TaskCheckpointDAO taskCheckpointDAO;
+
     @Override
     public Class<? extends Task> getEntityReference(final TaskType type) {
         Class<? extends Task> result = null;
@@ -443,6 +448,13 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
         return entityManager().merge(task);
     }
 
+    @Transactional(rollbackFor = { Throwable.class })
+    @Override
+    public void saveAll(final Collection<? extends Task> tasks) {
+        tasks.forEach(task -> entityManager().merge(task));
+        entityManager().flush();
+    }
+
     @Override
     public void delete(final String id) {
         Task task = find(id);
@@ -460,6 +472,9 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
                 remediation.setPullTask(null);
             });
         }
+        if (task instanceof SchedTask) {
+            taskCheckpointDAO.delete(task.getKey());
+        }
 
         entityManager().remove(task);
     }
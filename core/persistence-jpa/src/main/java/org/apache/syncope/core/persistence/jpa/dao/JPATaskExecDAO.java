@@ -18,10 +18,15 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
@@ -29,6 +34,8 @@ import org.apache.syncope.core.persistence.api.entity.task.Task;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -171,10 +178,79 @@ public class JPATaskExecDAO extends AbstractDAO<TaskExec> implements TaskExecDAO
 
     @Override
     @Transactional(rollbackFor = { Throwable.class })
-    public void saveAndAdd(final String taskKey, final TaskExec execution) {
+    public TaskExec saveAndAdd(final String taskKey, final TaskExec execution) {
         Task task = taskDAO.find(taskKey);
-        task.add(execution);
+        TaskExec saved = save(execution);
+        task.add(saved);
         taskDAO.save(task);
+        return saved;
+    }
+
+    @Override
+    public boolean hasDetails(final String key) {
+        Query query = entityManager().createQuery(
+                "SELECT COUNT(e) FROM " + JPATaskExec.class.getSimpleName() + " e "
+                + "WHERE e.id=:key AND e.details IS NOT NULL");
+        query.setParameter("key", key);
+        return ((Number) query.getSingleResult()).intValue() > 0;
+    }
+
+    /**
+     * LOBs are streamed via JDBC, since JPA has no way to do so: the connection bound to the current transaction
+     * is used, to be released once done.
+     *
+     * @return connection bound to the current transaction
+     */
+    private Connection connection() {
+        return (Connection) OpenJPAPersistence.cast(entityManager()).getConnection();
+    }
+
+    private static void close(final Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.error("While releasing connection", e);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Throwable.class)
+    public void saveDetails(final String key, final InputStream content, final long length) {
+        // the execution row is updated directly, hence it must be there already
+        entityManager().flush();
+
+        Connection conn = connection();
+        try {
+            new JdbcTemplate(new SingleConnectionDataSource(conn, true)).update(
+                    "UPDATE " + JPATaskExec.TABLE + " SET details=? WHERE id=?",
+                    stmt -> {
+                        stmt.setBinaryStream(1, content, length);
+                        stmt.setString(2, key);
+                    });
+        } finally {
+            close(conn);
+        }
+    }
+
+    @Override
+    public boolean readDetails(final String key, final Consumer<InputStream> reader) {
+        Connection conn = connection();
+        try {
+            return new JdbcTemplate(new SingleConnectionDataSource(conn, true)).query(
+                    "SELECT details FROM " + JPATaskExec.TABLE + " WHERE id=?",
+                    stmt -> stmt.setString(1, key),
+                    rs -> {
+                        InputStream content = rs.next() ? rs.getBinaryStream(1) : null;
+                        if (content == null) {
+                            return false;
+                        }
+
+                        reader.accept(content);
+                        return true;
+                    });
+        } finally {
+            close(conn);
+        }
     }
 
     @Override
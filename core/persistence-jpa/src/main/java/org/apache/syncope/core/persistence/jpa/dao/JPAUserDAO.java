@@ -124,6 +124,12 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         return findKey(username, JPAUser.TABLE);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Pair<String, String>> findAllNames(final String lastKey, final int itemsPerPage) {
+        return findAllNames(JPAUser.TABLE, lastKey, itemsPerPage);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Date findLastChange(final String key) {
@@ -409,6 +415,7 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         roleDAO.removeDynMemberships(user.getKey());
         groupDAO().removeDynMemberships(user);
         dynRealmDAO().removeDynMemberships(user.getKey());
+        connObjectSnapshotDAO().deleteByAny(user.getKey());
 
         AccessToken accessToken = accessTokenDAO.findByOwner(user.getUsername());
         if (accessToken != null) {
@@ -92,6 +92,8 @@ public class JPANotification extends AbstractGeneratedKeyEntity implements Notif
     @Enumerated(EnumType.STRING)
     private TraceLevel traceLevel = TraceLevel.ALL;
 
+    private Integer digestWindow;
+
     @NotNull
     private Boolean active = true;
 
@@ -205,6 +207,16 @@ public class JPANotification extends AbstractGeneratedKeyEntity implements Notif
         this.traceLevel = traceLevel;
     }
 
+    @Override
+    public Integer getDigestWindow() {
+        return digestWindow;
+    }
+
+    @Override
+    public void setDigestWindow(final Integer digestWindow) {
+        this.digestWindow = digestWindow;
+    }
+
     @Override
     public boolean isActive() {
         return active;
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.validation.constraints.NotNull;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.NotificationDigestEvent;
+
+@Entity
+@Table(name = JPANotificationDigestEvent.TABLE)
+public class JPANotificationDigestEvent extends AbstractGeneratedKeyEntity implements NotificationDigestEvent {
+
+    private static final long serialVersionUID = -2361370297531402316L;
+
+    public static final String TABLE = "NotificationDigestEvent";
+
+    @NotNull
+    @ManyToOne
+    private JPANotification notification;
+
+    @Enumerated(EnumType.STRING)
+    private AnyTypeKind anyTypeKind;
+
+    private String entityKey;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Column(name = "address")
+    @CollectionTable(name = "NotificationDigestEvent_recipients",
+            joinColumns =
+            @JoinColumn(name = "notificationDigestEvent_id", referencedColumnName = "id"))
+    private Set<String> recipients = new HashSet<>();
+
+    @NotNull
+    @Lob
+    private String model;
+
+    @NotNull
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date collected;
+
+    @Override
+    public Notification getNotification() {
+        return notification;
+    }
+
+    @Override
+    public void setNotification(final Notification notification) {
+        checkType(notification, JPANotification.class);
+        this.notification = (JPANotification) notification;
+    }
+
+    @Override
+    public AnyTypeKind getAnyTypeKind() {
+        return anyTypeKind;
+    }
+
+    @Override
+    public void setAnyTypeKind(final AnyTypeKind anyTypeKind) {
+        this.anyTypeKind = anyTypeKind;
+    }
+
+    @Override
+    public String getEntityKey() {
+        return entityKey;
+    }
+
+    @Override
+    public void setEntityKey(final String entityKey) {
+        this.entityKey = entityKey;
+    }
+
+    @Override
+    public Set<String> getRecipients() {
+        return recipients;
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    public void setModel(final String model) {
+        this.model = model;
+    }
+
+    @Override
+    public Date getCollected() {
+        return collected == null
+                ? null
+                : new Date(collected.getTime());
+    }
+
+    @Override
+    public void setCollected(final Date collected) {
+        this.collected = collected == null
+                ? null
+                : new Date(collected.getTime());
+    }
+}
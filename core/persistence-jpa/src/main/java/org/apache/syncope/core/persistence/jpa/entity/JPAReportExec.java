@@ -24,7 +24,6 @@ import javax.persistence.FetchType;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.syncope.common.lib.types.ReportExecStatus;
 import org.apache.syncope.core.persistence.api.entity.Report;
 import org.apache.syncope.core.persistence.api.entity.ReportExec;
@@ -44,11 +43,11 @@ public class JPAReportExec extends AbstractExec implements ReportExec {
     private JPAReport report;
 
     /**
-     * Report execution result, stored as an XML stream.
+     * Report execution result, stored as a compressed XML stream.
      */
     @Lob
     @Basic(fetch = FetchType.LAZY)
-    private Byte[] execResult;
+    private byte[] execResult;
 
     @Override
     public Report getReport() {
@@ -63,12 +62,12 @@ public class JPAReportExec extends AbstractExec implements ReportExec {
 
     @Override
     public byte[] getExecResult() {
-        return execResult == null ? null : ArrayUtils.toPrimitive(execResult);
+        return execResult;
     }
 
     @Override
     public void setExecResult(final byte[] execResult) {
-        this.execResult = execResult == null ? null : ArrayUtils.toObject(execResult);
+        this.execResult = execResult;
     }
 
     @Override
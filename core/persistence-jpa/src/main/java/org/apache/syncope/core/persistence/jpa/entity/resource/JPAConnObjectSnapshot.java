@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity.resource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.persistence.api.entity.resource.ConnObjectSnapshot;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.jpa.entity.AbstractGeneratedKeyEntity;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+
+@Entity
+@Table(name = JPAConnObjectSnapshot.TABLE, uniqueConstraints =
+        @UniqueConstraint(columnNames = { "anyKey", "resource_id" }))
+public class JPAConnObjectSnapshot extends AbstractGeneratedKeyEntity implements ConnObjectSnapshot {
+
+    private static final long serialVersionUID = -5410926397164829203L;
+
+    public static final String TABLE = "ConnObjectSnapshot";
+
+    @NotNull
+    @Column(length = 36)
+    private String anyKey;
+
+    @ManyToOne(optional = false)
+    private JPAExternalResource resource;
+
+    @Lob
+    private String propagatedAttrs;
+
+    @Column(length = 32)
+    private String pulledFingerprint;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date pulledLastChange;
+
+    @Override
+    public String getAnyKey() {
+        return anyKey;
+    }
+
+    @Override
+    public void setAnyKey(final String anyKey) {
+        this.anyKey = anyKey;
+    }
+
+    @Override
+    public ExternalResource getResource() {
+        return resource;
+    }
+
+    @Override
+    public void setResource(final ExternalResource resource) {
+        checkType(resource, JPAExternalResource.class);
+        this.resource = (JPAExternalResource) resource;
+    }
+
+    @Override
+    public Map<String, String> getPropagatedAttrs() {
+        return StringUtils.isBlank(propagatedAttrs)
+                ? new HashMap<>()
+                : POJOHelper.deserialize(propagatedAttrs, new TypeReference<Map<String, String>>() {
+                });
+    }
+
+    @Override
+    public void setPropagatedAttrs(final Map<String, String> propagatedAttrs) {
+        this.propagatedAttrs = propagatedAttrs == null ? null : POJOHelper.serialize(propagatedAttrs);
+    }
+
+    @Override
+    public String getPulledFingerprint() {
+        return pulledFingerprint;
+    }
+
+    @Override
+    public void setPulledFingerprint(final String pulledFingerprint) {
+        this.pulledFingerprint = pulledFingerprint;
+    }
+
+    @Override
+    public Date getPulledLastChange() {
+        return pulledLastChange == null ? null : new Date(pulledLastChange.getTime());
+    }
+
+    @Override
+    public void setPulledLastChange(final Date pulledLastChange) {
+        this.pulledLastChange = pulledLastChange == null ? null : new Date(pulledLastChange.getTime());
+    }
+}
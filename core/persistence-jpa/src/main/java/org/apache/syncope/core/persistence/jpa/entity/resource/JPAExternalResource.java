@@ -42,6 +42,7 @@ import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
@@ -109,6 +110,12 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
     @NotNull
     private Boolean randomPwdIfNotProvided = false;
 
+    /**
+     * Rely on local resource assignments to decide between create and update, reading remote objects only on
+     * conflict.
+     */
+    private Boolean trustLocalState = false;
+
     @Enumerated(EnumType.STRING)
     @NotNull
     private TraceLevel createTraceLevel = TraceLevel.FAILURES;
@@ -251,6 +258,16 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
         this.randomPwdIfNotProvided = randomPwdIfNotProvided;
     }
 
+    @Override
+    public boolean isTrustLocalState() {
+        return BooleanUtils.isTrue(trustLocalState);
+    }
+
+    @Override
+    public void setTrustLocalState(final boolean trustLocalState) {
+        this.trustLocalState = trustLocalState;
+    }
+
     @Override
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
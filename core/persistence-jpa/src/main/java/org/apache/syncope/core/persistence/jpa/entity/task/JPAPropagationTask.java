@@ -18,15 +18,25 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.task;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ResourceOperation;
@@ -47,6 +57,32 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
 
     private static final long serialVersionUID = 7086054884614511210L;
 
+    /**
+     * Serialized attributes longer than this are stored compressed.
+     */
+    private static final int COMPRESSION_THRESHOLD = 2048;
+
+    private static final String COMPRESSED_PREFIX = "gzip:";
+
+    private static String compress(final String value) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(baos)) {
+            gzip.write(value.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not compress attributes", e);
+        }
+        return COMPRESSED_PREFIX + Base64.getEncoder().encodeToString(baos.toByteArray());
+    }
+
+    private static String decompress(final String value) {
+        byte[] compressed = Base64.getDecoder().decode(value.substring(COMPRESSED_PREFIX.length()));
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toString(gzip, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not decompress attributes", e);
+        }
+    }
+
     /**
      * @see ResourceOperation
      */
@@ -64,7 +100,7 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
     private String oldConnObjectKey;
 
     /**
-     * Attributes to be propagated.
+     * Attributes to be propagated, compressed when exceeding {@link #COMPRESSION_THRESHOLD}.
      */
     @Lob
     private String attributes;
@@ -106,14 +142,16 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
 
     @Override
     public String getSerializedAttributes() {
-        return this.attributes;
+        return this.attributes != null && this.attributes.startsWith(COMPRESSED_PREFIX)
+                ? decompress(this.attributes)
+                : this.attributes;
     }
 
     @Override
     public Set<Attribute> getAttributes() {
         Set<Attribute> result = new HashSet<>();
         if (StringUtils.isNotBlank(this.attributes)) {
-            result.addAll(Arrays.asList(POJOHelper.deserialize(this.attributes, Attribute[].class)));
+            result.addAll(Arrays.asList(POJOHelper.deserialize(getSerializedAttributes(), Attribute[].class)));
         }
 
         return result;
@@ -121,7 +159,10 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
 
     @Override
     public void setAttributes(final Set<Attribute> attributes) {
-        this.attributes = POJOHelper.serialize(attributes);
+        String serialized = POJOHelper.serialize(attributes);
+        this.attributes = serialized != null && serialized.length() > COMPRESSION_THRESHOLD
+                ? compress(serialized)
+                : serialized;
     }
 
     @Override
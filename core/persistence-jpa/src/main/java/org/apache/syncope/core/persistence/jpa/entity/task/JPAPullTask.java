@@ -34,6 +34,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.syncope.common.lib.types.ImplementationType;
 import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
@@ -74,6 +75,14 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
     @NotNull
     private Boolean remediation = false;
 
+    private Integer concurrentThreads;
+
+    private Integer pageSize;
+
+    private String sortAttribute;
+
+    private Boolean prefetch;
+
     @Override
     public PullMode getPullMode() {
         return pullMode;
@@ -146,4 +155,44 @@ public class JPAPullTask extends AbstractProvisioningTask implements PullTask {
     public boolean isRemediation() {
         return remediation;
     }
+
+    @Override
+    public int getConcurrentThreads() {
+        return concurrentThreads == null ? 1 : concurrentThreads;
+    }
+
+    @Override
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
+
+    @Override
+    public int getPageSize() {
+        return pageSize == null ? 100 : pageSize;
+    }
+
+    @Override
+    public void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public String getSortAttribute() {
+        return sortAttribute;
+    }
+
+    @Override
+    public void setSortAttribute(final String sortAttribute) {
+        this.sortAttribute = sortAttribute;
+    }
+
+    @Override
+    public boolean isPrefetch() {
+        return BooleanUtils.isTrue(prefetch);
+    }
+
+    @Override
+    public void setPrefetch(final boolean prefetch) {
+        this.prefetch = prefetch;
+    }
 }
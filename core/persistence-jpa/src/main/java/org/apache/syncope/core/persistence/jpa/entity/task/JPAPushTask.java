@@ -59,6 +59,8 @@ public class JPAPushTask extends AbstractProvisioningTask implements PushTask {
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER, mappedBy = "pushTask")
     private List<JPAPushTaskAnyFilter> filters = new ArrayList<>();
 
+    private Integer concurrentThreads;
+
     @Override
     public JPARealm getSourceRealm() {
         return sourceRealm;
@@ -97,4 +99,14 @@ public class JPAPushTask extends AbstractProvisioningTask implements PushTask {
     public List<? extends PushTaskAnyFilter> getFilters() {
         return filters;
     }
+
+    @Override
+    public int getConcurrentThreads() {
+        return concurrentThreads == null ? 1 : concurrentThreads;
+    }
+
+    @Override
+    public void setConcurrentThreads(final int concurrentThreads) {
+        this.concurrentThreads = concurrentThreads;
+    }
 }
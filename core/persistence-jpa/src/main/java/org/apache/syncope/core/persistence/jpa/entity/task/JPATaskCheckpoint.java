@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity.task;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import org.apache.syncope.core.persistence.api.entity.task.TaskCheckpoint;
+import org.apache.syncope.core.persistence.jpa.entity.AbstractGeneratedKeyEntity;
+
+@Entity
+@Table(name = JPATaskCheckpoint.TABLE, uniqueConstraints =
+        @UniqueConstraint(columnNames = { "taskKey", "scope" }))
+public class JPATaskCheckpoint extends AbstractGeneratedKeyEntity implements TaskCheckpoint {
+
+    private static final long serialVersionUID = 3547109723390713271L;
+
+    public static final String TABLE = "TaskCheckpoint";
+
+    @NotNull
+    @Column(length = 36)
+    private String taskKey;
+
+    @NotNull
+    private String scope;
+
+    @Lob
+    private String checkpoint;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastUpdate;
+
+    @Override
+    public String getTaskKey() {
+        return taskKey;
+    }
+
+    @Override
+    public void setTaskKey(final String taskKey) {
+        this.taskKey = taskKey;
+    }
+
+    @Override
+    public String getScope() {
+        return scope;
+    }
+
+    @Override
+    public void setScope(final String scope) {
+        this.scope = scope;
+    }
+
+    @Override
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    @Override
+    public void setCheckpoint(final String checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    @Override
+    public Date getLastUpdate() {
+        return lastUpdate == null ? null : new Date(lastUpdate.getTime());
+    }
+
+    @Override
+    public void setLastUpdate(final Date lastUpdate) {
+        this.lastUpdate = lastUpdate == null ? null : new Date(lastUpdate.getTime());
+    }
+}
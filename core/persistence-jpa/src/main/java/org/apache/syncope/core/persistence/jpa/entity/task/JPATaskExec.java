@@ -18,7 +18,10 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.task;
 
+import javax.persistence.Basic;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
@@ -44,6 +47,13 @@ public class JPATaskExec extends AbstractExec implements TaskExec {
     @ManyToOne(optional = false)
     private AbstractTask task;
 
+    /**
+     * Details about the objects processed by this execution, stored as a GZIP-compressed text stream.
+     */
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    private byte[] details;
+
     @Override
     public Task getTask() {
         return task;
@@ -55,6 +65,16 @@ public class JPATaskExec extends AbstractExec implements TaskExec {
         this.task = (AbstractTask) task;
     }
 
+    @Override
+    public byte[] getDetails() {
+        return details;
+    }
+
+    @Override
+    public void setDetails(final byte[] details) {
+        this.details = details;
+    }
+
     @Override
     public String toString() {
         return new StringBuilder(getClass().getSimpleName()).append('{').
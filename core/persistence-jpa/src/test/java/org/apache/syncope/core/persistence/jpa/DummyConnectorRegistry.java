@@ -33,4 +33,8 @@ public class DummyConnectorRegistry implements ConnectorRegistry {
     @Override
     public void unregisterConnector(final String id) {
     }
+
+    @Override
+    public void unregisterConnector(final ExternalResource resource) {
+    }
 }
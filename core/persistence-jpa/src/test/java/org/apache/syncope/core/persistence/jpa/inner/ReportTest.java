@@ -18,20 +18,33 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.IOUtils;
 import org.apache.syncope.common.lib.report.UserReportletConf;
 import org.apache.syncope.common.lib.types.ImplementationEngine;
 import org.apache.syncope.common.lib.types.ImplementationType;
+import org.apache.syncope.common.lib.types.ReportExecStatus;
 import org.apache.syncope.core.persistence.api.dao.ImplementationDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportDAO;
+import org.apache.syncope.core.persistence.api.dao.ReportExecDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportTemplateDAO;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.Report;
+import org.apache.syncope.core.persistence.api.entity.ReportExec;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
 import org.junit.jupiter.api.Test;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
@@ -44,6 +57,9 @@ public class ReportTest extends AbstractTest {
     @Autowired
     private ReportDAO reportDAO;
 
+    @Autowired
+    private ReportExecDAO reportExecDAO;
+
     @Autowired
     private ReportTemplateDAO reportTemplateDAO;
 
@@ -99,6 +115,36 @@ public class ReportTest extends AbstractTest {
         assertEquals(afterCount, beforeCount + 1);
     }
 
+    @Test
+    public void execResult() {
+        Report report = reportDAO.find("0062ea9c-924d-4ecf-9961-4492a8cc6d1b");
+
+        ReportExec execution = entityFactory.newEntity(ReportExec.class);
+        execution.setStatus(ReportExecStatus.SUCCESS);
+        execution.setStart(new Date());
+        execution.setReport(report);
+        execution = reportExecDAO.save(execution);
+        String key = execution.getKey();
+
+        assertFalse(reportExecDAO.hasExecResult(key));
+        assertFalse(reportExecDAO.readExecResult(key, content -> {
+        }));
+
+        byte[] result = "<report name=\"test\"/>".getBytes(StandardCharsets.UTF_8);
+        reportExecDAO.saveExecResult(key, new ByteArrayInputStream(result), result.length);
+        assertTrue(reportExecDAO.hasExecResult(key));
+
+        AtomicReference<byte[]> read = new AtomicReference<>();
+        assertTrue(reportExecDAO.readExecResult(key, content -> {
+            try {
+                read.set(IOUtils.toByteArray(content));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        assertArrayEquals(result, read.get());
+    }
+
     @Test
     public void delete() {
         Report report = reportDAO.find("0062ea9c-924d-4ecf-9961-4492a8cc6d1b");
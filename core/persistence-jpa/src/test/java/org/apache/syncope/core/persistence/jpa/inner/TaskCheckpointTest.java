@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.UUID;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class TaskCheckpointTest extends AbstractTest {
+
+    @Autowired
+    private TaskCheckpointDAO taskCheckpointDAO;
+
+    @Test
+    public void saveAndDelete() {
+        String taskKey = UUID.randomUUID().toString();
+        assertTrue(taskCheckpointDAO.findAll(taskKey).isEmpty());
+
+        taskCheckpointDAO.save(taskKey, "__ACCOUNT__", "cookie1");
+        taskCheckpointDAO.save(taskKey, "__GROUP__", "cookie2");
+        taskCheckpointDAO.save(taskKey, "__ACCOUNT__", "cookie3");
+
+        Map<String, String> checkpoints = taskCheckpointDAO.findAll(taskKey);
+        assertEquals(2, checkpoints.size());
+        assertEquals("cookie3", checkpoints.get("__ACCOUNT__"));
+        assertEquals("cookie2", checkpoints.get("__GROUP__"));
+
+        taskCheckpointDAO.delete(taskKey, "__GROUP__");
+        assertEquals(1, taskCheckpointDAO.findAll(taskKey).size());
+
+        taskCheckpointDAO.delete(taskKey);
+        assertTrue(taskCheckpointDAO.findAll(taskKey).isEmpty());
+    }
+}
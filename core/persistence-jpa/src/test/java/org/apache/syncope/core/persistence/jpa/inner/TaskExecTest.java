@@ -18,12 +18,21 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.IOUtils;
 import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
@@ -89,4 +98,34 @@ public class TaskExecTest extends AbstractTest {
 
         assertEquals(faultyMessage.replace('\0', '\n'), exec.getMessage());
     }
+
+    @Test
+    public void details() {
+        TaskExec exec = entityFactory.newEntity(TaskExec.class);
+        exec.setStart(new Date());
+        exec.setEnd(new Date());
+        exec.setStatus(PropagationTaskExecStatus.SUCCESS.name());
+        exec.setTask(taskDAO.find("1e697572-b896-484c-ae7f-0c8f63fcbc6c"));
+
+        exec = taskExecDAO.saveAndAdd("1e697572-b896-484c-ae7f-0c8f63fcbc6c", exec);
+        String key = exec.getKey();
+
+        assertFalse(taskExecDAO.hasDetails(key));
+        assertFalse(taskExecDAO.readDetails(key, content -> {
+        }));
+
+        byte[] details = "USER CREATE SUCCESS".getBytes(StandardCharsets.UTF_8);
+        taskExecDAO.saveDetails(key, new ByteArrayInputStream(details), details.length);
+        assertTrue(taskExecDAO.hasDetails(key));
+
+        AtomicReference<byte[]> read = new AtomicReference<>();
+        assertTrue(taskExecDAO.readDetails(key, content -> {
+            try {
+                read.set(IOUtils.toByteArray(content));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        assertArrayEquals(details, read.get());
+    }
 }
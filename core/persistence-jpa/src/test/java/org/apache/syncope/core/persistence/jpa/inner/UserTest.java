@@ -24,8 +24,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
@@ -126,6 +128,31 @@ public class UserTest extends AbstractTest {
         assertEquals(1, list.size());
     }
 
+    @Test
+    public void findAllPlainAttrStringValues() {
+        List<Pair<String, String>> values = userDAO.findAllPlainAttrStringValues("fullname", null, 100);
+        assertTrue(values.contains(Pair.of("1417acbe-cbf6-4277-9372-e75e04f97000", "Gioacchino Rossini")));
+
+        // keyset paging: each page starts after the last owner of the previous one
+        List<Pair<String, String>> paged = new ArrayList<>();
+        List<Pair<String, String>> page = userDAO.findAllPlainAttrStringValues("fullname", null, 2);
+        while (!page.isEmpty()) {
+            paged.addAll(page);
+            page = userDAO.findAllPlainAttrStringValues("fullname", page.get(page.size() - 1).getLeft(), 2);
+        }
+        assertEquals(values, paged);
+    }
+
+    @Test
+    public void findAllNames() {
+        List<Pair<String, String>> names = userDAO.findAllNames(null, 100);
+        assertEquals(userDAO.count(), names.size());
+        assertTrue(names.contains(Pair.of("1417acbe-cbf6-4277-9372-e75e04f97000", "rossini")));
+
+        List<Pair<String, String>> page = userDAO.findAllNames(names.get(1).getLeft(), 2);
+        assertEquals(names.subList(2, 4), page);
+    }
+
     @Test
     public void findByPlainAttrBooleanValue() {
         final UPlainAttrValue coolValue = entityFactory.newEntity(UPlainAttrValue.class);
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.outer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.syncope.core.persistence.api.DomainsHolder;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.content.ContentSnapshot;
+import org.apache.syncope.core.persistence.jpa.content.SnapshotContentExporter;
+import org.apache.syncope.core.persistence.jpa.content.XMLContentExporter;
+import org.apache.syncope.core.persistence.jpa.content.XMLContentLoader;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class SnapshotContentExporterTest extends AbstractTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotContentExporterTest.class);
+
+    @Autowired
+    private XMLContentExporter xmlExporter;
+
+    @Autowired
+    private SnapshotContentExporter snapshotExporter;
+
+    @Autowired
+    private XMLContentLoader contentLoader;
+
+    @Autowired
+    private DomainsHolder domainsHolder;
+
+    @Test
+    public void export() throws Exception {
+        long start = System.currentTimeMillis();
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        xmlExporter.export("Master", xml, null, null, null);
+        long xmlTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotExporter.export("Master", snapshot, null, null, null);
+        long snapshotTime = System.currentTimeMillis() - start;
+
+        LOG.info("XML export: {} bytes in {} ms; snapshot export: {} bytes in {} ms",
+                xml.size(), xmlTime, snapshot.size(), snapshotTime);
+        assertTrue(snapshot.size() < xml.size());
+
+        // count rows per table, from XML...
+        Map<String, Integer> xmlRows = new LinkedHashMap<>();
+        for (String line : xml.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (line.endsWith("/>")) {
+                xmlRows.merge(line.substring(1, line.indexOf(' ') > 0 ? line.indexOf(' ') : line.length() - 2), 1,
+                        Integer::sum);
+            }
+        }
+
+        // ...and from snapshot
+        start = System.currentTimeMillis();
+        Map<String, Integer> snapshotRows = new LinkedHashMap<>();
+        List<String> realms = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(snapshot.toByteArray())))) {
+
+            ContentSnapshot.readHeader(in);
+            while (in.readByte() == ContentSnapshot.MORE) {
+                String tableName = in.readUTF();
+
+                int nameIdx = -1;
+                int[] columnTypes = new int[in.readInt()];
+                for (int i = 0; i < columnTypes.length; i++) {
+                    if ("NAME".equalsIgnoreCase(in.readUTF())) {
+                        nameIdx = i;
+                    }
+                    columnTypes[i] = in.readInt();
+                }
+
+                while (in.readByte() == ContentSnapshot.MORE) {
+                    for (int i = 0; i < columnTypes.length; i++) {
+                        Object value = ContentSnapshot.read(in, columnTypes[i]);
+                        if ("REALM".equalsIgnoreCase(tableName) && i == nameIdx) {
+                            realms.add(String.valueOf(value));
+                        }
+                    }
+                    snapshotRows.merge(tableName, 1, Integer::sum);
+                }
+            }
+        }
+        LOG.info("Snapshot read in {} ms", System.currentTimeMillis() - start);
+
+        assertFalse(snapshotRows.isEmpty());
+        assertEquals(xmlRows, snapshotRows);
+        assertEquals(Arrays.asList("/", "odd", "even", "two"), realms);
+    }
+
+    private static List<String> rows(final JdbcTemplate jdbcTemplate, final String tableName) {
+        // same rows and columns as exported
+        List<String> rows = jdbcTemplate.query("SELECT * FROM " + tableName
+                + ("TASK".equalsIgnoreCase(tableName) ? " WHERE DTYPE <> 'PropagationTask'" : ""),
+                (rs, rowNum) -> {
+                    ResultSetMetaData rsMeta = rs.getMetaData();
+                    Map<String, String> row = new TreeMap<>();
+                    for (int i = 1; i <= rsMeta.getColumnCount(); i++) {
+                        if (!"SYNCOPEGROUP".equalsIgnoreCase(tableName)
+                                || !"USEROWNER_ID".equalsIgnoreCase(rsMeta.getColumnName(i))) {
+
+                            row.put(rsMeta.getColumnName(i).toUpperCase(), rs.getString(i));
+                        }
+                    }
+                    return row.toString();
+                });
+        Collections.sort(rows);
+        return rows;
+    }
+
+    @Test
+    public void timestamps() throws Exception {
+        Timestamp timestamp = Timestamp.valueOf("2015-12-17 09:40:00.506000123");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(out)) {
+            ContentSnapshot.write(dos, Types.TIMESTAMP, timestamp);
+            ContentSnapshot.write(dos, Types.TIMESTAMP, null);
+        }
+
+        // no time zone nor precision involved: same local date and time, same nanoseconds
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Timestamp read = (Timestamp) ContentSnapshot.read(in, Types.TIMESTAMP);
+            assertEquals(timestamp, read);
+            assertEquals(timestamp.toString(), read.toString());
+            assertEquals(timestamp.getNanos(), read.getNanos());
+            assertNull(ContentSnapshot.read(in, Types.TIMESTAMP));
+        }
+    }
+
+    @Test
+    public void load() throws Exception {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotExporter.export("Master", snapshot, null, null, null);
+
+        List<String> tableNames = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new ByteArrayInputStream(snapshot.toByteArray())))) {
+
+            ContentSnapshot.readHeader(in);
+            while (in.readByte() == ContentSnapshot.MORE) {
+                tableNames.add(in.readUTF());
+
+                int[] columnTypes = new int[in.readInt()];
+                for (int i = 0; i < columnTypes.length; i++) {
+                    in.readUTF();
+                    columnTypes[i] = in.readInt();
+                }
+                while (in.readByte() == ContentSnapshot.MORE) {
+                    for (int columnType : columnTypes) {
+                        ContentSnapshot.read(in, columnType);
+                    }
+                }
+            }
+        }
+        assertFalse(tableNames.isEmpty());
+
+        JdbcTemplate source = new JdbcTemplate(domainsHolder.getDomains().get("Master"));
+
+        // empty data source with the same schema, but foreign keys: users, for example, are not exported
+        JdbcTemplate target = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:snapshotLoad;DB_CLOSE_DELAY=-1", "sa", ""));
+        source.queryForList("SCRIPT NODATA", String.class).stream().
+                filter(statement -> !statement.startsWith("--") && !statement.contains("FOREIGN KEY")).
+                forEach(target::execute);
+
+        File snapshotFile = File.createTempFile("Master", "Content.snapshot");
+        try {
+            Files.write(snapshotFile.toPath(), snapshot.toByteArray());
+            contentLoader.loadSnapshot("Master", snapshotFile, target.getDataSource());
+
+            for (String tableName : tableNames) {
+                assertEquals(rows(source, tableName), rows(target, tableName), tableName);
+            }
+
+            // timestamps are loaded as they were, to the fraction of second
+            String creationDates = "SELECT creationDate FROM SyncopeGroup ORDER BY id";
+            List<Timestamp> sourceDates = source.queryForList(creationDates, Timestamp.class);
+            assertFalse(sourceDates.isEmpty());
+            assertEquals(sourceDates, target.queryForList(creationDates, Timestamp.class));
+        } finally {
+            snapshotFile.delete();
+            target.execute("DROP ALL OBJECTS");
+        }
+    }
+}
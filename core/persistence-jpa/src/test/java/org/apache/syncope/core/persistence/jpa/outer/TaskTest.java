@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import javax.persistence.Query;
 import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ImplementationEngine;
@@ -55,6 +56,7 @@ import org.apache.syncope.core.persistence.api.entity.task.PushTask;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.entity.task.AbstractTask;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.junit.jupiter.api.Test;
@@ -141,6 +143,53 @@ public class TaskTest extends AbstractTest {
                 contains(task));
     }
 
+    @Test
+    public void saveCompressedAttributes() {
+        ExternalResource resource = resourceDAO.find("ws-target-resource-1");
+        assertNotNull(resource);
+
+        PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+        task.setResource(resource);
+        task.setAnyTypeKind(AnyTypeKind.USER);
+        task.setAnyType(AnyTypeKind.USER.name());
+        task.setOperation(ResourceOperation.UPDATE);
+        task.setConnObjectKey("one@two.com");
+
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add("testValue" + i);
+        }
+        Set<Attribute> attributes = new HashSet<>();
+        attributes.add(AttributeBuilder.build("testAttribute", values));
+        attributes.add(AttributeBuilder.build("other", "\u00e8\u00e0\u00f9"));
+        task.setAttributes(attributes);
+
+        task = taskDAO.save(task);
+        taskDAO.flush();
+        entityManager().clear();
+
+        // large attributes are stored compressed...
+        Query query = entityManager().createNativeQuery(
+                "SELECT id FROM " + AbstractTask.TABLE + " WHERE id=? AND attributes LIKE 'gzip:%'");
+        query.setParameter(1, task.getKey());
+        assertEquals(1, query.getResultList().size());
+
+        // ...and read back as they were set
+        PropagationTask actual = taskDAO.find(task.getKey());
+        assertEquals(attributes, actual.getAttributes());
+        assertFalse(actual.getSerializedAttributes().startsWith("gzip:"));
+
+        // small attributes are stored as they are
+        Set<Attribute> small = Collections.singleton(AttributeBuilder.build("testAttribute", "testValue"));
+        actual.setAttributes(small);
+        taskDAO.save(actual);
+        taskDAO.flush();
+        entityManager().clear();
+
+        assertTrue(query.getResultList().isEmpty());
+        assertEquals(small, taskDAO.<PropagationTask>find(task.getKey()).getAttributes());
+    }
+
     @Test
     public void addPropagationTaskExecution() {
         PropagationTask task = taskDAO.find("1e697572-b896-484c-ae7f-0c8f63fcbc6c");
@@ -19,7 +19,9 @@
 package org.apache.syncope.core.provisioning.api;
 
 import java.util.Collection;
+import java.util.concurrent.Semaphore;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
@@ -61,6 +63,24 @@ public interface ConnectorFactory {
      */
     Connector getConnector(ExternalResource resource);
 
+    /**
+     * Get the permits to hold while sending requests to the given resource from batch jobs, such as push tasks:
+     * shared by all such jobs and sized after the connector pool, so that altogether they never send more concurrent
+     * requests than the pool can serve. Permits are renewed whenever the resource or its connector is updated.
+     *
+     * @param resource the resource
+     * @return permits for sending requests to the given resource
+     */
+    Semaphore getPermits(ExternalResource resource);
+
+    /**
+     * Get live usage statistics for the connectors built from the given connector instance.
+     *
+     * @param connInstance connector instance
+     * @return usage statistics, aggregated over all the resources using the given connector instance
+     */
+    ConnectorStatsTO getStats(ConnInstance connInstance);
+
     /**
      * Load connectors for all existing resources.
      *
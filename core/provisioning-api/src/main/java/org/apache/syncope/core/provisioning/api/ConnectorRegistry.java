@@ -38,4 +38,12 @@ public interface ConnectorRegistry {
      * @param id Spring bean id
      */
     void unregisterConnector(String id);
+
+    /**
+     * Removes the Spring bean for the given resource from the context, along with any other state kept for it;
+     * meant for resources being deleted.
+     *
+     * @param resource external resource
+     */
+    void unregisterConnector(ExternalResource resource);
 }
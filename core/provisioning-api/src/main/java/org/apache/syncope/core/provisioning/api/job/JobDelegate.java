@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.provisioning.api.job;
 
+import org.apache.syncope.common.lib.to.JobProgressTO;
+
 /**
  * Implementations of this interface will perform the actual operations required to Quartz's {@link org.quartz.Job}.
  */
@@ -25,6 +27,13 @@ public interface JobDelegate {
 
     String currentStatus();
 
+    /**
+     * @return structured progress of the current execution, or null if not supported
+     */
+    default JobProgressTO currentProgress() {
+        return null;
+    }
+
     void interrupt();
 
     boolean isInterrupted();
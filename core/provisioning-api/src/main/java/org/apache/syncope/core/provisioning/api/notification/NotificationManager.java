@@ -85,6 +85,14 @@ public interface NotificationManager {
             Object output,
             Object... input);
 
+    /**
+     * Create notification tasks for the digests, collected by notifications in digest mode, whose window is elapsed;
+     * this happens within a new transaction, so that created tasks are available to the caller once committed.
+     *
+     * @return created notification tasks
+     */
+    List<NotificationTask> flushDigests();
+
     long getMaxRetries();
 
     /**
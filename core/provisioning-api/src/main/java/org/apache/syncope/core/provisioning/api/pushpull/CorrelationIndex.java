@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.pushpull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the values of the internal attribute mapped as connector object key, to the keys of the
+ * any objects owning them; built once before processing all the objects of a reconciliation, it replaces one or
+ * more queries per object with a map lookup.
+ *
+ * Instances are populated before processing and then kept aligned with the any objects created, updated, linked or
+ * deleted while processing, possibly by concurrent pull workers.
+ */
+public class CorrelationIndex {
+
+    /**
+     * Rough per-entry overhead of the underlying hash map, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final boolean ignoreCaseMatch;
+
+    private final Map<String, List<String>> index = new ConcurrentHashMap<>();
+
+    private final AtomicLong estimatedSize = new AtomicLong();
+
+    public CorrelationIndex(final boolean ignoreCaseMatch) {
+        this.ignoreCaseMatch = ignoreCaseMatch;
+    }
+
+    private String normalize(final String value) {
+        return ignoreCaseMatch ? value.toLowerCase(Locale.ENGLISH) : value;
+    }
+
+    private static long sizeOf(final String value) {
+        return 40 + 2L * value.length();
+    }
+
+    public void add(final String value, final String anyKey) {
+        if (value == null || anyKey == null) {
+            return;
+        }
+
+        index.compute(normalize(value), (normalized, keys) -> {
+            if (keys == null) {
+                estimatedSize.addAndGet(ENTRY_OVERHEAD + sizeOf(normalized) + sizeOf(anyKey));
+                return Collections.singletonList(anyKey);
+            }
+            if (keys.contains(anyKey)) {
+                return keys;
+            }
+
+            List<String> extended = new ArrayList<>(keys);
+            extended.add(anyKey);
+            estimatedSize.addAndGet(sizeOf(anyKey));
+            return extended;
+        });
+    }
+
+    public void remove(final String value, final String anyKey) {
+        if (value == null || anyKey == null) {
+            return;
+        }
+
+        index.computeIfPresent(normalize(value), (normalized, keys) -> {
+            if (!keys.contains(anyKey)) {
+                return keys;
+            }
+
+            List<String> reduced = new ArrayList<>(keys);
+            reduced.remove(anyKey);
+            estimatedSize.addAndGet(-sizeOf(anyKey) - (reduced.isEmpty() ? ENTRY_OVERHEAD + sizeOf(normalized) : 0));
+            return reduced.isEmpty() ? null : reduced;
+        });
+    }
+
+    /**
+     * @param value connector object key value
+     * @return keys of the matching any objects, empty if none is indexed
+     */
+    public List<String> get(final String value) {
+        List<String> keys = value == null ? null : index.get(normalize(value));
+        return keys == null ? Collections.emptyList() : keys;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return rough estimate of the heap memory used by this index, in bytes
+     */
+    public long getEstimatedSize() {
+        return estimatedSize.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CorrelationIndex{" + "entries=" + index.size() + ", estimatedSize=" + estimatedSize.get() + '}';
+    }
+}
@@ -34,6 +34,10 @@ public interface ProvisioningActions {
 
     /**
      * Action to be executed after the provisioning (push / pull) task completion.
+     * <strong>With scheduled tasks, results are moved out of the profile as soon as each object is handled, not to
+     * pile up in memory: {@link ProvisioningProfile#getPendingResults()} is empty here.</strong> Actions relying on
+     * the results of the whole execution shall collect them from the result of each object, passed to the after and
+     * onError actions; the task execution keeps the overall counters and details.
      *
      * @param profile provisioning profile
      * @throws JobExecutionException in case of generic failure
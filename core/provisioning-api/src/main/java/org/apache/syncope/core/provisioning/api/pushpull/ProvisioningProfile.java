@@ -19,6 +19,7 @@
 package org.apache.syncope.core.provisioning.api.pushpull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.syncope.core.persistence.api.entity.task.ProvisioningTask;
@@ -30,7 +31,7 @@ public class ProvisioningProfile<T extends ProvisioningTask, A extends Provision
 
     private final T task;
 
-    private final List<ProvisioningReport> results = new ArrayList<>();
+    private final List<ProvisioningReport> results = Collections.synchronizedList(new ArrayList<>());
 
     private boolean dryRun;
 
@@ -51,6 +52,28 @@ public class ProvisioningProfile<T extends ProvisioningTask, A extends Provision
         return task;
     }
 
+    /**
+     * @return results of the objects being handled; with scheduled tasks, results are moved from here to the task
+     * execution as soon as each object is handled
+     */
+    public List<ProvisioningReport> getPendingResults() {
+        return results;
+    }
+
+    /**
+     * <strong>WARNING: this list does not hold the results of the whole task execution.</strong>
+     * With scheduled tasks, results are moved from here to the task execution as soon as each object is handled, not
+     * to pile up in memory: the list is empty by the time {@link ProvisioningActions#afterAll(ProvisioningProfile)}
+     * is invoked.
+     * <p>
+     * Migration: actions inspecting the results in {@code afterAll} shall rather collect what they need from the
+     * {@code after} and {@code onError} methods, invoked with the result of each object; the overall counters and
+     * details remain available with the task execution.
+     *
+     * @return results of the objects being handled
+     * @deprecated use {@link #getPendingResults()}, or collect the result of each object as described above
+     */
+    @Deprecated
     public List<ProvisioningReport> getResults() {
         return results;
     }
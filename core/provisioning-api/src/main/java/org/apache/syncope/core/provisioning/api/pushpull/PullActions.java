@@ -172,6 +172,8 @@ public interface PullActions extends ProvisioningActions {
 
     /**
      * Action to be executed after each local entity pull.
+     * This is invoked also when the update is skipped because the entity and the pulled attributes are unchanged
+     * since last pull: in such case no beforeUpdate is invoked and entity is the current, unmodified entity.
      *
      * @param profile profile of the pull being executed.
      * @param delta retrieved pull information (may be modified by beforeProvision / beforeUpdate /
@@ -26,6 +26,15 @@ public interface SyncopePullResultHandler extends SyncopeResultHandler<PullTask,
 
     void setPullExecutor(SyncopePullExecutor executor);
 
+    /**
+     * Sets the index to look up first when matching pulled objects with existing entities.
+     *
+     * @param correlationIndex correlation index, can be null
+     */
+    default void setCorrelationIndex(CorrelationIndex correlationIndex) {
+        // nothing to do
+    }
+
     @Override
     boolean handle(SyncDelta delta);
 }
@@ -29,6 +29,14 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import org.apache.commons.lang3.StringUtils;
@@ -48,13 +56,24 @@ import org.identityconnectors.framework.api.ConnectorKey;
 import org.identityconnectors.framework.api.RemoteFrameworkConnectionInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 
-public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
+public class ConnIdBundleManagerImpl implements ConnIdBundleManager, DisposableBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConnIdBundleManager.class);
 
     private String stringLocations;
 
+    /**
+     * Seconds to wait for a remote connector server to respond, before considering it unreachable.
+     */
+    private long remoteTimeout = 30;
+
+    /**
+     * Seconds between background refreshes of remote connector servers; non-positive to disable.
+     */
+    private long refreshInterval = 300;
+
     /**
      * ConnId Locations.
      */
@@ -65,6 +84,34 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
      */
     private final Map<URI, ConnectorInfoManager> connInfoManagers = Collections.synchronizedMap(new LinkedHashMap<>());
 
+    /**
+     * Remote locations whose discovery is in progress.
+     */
+    private final Map<URI, Future<ConnectorInfoManager>> pendingRemotes = new ConcurrentHashMap<>();
+
+    /**
+     * Locations for which discovery was already attempted, successfully or not.
+     */
+    private final Set<URI> attempted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * When discovery was last started, by location.
+     */
+    private final Map<URI, Long> lastDiscovery = new ConcurrentHashMap<>();
+
+    /**
+     * ConnectorInfo instances, by location and bundle.
+     */
+    private final Map<Pair<URI, ConnectorKey>, ConnectorInfo> connInfos = new ConcurrentHashMap<>();
+
+    /**
+     * ConfigurationProperties instances, by ConnectorInfo.
+     */
+    private final Map<ConnectorInfo, ConfigurationProperties> confProperties =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ScheduledExecutorService executor;
+
     @Override
     public List<URI> getLocations() {
         init();
@@ -77,22 +124,48 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
         this.stringLocations = stringLocations;
     }
 
-    private void init() {
+    public void setRemoteTimeout(final long remoteTimeout) {
+        this.remoteTimeout = remoteTimeout;
+    }
+
+    public void setRefreshInterval(final long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    private synchronized void init() {
         if (locations == null) {
-            locations = new ArrayList<>();
+            List<URI> valid = new ArrayList<>();
             for (String location : StringUtils.isBlank(stringLocations) ? new String[0] : stringLocations.split(",")) {
                 try {
-                    locations.add(URIUtils.buildForConnId(location));
+                    valid.add(URIUtils.buildForConnId(location));
                     LOG.info("Valid ConnId location: {}", location.trim());
                 } catch (Exception e) {
                     LOG.error("Invalid ConnId location: {}", location.trim(), e);
                 }
             }
-            locations = Collections.unmodifiableList(locations);
+
+            long remotes = valid.stream().filter(location -> isRemote(location)).count();
+            if (remotes > 0) {
+                executor = Executors.newScheduledThreadPool((int) remotes, runnable -> {
+                    Thread thread = new Thread(runnable, "ConnIdRemoteDiscovery");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                if (refreshInterval > 0) {
+                    executor.scheduleWithFixedDelay(
+                            this::refreshRemotes, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+                }
+            }
+
+            locations = Collections.unmodifiableList(valid);
         }
     }
 
-    private void initLocal(final URI location) {
+    private static boolean isRemote(final URI location) {
+        return location.getScheme().startsWith("connid");
+    }
+
+    protected ConnectorInfoManager initLocal(final URI location) {
         // 1. Find bundles inside local directory
         File bundleDirectory = new File(location);
         String[] bundleFiles = bundleDirectory.list();
@@ -123,10 +196,10 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
             throw new NotFoundException("Local ConnectorInfoManager");
         }
 
-        connInfoManagers.put(location, manager);
+        return manager;
     }
 
-    private void initRemote(final URI location) {
+    protected ConnectorInfoManager initRemote(final URI location) {
         // 1. Extract conf params for remote connection from given URI
         String host = location.getHost();
         int port = location.getPort();
@@ -172,7 +245,7 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
                 host, port, key, useSSL, !trustManagers.isEmpty());
 
         RemoteFrameworkConnectionInfo info =
-                new RemoteFrameworkConnectionInfo(host, port, key, useSSL, trustManagers, 60 * 1000);
+                new RemoteFrameworkConnectionInfo(host, port, key, useSSL, trustManagers, (int) remoteTimeout * 1000);
         LOG.debug("Remote connection info: {}", info);
 
         // 2. Get connector info manager
@@ -181,35 +254,123 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
             throw new NotFoundException("Remote ConnectorInfoManager");
         }
 
-        connInfoManagers.put(location, manager);
+        return manager;
+    }
+
+    /**
+     * Starts the discovery of the given location: local locations are processed synchronously, remote ones
+     * asynchronously.
+     *
+     * @param location location
+     * @return remote discovery in progress, or null for local locations
+     */
+    private Future<ConnectorInfoManager> discover(final URI location) {
+        Future<ConnectorInfoManager> future = null;
+
+        attempted.add(location);
+        lastDiscovery.put(location, System.currentTimeMillis());
+        if ("file".equals(location.getScheme())) {
+            LOG.debug("Local initialization: {}", location);
+            connInfoManagers.put(location, initLocal(location));
+        } else if (isRemote(location)) {
+            future = pendingRemotes.computeIfAbsent(location, remote -> executor.submit(() -> {
+                try {
+                    LOG.debug("Remote initialization: {}", remote);
+                    ConnectorInfoManager manager = initRemote(remote);
+                    if (attempted.contains(remote)) {
+                        connInfoManagers.put(remote, manager);
+                        evict(remote);
+                    }
+                    return manager;
+                } catch (Exception e) {
+                    LOG.error("Could not process {}", remote, e);
+                    throw e;
+                } finally {
+                    pendingRemotes.remove(remote);
+                }
+            }));
+        } else {
+            LOG.warn("Unsupported scheme: {}", location);
+        }
+
+        return future;
+    }
+
+    /**
+     * On-demand retries of an unreachable location are spaced by {@link #remoteTimeout}, so that callers do not
+     * keep waiting for it one after the other.
+     *
+     * @param location location
+     * @return whether the given location can be tried again
+     */
+    private boolean isRetryDue(final URI location) {
+        Long last = lastDiscovery.get(location);
+        return last == null || System.currentTimeMillis() - last >= TimeUnit.SECONDS.toMillis(remoteTimeout);
+    }
+
+    private void await(final URI location, final Future<ConnectorInfoManager> future) {
+        try {
+            future.get(remoteTimeout, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            LOG.warn("{} did not respond within {} seconds, will keep trying in background", location, remoteTimeout);
+        } catch (Exception e) {
+            LOG.debug("Could not process {}", location, e);
+        }
+    }
+
+    private void evict(final URI location) {
+        connInfos.keySet().removeIf(key -> key.getLeft().equals(location));
+    }
+
+    /**
+     * Re-reads all remote connector servers, so that newly deployed bundles are found and previously unreachable
+     * servers are eventually resolved.
+     */
+    private void refreshRemotes() {
+        List<URI> remotes = locations.stream().
+                filter(location -> isRemote(location) && attempted.contains(location)).
+                collect(Collectors.toList());
+        if (remotes.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Refreshing remote connector servers: {}", remotes);
+        ConnectorInfoManagerFactory.getInstance().clearRemoteCache();
+        remotes.forEach(location -> {
+            try {
+                discover(location);
+            } catch (Exception e) {
+                LOG.error("Could not refresh {}", location, e);
+            }
+        });
     }
 
     @Override
     public void resetConnManagers() {
+        attempted.clear();
+        lastDiscovery.clear();
         connInfoManagers.clear();
+        connInfos.clear();
+        confProperties.clear();
     }
 
     @Override
     public Map<URI, ConnectorInfoManager> getConnManagers() {
         init();
 
-        if (connInfoManagers.isEmpty()) {
-            locations.forEach(location -> {
-                try {
-                    if ("file".equals(location.getScheme())) {
-                        LOG.debug("Local initialization: {}", location);
-                        initLocal(location);
-                    } else if (location.getScheme().startsWith("connid")) {
-                        LOG.debug("Remote initialization: {}", location);
-                        initRemote(location);
-                    } else {
-                        LOG.warn("Unsupported scheme: {}", location);
-                    }
-                } catch (Exception e) {
-                    LOG.error("Could not process {}", location, e);
+        // remote locations are resolved in parallel, waiting at most remoteTimeout for each
+        Map<URI, Future<ConnectorInfoManager>> remotes = new LinkedHashMap<>();
+        locations.stream().filter(location -> !attempted.contains(location)).forEach(location -> {
+            try {
+                Future<ConnectorInfoManager> future = discover(location);
+                if (future != null) {
+                    remotes.put(location, future);
                 }
-            });
-        }
+            } catch (Exception e) {
+                LOG.error("Could not process {}", location, e);
+            }
+        });
+        remotes.forEach(this::await);
 
         if (LOG.isDebugEnabled()) {
             connInfoManagers.entrySet().stream().map(entry -> {
@@ -245,10 +406,24 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
                     + "\nBundle class: " + key.getConnectorName());
         }
 
-        // get the specified connector
+        // get the specified connector, waiting for its location to be resolved if still in progress
+        ConnectorInfoManager manager = getConnManagers().get(uriLocation);
+        if (manager == null && isRemote(uriLocation) && locations.contains(uriLocation)) {
+            Future<ConnectorInfoManager> pending = pendingRemotes.get(uriLocation);
+            if (pending == null && isRetryDue(uriLocation)) {
+                // previously unreachable: retry now rather than waiting for the next background refresh
+                LOG.debug("{} not available, retrying", uriLocation);
+                pending = discover(uriLocation);
+            }
+            if (pending != null) {
+                await(uriLocation, pending);
+                manager = connInfoManagers.get(uriLocation);
+            }
+        }
         ConnectorInfo info = null;
-        if (getConnManagers().containsKey(uriLocation)) {
-            info = getConnManagers().get(uriLocation).findConnectorInfo(key);
+        if (manager != null) {
+            ConnectorInfoManager found = manager;
+            info = connInfos.computeIfAbsent(Pair.of(uriLocation, key), k -> found.findConnectorInfo(k.getRight()));
         }
         if (info == null) {
             throw new NotFoundException("ConnectorInfo for location " + connInstance.getLocation() + " and key " + key);
@@ -268,6 +443,11 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
             throw new NotFoundException("Invalid: connector info is null");
         }
 
+        ConfigurationProperties cached = confProperties.get(info);
+        if (cached != null) {
+            return cached;
+        }
+
         // create default configuration
         APIConfiguration apiConfig = info.createDefaultAPIConfiguration();
 
@@ -286,6 +466,14 @@ public class ConnIdBundleManagerImpl implements ConnIdBundleManager {
             });
         }
 
+        confProperties.put(info, properties);
         return properties;
     }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 }
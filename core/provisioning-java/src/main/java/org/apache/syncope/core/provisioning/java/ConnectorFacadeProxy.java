@@ -22,9 +22,11 @@ import java.io.File;
 import java.net.URI;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
@@ -63,6 +65,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ClassUtils;
 import org.apache.syncope.core.provisioning.api.pushpull.ReconFilterBuilder;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
 
 public class ConnectorFacadeProxy implements Connector {
 
@@ -80,6 +83,16 @@ public class ConnectorFacadeProxy implements Connector {
      */
     private final ConnInstance connInstance;
 
+    /**
+     * Whether the connector facade pools connector instances as configured by the connector instance.
+     */
+    private final boolean pooled;
+
+    /**
+     * Usage statistics of this facade.
+     */
+    private final ConnectorStats stats = new ConnectorStats();
+
     @Autowired
     private AsyncConnectorFacade asyncFacade;
 
@@ -114,13 +127,12 @@ public class ConnectorFacadeProxy implements Connector {
                 });
 
         // set pooling configuration (if supported) according to conninstance's
-        if (connInstance.getPoolConf() != null) {
-            if (apiConfig.isConnectorPoolingSupported()) {
-                ConnPoolConfUtils.updateObjectPoolConfiguration(
-                        apiConfig.getConnectorPoolConfiguration(), connInstance.getPoolConf());
-            } else {
-                LOG.warn("Connector pooling not supported for {}", info);
-            }
+        pooled = connInstance.getPoolConf() != null && apiConfig.isConnectorPoolingSupported();
+        if (pooled) {
+            ConnPoolConfUtils.updateObjectPoolConfiguration(
+                    apiConfig.getConnectorPoolConfiguration(), connInstance.getPoolConf());
+        } else if (connInstance.getPoolConf() != null) {
+            LOG.warn("Connector pooling not supported for {}", info);
         }
 
         // gets new connector, with the given configuration
@@ -138,7 +150,7 @@ public class ConnectorFacadeProxy implements Connector {
             Future<Uid> future = asyncFacade.authenticate(
                     connector, username, new GuardedString(password.toCharArray()), options);
             try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+                result = await(future);
             } catch (java.util.concurrent.TimeoutException e) {
                 future.cancel(true);
                 throw new TimeoutException("Request timeout");
@@ -172,7 +184,7 @@ public class ConnectorFacadeProxy implements Connector {
 
             Future<Uid> future = asyncFacade.create(connector, objectClass, attrs, options);
             try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+                result = await(future);
             } catch (java.util.concurrent.TimeoutException e) {
                 future.cancel(true);
                 throw new TimeoutException("Request timeout");
@@ -208,7 +220,7 @@ public class ConnectorFacadeProxy implements Connector {
             Future<Uid> future = asyncFacade.update(connector, objectClass, uid, attrs, options);
 
             try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+                result = await(future);
             } catch (java.util.concurrent.TimeoutException e) {
                 future.cancel(true);
                 throw new TimeoutException("Request timeout");
@@ -242,7 +254,7 @@ public class ConnectorFacadeProxy implements Connector {
             Future<Uid> future = asyncFacade.delete(connector, objectClass, uid, options);
 
             try {
-                future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+                await(future);
             } catch (java.util.concurrent.TimeoutException e) {
                 future.cancel(true);
                 throw new TimeoutException("Request timeout");
@@ -266,7 +278,14 @@ public class ConnectorFacadeProxy implements Connector {
             final OperationOptions options) {
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SYNC)) {
-            connector.sync(objectClass, token, handler, options);
+            long start = stats.begin();
+            boolean failed = true;
+            try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.CONNECTOR)) {
+                connector.sync(objectClass, token, paused(handler), options);
+                failed = false;
+            } finally {
+                stats.end(start, failed, false);
+            }
         } else {
             LOG.info("Sync was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -281,7 +300,7 @@ public class ConnectorFacadeProxy implements Connector {
             Future<SyncToken> future = asyncFacade.getLatestSyncToken(connector, objectClass);
 
             try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+                result = await(future);
             } catch (java.util.concurrent.TimeoutException e) {
                 future.cancel(true);
                 throw new TimeoutException("Request timeout");
@@ -326,19 +345,28 @@ public class ConnectorFacadeProxy implements Connector {
             actualOptions = filterBuilder.build(actualOptions);
         }
 
-        search(objectClass, filter, object -> handler.handle(new SyncDeltaBuilder().
+        // each delta carries, as token, the paged results cookie of the page it belongs to: once all deltas up to a
+        // given one are handled, reconciliation can be resumed from such cookie
+        AtomicReference<String> cookie = new AtomicReference<>(actualOptions.getPagedResultsCookie());
+        ResultsHandler resultsHandler = object -> handler.handle(new SyncDeltaBuilder().
                 setObject(object).
                 setUid(object.getUid()).
                 setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
-                setToken(new SyncToken("")).
-                build()), actualOptions);
+                setToken(new SyncToken(cookie.get() == null ? "" : cookie.get())).
+                build());
+
+        if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
+            pagedSearch(objectClass, filter, resultsHandler, actualOptions, cookie);
+        } else {
+            search(objectClass, filter, resultsHandler, actualOptions);
+        }
     }
 
     @Override
     public Set<ObjectClassInfo> getObjectClassInfo() {
         Future<Set<ObjectClassInfo>> future = asyncFacade.getObjectClassInfo(connector);
         try {
-            return future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            return await(future);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
             throw new TimeoutException("Request timeout");
@@ -356,7 +384,7 @@ public class ConnectorFacadeProxy implements Connector {
     public void validate() {
         Future<String> future = asyncFacade.test(connector);
         try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            await(future);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
             throw new TimeoutException("Request timeout");
@@ -374,7 +402,7 @@ public class ConnectorFacadeProxy implements Connector {
     public void test() {
         Future<String> future = asyncFacade.test(connector);
         try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            await(future);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
             throw new TimeoutException("Request timeout");
@@ -405,7 +433,7 @@ public class ConnectorFacadeProxy implements Connector {
         }
 
         try {
-            return future == null ? null : future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            return future == null ? null : await(future);
         } catch (java.util.concurrent.TimeoutException e) {
             future.cancel(true);
             throw new TimeoutException("Request timeout");
@@ -430,33 +458,9 @@ public class ConnectorFacadeProxy implements Connector {
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
             if (options.getPageSize() == null && options.getPagedResultsCookie() == null) {
-                OperationOptionsBuilder builder = new OperationOptionsBuilder(options).
-                        setPageSize(DEFAULT_PAGE_SIZE).setPagedResultsOffset(-1);
-
-                final String[] cookies = new String[] { null };
-                do {
-                    if (cookies[0] != null) {
-                        builder.setPagedResultsCookie(cookies[0]);
-                    }
-
-                    result = connector.search(objectClass, filter, new SearchResultsHandler() {
-
-                        @Override
-                        public void handleResult(final SearchResult result) {
-                            if (handler instanceof SearchResultsHandler) {
-                                SearchResultsHandler.class.cast(handler).handleResult(result);
-                            }
-                            cookies[0] = result.getPagedResultsCookie();
-                        }
-
-                        @Override
-                        public boolean handle(final ConnectorObject connectorObject) {
-                            return handler.handle(connectorObject);
-                        }
-                    }, builder.build());
-                } while (cookies[0] != null);
+                result = pagedSearch(objectClass, filter, handler, options, new AtomicReference<>());
             } else {
-                result = connector.search(objectClass, filter, handler, options);
+                result = doSearch(objectClass, filter, handler, options);
             }
         } else {
             LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
@@ -489,6 +493,170 @@ public class ConnectorFacadeProxy implements Connector {
         return search(objectClass, filter, handler, builder.build());
     }
 
+    /**
+     * Searches page by page, starting from the given paged results cookie, until either no more pages are available
+     * or the handler asks to stop; page size is taken from options, if available.
+     *
+     * @param objectClass ConnId's object class
+     * @param filter search filter
+     * @param handler results handler
+     * @param options ConnId's OperationOptions
+     * @param cookie paged results cookie to start from, updated as soon as each page is completed
+     * @return last search result
+     */
+    private SearchResult pagedSearch(
+            final ObjectClass objectClass,
+            final Filter filter,
+            final ResultsHandler handler,
+            final OperationOptions options,
+            final AtomicReference<String> cookie) {
+
+        OperationOptionsBuilder builder = new OperationOptionsBuilder(options).
+                setPageSize(options.getPageSize() == null ? DEFAULT_PAGE_SIZE : options.getPageSize()).
+                setPagedResultsOffset(-1);
+
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        SearchResult result;
+        do {
+            builder.setPagedResultsCookie(cookie.get());
+
+            result = doSearch(objectClass, filter, new SearchResultsHandler() {
+
+                @Override
+                public void handleResult(final SearchResult result) {
+                    if (handler instanceof SearchResultsHandler) {
+                        SearchResultsHandler.class.cast(handler).handleResult(result);
+                    }
+                    cookie.set(result.getPagedResultsCookie());
+                }
+
+                @Override
+                public boolean handle(final ConnectorObject connectorObject) {
+                    boolean proceed = handler.handle(connectorObject);
+                    if (!proceed) {
+                        stopped.set(true);
+                    }
+                    return proceed;
+                }
+            }, builder.build());
+        } while (cookie.get() != null && !stopped.get());
+
+        return result;
+    }
+
+    /**
+     * When running within a job, makes the time spent by the given handler not accounted as connector time.
+     *
+     * @param handler sync results handler
+     * @return handler, paused while handling each delta
+     */
+    private SyncResultsHandler paused(final SyncResultsHandler handler) {
+        if (!JobProgress.isBound()) {
+            return handler;
+        }
+
+        return delta -> {
+            try (JobProgress.Timer timer = JobProgress.pause()) {
+                return handler.handle(delta);
+            }
+        };
+    }
+
+    /**
+     * When running within a job, makes the time spent by the given handler not accounted as connector time.
+     *
+     * @param handler results handler
+     * @return handler, paused while handling each object
+     */
+    private ResultsHandler paused(final ResultsHandler handler) {
+        if (!JobProgress.isBound()) {
+            return handler;
+        }
+
+        return new SearchResultsHandler() {
+
+            @Override
+            public void handleResult(final SearchResult result) {
+                if (handler instanceof SearchResultsHandler) {
+                    SearchResultsHandler.class.cast(handler).handleResult(result);
+                }
+            }
+
+            @Override
+            public boolean handle(final ConnectorObject connectorObject) {
+                try (JobProgress.Timer timer = JobProgress.pause()) {
+                    return handler.handle(connectorObject);
+                }
+            }
+        };
+    }
+
+    private SearchResult doSearch(
+            final ObjectClass objectClass,
+            final Filter filter,
+            final ResultsHandler handler,
+            final OperationOptions options) {
+
+        long start = stats.begin();
+        boolean failed = true;
+        try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.CONNECTOR)) {
+            SearchResult result = connector.search(objectClass, filter, paused(handler), options);
+            failed = false;
+            return result;
+        } finally {
+            stats.end(start, failed, false);
+        }
+    }
+
+    /**
+     * Waits for the given request to complete, within the configured request timeout, while collecting
+     * usage statistics.
+     *
+     * @param <T> result type
+     * @param future request
+     * @return request result
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws ExecutionException if the request threw an exception
+     * @throws java.util.concurrent.TimeoutException if the request timed out
+     */
+    private <T> T await(final Future<T> future)
+            throws InterruptedException, ExecutionException, java.util.concurrent.TimeoutException {
+
+        long start = stats.begin();
+        boolean failed = true;
+        boolean timedOut = false;
+        try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.CONNECTOR)) {
+            T result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+            failed = false;
+            return result;
+        } catch (java.util.concurrent.TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            stats.end(start, failed, timedOut);
+        }
+    }
+
+    /**
+     * Sends the given number of concurrent, non-blocking test requests to the underlying facade, so that the
+     * connector pool (if any) gets populated before actual requests come in.
+     *
+     * @param count number of concurrent test requests
+     */
+    public void warmUp(final int count) {
+        for (int i = 0; i < count; i++) {
+            stats.warmUp(asyncFacade.test(connector));
+        }
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public ConnectorStats getStats() {
+        return stats;
+    }
+
     @Override
     public ConnInstance getConnInstance() {
         return connInstance;
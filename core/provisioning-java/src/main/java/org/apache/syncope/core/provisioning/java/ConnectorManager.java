@@ -18,13 +18,18 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
 import org.apache.syncope.core.persistence.api.SyncopeLoader;
@@ -33,6 +38,7 @@ import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.apache.syncope.core.persistence.api.entity.ConnPoolConf;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
 import org.apache.syncope.core.provisioning.api.Connector;
@@ -40,6 +46,7 @@ import org.apache.syncope.core.provisioning.api.ConnectorFactory;
 import org.apache.syncope.core.provisioning.api.ConnectorRegistry;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.provisioning.api.data.ConnInstanceDataBinder;
+import org.apache.syncope.core.provisioning.api.utils.ConnPoolConfUtils;
 import org.identityconnectors.common.l10n.CurrentLocale;
 import org.identityconnectors.framework.api.ConnectorFacadeFactory;
 import org.slf4j.Logger;
@@ -53,6 +60,13 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
 
     private static final Logger LOG = LoggerFactory.getLogger(ConnectorManager.class);
 
+    private static final double POOL_HEADROOM = 1.25;
+
+    /**
+     * Max number of concurrent requests from batch jobs to a resource whose connector has no pool configured.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
     @Autowired
     private ConnIdBundleManager connIdBundleManager;
 
@@ -67,6 +81,25 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
 
     private EntityFactory entityFactory;
 
+    /**
+     * Permits for sending requests from batch jobs, by domain and resource.
+     */
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Max number of concurrent requests from batch jobs to the given resource: the connector instances available,
+     * as requests in excess would just wait for one to become free.
+     *
+     * @param resource external resource
+     * @return max number of concurrent requests
+     */
+    public static int getMaxConcurrentRequests(final ExternalResource resource) {
+        ConnPoolConf poolConf = resource.getConnector().getPoolConf();
+        return poolConf != null && poolConf.getMaxObjects() != null && poolConf.getMaxObjects() > 0
+                ? poolConf.getMaxObjects()
+                : DEFAULT_MAX_CONCURRENT_REQUESTS;
+    }
+
     @Override
     public Integer getPriority() {
         return 100;
@@ -77,6 +110,16 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
                 AuthContextUtils.getDomain(), resource.getConnector().getKey(), resource.getKey());
     }
 
+    private String getPermitsKey(final ExternalResource resource) {
+        return AuthContextUtils.getDomain() + '/' + resource.getKey();
+    }
+
+    @Override
+    public Semaphore getPermits(final ExternalResource resource) {
+        return permits.computeIfAbsent(
+                getPermitsKey(resource), key -> new Semaphore(getMaxConcurrentRequests(resource)));
+    }
+
     @Override
     public Connector getConnector(final ExternalResource resource) {
         // Try to re-create connector bean from underlying resource (useful for managing failover scenarios)
@@ -109,6 +152,10 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
         override.setConf(connInstance.getConf());
         override.getCapabilities().addAll(connInstance.getCapabilities());
         override.setConnRequestTimeout(connInstance.getConnRequestTimeout());
+        // connector instances without pool configuration keep ConnId defaults
+        override.setPoolConf(connInstance.getPoolConf() == null
+                ? null
+                : ConnPoolConfUtils.getConnPoolConf(connInstance.getPoolConf(), entityFactory.newConnPoolConf()));
 
         Map<String, ConnConfProperty> overridable = new HashMap<>();
         Set<ConnConfProperty> conf = new HashSet<>();
@@ -168,6 +215,85 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
 
         ApplicationContextProvider.getBeanFactory().registerSingleton(beanName, connector);
         LOG.debug("Successfully registered bean {}", beanName);
+
+        // resource or connector was updated: permits will be sized again after the current pool configuration
+        permits.remove(getPermitsKey(resource));
+
+        // populate the connector pool (if any) without blocking the caller
+        if (connector instanceof ConnectorFacadeProxy && ((ConnectorFacadeProxy) connector).isPooled()
+                && connInstance.getPoolConf().getMinIdle() != null && connInstance.getPoolConf().getMinIdle() > 0) {
+
+            LOG.debug("Warming up {} with {} concurrent requests", beanName, connInstance.getPoolConf().getMinIdle());
+            ((ConnectorFacadeProxy) connector).warmUp(connInstance.getPoolConf().getMinIdle());
+        }
+    }
+
+    @Override
+    public ConnectorStatsTO getStats(final ConnInstance connInstance) {
+        List<ConnectorStats> facadeStats = new ArrayList<>();
+        for (ExternalResource resource : connInstance.getResources()) {
+            String beanName = getBeanName(resource);
+            if (ApplicationContextProvider.getBeanFactory().containsSingleton(beanName)) {
+                Object connector = ApplicationContextProvider.getBeanFactory().getSingleton(beanName);
+                if (connector instanceof ConnectorFacadeProxy) {
+                    facadeStats.add(((ConnectorFacadeProxy) connector).getStats());
+                }
+            }
+        }
+
+        ConnectorStatsTO connStats = aggregate(connInstance, facadeStats);
+        if (connStats.getMaxObjects() != null && connStats.getPeakInFlight() >= connStats.getMaxObjects()) {
+            LOG.warn("Peak concurrent requests to {} ({}) reached pool maxObjects ({}), consider raising to {}",
+                    connInstance.getKey(), connStats.getPeakInFlight(), connStats.getMaxObjects(),
+                    connStats.getSuggestedMaxObjects());
+        }
+        return connStats;
+    }
+
+    /**
+     * Aggregates the usage statistics of the facades built from the given connector instance, one per resource.
+     *
+     * @param connInstance connector instance
+     * @param facadeStats usage statistics of each facade
+     * @return aggregated usage statistics
+     */
+    protected static ConnectorStatsTO aggregate(
+            final ConnInstance connInstance,
+            final List<ConnectorStats> facadeStats) {
+
+        ConnectorStatsTO connStats = new ConnectorStatsTO();
+        connStats.setConnInstance(connInstance.getKey());
+        if (connInstance.getPoolConf() != null) {
+            connStats.setMaxObjects(connInstance.getPoolConf().getMaxObjects());
+            connStats.setMinIdle(connInstance.getPoolConf().getMinIdle());
+        }
+
+        long requestTime = 0;
+        for (ConnectorStats stats : facadeStats) {
+            connStats.setFacades(connStats.getFacades() + 1);
+            connStats.setWarmUpRequested(connStats.getWarmUpRequested() + stats.getWarmUpRequested());
+            connStats.setWarmUpCompleted(connStats.getWarmUpCompleted() + stats.getWarmUpCompleted());
+            connStats.setInFlight(connStats.getInFlight() + stats.getInFlight());
+            connStats.setPeakInFlight(Math.max(connStats.getPeakInFlight(), stats.getPeakInFlight()));
+            connStats.setRequests(connStats.getRequests() + stats.getRequests());
+            connStats.setFailures(connStats.getFailures() + stats.getFailures());
+            connStats.setTimeouts(connStats.getTimeouts() + stats.getTimeouts());
+            requestTime += stats.getRequestTime();
+        }
+        if (connStats.getRequests() > 0) {
+            connStats.setAverageRequestTime((double) requestTime / connStats.getRequests());
+        }
+
+        // each facade has its own pool, sized after the peak concurrency observed plus some headroom
+        if (connStats.getPeakInFlight() > 0) {
+            int suggested = (int) Math.ceil(connStats.getPeakInFlight() * POOL_HEADROOM);
+            if (connStats.getMinIdle() != null) {
+                suggested = Math.max(suggested, connStats.getMinIdle());
+            }
+            connStats.setSuggestedMaxObjects(suggested);
+        }
+
+        return connStats;
     }
 
     @Override
@@ -175,6 +301,15 @@ public class ConnectorManager implements ConnectorRegistry, ConnectorFactory, Sy
         ApplicationContextProvider.getBeanFactory().destroySingleton(id);
     }
 
+    @Override
+    public void unregisterConnector(final ExternalResource resource) {
+        String beanName = getBeanName(resource);
+        if (ApplicationContextProvider.getBeanFactory().containsSingleton(beanName)) {
+            unregisterConnector(beanName);
+        }
+        permits.remove(getPermitsKey(resource));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public void load() {
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usage statistics collected by {@link ConnectorFacadeProxy} around every request sent to the underlying
+ * connector facade; ConnId does not expose its pool internals, hence in-flight requests are used as a measure
+ * of how many pooled connector instances are concurrently borrowed.
+ */
+public class ConnectorStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private final AtomicLong requestTime = new AtomicLong();
+
+    private final List<Future<?>> warmUp = new CopyOnWriteArrayList<>();
+
+    /**
+     * Marks the beginning of a request.
+     *
+     * @return start time, to be passed to {@link #end(long, boolean, boolean)}
+     */
+    public long begin() {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a request.
+     *
+     * @param start start time, as returned by {@link #begin()}
+     * @param failed whether the request failed
+     * @param timedOut whether the request timed out
+     */
+    public void end(final long start, final boolean failed, final boolean timedOut) {
+        inFlight.decrementAndGet();
+        requests.incrementAndGet();
+        requestTime.addAndGet(System.nanoTime() - start);
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        if (timedOut) {
+            timeouts.incrementAndGet();
+        }
+    }
+
+    public void warmUp(final Future<?> request) {
+        warmUp.add(request);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return cumulative time spent serving requests, in milliseconds
+     */
+    public long getRequestTime() {
+        return requestTime.get() / 1000000;
+    }
+
+    public int getWarmUpRequested() {
+        return warmUp.size();
+    }
+
+    /**
+     * @return number of warm-up requests successfully completed so far
+     */
+    public int getWarmUpCompleted() {
+        return (int) warmUp.stream().filter(request -> {
+            boolean completed = false;
+            if (request.isDone() && !request.isCancelled()) {
+                try {
+                    request.get();
+                    completed = true;
+                } catch (Exception e) {
+                    // warm-up request failed
+                }
+            }
+            return completed;
+        }).count();
+    }
+}
@@ -158,6 +158,8 @@ public class TaskDataBinderImpl implements TaskDataBinder {
             // remove all filters not contained in the TO
             pushTask.getFilters().
                     removeIf(anyFilter -> !pushTaskTO.getFilters().containsKey(anyFilter.getAnyType().getKey()));
+
+            pushTask.setConcurrentThreads(Math.max(1, pushTaskTO.getConcurrentThreads()));
         } else if (task instanceof PullTask && taskTO instanceof PullTaskTO) {
             PullTask pullTask = (PullTask) task;
             PullTaskTO pullTaskTO = (PullTaskTO) taskTO;
@@ -221,6 +223,10 @@ public class TaskDataBinderImpl implements TaskDataBinder {
                     removeIf(anyTemplate -> !pullTaskTO.getTemplates().containsKey(anyTemplate.getAnyType().getKey()));
 
             pullTask.setRemediation(pullTaskTO.isRemediation());
+            pullTask.setConcurrentThreads(Math.max(1, pullTaskTO.getConcurrentThreads()));
+            pullTask.setPageSize(Math.max(1, pullTaskTO.getPageSize()));
+            pullTask.setSortAttribute(pullTaskTO.getSortAttribute());
+            pullTask.setPrefetch(pullTaskTO.isPrefetch());
         }
 
         // 3. fill the remaining fields
@@ -411,6 +417,10 @@ public class TaskDataBinderImpl implements TaskDataBinder {
                 });
 
                 pullTaskTO.setRemediation(pullTask.isRemediation());
+                pullTaskTO.setConcurrentThreads(pullTask.getConcurrentThreads());
+                pullTaskTO.setPageSize(pullTask.getPageSize());
+                pullTaskTO.setSortAttribute(pullTask.getSortAttribute());
+                pullTaskTO.setPrefetch(pullTask.isPrefetch());
                 break;
 
             case PUSH:
@@ -432,6 +442,8 @@ public class TaskDataBinderImpl implements TaskDataBinder {
                 pushTask.getFilters().forEach(filter -> {
                     pushTaskTO.getFilters().put(filter.getAnyType().getKey(), filter.getFIQLCond());
                 });
+
+                pushTaskTO.setConcurrentThreads(pushTask.getConcurrentThreads());
                 break;
 
             case NOTIFICATION:
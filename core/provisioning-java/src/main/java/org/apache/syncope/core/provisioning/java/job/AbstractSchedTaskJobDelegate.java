@@ -116,21 +116,28 @@ public abstract class AbstractSchedTaskJobDelegate implements SchedTaskJobDelega
 
         AuditElements.Result result;
 
+        boolean registered = false;
         try {
-            execution.setMessage(doExecute(dryRun));
-            execution.setStatus(TaskJob.Status.SUCCESS.name());
-            result = AuditElements.Result.SUCCESS;
-        } catch (JobExecutionException e) {
-            LOG.error("While executing task {}", taskKey, e);
-            result = AuditElements.Result.FAILURE;
-
-            execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
-            execution.setStatus(TaskJob.Status.FAILURE.name());
-        }
-        execution.setEnd(new Date());
-
-        if (hasToBeRegistered(execution)) {
-            taskExecDAO.saveAndAdd(taskKey, execution);
+            try {
+                execution.setMessage(doExecute(dryRun));
+                execution.setStatus(TaskJob.Status.SUCCESS.name());
+                result = AuditElements.Result.SUCCESS;
+            } catch (JobExecutionException e) {
+                LOG.error("While executing task {}", taskKey, e);
+                result = AuditElements.Result.FAILURE;
+
+                execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
+                execution.setStatus(TaskJob.Status.FAILURE.name());
+            }
+            execution.setEnd(new Date());
+
+            if (hasToBeRegistered(execution)) {
+                execution = taskExecDAO.saveAndAdd(taskKey, execution);
+                registered = true;
+            }
+        } finally {
+            // resources held for the execution are released also upon unexpected failure
+            completeExecution(execution, registered);
         }
         task = taskDAO.save(task);
 
@@ -164,6 +171,18 @@ public abstract class AbstractSchedTaskJobDelegate implements SchedTaskJobDelega
      */
     protected abstract String doExecute(boolean dryRun) throws JobExecutionException;
 
+    /**
+     * Template method to store further information with this job's task execution, once completed and registered;
+     * invoked also for executions not to be registered or failed unexpectedly, for any resource held to such purpose
+     * to be released.
+     *
+     * @param execution task execution
+     * @param registered whether the execution was registered
+     */
+    protected void completeExecution(final TaskExec execution, final boolean registered) {
+        // nothing to add by default
+    }
+
     /**
      * Template method to determine whether this job's task execution has to be persisted or not.
      *
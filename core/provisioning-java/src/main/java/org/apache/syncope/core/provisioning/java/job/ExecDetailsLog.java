@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Line-oriented details of a task execution, spooled to a GZIP-compressed temporary file rather than held in memory;
+ * once complete, they are streamed to the execution storage.
+ *
+ * @see TaskExecDAO#readDetails(java.lang.String, java.util.function.Consumer)
+ */
+public class ExecDetailsLog implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecDetailsLog.class);
+
+    private File file;
+
+    private Writer writer;
+
+    private boolean completed;
+
+    /**
+     * Appends the given line.
+     *
+     * @param line line to append, without line terminator
+     */
+    public synchronized void write(final String line) {
+        if (completed) {
+            LOG.debug("Log already completed, not writing {}", line);
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                file = File.createTempFile("execdetails", ".log.gz");
+                writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(file.toPath())), StandardCharsets.UTF_8));
+            }
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            LOG.error("While writing {}", line, e);
+        }
+    }
+
+    /**
+     * Stops logging, and streams what was logged so far to the details of the given execution.
+     *
+     * @param execKey task execution key
+     * @param taskExecDAO task execution DAO
+     */
+    public synchronized void store(final String execKey, final TaskExecDAO taskExecDAO) {
+        completed = true;
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                taskExecDAO.saveDetails(execKey, in, Files.size(file.toPath()));
+            }
+        } catch (IOException e) {
+            LOG.error("While storing {}", file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        completed = true;
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.debug("While closing {}", file, e);
+            }
+        }
+        if (file != null && !file.delete()) {
+            LOG.warn("Could not delete {}", file);
+        }
+    }
+}
@@ -18,60 +18,317 @@
  */
 package org.apache.syncope.core.provisioning.java.job;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.BulkMembersActionType;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.provisioning.api.AnyObjectProvisioningManager;
-import org.apache.syncope.core.provisioning.api.UserProvisioningManager;
+import org.apache.syncope.core.spring.BoundedExecutorService;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * (De)provisions all members of a group to / from the group's resources.
+ *
+ * Members are read by pages, in key order, and (de)provisioned by chunks, possibly in parallel; each member is
+ * (de)provisioned in its own transaction, failures being reported without affecting the other members. The latest
+ * member of each completed chunk is saved as checkpoint, so that an interrupted or failed execution can be resumed by
+ * executing again the same task; checkpoints are discarded once all members were (de)provisioned.
+ */
 public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDelegate {
 
     public static final String ACTION_TYPE_JOBDETAIL_KEY = "actionType";
 
     public static final String GROUP_KEY_JOBDETAIL_KEY = "groupKey";
 
+    public static final String CONCURRENT_THREADS_JOBDETAIL_KEY = "concurrentThreads";
+
+    /**
+     * Members whose outcome is reported in the execution message; the outcome of all members is available from
+     * execution details.
+     */
+    protected static final int MAX_REPORTED_MEMBERS = 1000;
+
     @Autowired
     private GroupDAO groupDAO;
 
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private AnyObjectDAO anyObjectDAO;
+
     @Autowired
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private UserProvisioningManager userProvisioningManager;
+    private TaskCheckpointDAO taskCheckpointDAO;
 
     @Autowired
-    private AnyObjectProvisioningManager anyObjectProvisioningManager;
+    private GroupMemberProvisioner provisioner;
+
+    @Resource(name = "batchExecutor")
+    private ThreadPoolTaskExecutor batchExecutor;
 
     private String groupKey;
 
     private BulkMembersActionType actionType;
 
+    private int concurrentThreads;
+
+    private Map<String, String> checkpoints;
+
+    private final ExecDetailsLog details = new ExecDetailsLog();
+
+    private final AtomicInteger reported = new AtomicInteger(0);
+
     @Transactional
     @Override
     public void execute(final String taskKey, final boolean dryRun, final JobExecutionContext context)
             throws JobExecutionException {
 
+        checkpoints = taskCheckpointDAO.findAll(taskKey);
+
+        // when executing again an interrupted task, group and action are not provided
         groupKey = context.getMergedJobDataMap().getString(GROUP_KEY_JOBDETAIL_KEY);
         actionType = (BulkMembersActionType) context.getMergedJobDataMap().get(ACTION_TYPE_JOBDETAIL_KEY);
+        if (groupKey == null || actionType == null) {
+            groupKey = checkpoints.get(GROUP_KEY_JOBDETAIL_KEY);
+            actionType = checkpoints.containsKey(ACTION_TYPE_JOBDETAIL_KEY)
+                    ? BulkMembersActionType.valueOf(checkpoints.get(ACTION_TYPE_JOBDETAIL_KEY))
+                    : null;
+            if (groupKey == null || actionType == null) {
+                throw new JobExecutionException("No group or action provided for task " + taskKey);
+            }
+        } else {
+            taskCheckpointDAO.commit(taskKey, GROUP_KEY_JOBDETAIL_KEY, groupKey);
+            taskCheckpointDAO.commit(taskKey, ACTION_TYPE_JOBDETAIL_KEY, actionType.name());
+        }
+
+        concurrentThreads = context.getMergedJobDataMap().containsKey(CONCURRENT_THREADS_JOBDETAIL_KEY)
+                ? Math.max(1, context.getMergedJobDataMap().getInt(CONCURRENT_THREADS_JOBDETAIL_KEY))
+                : 1;
 
         super.execute(taskKey, dryRun, context);
     }
 
+    protected SearchCond membersCond() {
+        MembershipCond membershipCond = new MembershipCond();
+        membershipCond.setGroup(groupKey);
+        return SearchCond.getLeafCond(membershipCond);
+    }
+
+    protected static SearchCond afterKey(final String key) {
+        AnyCond keyCond = new AnyCond(AttributeCond.Type.GT);
+        keyCond.setSchema("key");
+        keyCond.setExpression(key);
+        return SearchCond.getLeafCond(keyCond);
+    }
+
+    /**
+     * Reads the next page of members, as pairs of key and description; entities read are detached straight away, so
+     * that they do not pile up in the persistence context.
+     *
+     * @param kind members' any type kind
+     * @param latestKey key of the latest member read, if any
+     * @return next page of members
+     */
+    protected List<Pair<String, String>> nextMembers(final AnyTypeKind kind, final String latestKey) {
+        SearchCond cond = membersCond();
+
+        OrderByClause byKey = new OrderByClause();
+        byKey.setField("key");
+        byKey.setDirection(OrderByClause.Direction.ASC);
+
+        List<Any<?>> members = searchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS,
+                latestKey == null ? cond : SearchCond.getAndCond(cond, afterKey(latestKey)),
+                1,
+                AnyDAO.DEFAULT_PAGE_SIZE,
+                Collections.singletonList(byKey),
+                kind);
+
+        return members.stream().map(member -> {
+            Pair<String, String> pair = Pair.of(
+                    member.getKey(),
+                    (kind == AnyTypeKind.USER ? "User" : member.getType().getKey()) + ' ' + member.getKey());
+            if (member instanceof User) {
+                userDAO.detach((User) member);
+            } else {
+                anyObjectDAO.detach((AnyObject) member);
+            }
+            return pair;
+        }).collect(Collectors.toList());
+    }
+
+    protected void report(
+            final StringBuilder result,
+            final List<Pair<String, String>> members,
+            final Map<String, List<PropagationStatus>> statuses) {
+
+        members.forEach(member -> {
+            StringBuilder lines = new StringBuilder();
+            statuses.getOrDefault(member.getLeft(), Collections.emptyList()).forEach(propagationStatus -> {
+                lines.append(member.getRight()).append('\t').
+                        append("Resource ").append(propagationStatus.getResource()).append('\t').
+                        append(propagationStatus.getStatus());
+                if (StringUtils.isNotBlank(propagationStatus.getFailureReason())) {
+                    lines.append('\n').append(propagationStatus.getFailureReason()).append('\n');
+                }
+                lines.append("\n");
+            });
+
+            details.write(lines.toString());
+            if (reported.incrementAndGet() <= MAX_REPORTED_MEMBERS) {
+                result.append(lines).append("\n");
+            }
+        });
+    }
+
+    /**
+     * (De)provisions the given members, each in its own transaction: a member failing is reported as such, without
+     * affecting the others.
+     *
+     * @param kind members' any type kind
+     * @param keys members' keys
+     * @param resources group's resources
+     * @return propagation statuses, by member key, in the given order
+     */
+    protected Map<String, List<PropagationStatus>> execute(
+            final AnyTypeKind kind,
+            final List<String> keys,
+            final Collection<String> resources) {
+
+        Map<String, List<PropagationStatus>> statuses = new LinkedHashMap<>(keys.size());
+        keys.forEach(key -> {
+            try {
+                statuses.put(key, provisioner.execute(kind, key, resources, actionType));
+            } catch (RuntimeException e) {
+                LOG.error("While processing {} member {}", kind, key, e);
+
+                statuses.put(key, resources.stream().map(resource -> {
+                    PropagationStatus failure = new PropagationStatus();
+                    failure.setResource(resource);
+                    failure.setStatus(PropagationTaskExecStatus.FAILURE);
+                    failure.setFailureReason(e.getMessage());
+                    return failure;
+                }).collect(Collectors.toList()));
+            }
+        });
+        return statuses;
+    }
+
+    /**
+     * (De)provisions all members of the given kind, by chunks; up to {@link #concurrentThreads} chunks are processed
+     * at the same time, while the next page is being read.
+     *
+     * @param kind members' any type kind
+     * @param resources group's resources
+     * @param workers worker threads
+     * @param result execution message
+     * @throws JobExecutionException if any chunk failed
+     */
+    protected void provision(
+            final AnyTypeKind kind,
+            final Collection<String> resources,
+            final ExecutorService workers,
+            final StringBuilder result)
+            throws JobExecutionException {
+
+        String latestKey = checkpoints.get(kind.name());
+        if (latestKey != null) {
+            LOG.info("Resuming {} of {} members after {}", actionType, kind, latestKey);
+        }
+
+        int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, membersCond(), kind);
+        int processed = 0;
+
+        Deque<Pair<List<Pair<String, String>>, Future<Map<String, List<PropagationStatus>>>>> pending =
+                new ArrayDeque<>();
+        JobExecutionException failure = null;
+
+        List<Pair<String, String>> members = nextMembers(kind, latestKey);
+        while (!pending.isEmpty() || (!members.isEmpty() && !interrupt && failure == null)) {
+            if (!members.isEmpty() && !interrupt && failure == null) {
+                List<Pair<String, String>> chunk = members;
+                List<String> keys = chunk.stream().map(Pair::getLeft).collect(Collectors.toList());
+                pending.add(Pair.of(
+                        chunk, workers.submit(() -> execute(kind, keys, resources))));
+
+                members = chunk.size() < AnyDAO.DEFAULT_PAGE_SIZE
+                        ? Collections.emptyList()
+                        : nextMembers(kind, chunk.get(chunk.size() - 1).getLeft());
+            }
+
+            // wait for the oldest chunk when enough are in progress, or when nothing else can be submitted
+            if (pending.size() >= concurrentThreads || members.isEmpty() || interrupt || failure != null) {
+                Pair<List<Pair<String, String>>, Future<Map<String, List<PropagationStatus>>>> oldest = pending.poll();
+                try {
+                    Map<String, List<PropagationStatus>> statuses = oldest.getRight().get();
+                    if (failure == null) {
+                        report(result, oldest.getLeft(), statuses);
+
+                        latestKey = oldest.getLeft().get(oldest.getLeft().size() - 1).getLeft();
+                        taskCheckpointDAO.commit(task.getKey(), kind.name(), latestKey);
+                    }
+                } catch (ExecutionException e) {
+                    LOG.error("While processing {} members {}", kind, oldest.getLeft(), e.getCause());
+                    if (failure == null) {
+                        failure = new JobExecutionException("While processing " + kind + " members", e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pending.forEach(chunk -> chunk.getRight().cancel(false));
+                    throw new JobExecutionException("Interrupted while waiting for " + kind + " members", e);
+                }
+
+                processed += oldest.getLeft().size();
+                status.set((actionType == BulkMembersActionType.DEPROVISION ? "Deprovisioned " : "Provisioned ")
+                        + processed + " / " + total + " " + kind + " members from " + resources
+                        + (latestKey == null ? "" : " (latest: " + latestKey + ")"));
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     @Override
     protected String doExecute(final boolean dryRun) throws JobExecutionException {
         Group group = groupDAO.authFind(groupKey);
@@ -84,59 +341,29 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
 
         status.set(result.toString());
 
-        MembershipCond membershipCond = new MembershipCond();
-        membershipCond.setGroup(groupKey);
-        List<User> users = searchDAO.search(SearchCond.getLeafCond(membershipCond), AnyTypeKind.USER);
         Collection<String> groupResourceKeys = groupDAO.findAllResourceKeys(groupKey);
-        status.set("About to "
-                + (actionType == BulkMembersActionType.DEPROVISION ? "de" : "") + "provision "
-                + users.size() + " users from " + groupResourceKeys);
-
-        for (int i = 0; i < users.size() && !interrupt; i++) {
-            List<PropagationStatus> statuses = actionType == BulkMembersActionType.DEPROVISION
-                    ? userProvisioningManager.deprovision(users.get(i).getKey(), groupResourceKeys, false)
-                    : userProvisioningManager.provision(users.get(i).getKey(), true, null, groupResourceKeys, false);
-            for (PropagationStatus propagationStatus : statuses) {
-                result.append("User ").append(users.get(i).getKey()).append('\t').
-                        append("Resource ").append(propagationStatus.getResource()).append('\t').
-                        append(propagationStatus.getStatus());
-                if (StringUtils.isNotBlank(propagationStatus.getFailureReason())) {
-                    result.append('\n').append(propagationStatus.getFailureReason()).append('\n');
-                }
-                result.append("\n");
+
+        ExecutorService workers = new DelegatingSecurityContextExecutorService(
+                new BoundedExecutorService(batchExecutor, concurrentThreads));
+        try {
+            provision(AnyTypeKind.USER, groupResourceKeys, workers, result);
+            if (!interrupt) {
+                provision(AnyTypeKind.ANY_OBJECT, groupResourceKeys, workers, result);
             }
-            result.append("\n");
+        } finally {
+            workers.shutdown();
         }
-        if (interrupt) {
-            LOG.debug("Group assignment interrupted");
-            interrupted = true;
-            return result.append("\n*** Group assignment interrupted ***\n").toString();
+
+        // all members (de)provisioned: nothing left to resume, group and action included
+        if (!interrupt) {
+            taskCheckpointDAO.discard(task.getKey());
         }
 
-        membershipCond = new MembershipCond();
-        membershipCond.setGroup(groupKey);
-        List<AnyObject> anyObjects = searchDAO.search(SearchCond.getLeafCond(membershipCond), AnyTypeKind.ANY_OBJECT);
-        status.set("About to "
-                + (actionType == BulkMembersActionType.DEPROVISION ? "de" : "") + "provision "
-                + anyObjects.size() + " any objects from " + groupResourceKeys);
-
-        for (int i = 0; i < anyObjects.size() && !interrupt; i++) {
-            List<PropagationStatus> statuses = actionType == BulkMembersActionType.DEPROVISION
-                    ? anyObjectProvisioningManager.deprovision(anyObjects.get(i).getKey(), groupResourceKeys, false)
-                    : anyObjectProvisioningManager.provision(anyObjects.get(i).getKey(), groupResourceKeys, false);
-
-            for (PropagationStatus propagationStatus : statuses) {
-                result.append(anyObjects.get(i).getType().getKey()).append(' ').
-                        append(anyObjects.get(i).getKey()).append('\t').
-                        append("Resource ").append(propagationStatus.getResource()).append('\t').
-                        append(propagationStatus.getStatus());
-                if (StringUtils.isNotBlank(propagationStatus.getFailureReason())) {
-                    result.append('\n').append(propagationStatus.getFailureReason()).append('\n');
-                }
-                result.append("\n");
-            }
-            result.append("\n");
+        if (reported.get() > MAX_REPORTED_MEMBERS) {
+            result.append("... and ").append(reported.get() - MAX_REPORTED_MEMBERS).
+                    append(" more members, see execution details\n");
         }
+
         if (interrupt) {
             LOG.debug("Group assignment interrupted");
             interrupted = true;
@@ -146,10 +373,17 @@ public class GroupMemberProvisionTaskJobDelegate extends AbstractSchedTaskJobDel
         return result.toString();
     }
 
+    @Override
+    protected void completeExecution(final TaskExec execution, final boolean registered) {
+        if (registered) {
+            details.store(execution.getKey(), taskExecDAO);
+        }
+        details.close();
+    }
+
     @Override
     protected boolean hasToBeRegistered(final TaskExec execution) {
         // always record execution result
         return true;
     }
-
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.syncope.common.lib.to.PropagationStatus;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.BulkMembersActionType;
+import org.apache.syncope.core.provisioning.api.AnyObjectProvisioningManager;
+import org.apache.syncope.core.provisioning.api.UserProvisioningManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * (De)provisions group members, each in its own transaction.
+ *
+ * @see GroupMemberProvisionTaskJobDelegate
+ */
+@Component
+public class GroupMemberProvisioner {
+
+    @Autowired
+    private UserProvisioningManager userProvisioningManager;
+
+    @Autowired
+    private AnyObjectProvisioningManager anyObjectProvisioningManager;
+
+    /**
+     * (De)provisions the given member to / from the given resources.
+     *
+     * @param kind member's any type kind
+     * @param key member's key
+     * @param resources resource keys
+     * @param actionType provision or deprovision
+     * @return propagation statuses
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<PropagationStatus> execute(
+            final AnyTypeKind kind,
+            final String key,
+            final Collection<String> resources,
+            final BulkMembersActionType actionType) {
+
+        if (kind == AnyTypeKind.USER) {
+            return actionType == BulkMembersActionType.DEPROVISION
+                    ? userProvisioningManager.deprovision(key, resources, false)
+                    : userProvisioningManager.provision(key, true, null, resources, false);
+        }
+        return actionType == BulkMembersActionType.DEPROVISION
+                ? anyObjectProvisioningManager.deprovision(key, resources, false)
+                : anyObjectProvisioningManager.provision(key, resources, false);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.syncope.common.lib.to.JobProgressTO;
+import org.apache.syncope.common.lib.to.ObjectClassProgressTO;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
+
+/**
+ * Live progress of a pull or push job: objects processed by object class, throughput over sliding windows and time
+ * spent by phase.
+ *
+ * Time is measured by {@link Timer}s, opened via {@link #time(Phase)} by any thread the progress is bound to; timers
+ * nest, and each of them only accounts for the time not spent in nested timers, so that - for example - connector
+ * requests sent during propagation are not accounted as propagation time.
+ */
+public class JobProgress {
+
+    public enum Phase {
+        CONNECTOR,
+        PERSISTENCE,
+        PROPAGATION
+
+    }
+
+    /**
+     * Sliding window, in seconds, over which throughput is measured.
+     */
+    private static final int WINDOW = 300;
+
+    private static final ThreadLocal<JobProgress> BOUND = new ThreadLocal<>();
+
+    private static final ThreadLocal<Timer> TIMERS = new ThreadLocal<>();
+
+    private static final Timer NOOP = new Timer(null, null, null);
+
+    public static final class Timer implements AutoCloseable {
+
+        private final JobProgress progress;
+
+        private final Phase phase;
+
+        private final Timer parent;
+
+        private final long start = System.nanoTime();
+
+        private long nested;
+
+        private Timer(final JobProgress progress, final Phase phase, final Timer parent) {
+            this.progress = progress;
+            this.phase = phase;
+            this.parent = parent;
+        }
+
+        @Override
+        public void close() {
+            if (progress == null) {
+                return;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            if (phase != null) {
+                progress.times.get(phase).add(elapsed - nested);
+            }
+            if (parent != null) {
+                parent.nested += elapsed;
+            }
+            TIMERS.set(parent);
+        }
+    }
+
+    /**
+     * Starts measuring time spent in the given phase, if the current thread is bound to any progress.
+     *
+     * @param phase phase
+     * @return timer, to be closed once the phase is over
+     */
+    public static Timer time(final Phase phase) {
+        JobProgress progress = BOUND.get();
+        if (progress == null) {
+            return NOOP;
+        }
+
+        Timer timer = new Timer(progress, phase, TIMERS.get());
+        TIMERS.set(timer);
+        return timer;
+    }
+
+    /**
+     * Suspends measuring time for the enclosing phase, as when a connector hands objects over to be processed.
+     *
+     * @return timer, to be closed once the enclosing phase is resumed
+     */
+    public static Timer pause() {
+        return time(null);
+    }
+
+    public static boolean isBound() {
+        return BOUND.get() != null;
+    }
+
+    public static void unbind() {
+        BOUND.remove();
+        TIMERS.remove();
+    }
+
+    /**
+     * Makes the given task run bound to the progress the current thread is bound to, if any.
+     *
+     * @param task task to run in another thread
+     * @return task bound to current progress
+     */
+    public static Runnable wrap(final Runnable task) {
+        JobProgress progress = BOUND.get();
+        if (progress == null) {
+            return task;
+        }
+
+        return () -> {
+            progress.bind();
+            try {
+                task.run();
+            } finally {
+                unbind();
+            }
+        };
+    }
+
+    private static class Counts {
+
+        private final LongAdder processed = new LongAdder();
+
+        private final LongAdder succeeded = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+    }
+
+    private final long start = System.currentTimeMillis();
+
+    private final AtomicLong total = new AtomicLong(-1);
+
+    private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+    private final Map<Phase, LongAdder> times = new EnumMap<>(Phase.class);
+
+    private final long[] buckets = new long[WINDOW];
+
+    private final long[] bucketSeconds = new long[WINDOW];
+
+    public JobProgress() {
+        for (Phase phase : Phase.values()) {
+            times.put(phase, new LongAdder());
+        }
+    }
+
+    /**
+     * Binds the current thread to this progress; {@link #unbind()} shall be invoked once done.
+     */
+    public void bind() {
+        BOUND.set(this);
+        TIMERS.remove();
+    }
+
+    /**
+     * Adds to the objects expected to be processed.
+     *
+     * @param count number of objects
+     */
+    public void addTotal(final long count) {
+        total.accumulateAndGet(count, (current, added) -> Math.max(0, current) + added);
+    }
+
+    /**
+     * Counts an object as processed.
+     *
+     * @param objectClass object class
+     * @param status processing outcome
+     */
+    public void add(final String objectClass, final ProvisioningReport.Status status) {
+        Counts objectClassCounts = counts.computeIfAbsent(objectClass, key -> new Counts());
+        objectClassCounts.processed.increment();
+        if (status == ProvisioningReport.Status.SUCCESS) {
+            objectClassCounts.succeeded.increment();
+        } else if (status == ProvisioningReport.Status.FAILURE) {
+            objectClassCounts.failed.increment();
+        }
+
+        long second = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        int index = (int) (second % WINDOW);
+        synchronized (buckets) {
+            if (bucketSeconds[index] != second) {
+                bucketSeconds[index] = second;
+                buckets[index] = 0;
+            }
+            buckets[index]++;
+        }
+    }
+
+    private double throughput(final long now, final int window) {
+        long second = TimeUnit.MILLISECONDS.toSeconds(now);
+        long sum = 0;
+        synchronized (buckets) {
+            for (int i = 0; i < WINDOW; i++) {
+                if (second - bucketSeconds[i] < window) {
+                    sum += buckets[i];
+                }
+            }
+        }
+
+        long elapsed = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(now - start));
+        return (double) sum / Math.min(window, elapsed);
+    }
+
+    public JobProgressTO toTO() {
+        long now = System.currentTimeMillis();
+
+        JobProgressTO progressTO = new JobProgressTO();
+        progressTO.setStart(new Date(start));
+        progressTO.setTotal(total.get());
+
+        counts.forEach((objectClass, objectClassCounts) -> {
+            ObjectClassProgressTO objectClassTO = new ObjectClassProgressTO();
+            objectClassTO.setObjectClass(objectClass);
+            objectClassTO.setProcessed(objectClassCounts.processed.sum());
+            objectClassTO.setSucceeded(objectClassCounts.succeeded.sum());
+            objectClassTO.setFailed(objectClassCounts.failed.sum());
+            progressTO.getObjectClasses().add(objectClassTO);
+
+            progressTO.setProcessed(progressTO.getProcessed() + objectClassTO.getProcessed());
+            progressTO.setSucceeded(progressTO.getSucceeded() + objectClassTO.getSucceeded());
+            progressTO.setFailed(progressTO.getFailed() + objectClassTO.getFailed());
+        });
+
+        progressTO.setThroughput(
+                (double) progressTO.getProcessed() / Math.max(1, TimeUnit.MILLISECONDS.toSeconds(now - start)));
+        progressTO.setLastMinuteThroughput(throughput(now, 60));
+        progressTO.setLastFiveMinutesThroughput(throughput(now, WINDOW));
+
+        progressTO.setConnectorTime(TimeUnit.NANOSECONDS.toMillis(times.get(Phase.CONNECTOR).sum()));
+        progressTO.setPersistenceTime(TimeUnit.NANOSECONDS.toMillis(times.get(Phase.PERSISTENCE).sum()));
+        progressTO.setPropagationTime(TimeUnit.NANOSECONDS.toMillis(times.get(Phase.PROPAGATION).sum()));
+
+        // the most recent throughput available is the best guess for what is left to process
+        double throughput = progressTO.getLastMinuteThroughput() > 0
+                ? progressTO.getLastMinuteThroughput()
+                : progressTO.getThroughput();
+        if (progressTO.getTotal() >= 0 && throughput > 0) {
+            long remaining = Math.max(0, progressTO.getTotal() - progressTO.getProcessed());
+            progressTO.setEstimatedEnd(new Date(now + (long) (remaining / throughput * 1000)));
+        }
+
+        return progressTO;
+    }
+}
@@ -19,21 +19,36 @@
 package org.apache.syncope.core.provisioning.java.job.notification;
 
 import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.Resource;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.LogOutputStream;
 import org.apache.syncope.common.lib.PropertyUtils;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.common.lib.types.TraceLevel;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
+import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.task.NotificationTask;
@@ -41,6 +56,9 @@ import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.notification.NotificationJobDelegate;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.BoundedExecutorService;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.Encryptor;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
@@ -50,14 +68,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class DefaultNotificationJobDelegate implements InitializingBean, NotificationJobDelegate {
 
     private static final Logger LOG = LoggerFactory.getLogger(NotificationJobDelegate.class);
 
+    private static final String RATE_LIMIT = "notification.mail.rateLimit";
+
     @Autowired
     private TaskDAO taskDAO;
 
@@ -73,6 +97,17 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
     @Autowired
     private NotificationManager notificationManager;
 
+    @Autowired
+    private ConfDAO confDAO;
+
+    @Resource(name = "batchExecutor")
+    private ThreadPoolTaskExecutor batchExecutor;
+
+    /**
+     * Next time, as from {@link System#nanoTime()}, an e-mail can be sent to each recipient mail domain, by domain.
+     */
+    private final Map<String, AtomicLong> nextSendSlots = new ConcurrentHashMap<>();
+
     private final AtomicReference<String> status = new AtomicReference<>();
 
     private boolean interrupt;
@@ -124,139 +159,320 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
         return interrupted;
     }
 
-    @Transactional
-    @Override
-    public TaskExec executeSingle(final NotificationTask task) {
-        TaskExec execution = entityFactory.newEntity(TaskExec.class);
-        execution.setTask(task);
-        execution.setStart(new Date());
-
-        boolean retryPossible = true;
-
+    private static String checkRequired(final NotificationTask task) {
         if (StringUtils.isBlank(task.getSubject()) || task.getRecipients().isEmpty()
                 || StringUtils.isBlank(task.getHtmlBody()) || StringUtils.isBlank(task.getTextBody())) {
 
-            String message = "Could not fetch all required information for sending e-mails:\n"
+            return "Could not fetch all required information for sending e-mails:\n"
                     + task.getRecipients() + "\n"
                     + task.getSender() + "\n"
                     + task.getSubject() + "\n"
                     + task.getHtmlBody() + "\n"
                     + task.getTextBody();
-            LOG.error(message);
+        }
+        return null;
+    }
 
-            execution.setStatus(NotificationJob.Status.NOT_SENT.name());
-            retryPossible = false;
+    /**
+     * @param recipient e-mail address, possibly as {@code Name <address>}
+     * @return mail domain of the given recipient, lower case
+     */
+    private static String mailDomain(final String recipient) {
+        return StringUtils.removeEnd(StringUtils.substringAfterLast(recipient, "@").trim(), ">").
+                toLowerCase(Locale.ROOT);
+    }
 
-            if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
-                execution.setMessage(message);
-            }
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("About to send e-mails:\n"
-                        + task.getRecipients() + "\n"
-                        + task.getSender() + "\n"
-                        + task.getSubject() + "\n"
-                        + task.getHtmlBody() + "\n"
-                        + task.getTextBody() + "\n");
-            }
+    /**
+     * Waits until the given domain is allowed to send another e-mail to the mail domain of the given recipient:
+     * mail providers usually limit the rate of e-mails accepted from each sender, not the overall one.
+     *
+     * @param domain domain
+     * @param recipient e-mail recipient
+     * @param rateLimit max number of e-mails per second to each recipient mail domain; 0 for unlimited
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void throttle(final String domain, final String recipient, final long rateLimit)
+            throws InterruptedException {
+
+        if (rateLimit <= 0) {
+            return;
+        }
 
-            status.set("Sending notifications to " + task.getRecipients());
+        long interval = TimeUnit.SECONDS.toNanos(1) / rateLimit;
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSendSlots.computeIfAbsent(
+                domain + '/' + mailDomain(recipient), k -> new AtomicLong(now)).
+                getAndAccumulate(now, (previous, current) -> Math.max(previous, current) + interval));
+        TimeUnit.NANOSECONDS.sleep(slot - now);
+    }
 
-            for (String to : task.getRecipients()) {
+    /**
+     * Prepares the delivery of the given task to each of its recipients; task data are read here, so that the
+     * returned delivery does not access persistence and can be run by any thread.
+     *
+     * @param sender pooled mail sender
+     * @param domain domain
+     * @param rateLimit max number of e-mails per second to each recipient mail domain; 0 for unlimited
+     * @param task notification task
+     * @return delivery, reporting each recipient along with the exception raised while sending, if any
+     */
+    private Supplier<List<Pair<String, Exception>>> delivery(
+            final PooledMailSender sender,
+            final String domain,
+            final long rateLimit,
+            final NotificationTask task) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("About to send e-mails:\n"
+                    + task.getRecipients() + "\n"
+                    + task.getSender() + "\n"
+                    + task.getSubject() + "\n"
+                    + task.getHtmlBody() + "\n"
+                    + task.getTextBody() + "\n");
+        }
+
+        List<String> recipients = new ArrayList<>(task.getRecipients());
+        String from = task.getSender();
+        String subject = task.getSubject();
+        String textBody = task.getTextBody();
+        String htmlBody = task.getHtmlBody();
+
+        return () -> {
+            List<Pair<String, Exception>> outcomes = new ArrayList<>(recipients.size());
+            for (String to : recipients) {
                 try {
-                    MimeMessage message = mailSender.createMimeMessage();
+                    throttle(domain, to, rateLimit);
+
+                    MimeMessage message = sender.createMimeMessage();
                     MimeMessageHelper helper = new MimeMessageHelper(message, true);
                     helper.setTo(to);
-                    helper.setFrom(task.getSender());
-                    helper.setSubject(task.getSubject());
-                    helper.setText(task.getTextBody(), task.getHtmlBody());
-
-                    mailSender.send(message);
-
-                    execution.setStatus(NotificationJob.Status.SENT.name());
-
-                    StringBuilder report = new StringBuilder();
-                    switch (task.getTraceLevel()) {
-                        case ALL:
-                            report.append("FROM: ").append(task.getSender()).append('\n').
-                                    append("TO: ").append(to).append('\n').
-                                    append("SUBJECT: ").append(task.getSubject()).append('\n').append('\n').
-                                    append(task.getTextBody()).append('\n').append('\n').
-                                    append(task.getHtmlBody()).append('\n');
-                            break;
-
-                        case SUMMARY:
-                            report.append("E-mail sent to ").append(to).append('\n');
-                            break;
-
-                        case FAILURES:
-                        case NONE:
-                        default:
-                    }
-                    if (report.length() > 0) {
-                        execution.setMessage(report.toString());
-                    }
+                    helper.setFrom(from);
+                    helper.setSubject(subject);
+                    helper.setText(textBody, htmlBody);
+
+                    sender.send(message);
 
-                    notificationManager.createTasks(
-                            AuditElements.EventCategoryType.TASK,
-                            "notification",
-                            null,
-                            "send",
-                            AuditElements.Result.SUCCESS,
-                            null,
-                            null,
-                            task,
-                            "Successfully sent notification to " + to);
+                    outcomes.add(Pair.of(to, null));
                 } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
                     LOG.error("Could not send e-mail", e);
 
-                    execution.setStatus(NotificationJob.Status.NOT_SENT.name());
-                    if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
-                        execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
-                    }
+                    outcomes.add(Pair.of(to, e));
+                }
+            }
+            return outcomes;
+        };
+    }
 
-                    notificationManager.createTasks(
-                            AuditElements.EventCategoryType.TASK,
-                            "notification",
-                            null,
-                            "send",
-                            AuditElements.Result.FAILURE,
-                            null,
-                            null,
-                            task,
-                            "Could not send notification to " + to, e);
+    private TaskExec newExecution(final NotificationTask task) {
+        TaskExec execution = entityFactory.newEntity(TaskExec.class);
+        execution.setTask(task);
+        execution.setStart(new Date());
+        return execution;
+    }
+
+    private TaskExec notSent(final TaskExec execution, final String message) {
+        LOG.error(message);
+
+        execution.setStatus(NotificationJob.Status.NOT_SENT.name());
+        if (((NotificationTask) execution.getTask()).getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
+            execution.setMessage(message);
+        }
+
+        return complete(execution, false);
+    }
+
+    private TaskExec record(final TaskExec execution, final List<Pair<String, Exception>> outcomes) {
+        NotificationTask task = (NotificationTask) execution.getTask();
+
+        outcomes.forEach(outcome -> {
+            String to = outcome.getLeft();
+            if (outcome.getRight() == null) {
+                execution.setStatus(NotificationJob.Status.SENT.name());
+
+                StringBuilder report = new StringBuilder();
+                switch (task.getTraceLevel()) {
+                    case ALL:
+                        report.append("FROM: ").append(task.getSender()).append('\n').
+                                append("TO: ").append(to).append('\n').
+                                append("SUBJECT: ").append(task.getSubject()).append('\n').append('\n').
+                                append(task.getTextBody()).append('\n').append('\n').
+                                append(task.getHtmlBody()).append('\n');
+                        break;
+
+                    case SUMMARY:
+                        report.append("E-mail sent to ").append(to).append('\n');
+                        break;
+
+                    case FAILURES:
+                    case NONE:
+                    default:
+                }
+                if (report.length() > 0) {
+                    execution.setMessage(report.toString());
+                }
+
+                notificationManager.createTasks(
+                        AuditElements.EventCategoryType.TASK,
+                        "notification",
+                        null,
+                        "send",
+                        AuditElements.Result.SUCCESS,
+                        null,
+                        null,
+                        task,
+                        "Successfully sent notification to " + to);
+            } else {
+                execution.setStatus(NotificationJob.Status.NOT_SENT.name());
+                if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
+                    execution.setMessage(ExceptionUtils2.getFullStackTrace(outcome.getRight()));
                 }
 
-                execution.setEnd(new Date());
+                notificationManager.createTasks(
+                        AuditElements.EventCategoryType.TASK,
+                        "notification",
+                        null,
+                        "send",
+                        AuditElements.Result.FAILURE,
+                        null,
+                        null,
+                        task,
+                        "Could not send notification to " + to, outcome.getRight());
             }
-        }
 
-        if (hasToBeRegistered(execution)) {
-            execution = notificationManager.storeExec(execution);
+            execution.setEnd(new Date());
+        });
+
+        return complete(execution, true);
+    }
+
+    private TaskExec complete(final TaskExec execution, final boolean retryPossible) {
+        TaskExec result = execution;
+        if (hasToBeRegistered(result)) {
+            result = notificationManager.storeExec(result);
             if (retryPossible
-                    && (NotificationJob.Status.valueOf(execution.getStatus()) == NotificationJob.Status.NOT_SENT)) {
+                    && (NotificationJob.Status.valueOf(result.getStatus()) == NotificationJob.Status.NOT_SENT)) {
 
-                handleRetries(execution);
+                handleRetries(result);
             }
         } else {
-            notificationManager.setTaskExecuted(execution.getTask().getKey(), true);
+            notificationManager.setTaskExecuted(result.getTask().getKey(), true);
         }
 
-        return execution;
+        return result;
+    }
+
+    @Transactional
+    @Override
+    public TaskExec executeSingle(final NotificationTask task) {
+        TaskExec execution = newExecution(task);
+
+        String missing = checkRequired(task);
+        if (missing != null) {
+            return notSent(execution, missing);
+        }
+
+        status.set("Sending notifications to " + task.getRecipients());
+
+        try (PooledMailSender sender = new PooledMailSender(mailSender, 1)) {
+            return record(
+                    execution,
+                    delivery(sender, AuthContextUtils.getDomain(), confDAO.find(RATE_LIMIT, 0L), task).get());
+        }
     }
 
+    private void record(
+            final TransactionTemplate txTemplate,
+            final Pair<TaskExec, Future<List<Pair<String, Exception>>>> delivery)
+            throws InterruptedException {
+
+        TaskExec execution = delivery.getLeft();
+
+        Supplier<TaskExec> recorder;
+        try {
+            List<Pair<String, Exception>> outcomes = delivery.getRight().get();
+            recorder = () -> record(execution, outcomes);
+        } catch (ExecutionException e) {
+            recorder = () -> notSent(execution, "While delivering notification task: "
+                    + ExceptionUtils2.getFullStackTrace(e.getCause()));
+        }
+
+        try {
+            Supplier<TaskExec> toRecord = recorder;
+            txTemplate.execute(status -> toRecord.get());
+        } catch (RuntimeException e) {
+            LOG.error("Could not record execution of notification task {}", execution.getTask(), e);
+        }
+    }
+
+    /**
+     * Sends out all pending notification tasks; up to {@code notification.mail.concurrentThreads} tasks are delivered
+     * at the same time, each over one of as many SMTP connections kept open for the whole execution, and no more than
+     * {@code notification.mail.rateLimit} e-mails per second are sent from the current domain to each recipient mail
+     * domain. Executions are recorded by the calling thread in task order as deliveries complete, each within its own
+     * transaction: failing to record one execution does not affect the others.
+     *
+     * @throws JobExecutionException if interrupted while waiting for deliveries
+     */
     @Transactional
     @Override
     public void execute() throws JobExecutionException {
+        notificationManager.flushDigests();
+
         List<NotificationTask> tasks = taskDAO.<NotificationTask>findToExec(TaskType.NOTIFICATION);
 
         status.set("Sending out " + tasks.size() + " notifications");
 
-        for (int i = 0; i < tasks.size() && !interrupt; i++) {
-            LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
-            executeSingle(tasks.get(i));
-            LOG.debug("Notification task {} executed", tasks.get(i));
+        int concurrentThreads = Math.max(1, confDAO.find("notification.mail.concurrentThreads", 1L).intValue());
+        String domain = AuthContextUtils.getDomain();
+        long rateLimit = confDAO.find(RATE_LIMIT, 0L);
+
+        TransactionTemplate txTemplate = new TransactionTemplate(ApplicationContextProvider.getBeanFactory().
+                getBean(domain + "TransactionManager", PlatformTransactionManager.class));
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try (PooledMailSender sender = new PooledMailSender(mailSender, concurrentThreads)) {
+            ExecutorService workers = new BoundedExecutorService(batchExecutor, concurrentThreads);
+
+            Deque<Pair<TaskExec, Future<List<Pair<String, Exception>>>>> pending = new ArrayDeque<>();
+            int executed = 0;
+            try {
+                for (int i = 0; i < tasks.size() && !interrupt; i++) {
+                    LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
+
+                    TaskExec execution = newExecution(tasks.get(i));
+                    String missing = checkRequired(tasks.get(i));
+                    if (missing == null) {
+                        pending.add(Pair.of(
+                                execution,
+                                workers.submit(delivery(sender, domain, rateLimit, tasks.get(i))::get)));
+                    } else {
+                        notSent(execution, missing);
+                        executed++;
+                    }
+
+                    // keep at most one task ahead for each worker
+                    while (pending.size() > concurrentThreads) {
+                        record(txTemplate, pending.poll());
+                        status.set("Sent out " + (++executed) + " / " + tasks.size() + " notifications");
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    record(txTemplate, pending.poll());
+                    status.set("Sent out " + (++executed) + " / " + tasks.size() + " notifications");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JobExecutionException("While waiting for notification task delivery", e);
+            } finally {
+                // only left when aborted
+                pending.forEach(delivery -> delivery.getRight().cancel(true));
+                workers.shutdown();
+            }
         }
+
         if (interrupt) {
             LOG.debug("Notification job interrupted");
             interrupted = true;
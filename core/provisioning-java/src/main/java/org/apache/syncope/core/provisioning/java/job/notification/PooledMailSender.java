@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Sends e-mails over a bounded pool of SMTP connections, kept open until {@link #close()}, instead of connecting
+ * once per message; can be used by several threads at the same time.
+ *
+ * Senders other than {@link JavaMailSenderImpl} do not expose their session, hence messages are handed over to them
+ * one by one.
+ */
+public class PooledMailSender implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledMailSender.class);
+
+    private final JavaMailSender mailSender;
+
+    private final Semaphore permits;
+
+    private final BlockingQueue<Transport> idle = new LinkedBlockingQueue<>();
+
+    public PooledMailSender(final JavaMailSender mailSender, final int size) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(Math.max(1, size), true);
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    private Transport connect() throws MessagingException {
+        JavaMailSenderImpl javaMailSender = (JavaMailSenderImpl) mailSender;
+
+        Transport transport = javaMailSender.getSession().getTransport(javaMailSender.getProtocol() == null
+                ? JavaMailSenderImpl.DEFAULT_PROTOCOL
+                : javaMailSender.getProtocol());
+        transport.connect(
+                javaMailSender.getHost(),
+                javaMailSender.getPort(),
+                StringUtils.defaultIfEmpty(javaMailSender.getUsername(), null),
+                StringUtils.isEmpty(javaMailSender.getUsername()) ? null : javaMailSender.getPassword());
+        return transport;
+    }
+
+    private static void close(final Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOG.debug("While closing SMTP connection", e);
+        }
+    }
+
+    private static void send(final Transport transport, final MimeMessage message) throws MessagingException {
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            // the connection might be no longer usable
+            close(transport);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the given message, over an idle connection if available, or over a new connection if the pool is not
+     * exhausted yet; otherwise waits for a connection to be released.
+     * If sending over an idle connection fails, as the SMTP server might have dropped it meanwhile, the message is
+     * sent once more over a new connection.
+     *
+     * @param message message to send
+     * @throws MessagingException if message could not be sent
+     * @throws InterruptedException if interrupted while waiting for a connection
+     */
+    public void send(final MimeMessage message) throws MessagingException, InterruptedException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            mailSender.send(message);
+            return;
+        }
+
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        permits.acquire();
+        try {
+            Transport transport = idle.poll();
+            if (transport != null && !transport.isConnected()) {
+                close(transport);
+                transport = null;
+            }
+
+            if (transport == null) {
+                transport = connect();
+                send(transport, message);
+            } else {
+                try {
+                    send(transport, message);
+                } catch (SendFailedException e) {
+                    // rejected by the SMTP server, not a connection issue
+                    throw e;
+                } catch (MessagingException e) {
+                    LOG.debug("Idle SMTP connection is stale, sending over a new connection", e);
+
+                    transport = connect();
+                    send(transport, message);
+                }
+            }
+            idle.add(transport);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+}
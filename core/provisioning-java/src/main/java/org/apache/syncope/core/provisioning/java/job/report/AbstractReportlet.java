@@ -18,11 +18,36 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
-import org.apache.syncope.core.persistence.api.dao.Reportlet;
+import java.util.stream.Collectors;
+import javax.annotation.Resource;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.report.ReportletConf;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.ConfDAO;
+import org.apache.syncope.core.persistence.api.dao.Reportlet;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.spring.BoundedExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.transaction.annotation.Transactional;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
@@ -32,6 +57,21 @@ public abstract class AbstractReportlet implements Reportlet {
 
     protected static final Logger LOG = LoggerFactory.getLogger(AbstractReportlet.class);
 
+    @Autowired
+    private AnySearchDAO anySearchDAO;
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    @Autowired
+    private ConfDAO confDAO;
+
+    @Autowired
+    private ReportletChunkExtractor chunkExtractor;
+
+    @Resource(name = "batchExecutor")
+    private ThreadPoolTaskExecutor batchExecutor;
+
     protected ReportletConf conf;
 
     @Override
@@ -42,6 +82,123 @@ public abstract class AbstractReportlet implements Reportlet {
     protected abstract void doExtract(ReportletConf conf, ContentHandler handler, AtomicReference<String> status)
             throws SAXException;
 
+    private static SearchCond afterKey(final String key) {
+        AnyCond keyCond = new AnyCond(AttributeCond.Type.GT);
+        keyCond.setSchema("key");
+        keyCond.setExpression(key);
+        return SearchCond.getLeafCond(keyCond);
+    }
+
+    /**
+     * Reads the keys of the next page of anys matching the given condition; entities read are detached straight away,
+     * so that they do not pile up in the persistence context.
+     *
+     * @param kind any type kind
+     * @param cond search condition
+     * @param latestKey key of the latest any read, if any
+     * @return keys of the next page of anys
+     */
+    private List<String> nextKeys(final AnyTypeKind kind, final SearchCond cond, final String latestKey) {
+        OrderByClause byKey = new OrderByClause();
+        byKey.setField("key");
+        byKey.setDirection(OrderByClause.Direction.ASC);
+
+        AnyDAO<Any<?>> dao = anyUtilsFactory.getInstance(kind).dao();
+        List<Any<?>> anys = anySearchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS,
+                latestKey == null ? cond : SearchCond.getAndCond(cond, afterKey(latestKey)),
+                1,
+                AnyDAO.DEFAULT_PAGE_SIZE,
+                Collections.singletonList(byKey),
+                kind);
+
+        return anys.stream().map(any -> {
+            dao.detach(any);
+            return any.getKey();
+        }).collect(Collectors.toList());
+    }
+
+    private static void merge(final Future<ContentHandlerBuffer> chunk, final ContentHandler handler)
+            throws SAXException {
+
+        try {
+            chunk.get().replay(handler);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SAXException) {
+                throw (SAXException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ReportException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReportException("Interrupted while extracting report content", e);
+        }
+    }
+
+    /**
+     * Extracts report content for all anys matching the given condition.
+     *
+     * Anys are read by pages, in key order; each page is then handed over to the given chunk handler in its own
+     * transaction, with up to {@code report.concurrentThreads} pages processed at the same time. The content generated
+     * for each page is buffered and merged into the given handler in key order, so that the outcome does not depend on
+     * the number of threads.
+     *
+     * @param <A> any type
+     * @param handler SAX content handler
+     * @param status report status, updated as pages are merged
+     * @param kind any type kind
+     * @param cond search condition, or null to extract all anys of the given kind
+     * @param total number of anys expected, for status reporting only
+     * @param chunkHandler report content generator, invoked by worker threads
+     * @throws SAXException if report content could not be generated
+     */
+    protected <A extends Any<?>> void doExtract(
+            final ContentHandler handler,
+            final AtomicReference<String> status,
+            final AnyTypeKind kind,
+            final SearchCond cond,
+            final int total,
+            final ReportletChunkExtractor.ChunkHandler<A> chunkHandler)
+            throws SAXException {
+
+        SearchCond effectiveCond = cond == null ? anyUtilsFactory.getInstance(kind).dao().getAllMatchingCond() : cond;
+        int concurrentThreads = Math.max(1, confDAO.find("report.concurrentThreads", 1L).intValue());
+
+        ExecutorService workers = new DelegatingSecurityContextExecutorService(
+                new BoundedExecutorService(batchExecutor, concurrentThreads));
+
+        Deque<Pair<Integer, Future<ContentHandlerBuffer>>> pending = new ArrayDeque<>();
+        int processed = 0;
+        try {
+            String latestKey = null;
+            boolean more;
+            do {
+                List<String> keys = nextKeys(kind, effectiveCond, latestKey);
+                more = keys.size() == AnyDAO.DEFAULT_PAGE_SIZE;
+                if (!keys.isEmpty()) {
+                    latestKey = keys.get(keys.size() - 1);
+                    pending.add(Pair.of(
+                            keys.size(),
+                            workers.submit(() -> chunkExtractor.extract(kind, keys, chunkHandler))));
+                }
+
+                // keep at most one page ahead for each worker, so that buffered content stays bounded
+                while (!pending.isEmpty() && (pending.size() > concurrentThreads || !more)) {
+                    Pair<Integer, Future<ContentHandlerBuffer>> oldest = pending.poll();
+                    merge(oldest.getRight(), handler);
+
+                    processed += oldest.getLeft();
+                    status.set("Processed " + processed + " / " + total + " " + kind);
+                }
+            } while (more);
+        } finally {
+            pending.forEach(chunk -> chunk.getRight().cancel(true));
+            workers.shutdown();
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public void extract(final ContentHandler handler, final AtomicReference<String> status) throws SAXException {
@@ -18,9 +18,12 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -132,8 +135,15 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
         // 2. define a SAX handler for generating result as XML
         TransformerHandler handler;
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ZipOutputStream zos = new ZipOutputStream(baos);
+        // result is written to a temporary file, then streamed to storage: it is never held in memory
+        Path result;
+        ZipOutputStream zos;
+        try {
+            result = Files.createTempFile("report", ".zip");
+            zos = new ZipOutputStream(Files.newOutputStream(result));
+        } catch (IOException e) {
+            throw new JobExecutionException("While creating temporary file for report result", e, true);
+        }
         zos.setLevel(Deflater.BEST_COMPRESSION);
         try {
             handler = TRANSFORMER_FACTORY.newTransformerHandler();
@@ -144,9 +154,10 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
             // a single ZipEntry in the ZipOutputStream
             zos.putNextEntry(new ZipEntry(report.getName()));
 
-            // streaming SAX handler in a compressed byte array stream
+            // streaming SAX handler in a compressed file stream
             handler.setResult(new StreamResult(zos));
         } catch (Exception e) {
+            discard(zos, result);
             throw new JobExecutionException("While configuring for SAX generation", e, true);
         }
 
@@ -212,15 +223,32 @@ public class DefaultReportJobDelegate implements ReportJobDelegate {
             try {
                 zos.closeEntry();
                 zos.close();
-                baos.close();
             } catch (IOException e) {
                 LOG.error("While closing StreamResult's backend", e);
             }
 
-            execution.setExecResult(baos.toByteArray());
             execution.setMessage(reportExecutionMessage.toString());
             execution.setEnd(new Date());
-            reportExecDAO.save(execution);
+            execution = reportExecDAO.save(execution);
+
+            try (InputStream in = Files.newInputStream(result)) {
+                reportExecDAO.saveExecResult(execution.getKey(), in, Files.size(result));
+            } catch (IOException e) {
+                LOG.error("While storing result of {}", execution, e);
+            } finally {
+                discard(null, result);
+            }
+        }
+    }
+
+    private static void discard(final OutputStream out, final Path result) {
+        try {
+            if (out != null) {
+                out.close();
+            }
+            Files.deleteIfExists(result);
+        } catch (IOException e) {
+            LOG.error("While deleting temporary report result {}", result, e);
         }
     }
 }
@@ -18,15 +18,19 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -35,7 +39,6 @@ import org.apache.syncope.common.lib.report.ReconciliationReportletConf;
 import org.apache.syncope.common.lib.report.ReconciliationReportletConf.Feature;
 import org.apache.syncope.common.lib.report.ReportletConf;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
-import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
@@ -44,7 +47,6 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportletConfClass;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
-import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
@@ -61,8 +63,11 @@ import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.identityconnectors.framework.common.objects.OperationalAttributes;
 import org.identityconnectors.framework.common.objects.Uid;
+import org.identityconnectors.framework.common.objects.filter.Filter;
+import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
@@ -75,7 +80,10 @@ import org.xml.sax.helpers.AttributesImpl;
 @ReportletConfClass(ReconciliationReportletConf.class)
 public class ReconciliationReportlet extends AbstractReportlet {
 
-    private static final int PAGE_SIZE = 10;
+    /**
+     * Connector object key values looked for with a single connector search.
+     */
+    private static final int LOOKUP_BATCH_SIZE = 100;
 
     @Autowired
     private UserDAO userDAO;
@@ -273,16 +281,151 @@ public class ReconciliationReportlet extends AbstractReportlet {
         return values;
     }
 
+    /**
+     * Looks for the given connector object key values on the resource of the given provision, by batches of
+     * {@link #LOOKUP_BATCH_SIZE} values, each with a single connector search.
+     *
+     * @param provision provision
+     * @param connObjectKeyItem connector object key mapping item
+     * @param connObjectKeyValues connector object key values to look for
+     * @return connector objects found, by requested connector object key value
+     */
+    private Map<String, ConnectorObject> getConnObjects(
+            final Provision provision,
+            final MappingItem connObjectKeyItem,
+            final Collection<String> connObjectKeyValues) {
+
+        Connector connector = connFactory.getConnector(provision.getResource());
+        OperationOptions options = MappingUtils.buildOperationOptions(provision.getMapping().getItems().iterator());
+        boolean ignoreCaseMatch = provision.isIgnoreCaseMatch();
+
+        List<String> distinct = new ArrayList<>(connObjectKeyValues);
+        Map<String, ConnectorObject> result = new HashMap<>(distinct.size());
+        for (int i = 0; i < distinct.size(); i += LOOKUP_BATCH_SIZE) {
+            List<String> batch = distinct.subList(i, Math.min(distinct.size(), i + LOOKUP_BATCH_SIZE));
+
+            Map<String, String> requested = new HashMap<>(batch.size());
+            batch.forEach(value -> requested.put(ignoreCaseMatch ? value.toLowerCase() : value, value));
+
+            Filter filter = batch.stream().
+                    map(value -> AttributeBuilder.build(connObjectKeyItem.getExtAttrName(), value)).
+                    map(attr -> ignoreCaseMatch ? FilterBuilder.equalsIgnoreCase(attr) : FilterBuilder.equalTo(attr)).
+                    reduce(FilterBuilder::or).get();
+
+            AtomicBoolean unknownValues = new AtomicBoolean(false);
+            connector.search(provision.getObjectClass(), filter, connObj -> {
+                Attribute attr = connObj.getAttributeByName(connObjectKeyItem.getExtAttrName());
+                String value = attr == null || attr.getValue() == null || attr.getValue().isEmpty()
+                        ? null
+                        : attr.getValue().get(0).toString();
+                String requestedValue = value == null
+                        ? null
+                        : requested.get(ignoreCaseMatch ? value.toLowerCase() : value);
+                if (requestedValue == null) {
+                    // the connector might return values in a different form (e.g. normalized DNs)
+                    unknownValues.set(true);
+                } else {
+                    result.putIfAbsent(requestedValue, connObj);
+                }
+                return true;
+            }, options);
+
+            if (unknownValues.get()) {
+                batch.stream().filter(value -> !result.containsKey(value)).forEach(value -> {
+                    ConnectorObject connObj = connector.getObject(
+                            provision.getObjectClass(),
+                            AttributeBuilder.build(connObjectKeyItem.getExtAttrName(), value),
+                            ignoreCaseMatch,
+                            options);
+                    if (connObj != null) {
+                        result.put(value, connObj);
+                    }
+                });
+            }
+        }
+
+        return result;
+    }
+
+    private void reconcile(
+            final Any<?> any,
+            final Provision provision,
+            final MappingItem connObjectKeyItem,
+            final String connObjectKeyValue,
+            final ConnectorObject connectorObject,
+            final Set<Missing> missing,
+            final Set<Misaligned> misaligned) {
+
+        String resource = provision.getResource().getKey();
+
+        if (connectorObject == null) {
+            // 2. not found on resource?
+            LOG.error("Object {} with class {} not found on resource {}",
+                    connObjectKeyValue, provision.getObjectClass(), resource);
+
+            missing.add(new Missing(resource, connObjectKeyValue));
+        } else {
+            // 3. found but misaligned?
+            Pair<String, Set<Attribute>> preparedAttrs =
+                    mappingManager.prepareAttrs(any, null, false, null, provision);
+            preparedAttrs.getRight().add(AttributeBuilder.build(
+                    Uid.NAME, preparedAttrs.getLeft()));
+            preparedAttrs.getRight().add(AttributeBuilder.build(
+                    connObjectKeyItem.getExtAttrName(), preparedAttrs.getLeft()));
+
+            final Map<String, Set<Object>> syncopeAttrs = new HashMap<>();
+            preparedAttrs.getRight().forEach(attr -> {
+                syncopeAttrs.put(attr.getName(), getValues(attr));
+            });
+
+            final Map<String, Set<Object>> resourceAttrs = new HashMap<>();
+            connectorObject.getAttributes().stream().
+                    filter(attr -> (!OperationalAttributes.PASSWORD_NAME.equals(attr.getName())
+                    && !OperationalAttributes.ENABLE_NAME.equals(attr.getName()))).
+                    forEachOrdered(attr -> {
+                        resourceAttrs.put(attr.getName(), getValues(attr));
+                    });
+
+            syncopeAttrs.keySet().stream().
+                    filter(syncopeAttr -> !resourceAttrs.containsKey(syncopeAttr)).
+                    forEach(name -> {
+                        misaligned.add(new Misaligned(
+                                resource,
+                                connObjectKeyValue,
+                                name,
+                                syncopeAttrs.get(name),
+                                Collections.emptySet()));
+                    });
+
+            resourceAttrs.forEach((key, values) -> {
+                if (syncopeAttrs.containsKey(key)) {
+                    if (!Objects.equals(syncopeAttrs.get(key), values)) {
+                        misaligned.add(new Misaligned(
+                                resource,
+                                connObjectKeyValue,
+                                key,
+                                syncopeAttrs.get(key),
+                                values));
+                    }
+                } else {
+                    misaligned.add(new Misaligned(
+                            resource,
+                            connObjectKeyValue,
+                            key,
+                            Collections.emptySet(),
+                            values));
+                }
+            });
+        }
+    }
+
     private void doExtract(final ContentHandler handler, final List<? extends Any<?>> anys)
             throws SAXException, ReportException {
 
-        final Set<Missing> missing = new HashSet<>();
-        final Set<Misaligned> misaligned = new HashSet<>();
-
+        // 1. gather what to read from the underlying connectors, for all anys at once
+        Map<String, List<Pair<Provision, String>>> checks = new HashMap<>(anys.size());
+        Map<Provision, Set<String>> connObjectKeyValues = new HashMap<>();
         for (Any<?> any : anys) {
-            missing.clear();
-            misaligned.clear();
-
             AnyUtils anyUtils = anyUtilsFactory.getInstance(any);
             anyUtils.getAllResources(any).forEach(resource -> {
                 Provision provision = resource.getProvision(any.getType()).orElse(null);
@@ -291,75 +434,33 @@ public class ReconciliationReportlet extends AbstractReportlet {
                         ? mappingManager.getConnObjectKeyValue(any, provision).get()
                         : StringUtils.EMPTY;
                 if (provision != null && connObjectKeyItem.isPresent() && StringUtils.isNotBlank(connObjectKeyValue)) {
-                    // 1. read from the underlying connector
-                    Connector connector = connFactory.getConnector(resource);
-                    ConnectorObject connectorObject = connector.getObject(
-                            provision.getObjectClass(),
-                            AttributeBuilder.build(connObjectKeyItem.get().getExtAttrName(), connObjectKeyValue),
-                            provision.isIgnoreCaseMatch(),
-                            MappingUtils.buildOperationOptions(provision.getMapping().getItems().iterator()));
-
-                    if (connectorObject == null) {
-                        // 2. not found on resource?
-                        LOG.error("Object {} with class {} not found on resource {}",
-                                connObjectKeyValue, provision.getObjectClass(), resource);
-
-                        missing.add(new Missing(resource.getKey(), connObjectKeyValue));
-                    } else {
-                        // 3. found but misaligned?
-                        Pair<String, Set<Attribute>> preparedAttrs =
-                                mappingManager.prepareAttrs(any, null, false, null, provision);
-                        preparedAttrs.getRight().add(AttributeBuilder.build(
-                                Uid.NAME, preparedAttrs.getLeft()));
-                        preparedAttrs.getRight().add(AttributeBuilder.build(
-                                connObjectKeyItem.get().getExtAttrName(), preparedAttrs.getLeft()));
-
-                        final Map<String, Set<Object>> syncopeAttrs = new HashMap<>();
-                        preparedAttrs.getRight().forEach(attr -> {
-                            syncopeAttrs.put(attr.getName(), getValues(attr));
-                        });
-
-                        final Map<String, Set<Object>> resourceAttrs = new HashMap<>();
-                        connectorObject.getAttributes().stream().
-                                filter(attr -> (!OperationalAttributes.PASSWORD_NAME.equals(attr.getName())
-                                && !OperationalAttributes.ENABLE_NAME.equals(attr.getName()))).
-                                forEachOrdered(attr -> {
-                                    resourceAttrs.put(attr.getName(), getValues(attr));
-                                });
-
-                        syncopeAttrs.keySet().stream().
-                                filter(syncopeAttr -> !resourceAttrs.containsKey(syncopeAttr)).
-                                forEach(name -> {
-                                    misaligned.add(new Misaligned(
-                                            resource.getKey(),
-                                            connObjectKeyValue,
-                                            name,
-                                            syncopeAttrs.get(name),
-                                            Collections.emptySet()));
-                                });
-
-                        resourceAttrs.forEach((key, values) -> {
-                            if (syncopeAttrs.containsKey(key)) {
-                                if (!Objects.equals(syncopeAttrs.get(key), values)) {
-                                    misaligned.add(new Misaligned(
-                                            resource.getKey(),
-                                            connObjectKeyValue,
-                                            key,
-                                            syncopeAttrs.get(key),
-                                            values));
-                                }
-                            } else {
-                                misaligned.add(new Misaligned(
-                                        resource.getKey(),
-                                        connObjectKeyValue,
-                                        key,
-                                        Collections.emptySet(),
-                                        values));
-                            }
-                        });
-                    }
+                    checks.computeIfAbsent(any.getKey(), k -> new ArrayList<>()).
+                            add(Pair.of(provision, connObjectKeyValue));
+                    connObjectKeyValues.computeIfAbsent(provision, k -> new LinkedHashSet<>()).
+                            add(connObjectKeyValue);
                 }
             });
+        }
+
+        Map<Provision, Map<String, ConnectorObject>> connObjects = new HashMap<>(connObjectKeyValues.size());
+        connObjectKeyValues.forEach((provision, values) -> connObjects.put(
+                provision, getConnObjects(provision, MappingUtils.getConnObjectKeyItem(provision).get(), values)));
+
+        final Set<Missing> missing = new HashSet<>();
+        final Set<Misaligned> misaligned = new HashSet<>();
+
+        for (Any<?> any : anys) {
+            missing.clear();
+            misaligned.clear();
+
+            checks.getOrDefault(any.getKey(), Collections.emptyList()).forEach(check -> reconcile(
+                    any,
+                    check.getLeft(),
+                    MappingUtils.getConnObjectKeyItem(check.getLeft()).get(),
+                    check.getRight(),
+                    connObjects.get(check.getLeft()).get(check.getRight()),
+                    missing,
+                    misaligned));
 
             if (!missing.isEmpty() || !misaligned.isEmpty()) {
                 doExtract(handler, any, missing, misaligned);
@@ -380,85 +481,37 @@ public class ReconciliationReportlet extends AbstractReportlet {
             throw new ReportException(new IllegalArgumentException("Invalid configuration provided"));
         }
 
-        AttributesImpl atts = new AttributesImpl();
-
-        if (StringUtils.isBlank(this.conf.getUserMatchingCond())) {
-            int total = userDAO.count();
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " users in " + pages + " pages");
+        ReportletChunkExtractor.ChunkHandler<Any<?>> chunkHandler = this::doExtract;
 
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " users: page " + page + " of " + pages);
-
-                doExtract(handler, userDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE));
-            }
-        } else {
-            SearchCond cond = SearchCondConverter.convert(this.conf.getUserMatchingCond());
-
-            int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " users in " + pages + " pages");
+        AttributesImpl atts = new AttributesImpl();
 
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
+        SearchCond userCond = StringUtils.isBlank(this.conf.getUserMatchingCond())
+                ? null
+                : SearchCondConverter.convert(this.conf.getUserMatchingCond());
+        int total = userCond == null
+                ? userDAO.count()
+                : searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, userCond, AnyTypeKind.USER);
 
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " users: page " + page + " of " + pages);
+        status.set("Processing " + total + " users");
 
-                doExtract(handler, searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        cond,
-                        page,
-                        PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.USER));
-            }
-        }
+        atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
+        handler.startElement("", "", getAnyElementName(AnyTypeKind.USER) + "s", atts);
+        doExtract(handler, status, AnyTypeKind.USER, userCond, total, chunkHandler);
         handler.endElement("", "", getAnyElementName(AnyTypeKind.USER) + "s");
 
-        atts.clear();
-        if (StringUtils.isBlank(this.conf.getGroupMatchingCond())) {
-            int total = groupDAO.count();
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-            status.set("Processing " + total + " groups in " + pages + " pages");
-
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-                doExtract(handler, groupDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE));
-            }
-        } else {
-            SearchCond cond = SearchCondConverter.convert(this.conf.getUserMatchingCond());
-
-            int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.GROUP);
-            int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
+        SearchCond groupCond = StringUtils.isBlank(this.conf.getGroupMatchingCond())
+                ? null
+                : SearchCondConverter.convert(this.conf.getGroupMatchingCond());
+        total = groupCond == null
+                ? groupDAO.count()
+                : searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, groupCond, AnyTypeKind.GROUP);
 
-            status.set("Processing " + total + " groups in " + pages + " pages");
+        status.set("Processing " + total + " groups");
 
-            atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
-            handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
-
-            for (int page = 1; page <= pages; page++) {
-                status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-                doExtract(handler, searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        cond,
-                        page,
-                        PAGE_SIZE,
-                        Collections.<OrderByClause>emptyList(),
-                        AnyTypeKind.GROUP));
-            }
-        }
+        atts.clear();
+        atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
+        handler.startElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s", atts);
+        doExtract(handler, status, AnyTypeKind.GROUP, groupCond, total, chunkHandler);
         handler.endElement("", "", getAnyElementName(AnyTypeKind.GROUP) + "s");
 
         for (AnyType anyType : anyTypeDAO.findAll()) {
@@ -471,29 +524,15 @@ public class ReconciliationReportlet extends AbstractReportlet {
                                 SearchCond.getLeafCond(anyTypeCond),
                                 SearchCondConverter.convert(this.conf.getAnyObjectMatchingCond()));
 
-                int total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.ANY_OBJECT);
-                int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
+                total = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.ANY_OBJECT);
 
-                status.set("Processing " + total + " any objects " + anyType.getKey() + " in " + pages + " pages");
+                status.set("Processing " + total + " any objects " + anyType.getKey());
 
                 atts.clear();
                 atts.addAttribute("", "", "type", ReportXMLConst.XSD_STRING, anyType.getKey());
                 atts.addAttribute("", "", "total", ReportXMLConst.XSD_INT, String.valueOf(total));
                 handler.startElement("", "", getAnyElementName(AnyTypeKind.ANY_OBJECT) + "s", atts);
-
-                for (int page = 1; page <= pages; page++) {
-                    status.set("Processing " + total + " any objects " + anyType.getKey()
-                            + ": page " + page + " of " + pages);
-
-                    doExtract(handler, searchDAO.search(
-                            SyncopeConstants.FULL_ADMIN_REALMS,
-                            cond,
-                            page,
-                            PAGE_SIZE,
-                            Collections.<OrderByClause>emptyList(),
-                            AnyTypeKind.ANY_OBJECT));
-                }
-
+                doExtract(handler, status, AnyTypeKind.ANY_OBJECT, cond, total, chunkHandler);
                 handler.endElement("", "", getAnyElementName(AnyTypeKind.ANY_OBJECT) + "s");
             }
         }
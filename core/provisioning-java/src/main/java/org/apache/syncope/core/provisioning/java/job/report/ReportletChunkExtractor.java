@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.report;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * Extracts report content for chunks of anys, each in its own read-only transaction.
+ *
+ * @see AbstractReportlet
+ */
+@Component
+public class ReportletChunkExtractor {
+
+    /**
+     * Generates report content for a chunk of anys.
+     *
+     * @param <A> any type
+     */
+    @FunctionalInterface
+    public interface ChunkHandler<A extends Any<?>> {
+
+        void extract(ContentHandler handler, List<A> anys) throws SAXException;
+    }
+
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    /**
+     * Reads the given anys and lets the given chunk handler generate report content for them.
+     *
+     * @param <A> any type
+     * @param kind any type kind
+     * @param keys keys of the anys to extract, in the order they shall be reported
+     * @param chunkHandler report content generator
+     * @return report content generated for the given anys
+     * @throws SAXException if report content could not be generated
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public <A extends Any<?>> ContentHandlerBuffer extract(
+            final AnyTypeKind kind,
+            final List<String> keys,
+            final ChunkHandler<A> chunkHandler) throws SAXException {
+
+        AnyDAO<A> dao = anyUtilsFactory.getInstance(kind).dao();
+        List<A> anys = keys.stream().map(dao::find).filter(Objects::nonNull).collect(Collectors.toList());
+
+        ContentHandlerBuffer buffer = new ContentHandlerBuffer();
+        chunkHandler.extract(buffer, anys);
+        return buffer;
+    }
+}
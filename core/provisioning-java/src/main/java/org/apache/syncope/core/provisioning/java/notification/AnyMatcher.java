@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Matches anys against FIQL conditions, as those defined by notifications.
+ *
+ * Conditions are converted once and then evaluated against the in-memory entity whenever the outcome can be told for
+ * sure from there; otherwise, as for dynamic memberships or for comparisons whose outcome might depend on database
+ * collation, evaluation is left to {@link AnySearchDAO#matches(org.apache.syncope.core.persistence.api.entity.Any,
+ * org.apache.syncope.core.persistence.api.dao.search.SearchCond)}.
+ */
+@Component
+public class AnyMatcher {
+
+    /**
+     * Max number of converted conditions kept.
+     */
+    private static final int MAX_CONDS = 1000;
+
+    private final Map<String, SearchCond> conds = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    /**
+     * Converts the given FIQL, reusing previous conversions.
+     *
+     * @param fiql FIQL condition
+     * @return search condition
+     */
+    public SearchCond getCond(final String fiql) {
+        SearchCond cond = conds.get(fiql);
+        if (cond == null) {
+            if (conds.size() >= MAX_CONDS) {
+                conds.clear();
+            }
+            cond = SearchCondConverter.convert(fiql);
+            conds.put(fiql, cond);
+        }
+        return cond;
+    }
+
+    /**
+     * Checks whether the given any matches the given FIQL condition.
+     *
+     * @param any any
+     * @param fiql FIQL condition
+     * @return whether the given any matches the given FIQL condition
+     */
+    public boolean matches(final Any<?> any, final String fiql) {
+        SearchCond cond = getCond(fiql);
+        return evaluate(any, cond).orElseGet(() -> searchDAO.matches(any, cond));
+    }
+
+    /**
+     * Evaluates the given condition against the given any, in memory.
+     *
+     * @param any any
+     * @param cond search condition
+     * @return whether the given any matches the given condition, or empty if this cannot be told for sure
+     */
+    protected Optional<Boolean> evaluate(final Any<?> any, final SearchCond cond) {
+        if (cond == null || cond.getType() == null) {
+            return Optional.empty();
+        }
+
+        switch (cond.getType()) {
+            case LEAF:
+                return evaluateLeaf(any, cond);
+
+            case NOT_LEAF:
+                return evaluateLeaf(any, cond).map(result -> !result);
+
+            case AND:
+            case OR:
+                // false for AND, true for OR: enough to tell the outcome on either side
+                boolean decisive = cond.getType() == SearchCond.Type.OR;
+
+                Optional<Boolean> left = evaluate(any, cond.getLeftSearchCond());
+                if (left.isPresent() && left.get() == decisive) {
+                    return left;
+                }
+                Optional<Boolean> right = evaluate(any, cond.getRightSearchCond());
+                if (right.isPresent() && right.get() == decisive) {
+                    return right;
+                }
+                return left.isPresent() && right.isPresent()
+                        ? Optional.of(!decisive)
+                        : Optional.empty();
+
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private Optional<Boolean> evaluateLeaf(final Any<?> any, final SearchCond cond) {
+        if (cond.getAnyTypeCond() != null) {
+            return Optional.of(any.getType().getKey().equals(cond.getAnyTypeCond().getAnyTypeKey()));
+        }
+
+        if (cond.getAnyCond() != null) {
+            return evaluateField(any, cond.getAnyCond());
+        }
+
+        if (cond.getAttributeCond() != null) {
+            return evaluatePlainAttr(any, cond.getAttributeCond());
+        }
+
+        // memberships, resources and roles can also be dynamic or inherited: only their direct presence is conclusive
+        if (cond.getMembershipCond() != null && any instanceof GroupableRelatable) {
+            String group = cond.getMembershipCond().getGroup();
+            return ((GroupableRelatable<?, ?, ?, ?, ?>) any).getMemberships().stream().
+                    anyMatch(membership -> group.equals(membership.getRightEnd().getKey())
+                    || group.equals(membership.getRightEnd().getName()))
+                    ? Optional.of(true)
+                    : Optional.empty();
+        }
+
+        if (cond.getResourceCond() != null) {
+            return any.getResources().stream().
+                    anyMatch(resource -> resource.getKey().equals(cond.getResourceCond().getResourceKey()))
+                    ? Optional.of(true)
+                    : Optional.empty();
+        }
+
+        if (cond.getRoleCond() != null && any instanceof User) {
+            return ((User) any).getRoles().stream().
+                    anyMatch(role -> role.getKey().equals(cond.getRoleCond().getRole()))
+                    ? Optional.of(true)
+                    : Optional.empty();
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Boolean> evaluateField(final Any<?> any, final AnyCond cond) {
+        String value;
+        switch (cond.getSchema()) {
+            case "key":
+                value = any.getKey();
+                break;
+
+            case "status":
+                value = any.getStatus();
+                break;
+
+            case "username":
+                if (!(any instanceof User)) {
+                    return Optional.empty();
+                }
+                value = ((User) any).getUsername();
+                break;
+
+            case "name":
+                if (!(any instanceof Group)) {
+                    return Optional.empty();
+                }
+                value = ((Group) any).getName();
+                break;
+
+            default:
+                return Optional.empty();
+        }
+
+        return compare(value == null ? Collections.<String>emptyList() : Collections.singletonList(value), cond);
+    }
+
+    private Optional<Boolean> evaluatePlainAttr(final Any<?> any, final AttributeCond cond) {
+        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
+        if (schema == null) {
+            return Optional.empty();
+        }
+        if (schema.getType() != AttrSchemaType.String
+                && cond.getType() != AttributeCond.Type.ISNULL && cond.getType() != AttributeCond.Type.ISNOTNULL) {
+
+            // values would need to be compared according to their type
+            return Optional.empty();
+        }
+        if (any instanceof GroupableRelatable
+                && ((GroupableRelatable<?, ?, ?, ?, ?>) any).getPlainAttrs(schema.getKey()).stream().
+                        anyMatch(attr -> attr.getMembership() != null)) {
+
+            // membership attributes are also considered by search
+            return Optional.empty();
+        }
+
+        Optional<? extends PlainAttr<?>> attr = any.getPlainAttr(schema.getKey());
+        return compare(attr.isPresent() ? attr.get().getValuesAsStrings() : Collections.<String>emptyList(), cond);
+    }
+
+    private static Optional<Boolean> compare(final List<String> values, final AttributeCond cond) {
+        switch (cond.getType()) {
+            case ISNULL:
+                return Optional.of(values.isEmpty());
+
+            case ISNOTNULL:
+                return Optional.of(!values.isEmpty());
+
+            case EQ:
+                if (values.stream().anyMatch(value -> value.equals(cond.getExpression()))) {
+                    return Optional.of(true);
+                }
+                // case-insensitive collations would match anyway
+                return values.stream().anyMatch(value -> value.equalsIgnoreCase(cond.getExpression()))
+                        ? Optional.empty()
+                        : Optional.of(false);
+
+            case IEQ:
+                return Optional.of(values.stream().anyMatch(value -> value.equalsIgnoreCase(cond.getExpression())));
+
+            default:
+                return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
+import org.apache.syncope.core.persistence.api.dao.MailTemplateDAO;
+import org.apache.syncope.core.persistence.api.entity.MailTemplate;
+import org.apache.syncope.core.provisioning.java.jexl.JexlUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compiled mail templates, by domain, mail template key and format.
+ *
+ * Each compiled template is kept together with the text it was compiled from, and compiled again as soon as the
+ * current text differs: this way, changes made elsewhere (e.g. on other cluster nodes) are picked up even when not
+ * explicitly evicted.
+ */
+@Component
+public class MailTemplateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateCache.class);
+
+    private final JxltEngine engine = JexlUtils.newJxltEngine();
+
+    private final Map<Triple<String, String, MailTemplateFormat>, Pair<String, JxltEngine.Template>> templates =
+            new ConcurrentHashMap<>();
+
+    @Autowired
+    private MailTemplateDAO mailTemplateDAO;
+
+    private static String getText(final MailTemplate mailTemplate, final MailTemplateFormat format) {
+        return format == MailTemplateFormat.HTML
+                ? mailTemplate.getHTMLTemplate()
+                : mailTemplate.getTextTemplate();
+    }
+
+    /**
+     * Compiles the given template text.
+     *
+     * @param text template text
+     * @return compiled template
+     * @throws JexlException if the given text cannot be parsed
+     */
+    public JxltEngine.Template compile(final String text) {
+        return engine.createTemplate(text);
+    }
+
+    /**
+     * Returns the compiled version of the given mail template, in the given format, compiling it if needed.
+     *
+     * @param mailTemplate mail template
+     * @param format mail template format
+     * @return compiled template
+     * @throws JexlException if the template text cannot be parsed
+     */
+    public JxltEngine.Template get(final MailTemplate mailTemplate, final MailTemplateFormat format) {
+        String text = getText(mailTemplate, format);
+        Triple<String, String, MailTemplateFormat> key =
+                Triple.of(AuthContextUtils.getDomain(), mailTemplate.getKey(), format);
+
+        Pair<String, JxltEngine.Template> compiled = templates.get(key);
+        if (compiled == null || !compiled.getLeft().equals(text)) {
+            compiled = Pair.of(text, compile(text));
+            templates.put(key, compiled);
+        }
+        return compiled.getRight();
+    }
+
+    /**
+     * Discards the compiled versions of the given mail template, in the current domain.
+     *
+     * @param key mail template key
+     */
+    public void evict(final String key) {
+        for (MailTemplateFormat format : MailTemplateFormat.values()) {
+            templates.remove(Triple.of(AuthContextUtils.getDomain(), key, format));
+        }
+    }
+
+    /**
+     * Compiles all mail templates of the current domain; templates which cannot be parsed are reported.
+     */
+    @Transactional(readOnly = true)
+    public void compileAll() {
+        mailTemplateDAO.findAll().forEach(mailTemplate -> {
+            for (MailTemplateFormat format : MailTemplateFormat.values()) {
+                if (StringUtils.isNotBlank(getText(mailTemplate, format))) {
+                    try {
+                        get(mailTemplate, format);
+                    } catch (JexlException e) {
+                        LOG.error("Could not parse mail template '{}' in {} format", mailTemplate.getKey(), format, e);
+                    }
+                }
+            }
+        });
+    }
+}
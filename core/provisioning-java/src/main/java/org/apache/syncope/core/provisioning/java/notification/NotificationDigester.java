@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.dao.NotificationDigestEventDAO;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.NotificationDigestEvent;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects events for notifications in digest mode, per notification and recipient, until the digest window of the
+ * notification is elapsed.
+ *
+ * Each event is stored once, along with the recipients it is due to, within the transaction of the event itself:
+ * hence events from transactions rolled back are discarded, while the others survive restarts and are available to
+ * all nodes. Each recipient gets its own digest, made of the events due to it.
+ */
+@Component
+public class NotificationDigester {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationDigester.class);
+
+    /**
+     * Max number of events per digest: once reached, the digest is complete even if its window is not elapsed.
+     */
+    public static final int MAX_EVENTS = 1000;
+
+    @Autowired
+    private NotificationDigestEventDAO digestEventDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    /**
+     * Adds the given event to the digest of the given notification for each of the given recipients.
+     *
+     * @param notification notification, in digest mode
+     * @param any the any object the event is about, if any
+     * @param recipients recipient e-mail addresses
+     * @param event event model, as available to mail templates; values which cannot be serialized are not retained
+     */
+    public void collect(
+            final Notification notification,
+            final Any<?> any,
+            final Set<String> recipients,
+            final Map<String, Object> event) {
+
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> serializable = new HashMap<>();
+        event.forEach((key, value) -> {
+            if (value == null || POJOHelper.serialize(value) != null) {
+                serializable.put(key, value);
+            } else {
+                LOG.warn("Could not serialize '{}' for digest of notification {}, ignoring", key, notification);
+            }
+        });
+
+        NotificationDigestEvent digestEvent = entityFactory.newEntity(NotificationDigestEvent.class);
+        digestEvent.setNotification(notification);
+        if (any != null) {
+            digestEvent.setEntityKey(any.getKey());
+            digestEvent.setAnyTypeKind(any.getType().getKind());
+        }
+        digestEvent.getRecipients().addAll(recipients);
+        digestEvent.setModel(POJOHelper.serialize(serializable));
+        digestEvent.setCollected(new Date());
+
+        digestEventDAO.save(digestEvent);
+    }
+
+    /**
+     * Finds the complete digests, each made of the events collected for the same notification and due to the same
+     * recipient, oldest first, up to {@link #MAX_EVENTS}.
+     *
+     * @return complete digests, as recipient and events
+     */
+    public List<Pair<String, List<NotificationDigestEvent>>> findComplete() {
+        Map<Pair<String, String>, List<NotificationDigestEvent>> digests = new LinkedHashMap<>();
+        digestEventDAO.findAll().forEach(event -> event.getRecipients().forEach(recipient -> digests.
+                computeIfAbsent(Pair.of(event.getNotification().getKey(), recipient), k -> new ArrayList<>()).
+                add(event)));
+
+        long now = System.currentTimeMillis();
+        return digests.entrySet().stream().
+                filter(digest -> digest.getValue().size() >= MAX_EVENTS
+                || digest.getValue().get(0).getNotification().getDigestWindow() == null
+                || now >= digest.getValue().get(0).getCollected().getTime()
+                + TimeUnit.MINUTES.toMillis(digest.getValue().get(0).getNotification().getDigestWindow())).
+                map(digest -> Pair.of(
+                digest.getKey().getRight(),
+                digest.getValue().subList(0, Math.min(digest.getValue().size(), MAX_EVENTS)))).
+                collect(Collectors.toList());
+    }
+
+    /**
+     * @param event event collected for digest
+     * @return event model; values are available as maps rather than as the original objects
+     */
+    public Map<String, Object> getModel(final NotificationDigestEvent event) {
+        Map<String, Object> model = POJOHelper.deserialize(
+                event.getModel(), new TypeReference<Map<String, Object>>() {
+        });
+        return model == null ? new HashMap<>() : model;
+    }
+
+    /**
+     * Marks the given events as sent to the given recipient; events sent to all their recipients are removed.
+     *
+     * @param recipient recipient e-mail address
+     * @param events events included in the digest sent to the given recipient
+     */
+    public void sent(final String recipient, final List<NotificationDigestEvent> events) {
+        events.forEach(event -> {
+            event.getRecipients().remove(recipient);
+            if (event.getRecipients().isEmpty()) {
+                digestEventDAO.delete(event);
+            } else {
+                digestEventDAO.save(event);
+            }
+        });
+    }
+}
@@ -40,7 +40,7 @@ import org.apache.syncope.common.lib.types.AuditLoggerName;
 import org.apache.syncope.common.lib.to.AnyObjectTO;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
-import org.apache.syncope.core.provisioning.java.jexl.JexlUtils;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
 import org.apache.syncope.core.persistence.api.dao.ConfDAO;
 import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
@@ -48,7 +48,9 @@ import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.MailTemplate;
 import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.NotificationDigestEvent;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.task.NotificationTask;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
@@ -56,7 +58,6 @@ import org.apache.syncope.core.persistence.api.entity.user.UPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.provisioning.api.data.GroupDataBinder;
 import org.apache.syncope.core.provisioning.api.data.UserDataBinder;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
@@ -78,6 +79,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.apache.syncope.core.provisioning.api.notification.RecipientsProvider;
 import org.apache.syncope.core.spring.ImplementationManager;
@@ -157,6 +159,18 @@ public class NotificationManagerImpl implements NotificationManager {
     @Autowired
     private IntAttrNameParser intAttrNameParser;
 
+    @Autowired
+    private MailTemplateCache mailTemplateCache;
+
+    @Autowired
+    private AnyMatcher anyMatcher;
+
+    @Autowired
+    private NotificationRecipientsCache recipientsCache;
+
+    @Autowired
+    private NotificationDigester digester;
+
     @Transactional(readOnly = true)
     @Override
     public long getMaxRetries() {
@@ -164,18 +178,13 @@ public class NotificationManagerImpl implements NotificationManager {
     }
 
     /**
-     * Create a notification task.
+     * Find the recipients of a notification.
      *
-     * @param notification notification to take as model
-     * @param any the any object this task is about
-     * @param jexlVars JEXL variables
-     * @return notification task, fully populated
+     * @param notification notification
+     * @param any the any object the notification is about
+     * @return recipient e-mail addresses and users
      */
-    private NotificationTask getNotificationTask(
-            final Notification notification,
-            final Any<?> any,
-            final Map<String, Object> jexlVars) {
-
+    private Pair<Set<String>, List<UserTO>> getRecipients(final Notification notification, final Any<?> any) {
         if (any != null) {
             virAttrHander.getValues(any);
         }
@@ -183,9 +192,21 @@ public class NotificationManagerImpl implements NotificationManager {
         List<User> recipients = new ArrayList<>();
 
         if (notification.getRecipientsFIQL() != null) {
-            recipients.addAll(searchDAO.<User>search(
-                    SearchCondConverter.convert(notification.getRecipientsFIQL()),
-                    Collections.<OrderByClause>emptyList(), AnyTypeKind.USER));
+            recipientsCache.get(
+                    notification,
+                    () -> searchDAO.<User>search(
+                            anyMatcher.getCond(notification.getRecipientsFIQL()),
+                            Collections.<OrderByClause>emptyList(), AnyTypeKind.USER).stream().
+                            map(User::getKey).collect(Collectors.toList()),
+                    confDAO.find("notification.recipientsCache.ttl", 0L)).
+                    forEach(key -> {
+                        User recipient = userDAO.find(key);
+                        if (recipient == null) {
+                            recipientsCache.remove(key);
+                        } else {
+                            recipients.add(recipient);
+                        }
+                    });
         }
 
         if (notification.isSelfAsRecipient() && any instanceof User) {
@@ -220,7 +241,27 @@ public class NotificationManagerImpl implements NotificationManager {
             }
         }
 
-        jexlVars.put("recipients", recipientTOs);
+        return Pair.of(recipientEmails, recipientTOs);
+    }
+
+    /**
+     * Create a notification task.
+     *
+     * @param notification notification to take as model
+     * @param any the any object this task is about, if any
+     * @param recipients recipient e-mail addresses and users
+     * @param jexlVars JEXL variables
+     * @return notification task, fully populated
+     */
+    private NotificationTask getNotificationTask(
+            final Notification notification,
+            final Any<?> any,
+            final Pair<Set<String>, List<UserTO>> recipients,
+            final Map<String, Object> jexlVars) {
+
+        if (recipients.getRight() != null) {
+            jexlVars.put("recipients", recipients.getRight());
+        }
         jexlVars.put("syncopeConf", this.findAllSyncopeConfs());
         jexlVars.put("events", notification.getEvents());
 
@@ -231,25 +272,25 @@ public class NotificationManagerImpl implements NotificationManager {
             task.setAnyTypeKind(any.getType().getKind());
         }
         task.setTraceLevel(notification.getTraceLevel());
-        task.getRecipients().addAll(recipientEmails);
+        task.getRecipients().addAll(recipients.getLeft());
         task.setSender(notification.getSender());
         task.setSubject(notification.getSubject());
 
         if (StringUtils.isNotBlank(notification.getTemplate().getTextTemplate())) {
-            task.setTextBody(evaluate(notification.getTemplate().getTextTemplate(), jexlVars));
+            task.setTextBody(evaluate(notification.getTemplate(), MailTemplateFormat.TEXT, jexlVars));
         }
         if (StringUtils.isNotBlank(notification.getTemplate().getHTMLTemplate())) {
-            task.setHtmlBody(evaluate(notification.getTemplate().getHTMLTemplate(), jexlVars));
+            task.setHtmlBody(evaluate(notification.getTemplate(), MailTemplateFormat.HTML, jexlVars));
         }
 
         return task;
     }
 
-    private String evaluate(final String template, final Map<String, Object> jexlVars) {
+    private String evaluate(
+            final MailTemplate template, final MailTemplateFormat format, final Map<String, Object> jexlVars) {
+
         StringWriter writer = new StringWriter();
-        JexlUtils.newJxltEngine().
-                createTemplate(template).
-                evaluate(new MapContext(jexlVars), writer);
+        mailTemplateCache.get(template, format).evaluate(new MapContext(jexlVars), writer);
         return writer.toString();
     }
 
@@ -327,6 +368,12 @@ public class NotificationManagerImpl implements NotificationManager {
         AnyType anyType = any == null ? null : any.getType();
         LOG.debug("Search notification for [{}]{}", anyType, any);
 
+        if (any instanceof User) {
+            recipientsCache.update((User) any);
+        }
+
+        String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
+
         List<NotificationTask> notifications = new ArrayList<>();
         for (Notification notification : notificationDAO.findAll()) {
             if (LOG.isDebugEnabled()) {
@@ -336,13 +383,11 @@ public class NotificationManagerImpl implements NotificationManager {
             }
 
             if (notification.isActive()) {
-                String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
                 if (!notification.getEvents().contains(currentEvent)) {
                     LOG.debug("No events found about {}", any);
                 } else if (anyType == null || any == null
                         || !notification.getAbout(anyType).isPresent()
-                        || searchDAO.matches(
-                                any, SearchCondConverter.convert(notification.getAbout(anyType).get().get()))) {
+                        || anyMatcher.matches(any, notification.getAbout(anyType).get().get())) {
 
                     LOG.debug("Creating notification task for event {} about {}", currentEvent, any);
 
@@ -364,14 +409,51 @@ public class NotificationManagerImpl implements NotificationManager {
                         model.put("group", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
                     }
 
-                    NotificationTask notificationTask = getNotificationTask(notification, any, model);
-                    notificationTask = taskDAO.save(notificationTask);
-                    notifications.add(notificationTask);
+                    Pair<Set<String>, List<UserTO>> recipients = getRecipients(notification, any);
+                    if (notification.getDigestWindow() != null && notification.getDigestWindow() > 0) {
+                        model.put("recipients", recipients.getRight());
+                        digester.collect(notification, any, recipients.getLeft(), model);
+                    } else {
+                        NotificationTask notificationTask = getNotificationTask(notification, any, recipients, model);
+                        notificationTask = taskDAO.save(notificationTask);
+                        notifications.add(notificationTask);
+                    }
                 }
             } else {
                 LOG.debug("Notification {} is not active, task will not be created", notification.getKey());
             }
         }
+
+        return notifications;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = { Throwable.class })
+    @Override
+    public List<NotificationTask> flushDigests() {
+        List<NotificationTask> notifications = new ArrayList<>();
+        digester.findComplete().forEach(digest -> {
+            List<NotificationDigestEvent> collected = digest.getRight();
+            NotificationDigestEvent latest = collected.get(collected.size() - 1);
+            LOG.debug("Creating notification task for digest of {} events to {}", collected.size(), digest.getLeft());
+
+            List<Map<String, Object>> events = collected.stream().
+                    map(digester::getModel).collect(Collectors.toList());
+
+            // the latest event is available as for non-digest notifications, all of them under 'digest'
+            Map<String, Object> model = new HashMap<>(events.get(events.size() - 1));
+            model.put("digest", events);
+
+            NotificationTask task = getNotificationTask(
+                    latest.getNotification(),
+                    null,
+                    Pair.of(Collections.singleton(digest.getLeft()), null),
+                    model);
+            task.setEntityKey(latest.getEntityKey());
+            task.setAnyTypeKind(latest.getAnyTypeKind());
+            notifications.add(taskDAO.save(task));
+
+            digester.sent(digest.getLeft(), collected);
+        });
         return notifications;
     }
 
@@ -442,6 +524,8 @@ public class NotificationManagerImpl implements NotificationManager {
     @Override
     public TaskExec storeExec(final TaskExec execution) {
         NotificationTask task = taskDAO.find(execution.getTask().getKey());
+        // the given execution might refer to a task instance read within another transaction
+        execution.setTask(task);
         task.add(execution);
         task.setExecuted(true);
         taskDAO.save(task);
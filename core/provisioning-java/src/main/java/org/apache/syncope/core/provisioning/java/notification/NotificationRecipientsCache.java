@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keys of the users matching the recipients condition of each notification, per domain.
+ *
+ * Users changed after an entry was loaded, as reported via {@link #update(User)}, are only marked as pending: each
+ * entry evaluates its own recipients condition against its pending users when next read, so that events do not cost
+ * any evaluation for notifications they do not trigger. Since users can also match because of dynamic memberships or
+ * of changes not reported as events, entries are anyway reloaded once expired.
+ */
+@Component
+public class NotificationRecipientsCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationRecipientsCache.class);
+
+    /**
+     * Maximum number of pending users for each entry: beyond that, reloading the entry is cheaper.
+     */
+    private static final int MAX_PENDING = 1000;
+
+    private static class Entry {
+
+        private final long loaded = System.currentTimeMillis();
+
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+        Entry(final Collection<String> keys) {
+            this.keys.addAll(keys);
+        }
+    }
+
+    private final Map<Triple<String, String, String>, Entry> recipients = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AnyMatcher anyMatcher;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    /**
+     * Returns the keys of the users matching the recipients condition of the given notification.
+     *
+     * @param notification notification
+     * @param loader provides the matching user keys when not cached or expired
+     * @param ttl time to live of cached entries, in seconds; 0 to disable caching
+     * @return keys of the users matching the recipients condition of the given notification
+     */
+    public Collection<String> get(
+            final Notification notification, final Supplier<Collection<String>> loader, final long ttl) {
+
+        if (ttl <= 0) {
+            recipients.clear();
+            return loader.get();
+        }
+
+        Triple<String, String, String> key =
+                Triple.of(AuthContextUtils.getDomain(), notification.getKey(), notification.getRecipientsFIQL());
+        Entry entry = recipients.get(key);
+        if (entry == null || System.currentTimeMillis() - entry.loaded > ttl * 1000) {
+            entry = new Entry(loader.get());
+            recipients.put(key, entry);
+
+            LOG.debug("Loaded {} recipients for notification {}", entry.keys.size(), notification.getKey());
+        } else {
+            for (Iterator<String> itor = entry.pending.iterator(); itor.hasNext();) {
+                String userKey = itor.next();
+                itor.remove();
+
+                User user = userDAO.find(userKey);
+                if (user != null && anyMatcher.matches(user, notification.getRecipientsFIQL())) {
+                    entry.keys.add(userKey);
+                } else {
+                    entry.keys.remove(userKey);
+                }
+            }
+        }
+        return entry.keys;
+    }
+
+    /**
+     * Marks the given user as pending for all cached entries, to be evaluated again when each entry is next read.
+     *
+     * @param user user
+     */
+    public void update(final User user) {
+        String domain = AuthContextUtils.getDomain();
+        recipients.entrySet().removeIf(entry -> domain.equals(entry.getKey().getLeft())
+                && entry.getValue().pending.add(user.getKey())
+                && entry.getValue().pending.size() > MAX_PENDING);
+    }
+
+    /**
+     * Removes the given user from cached entries.
+     *
+     * @param userKey user key
+     */
+    public void remove(final String userKey) {
+        recipients.values().forEach(entry -> {
+            entry.keys.remove(userKey);
+            entry.pending.remove(userKey);
+        });
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.collections.IteratorChain;
 import org.apache.syncope.common.lib.to.ExecTO;
 import org.apache.syncope.common.lib.to.PropagationTaskTO;
@@ -51,12 +52,16 @@ import org.apache.syncope.core.provisioning.api.TimeoutException;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationActions;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
+import org.apache.syncope.core.provisioning.java.utils.ConnObjectSnapshotUtils;
 import org.apache.syncope.core.provisioning.java.utils.ConnObjectUtils;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ConnObjectSnapshot;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
 import org.apache.syncope.core.persistence.api.entity.resource.OrgUnit;
@@ -72,7 +77,9 @@ import org.apache.syncope.core.provisioning.api.propagation.PropagationException
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.identityconnectors.framework.common.exceptions.AlreadyExistsException;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
@@ -133,6 +140,12 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     @Autowired
     protected VirSchemaDAO virSchemaDAO;
 
+    @Autowired
+    protected ConnObjectSnapshotDAO connObjectSnapshotDAO;
+
+    @Autowired
+    protected PropagationTaskTraceWriter traceWriter;
+
     /**
      * Notification Manager.
      */
@@ -182,19 +195,29 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return result;
     }
 
+    protected Uid createOrUpdate(
+            final PropagationTask task,
+            final ConnectorObject beforeObj,
+            final Connector connector,
+            final AtomicReference<Boolean> propagationAttempted) {
+
+        return createOrUpdate(task, task.getAttributes(), beforeObj, connector, propagationAttempted);
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     protected Uid createOrUpdate(
             final PropagationTask task,
+            final Set<Attribute> taskAttributes,
             final ConnectorObject beforeObj,
             final Connector connector,
             final AtomicReference<Boolean> propagationAttempted) {
 
         // set of attributes to be propagated
-        Set<Attribute> attributes = new HashSet<>(task.getAttributes());
+        Set<Attribute> attributes = new HashSet<>(taskAttributes);
 
         // check if there is any missing or null / empty mandatory attribute
         Set<Object> mandatoryAttrNames = new HashSet<>();
-        Attribute mandatoryMissing = AttributeUtil.find(MANDATORY_MISSING_ATTR_NAME, task.getAttributes());
+        Attribute mandatoryMissing = AttributeUtil.find(MANDATORY_MISSING_ATTR_NAME, taskAttributes);
         if (mandatoryMissing != null) {
             attributes.remove(mandatoryMissing);
 
@@ -202,7 +225,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 mandatoryAttrNames.addAll(mandatoryMissing.getValue());
             }
         }
-        Attribute mandatoryNullOrEmpty = AttributeUtil.find(MANDATORY_NULL_OR_EMPTY_ATTR_NAME, task.getAttributes());
+        Attribute mandatoryNullOrEmpty = AttributeUtil.find(MANDATORY_NULL_OR_EMPTY_ATTR_NAME, taskAttributes);
         if (mandatoryNullOrEmpty != null) {
             attributes.remove(mandatoryNullOrEmpty);
 
@@ -281,6 +304,146 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return result;
     }
 
+    /**
+     * Local state can only be trusted when the connObjectKey is mapped to {@link Uid#NAME}: otherwise the uid of the
+     * remote object (as LDAP's entryUUID or AD's objectGUID) is not known without reading it.
+     *
+     * @param provision provision
+     * @return whether the connObjectKey is the remote object uid
+     */
+    protected boolean isConnObjectKeyUid(final Provision provision) {
+        return provision.getMapping() != null && provision.getMapping().getConnObjectKeyItem().
+                filter(item -> Uid.NAME.equals(item.getExtAttrName())).isPresent();
+    }
+
+    /**
+     * Whether the given task can be propagated without reading the remote object first: this requires the resource
+     * to trust local state, the task to create or update an object mapped via provision and its connObjectKey to be
+     * the remote object uid.
+     *
+     * @param task current propagation task
+     * @param provision provision, if any
+     * @param orgUnit orgUnit, if any
+     * @return whether local state can be trusted for the given task
+     */
+    protected boolean isTrustingLocalState(
+            final PropagationTask task,
+            final Provision provision,
+            final OrgUnit orgUnit) {
+
+        return task.getResource().isTrustLocalState()
+                && provision != null && orgUnit == null
+                && task.getOperation() != ResourceOperation.DELETE
+                && isConnObjectKeyUid(provision);
+    }
+
+    /**
+     * Create or update the remote object without reading it first: the operation computed from local resource
+     * assignments is trusted, and the remote object is only read if the connector reports a conflict.
+     * When updating, only attributes changed since the last successful propagation are sent, if any.
+     *
+     * @param task current propagation task
+     * @param connector connector facade proxy
+     * @param provision provision
+     * @param propagationAttempted whether any propagation was attempted
+     * @return remote object as read upon conflict (null otherwise) and propagated uid
+     */
+    protected Pair<ConnectorObject, Uid> createOrUpdateTrustingLocalState(
+            final PropagationTask task,
+            final Connector connector,
+            final Provision provision,
+            final AtomicReference<Boolean> propagationAttempted) {
+
+        String connObjectKey = task.getOldConnObjectKey() == null
+                ? task.getConnObjectKey()
+                : task.getOldConnObjectKey();
+
+        // the task keeps the full set of attributes, for retries and later executions: only the delta is sent
+        Set<Attribute> attributes = task.getAttributes();
+
+        ConnectorObject trusted = null;
+        if (task.getOperation() == ResourceOperation.UPDATE) {
+            if (connObjectKey == null) {
+                LOG.debug("No connObjectKey available for {} on {}, reading remote object",
+                        task.getEntityKey(), task.getResource().getKey());
+
+                ConnectorObject beforeObj = getRemoteObject(task, connector, provision, false);
+                return Pair.of(beforeObj, createOrUpdate(task, beforeObj, connector, propagationAttempted));
+            }
+
+            ConnObjectSnapshot snapshot = connObjectSnapshotDAO.find(task.getEntityKey(), task.getResource());
+            if (snapshot != null) {
+                Set<Attribute> delta = ConnObjectSnapshotUtils.delta(
+                        snapshot.getPropagatedAttrs(),
+                        attributes.stream().
+                                filter(attr -> !MANDATORY_MISSING_ATTR_NAME.equals(attr.getName())).
+                                collect(Collectors.toSet()));
+                if (delta.isEmpty()) {
+                    LOG.debug("Nothing changed for {} on {} since last propagation",
+                            connObjectKey, task.getResource().getKey());
+                    return Pair.of(null, new Uid(connObjectKey));
+                }
+
+                LOG.debug("Changed since last propagation: {}", delta);
+                attributes = delta;
+            }
+
+            trusted = new ConnectorObjectBuilder().
+                    setObjectClass(new ObjectClass(task.getObjectClassName())).
+                    setUid(connObjectKey).
+                    setName(connObjectKey).
+                    build();
+        }
+
+        try {
+            return Pair.of(null, createOrUpdate(task, attributes, trusted, connector, propagationAttempted));
+        } catch (AlreadyExistsException | UnknownUidException e) {
+            LOG.debug("Local state for {} on {} is stale, reading remote object",
+                    connObjectKey, task.getResource().getKey(), e);
+
+            ConnectorObject beforeObj = getRemoteObject(task, connector, provision, false);
+            return Pair.of(beforeObj, createOrUpdate(task, beforeObj, connector, propagationAttempted));
+        }
+    }
+
+    /**
+     * Keep track of what was propagated for the given task, in order to allow delta propagation when trusting local
+     * state.
+     *
+     * @param task current propagation task
+     * @param attributes full set of attributes the task was created with
+     * @param execution task execution
+     */
+    protected void updateSnapshot(
+            final PropagationTask task,
+            final Set<Attribute> attributes,
+            final TaskExec execution) {
+
+        if (task.getEntityKey() == null || task.getAnyTypeKind() == null) {
+            return;
+        }
+
+        boolean success = PropagationTaskExecStatus.SUCCESS.name().equals(execution.getStatus());
+        boolean notAttempted = PropagationTaskExecStatus.NOT_ATTEMPTED.name().equals(execution.getStatus());
+        if (task.getOperation() != ResourceOperation.DELETE && success) {
+            Map<String, String> digests = ConnObjectSnapshotUtils.digest(attributes.stream().
+                    filter(attr -> !MANDATORY_MISSING_ATTR_NAME.equals(attr.getName())
+                    && !MANDATORY_NULL_OR_EMPTY_ATTR_NAME.equals(attr.getName())).
+                    collect(Collectors.toSet()));
+
+            ConnObjectSnapshot snapshot = connObjectSnapshotDAO.find(task.getEntityKey(), task.getResource());
+            if (snapshot == null) {
+                snapshot = entityFactory.newEntity(ConnObjectSnapshot.class);
+                snapshot.setAnyKey(task.getEntityKey());
+                snapshot.setResource(task.getResource());
+            }
+            snapshot.setPropagatedAttrs(digests);
+            connObjectSnapshotDAO.save(snapshot);
+        } else if (!notAttempted) {
+            connObjectSnapshotDAO.delete(task.getEntityKey(), task.getResource());
+        }
+    }
+
     protected Uid delete(
             final PropagationTask task,
             final ConnectorObject beforeObj,
@@ -387,14 +550,17 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         OrgUnit orgUnit = null;
         Uid uid = null;
         Connector connector = null;
+        boolean trustLocalState = false;
         Result result;
         try {
             provision = task.getResource().getProvision(new ObjectClass(task.getObjectClassName())).orElse(null);
             orgUnit = task.getResource().getOrgUnit();
             connector = connFactory.getConnector(task.getResource());
 
-            // Try to read remote object BEFORE any actual operation
-            beforeObj = provision == null && orgUnit == null
+            trustLocalState = isTrustingLocalState(task, provision, orgUnit);
+
+            // Try to read remote object BEFORE any actual operation, unless local state is trusted
+            beforeObj = trustLocalState || (provision == null && orgUnit == null)
                     ? null
                     : orgUnit == null
                             ? getRemoteObject(task, connector, provision, false)
@@ -407,7 +573,14 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             switch (task.getOperation()) {
                 case CREATE:
                 case UPDATE:
-                    uid = createOrUpdate(task, beforeObj, connector, propagationAttempted);
+                    if (trustLocalState) {
+                        Pair<ConnectorObject, Uid> trusted =
+                                createOrUpdateTrustingLocalState(task, connector, provision, propagationAttempted);
+                        beforeObj = trusted.getLeft();
+                        uid = trusted.getRight();
+                    } else {
+                        uid = createOrUpdate(task, beforeObj, connector, propagationAttempted);
+                    }
                     break;
 
                 case DELETE:
@@ -455,11 +628,21 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 action.onError(task, execution, e);
             });
         } finally {
-            // Try to read remote object AFTER any actual operation
-            if (connector != null) {
-                if (uid != null) {
-                    task.setConnObjectKey(uid.getUidValue());
+            if (connector != null && uid != null) {
+                task.setConnObjectKey(uid.getUidValue());
+            }
+
+            // the outcome of propagation does not depend on whether its snapshot could be updated
+            if (task.getResource().isTrustLocalState()) {
+                try {
+                    updateSnapshot(task, attributes, execution);
+                } catch (Exception e) {
+                    LOG.error("While updating snapshot for {} on {}", task.getEntityKey(), resource, e);
                 }
+            }
+
+            // Try to read remote object AFTER any actual operation, unless local state is trusted
+            if (connector != null && !trustLocalState) {
                 try {
                     afterObj = provision == null && orgUnit == null
                             ? null
@@ -492,9 +675,12 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 execution.setTask(task);
                 task.add(execution);
 
-                taskDAO.save(task);
-                // needed to generate a value for the execution key
-                taskDAO.flush();
+                // explicit execution: the execution key is expected to be available, hence no background storage
+                if (reporter == null || !traceWriter.offer(task)) {
+                    taskDAO.save(task);
+                    // needed to generate a value for the execution key
+                    taskDAO.flush();
+                }
             }
 
             if (reporter != null) {
@@ -543,7 +729,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     @Override
     public PropagationReporter execute(final Collection<PropagationTaskTO> tasks, final boolean nullPriorityAsync) {
         PropagationReporter reporter = new DefaultPropagationReporter();
-        try {
+        try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.PROPAGATION)) {
             doExecute(tasks, reporter, nullPriorityAsync);
         } catch (PropagationException e) {
             LOG.error("Error propagation priority resource", e);
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.to.ExecTO;
+import org.apache.syncope.common.lib.to.PropagationTaskTO;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores propagation tasks with their executions, as required by resource trace levels, in batches by a background
+ * thread.
+ * Tasks are taken as detached copies, not bound to the caller's persistence context, and queued only once the caller's
+ * transaction, if any, commits: nothing is stored for rolled back propagations. Tasks which cannot be queued, as the
+ * queue is full or the writer is shutting down, are stored synchronously; callers are expected to store tasks by
+ * themselves only when not asynchronous. Queued tasks are stored before shutdown completes: only those still queued
+ * upon abrupt termination are lost.
+ */
+public class PropagationTaskTraceWriter implements InitializingBean, DisposableBean {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(PropagationTaskTraceWriter.class);
+
+    @Autowired
+    protected TaskDAO taskDAO;
+
+    @Autowired
+    protected ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    protected EntityFactory entityFactory;
+
+    protected boolean async = false;
+
+    protected int batchSize = 100;
+
+    protected int capacity = 10000;
+
+    protected long flushInterval = 1000L;
+
+    protected BlockingQueue<Pair<String, PropagationTaskTO>> queue;
+
+    protected Thread writer;
+
+    protected volatile boolean running;
+
+    public void setAsync(final boolean async) {
+        this.async = async;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setFlushInterval(final long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (async) {
+            queue = new ArrayBlockingQueue<>(capacity);
+            running = true;
+
+            writer = new Thread(this::drain, getClass().getSimpleName());
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    protected PropagationTaskTO detach(final PropagationTask task) {
+        PropagationTaskTO taskTO = new PropagationTaskTO();
+        taskTO.setResource(task.getResource().getKey());
+        taskTO.setObjectClassName(task.getObjectClassName());
+        taskTO.setAnyTypeKind(task.getAnyTypeKind());
+        taskTO.setAnyType(task.getAnyType());
+        taskTO.setEntityKey(task.getEntityKey());
+        taskTO.setOperation(task.getOperation());
+        taskTO.setConnObjectKey(task.getConnObjectKey());
+        taskTO.setOldConnObjectKey(task.getOldConnObjectKey());
+        taskTO.setAttributes(task.getSerializedAttributes());
+
+        task.getExecs().forEach(exec -> {
+            ExecTO execTO = new ExecTO();
+            execTO.setStatus(exec.getStatus());
+            execTO.setMessage(exec.getMessage());
+            execTO.setStart(exec.getStart());
+            execTO.setEnd(exec.getEnd());
+            taskTO.getExecutions().add(execTO);
+        });
+
+        return taskTO;
+    }
+
+    protected PropagationTask attach(final PropagationTaskTO taskTO) {
+        PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+        task.setResource(resourceDAO.find(taskTO.getResource()));
+        task.setObjectClassName(taskTO.getObjectClassName());
+        task.setAnyTypeKind(taskTO.getAnyTypeKind());
+        task.setAnyType(taskTO.getAnyType());
+        task.setEntityKey(taskTO.getEntityKey());
+        task.setOperation(taskTO.getOperation());
+        task.setConnObjectKey(taskTO.getConnObjectKey());
+        task.setOldConnObjectKey(taskTO.getOldConnObjectKey());
+        if (StringUtils.isNotBlank(taskTO.getAttributes())) {
+            task.setAttributes(new HashSet<>(
+                    Arrays.asList(POJOHelper.deserialize(taskTO.getAttributes(), Attribute[].class))));
+        }
+
+        taskTO.getExecutions().forEach(execTO -> {
+            TaskExec exec = entityFactory.newEntity(TaskExec.class);
+            exec.setStatus(execTO.getStatus());
+            exec.setMessage(execTO.getMessage());
+            exec.setStart(execTO.getStart());
+            exec.setEnd(execTO.getEnd());
+            exec.setTask(task);
+            task.add(exec);
+        });
+
+        return task;
+    }
+
+    /**
+     * Queues the given task, along with its executions, for being stored in background; if the current thread has
+     * an active transaction, the task is queued only after such transaction commits.
+     *
+     * @param task propagation task
+     * @return whether the given task was taken; if not, the caller is expected to store it
+     */
+    public boolean offer(final PropagationTask task) {
+        if (!async || !running) {
+            return false;
+        }
+
+        Pair<String, PropagationTaskTO> item = Pair.of(AuthContextUtils.getDomain(), detach(task));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    enqueue(item);
+                }
+            });
+        } else {
+            enqueue(item);
+        }
+        return true;
+    }
+
+    protected void enqueue(final Pair<String, PropagationTaskTO> item) {
+        boolean queued = running && queue.offer(item);
+
+        // shutdown might have started after offering: unless already drained, take it back
+        if (queued && !running && queue.remove(item)) {
+            queued = false;
+        }
+
+        if (!queued) {
+            LOG.debug("Could not queue propagation task {}, storing synchronously", item.getRight());
+            store(Collections.singletonList(item));
+        }
+    }
+
+    /**
+     * @return number of tasks queued but not yet stored
+     */
+    public int getPending() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    protected void store(final String domain, final List<PropagationTaskTO> taskTOs) {
+        // tasks are attached within the same transaction they are stored with, which is a new one even when invoked
+        // after the caller's transaction has committed
+        TransactionTemplate txTemplate = new TransactionTemplate(ApplicationContextProvider.getBeanFactory().
+                getBean(domain + "TransactionManager", PlatformTransactionManager.class));
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AuthContextUtils.execWithAuthContext(domain, () -> txTemplate.execute(status -> {
+            taskDAO.saveAll(taskTOs.stream().map(this::attach).collect(Collectors.toList()));
+            return null;
+        }));
+    }
+
+    protected void store(final List<Pair<String, PropagationTaskTO>> batch) {
+        Map<String, List<PropagationTaskTO>> byDomain = batch.stream().collect(Collectors.groupingBy(
+                Pair::getLeft, Collectors.mapping(Pair::getRight, Collectors.toList())));
+
+        byDomain.forEach((domain, taskTOs) -> {
+            try {
+                store(domain, taskTOs);
+            } catch (Exception e) {
+                LOG.error("While storing {} propagation tasks for domain {}, storing one by one",
+                        taskTOs.size(), domain, e);
+
+                taskTOs.forEach(taskTO -> {
+                    try {
+                        store(domain, Collections.singletonList(taskTO));
+                    } catch (Exception te) {
+                        LOG.error("Could not store propagation task {}", taskTO, te);
+                    }
+                });
+            }
+        });
+    }
+
+    protected void drain() {
+        List<Pair<String, PropagationTaskTO>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pair<String, PropagationTaskTO> first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+
+                    store(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("Interrupted, storing pending propagation tasks", e);
+                running = false;
+                queue.drainTo(batch);
+                store(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (writer != null) {
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+
+            // anything still queued, as if writer is stuck, is stored here
+            List<Pair<String, PropagationTaskTO>> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            if (!pending.isEmpty()) {
+                LOG.warn("Storing {} pending propagation tasks upon shutdown", pending.size());
+                store(pending);
+            }
+        }
+    }
+}
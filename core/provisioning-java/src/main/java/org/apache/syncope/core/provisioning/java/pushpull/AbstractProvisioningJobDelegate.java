@@ -21,9 +21,17 @@ package org.apache.syncope.core.provisioning.java.pushpull;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Resource;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.to.JobProgressTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.lib.types.TraceLevel;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
@@ -38,6 +46,7 @@ import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.provisioning.api.ConnectorFactory;
 import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.apache.syncope.core.provisioning.java.job.AbstractSchedTaskJobDelegate;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
 import org.apache.syncope.core.provisioning.java.job.TaskJob;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,6 +77,61 @@ public abstract class AbstractProvisioningJobDelegate<T extends ProvisioningTask
     @Autowired
     protected PolicyDAO policyDAO;
 
+    /**
+     * Results of the current execution; null unless running as scheduled task.
+     */
+    protected ProvisioningReportLog reportLog;
+
+    /**
+     * Kind of any types found in results, by key; realm results have no kind.
+     */
+    protected final Map<String, Optional<AnyTypeKind>> kinds = new ConcurrentHashMap<>();
+
+    /**
+     * Progress of the current execution; null unless running as scheduled task.
+     */
+    protected volatile JobProgress progress;
+
+    /**
+     * Object class of any types found in results, by key.
+     */
+    protected final Map<String, String> objectClasses = new HashMap<>();
+
+    protected AnyTypeKind getKind(final String anyType) {
+        return anyType == null
+                ? null
+                : kinds.computeIfAbsent(anyType, key -> Optional.ofNullable(anyTypeDAO.find(key)).
+                        map(AnyType::getKind)).orElse(null);
+    }
+
+    /**
+     * Moves the results found in the given list to the execution log, so that they do not pile up in memory.
+     * Results shall be flushed only when complete, e.g. once the object they refer to was handled.
+     *
+     * @param results provisioning results
+     * @return the results moved
+     */
+    protected List<ProvisioningReport> flushResults(final List<ProvisioningReport> results) {
+        if (reportLog == null) {
+            return Collections.emptyList();
+        }
+
+        List<ProvisioningReport> flushed;
+        synchronized (results) {
+            flushed = new ArrayList<>(results);
+            results.clear();
+        }
+        flushed.forEach(result -> {
+            reportLog.add(result, getKind(result.getAnyType()));
+            if (progress != null) {
+                progress.add(
+                        objectClasses.getOrDefault(result.getAnyType(), result.getAnyType()),
+                        result.getStatus());
+            }
+        });
+        return flushed;
+    }
+
     /**
      * Create a textual report of the provisionig operation, based on the trace level.
      *
@@ -81,6 +145,105 @@ public abstract class AbstractProvisioningJobDelegate<T extends ProvisioningTask
             final ExternalResource resource,
             final boolean dryRun) {
 
+        try (ProvisioningReportLog log = new ProvisioningReportLog(resource.getProvisioningTraceLevel())) {
+            provResults.forEach(result -> log.add(result, getKind(result.getAnyType())));
+            return createReport(log, resource, dryRun);
+        }
+    }
+
+    private static void appendSummary(
+            final StringBuilder report,
+            final String label,
+            final AnyTypeKind kind,
+            final ProvisioningReportLog log) {
+
+        report.append(label).append(' ').
+                append("[created/failures]: ").
+                append(log.count(kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.CREATE)).append('/').
+                append(log.count(kind, ProvisioningReport.Status.FAILURE, ResourceOperation.CREATE)).
+                append(' ').
+                append("[updated/failures]: ").
+                append(log.count(kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.UPDATE)).append('/').
+                append(log.count(kind, ProvisioningReport.Status.FAILURE, ResourceOperation.UPDATE)).
+                append(' ').
+                append("[deleted/failures]: ").
+                append(log.count(kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.DELETE)).append('/').
+                append(log.count(kind, ProvisioningReport.Status.FAILURE, ResourceOperation.DELETE)).
+                append(' ').
+                append("[no operation/ignored]: ").
+                append(log.count(kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.NONE)).append('/').
+                append(log.count(kind, ProvisioningReport.Status.IGNORE, null));
+    }
+
+    private static void appendResults(
+            final StringBuilder report,
+            final String header,
+            final AnyTypeKind kind,
+            final ProvisioningReport.Status status,
+            final ResourceOperation operation,
+            final ProvisioningReportLog log,
+            final TraceLevel traceLevel) {
+
+        int count = log.count(kind, status, operation);
+        if (count > 0) {
+            List<ProvisioningReport> samples = log.samples(kind, status, operation);
+            report.append(header).append(ProvisioningReport.generate(samples, traceLevel));
+            if (count > samples.size()) {
+                report.append("... and ").append(count - samples.size()).
+                        append(" more, see execution details\n");
+            }
+        }
+    }
+
+    private static void appendFailures(
+            final StringBuilder report,
+            final String label,
+            final String separator,
+            final AnyTypeKind kind,
+            final ProvisioningReportLog log,
+            final TraceLevel traceLevel) {
+
+        appendResults(report, separator + label + " failed to create: ",
+                kind, ProvisioningReport.Status.FAILURE, ResourceOperation.CREATE, log, traceLevel);
+        appendResults(report, "\n" + label + " failed to update: ",
+                kind, ProvisioningReport.Status.FAILURE, ResourceOperation.UPDATE, log, traceLevel);
+        appendResults(report, "\n" + label + " failed to delete: ",
+                kind, ProvisioningReport.Status.FAILURE, ResourceOperation.DELETE, log, traceLevel);
+    }
+
+    private static void appendSuccesses(
+            final StringBuilder report,
+            final String label,
+            final AnyTypeKind kind,
+            final ProvisioningReportLog log,
+            final TraceLevel traceLevel) {
+
+        appendResults(report, "\n\n" + label + " created:\n",
+                kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.CREATE, log, traceLevel);
+        appendResults(report, "\n" + label + " updated:\n",
+                kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.UPDATE, log, traceLevel);
+        appendResults(report, "\n" + label + " deleted:\n",
+                kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.DELETE, log, traceLevel);
+        appendResults(report, "\n" + label + " no operation:\n",
+                kind, ProvisioningReport.Status.SUCCESS, ResourceOperation.NONE, log, traceLevel);
+        appendResults(report, "\n" + label + " ignored:\n",
+                kind, ProvisioningReport.Status.IGNORE, null, log, traceLevel);
+    }
+
+    /**
+     * Create a textual report of the provisionig operation, based on the trace level; only counters and samples
+     * are reported, full details are available from the execution log.
+     *
+     * @param log provisioning results
+     * @param resource Provisioning resource
+     * @param dryRun dry run?
+     * @return report as string
+     */
+    protected String createReport(
+            final ProvisioningReportLog log,
+            final ExternalResource resource,
+            final boolean dryRun) {
+
         TraceLevel traceLevel = resource.getProvisioningTraceLevel();
         if (traceLevel == TraceLevel.NONE) {
             return null;
@@ -95,219 +258,6 @@ public abstract class AbstractProvisioningJobDelegate<T extends ProvisioningTask
             report.append("==> Execution was interrupted <==\n\n");
         }
 
-        List<ProvisioningReport> rSuccCreate = new ArrayList<>();
-        List<ProvisioningReport> rFailCreate = new ArrayList<>();
-        List<ProvisioningReport> rSuccUpdate = new ArrayList<>();
-        List<ProvisioningReport> rFailUpdate = new ArrayList<>();
-        List<ProvisioningReport> rSuccDelete = new ArrayList<>();
-        List<ProvisioningReport> rFailDelete = new ArrayList<>();
-        List<ProvisioningReport> rSuccNone = new ArrayList<>();
-        List<ProvisioningReport> rIgnore = new ArrayList<>();
-        List<ProvisioningReport> uSuccCreate = new ArrayList<>();
-        List<ProvisioningReport> uFailCreate = new ArrayList<>();
-        List<ProvisioningReport> uSuccUpdate = new ArrayList<>();
-        List<ProvisioningReport> uFailUpdate = new ArrayList<>();
-        List<ProvisioningReport> uSuccDelete = new ArrayList<>();
-        List<ProvisioningReport> uFailDelete = new ArrayList<>();
-        List<ProvisioningReport> uSuccNone = new ArrayList<>();
-        List<ProvisioningReport> uIgnore = new ArrayList<>();
-        List<ProvisioningReport> gSuccCreate = new ArrayList<>();
-        List<ProvisioningReport> gFailCreate = new ArrayList<>();
-        List<ProvisioningReport> gSuccUpdate = new ArrayList<>();
-        List<ProvisioningReport> gFailUpdate = new ArrayList<>();
-        List<ProvisioningReport> gSuccDelete = new ArrayList<>();
-        List<ProvisioningReport> gFailDelete = new ArrayList<>();
-        List<ProvisioningReport> gSuccNone = new ArrayList<>();
-        List<ProvisioningReport> gIgnore = new ArrayList<>();
-        List<ProvisioningReport> aSuccCreate = new ArrayList<>();
-        List<ProvisioningReport> aFailCreate = new ArrayList<>();
-        List<ProvisioningReport> aSuccUpdate = new ArrayList<>();
-        List<ProvisioningReport> aFailUpdate = new ArrayList<>();
-        List<ProvisioningReport> aSuccDelete = new ArrayList<>();
-        List<ProvisioningReport> aFailDelete = new ArrayList<>();
-        List<ProvisioningReport> aSuccNone = new ArrayList<>();
-        List<ProvisioningReport> aIgnore = new ArrayList<>();
-
-        for (ProvisioningReport provResult : provResults) {
-            AnyType anyType = anyTypeDAO.find(provResult.getAnyType());
-
-            switch (provResult.getStatus()) {
-                case SUCCESS:
-                    switch (provResult.getOperation()) {
-                        case CREATE:
-                            if (anyType == null) {
-                                rSuccCreate.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uSuccCreate.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gSuccCreate.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aSuccCreate.add(provResult);
-                                }
-                            }
-                            break;
-
-                        case UPDATE:
-                            if (anyType == null) {
-                                rSuccUpdate.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uSuccUpdate.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gSuccUpdate.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aSuccUpdate.add(provResult);
-                                }
-                            }
-                            break;
-
-                        case DELETE:
-                            if (anyType == null) {
-                                rSuccDelete.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uSuccDelete.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gSuccDelete.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aSuccDelete.add(provResult);
-                                }
-                            }
-                            break;
-
-                        case NONE:
-                            if (anyType == null) {
-                                rSuccNone.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uSuccNone.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gSuccNone.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aSuccNone.add(provResult);
-                                }
-                            }
-                            break;
-
-                        default:
-                    }
-                    break;
-
-                case FAILURE:
-                    switch (provResult.getOperation()) {
-                        case CREATE:
-                            if (anyType == null) {
-                                rFailCreate.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uFailCreate.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gFailCreate.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aFailCreate.add(provResult);
-                                }
-                            }
-                            break;
-
-                        case UPDATE:
-                            if (anyType == null) {
-                                rFailUpdate.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uFailUpdate.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gFailUpdate.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aFailUpdate.add(provResult);
-                                }
-                            }
-                            break;
-
-                        case DELETE:
-                            if (anyType == null) {
-                                rFailDelete.add(provResult);
-                            } else {
-                                switch (anyType.getKind()) {
-                                    case USER:
-                                        uFailDelete.add(provResult);
-                                        break;
-
-                                    case GROUP:
-                                        gFailDelete.add(provResult);
-                                        break;
-
-                                    case ANY_OBJECT:
-                                    default:
-                                        aFailDelete.add(provResult);
-                                }
-                            }
-                            break;
-
-                        default:
-                    }
-                    break;
-
-                case IGNORE:
-                    if (anyType == null) {
-                        rIgnore.add(provResult);
-                    } else {
-                        switch (anyType.getKind()) {
-                            case USER:
-                                uIgnore.add(provResult);
-                                break;
-
-                            case GROUP:
-                                gIgnore.add(provResult);
-                                break;
-
-                            case ANY_OBJECT:
-                            default:
-                                aIgnore.add(provResult);
-                        }
-                    }
-                    break;
-
-                default:
-            }
-        }
-
         // Summary, also to be included for FAILURE and ALL, so create it anyway.
         boolean includeUser = resource.getProvision(anyTypeDAO.findUser()) != null;
         boolean includeGroup = resource.getProvision(anyTypeDAO.findGroup()) != null;
@@ -316,198 +266,49 @@ public abstract class AbstractProvisioningJobDelegate<T extends ProvisioningTask
         boolean includeRealm = resource.getOrgUnit() != null;
 
         if (includeUser) {
-            report.append("Users ").
-                    append("[created/failures]: ").append(uSuccCreate.size()).append('/').append(uFailCreate.size()).
-                    append(' ').
-                    append("[updated/failures]: ").append(uSuccUpdate.size()).append('/').append(uFailUpdate.size()).
-                    append(' ').
-                    append("[deleted/failures]: ").append(uSuccDelete.size()).append('/').append(uFailDelete.size()).
-                    append(' ').
-                    append("[no operation/ignored]: ").append(uSuccNone.size()).append('/').append(uIgnore.size()).
-                    append('\n');
+            appendSummary(report, "Users", AnyTypeKind.USER, log);
+            report.append('\n');
         }
         if (includeGroup) {
-            report.append("Groups ").
-                    append("[created/failures]: ").append(gSuccCreate.size()).append('/').append(gFailCreate.size()).
-                    append(' ').
-                    append("[updated/failures]: ").append(gSuccUpdate.size()).append('/').append(gFailUpdate.size()).
-                    append(' ').
-                    append("[deleted/failures]: ").append(gSuccDelete.size()).append('/').append(gFailDelete.size()).
-                    append(' ').
-                    append("[no operation/ignored]: ").append(gSuccNone.size()).append('/').append(gIgnore.size()).
-                    append('\n');
+            appendSummary(report, "Groups", AnyTypeKind.GROUP, log);
+            report.append('\n');
         }
         if (includeAnyObject) {
-            report.append("Any objects ").
-                    append("[created/failures]: ").append(aSuccCreate.size()).append('/').append(aFailCreate.size()).
-                    append(' ').
-                    append("[updated/failures]: ").append(aSuccUpdate.size()).append('/').append(aFailUpdate.size()).
-                    append(' ').
-                    append("[deleted/failures]: ").append(aSuccDelete.size()).append('/').append(aFailDelete.size()).
-                    append(' ').
-                    append("[no operation/ignored]: ").append(aSuccNone.size()).append('/').append(aIgnore.size());
+            appendSummary(report, "Any objects", AnyTypeKind.ANY_OBJECT, log);
         }
         if (includeRealm) {
-            report.append("Realms ").
-                    append("[created/failures]: ").append(rSuccCreate.size()).append('/').append(rFailCreate.size()).
-                    append(' ').
-                    append("[updated/failures]: ").append(rSuccUpdate.size()).append('/').append(rFailUpdate.size()).
-                    append(' ').
-                    append("[deleted/failures]: ").append(rSuccDelete.size()).append('/').append(rFailDelete.size()).
-                    append(' ').
-                    append("[no operation/ignored]: ").append(rSuccNone.size()).append('/').append(rIgnore.size());
+            appendSummary(report, "Realms", null, log);
         }
 
         // Failures
         if (traceLevel == TraceLevel.FAILURES || traceLevel == TraceLevel.ALL) {
             if (includeUser) {
-                if (!uFailCreate.isEmpty()) {
-                    report.append("\n\nUsers failed to create: ");
-                    report.append(ProvisioningReport.generate(uFailCreate, traceLevel));
-                }
-                if (!uFailUpdate.isEmpty()) {
-                    report.append("\nUsers failed to update: ");
-                    report.append(ProvisioningReport.generate(uFailUpdate, traceLevel));
-                }
-                if (!uFailDelete.isEmpty()) {
-                    report.append("\nUsers failed to delete: ");
-                    report.append(ProvisioningReport.generate(uFailDelete, traceLevel));
-                }
+                appendFailures(report, "Users", "\n\n", AnyTypeKind.USER, log, traceLevel);
             }
-
             if (includeGroup) {
-                if (!gFailCreate.isEmpty()) {
-                    report.append("\n\nGroups failed to create: ");
-                    report.append(ProvisioningReport.generate(gFailCreate, traceLevel));
-                }
-                if (!gFailUpdate.isEmpty()) {
-                    report.append("\nGroups failed to update: ");
-                    report.append(ProvisioningReport.generate(gFailUpdate, traceLevel));
-                }
-                if (!gFailDelete.isEmpty()) {
-                    report.append("\nGroups failed to delete: ");
-                    report.append(ProvisioningReport.generate(gFailDelete, traceLevel));
-                }
-            }
-
-            if (includeAnyObject && !aFailCreate.isEmpty()) {
-                report.append("\nAny objects failed to create: ");
-                report.append(ProvisioningReport.generate(aFailCreate, traceLevel));
-            }
-            if (includeAnyObject && !aFailUpdate.isEmpty()) {
-                report.append("\nAny objects failed to update: ");
-                report.append(ProvisioningReport.generate(aFailUpdate, traceLevel));
+                appendFailures(report, "Groups", "\n\n", AnyTypeKind.GROUP, log, traceLevel);
             }
-            if (includeAnyObject && !aFailDelete.isEmpty()) {
-                report.append("\nAny objects failed to delete: ");
-                report.append(ProvisioningReport.generate(aFailDelete, traceLevel));
+            if (includeAnyObject) {
+                appendFailures(report, "Any objects", "\n", AnyTypeKind.ANY_OBJECT, log, traceLevel);
             }
-
             if (includeRealm) {
-                if (!rFailCreate.isEmpty()) {
-                    report.append("\nRealms failed to create: ");
-                    report.append(ProvisioningReport.generate(rFailCreate, traceLevel));
-                }
-                if (!rFailUpdate.isEmpty()) {
-                    report.append("\nRealms failed to update: ");
-                    report.append(ProvisioningReport.generate(rFailUpdate, traceLevel));
-                }
-                if (!rFailDelete.isEmpty()) {
-                    report.append("\nRealms failed to delete: ");
-                    report.append(ProvisioningReport.generate(rFailDelete, traceLevel));
-                }
+                appendFailures(report, "Realms", "\n", null, log, traceLevel);
             }
         }
 
         // Succeeded, only if on 'ALL' level
         if (traceLevel == TraceLevel.ALL) {
             if (includeUser) {
-                if (!uSuccCreate.isEmpty()) {
-                    report.append("\n\nUsers created:\n").
-                            append(ProvisioningReport.generate(uSuccCreate, traceLevel));
-                }
-                if (!uSuccUpdate.isEmpty()) {
-                    report.append("\nUsers updated:\n").
-                            append(ProvisioningReport.generate(uSuccUpdate, traceLevel));
-                }
-                if (!uSuccDelete.isEmpty()) {
-                    report.append("\nUsers deleted:\n").
-                            append(ProvisioningReport.generate(uSuccDelete, traceLevel));
-                }
-                if (!uSuccNone.isEmpty()) {
-                    report.append("\nUsers no operation:\n").
-                            append(ProvisioningReport.generate(uSuccNone, traceLevel));
-                }
-                if (!uIgnore.isEmpty()) {
-                    report.append("\nUsers ignored:\n").
-                            append(ProvisioningReport.generate(uIgnore, traceLevel));
-                }
+                appendSuccesses(report, "Users", AnyTypeKind.USER, log, traceLevel);
             }
             if (includeGroup) {
-                if (!gSuccCreate.isEmpty()) {
-                    report.append("\n\nGroups created:\n").
-                            append(ProvisioningReport.generate(gSuccCreate, traceLevel));
-                }
-                if (!gSuccUpdate.isEmpty()) {
-                    report.append("\nGroups updated:\n").
-                            append(ProvisioningReport.generate(gSuccUpdate, traceLevel));
-                }
-                if (!gSuccDelete.isEmpty()) {
-                    report.append("\nGroups deleted:\n").
-                            append(ProvisioningReport.generate(gSuccDelete, traceLevel));
-                }
-                if (!gSuccNone.isEmpty()) {
-                    report.append("\nGroups no operation:\n").
-                            append(ProvisioningReport.generate(gSuccNone, traceLevel));
-                }
-                if (!gIgnore.isEmpty()) {
-                    report.append("\nGroups ignored:\n").
-                            append(ProvisioningReport.generate(gIgnore, traceLevel));
-                }
+                appendSuccesses(report, "Groups", AnyTypeKind.GROUP, log, traceLevel);
             }
             if (includeAnyObject) {
-                if (!aSuccCreate.isEmpty()) {
-                    report.append("\n\nAny objects created:\n").
-                            append(ProvisioningReport.generate(aSuccCreate, traceLevel));
-                }
-                if (!aSuccUpdate.isEmpty()) {
-                    report.append("\nAny objects updated:\n").
-                            append(ProvisioningReport.generate(aSuccUpdate, traceLevel));
-                }
-                if (!aSuccDelete.isEmpty()) {
-                    report.append("\nAny objects deleted:\n").
-                            append(ProvisioningReport.generate(aSuccDelete, traceLevel));
-                }
-                if (!aSuccNone.isEmpty()) {
-                    report.append("\nAny objects no operation:\n").
-                            append(ProvisioningReport.generate(aSuccNone, traceLevel));
-                }
-                if (!aIgnore.isEmpty()) {
-                    report.append("\nAny objects ignored:\n").
-                            append(ProvisioningReport.generate(aIgnore, traceLevel));
-                }
+                appendSuccesses(report, "Any objects", AnyTypeKind.ANY_OBJECT, log, traceLevel);
             }
             if (includeRealm) {
-                if (!rSuccCreate.isEmpty()) {
-                    report.append("\n\nRealms created:\n").
-                            append(ProvisioningReport.generate(rSuccCreate, traceLevel));
-                }
-                if (!rSuccUpdate.isEmpty()) {
-                    report.append("\nRealms updated:\n").
-                            append(ProvisioningReport.generate(rSuccUpdate, traceLevel));
-                }
-                if (!rSuccDelete.isEmpty()) {
-                    report.append("\nRealms deleted:\n").
-                            append(ProvisioningReport.generate(rSuccDelete, traceLevel));
-                }
-                if (!rSuccNone.isEmpty()) {
-                    report.append("\nRealms no operation:\n").
-                            append(ProvisioningReport.generate(rSuccNone, traceLevel));
-                }
-                if (!rIgnore.isEmpty()) {
-                    report.append("\nRealms ignored:\n").
-                            append(ProvisioningReport.generate(rIgnore, traceLevel));
-                }
+                appendSuccesses(report, "Realms", null, log, traceLevel);
             }
         }
 
@@ -550,21 +351,57 @@ public abstract class AbstractProvisioningJobDelegate<T extends ProvisioningTask
                 return "No provisions nor orgUnit available: aborting...";
             }
 
-            return doExecuteProvisioning(
-                    provisioningTask,
-                    connector,
-                    dryRun);
+            reportLog = new ProvisioningReportLog(provisioningTask.getResource().getProvisioningTraceLevel());
+
+            objectClasses.clear();
+            provisioningTask.getResource().getProvisions().forEach(provision -> objectClasses.put(
+                    provision.getAnyType().getKey(), provision.getObjectClass().getObjectClassValue()));
+            if (provisioningTask.getResource().getOrgUnit() != null) {
+                objectClasses.put(
+                        SyncopeConstants.REALM_ANYTYPE,
+                        provisioningTask.getResource().getOrgUnit().getObjectClass().getObjectClassValue());
+            }
+
+            // bound to the job thread, and to any thread started from there, to measure where time is spent
+            progress = new JobProgress();
+            progress.bind();
+            try {
+                return doExecuteProvisioning(
+                        provisioningTask,
+                        connector,
+                        dryRun);
+            } finally {
+                JobProgress.unbind();
+            }
         } catch (Throwable t) {
             LOG.error("While executing provisioning job {}", getClass().getName(), t);
             throw t;
         }
     }
 
+    @Override
+    public JobProgressTO currentProgress() {
+        JobProgress current = progress;
+        return current == null ? null : current.toTO();
+    }
+
     protected abstract String doExecuteProvisioning(
             final T task,
             final Connector connector,
             final boolean dryRun) throws JobExecutionException;
 
+    @Override
+    protected void completeExecution(final TaskExec execution, final boolean registered) {
+        if (reportLog != null) {
+            if (registered) {
+                reportLog.storeDetails(execution.getKey(), taskExecDAO);
+            }
+            reportLog.close();
+            reportLog = null;
+        }
+        progress = null;
+    }
+
     @Override
     protected boolean hasToBeRegistered(final TaskExec execution) {
         final ProvisioningTask provTask = (ProvisioningTask) task;
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.syncope.common.lib.AnyOperations;
 import org.apache.syncope.common.lib.patch.AnyPatch;
@@ -36,6 +38,7 @@ import org.apache.syncope.core.provisioning.api.PropagationByResource;
 import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.lib.types.UnmatchingRule;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.RemediationDAO;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
@@ -43,8 +46,10 @@ import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.Remediation;
 import org.apache.syncope.core.persistence.api.entity.VirSchema;
+import org.apache.syncope.core.persistence.api.entity.resource.ConnObjectSnapshot;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.persistence.api.entity.task.PullTask;
 import org.apache.syncope.core.provisioning.api.AuditManager;
@@ -55,9 +60,12 @@ import org.apache.syncope.core.provisioning.api.notification.NotificationManager
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
 import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.apache.syncope.core.provisioning.api.pushpull.PullActions;
+import org.apache.syncope.core.provisioning.api.pushpull.CorrelationIndex;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.apache.syncope.core.provisioning.java.utils.ConnObjectSnapshotUtils;
 import org.apache.syncope.core.provisioning.java.utils.ConnObjectUtils;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.SyncDelta;
 import org.identityconnectors.framework.common.objects.SyncDeltaType;
@@ -93,10 +101,15 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
     @Autowired
     protected EntityFactory entityFactory;
 
+    @Autowired
+    protected ConnObjectSnapshotDAO connObjectSnapshotDAO;
+
     protected SyncopePullExecutor executor;
 
     protected Result latestResult;
 
+    protected CorrelationIndex correlationIndex;
+
     protected abstract String getName(AnyTO anyTO);
 
     protected abstract ProvisioningManager<?, ?> getProvisioningManager();
@@ -129,6 +142,11 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         this.executor = executor;
     }
 
+    @Override
+    public void setCorrelationIndex(final CorrelationIndex correlationIndex) {
+        this.correlationIndex = correlationIndex;
+    }
+
     @Override
     public boolean handle(final SyncDelta delta) {
         Provision provision = null;
@@ -139,12 +157,17 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                         + delta.getObject().getObjectClass());
             }
 
-            doHandle(delta, provision);
+            try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.PERSISTENCE)) {
+                doHandle(delta, provision);
+            }
             executor.reportHandled(delta.getObjectClass(), delta.getObject().getName());
 
             LOG.debug("Successfully handled {}", delta);
 
             if (profile.getTask().getPullMode() != PullMode.INCREMENTAL) {
+                // reconciliation tokens are used for checkpointing
+                executor.setLatestSyncToken(delta.getObjectClass(), delta.getToken());
+
                 if (executor.wasInterruptRequested()) {
                     LOG.debug("Pull interrupted");
                     executor.setInterrupted();
@@ -175,7 +198,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             ignoreResult.setStatus(ProvisioningReport.Status.IGNORE);
             ignoreResult.setKey(null);
             ignoreResult.setName(delta.getObject().getName().getNameValue());
-            profile.getResults().add(ignoreResult);
+            profile.getPendingResults().add(ignoreResult);
 
             LOG.warn("Ignoring during pull", e);
 
@@ -257,6 +280,62 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         return Collections.singletonList(result);
     }
 
+    /**
+     * Fingerprint of what was read from the external resource for the given delta: it changes whenever the mapped
+     * attributes or the mapping itself change.
+     *
+     * @param delta delta
+     * @param provision provision
+     * @return fingerprint, or empty if the delta cannot be fingerprinted
+     */
+    protected Optional<String> fingerprint(final SyncDelta delta, final Provision provision) {
+        if (delta.getObject() == null || provision.getMapping() == null) {
+            return Optional.empty();
+        }
+
+        String mapping = provision.getMapping().getItems().stream().
+                map(item -> item.getIntAttrName() + '=' + item.getExtAttrName() + item.getTransformers().stream().
+                map(Implementation::getKey).collect(Collectors.toList())).
+                sorted().collect(Collectors.joining(","));
+        return ConnObjectSnapshotUtils.fingerprint(delta.getObject().getAttributes(), mapping);
+    }
+
+    /**
+     * Tells whether the given fingerprint matches what was last pulled for the given any, and the any was not
+     * changed since then; both conditions are checked by a single lookup.
+     *
+     * @param key any key
+     * @param fingerprint fingerprint of the current delta
+     * @return whether any update can be skipped
+     */
+    protected boolean isUnchanged(final String key, final Optional<String> fingerprint) {
+        return fingerprint.isPresent() && fingerprint.equals(connObjectSnapshotDAO.findPulledFingerprint(
+                getAnyUtils().anyTypeKind(), key, profile.getTask().getResource()));
+    }
+
+    protected void updatePulledFingerprint(final String key, final Optional<String> fingerprint) {
+        ConnObjectSnapshot snapshot = connObjectSnapshotDAO.find(key, profile.getTask().getResource());
+        if (snapshot == null) {
+            if (!fingerprint.isPresent()) {
+                return;
+            }
+
+            snapshot = entityFactory.newEntity(ConnObjectSnapshot.class);
+            snapshot.setAnyKey(key);
+            snapshot.setResource(profile.getTask().getResource());
+        }
+
+        Date lastChange = null;
+        if (fingerprint.isPresent()) {
+            // flush first, for the last change date to be the one actually stored with the pulled changes
+            getAnyUtils().dao().flush();
+            lastChange = getAnyUtils().dao().findLastChange(key);
+        }
+        snapshot.setPulledFingerprint(fingerprint.orElse(null));
+        snapshot.setPulledLastChange(lastChange);
+        connObjectSnapshotDAO.save(snapshot);
+    }
+
     protected void throwIgnoreProvisionException(final SyncDelta delta, final Exception exception)
             throws JobExecutionException {
 
@@ -293,6 +372,8 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
             result.setName(getName(created));
             resultStatus = Result.SUCCESS;
 
+            updatePulledFingerprint(created.getKey(), fingerprint(delta, provision));
+
             for (PullActions action : profile.getActions()) {
                 action.after(profile, delta, created, result);
             }
@@ -343,7 +424,35 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
         List<ProvisioningReport> results = new ArrayList<>();
 
+        Optional<String> fingerprint = fingerprint(delta, provision);
+
         for (String key : anyKeys) {
+            if (isUnchanged(key, fingerprint)) {
+                LOG.debug("{} {} unchanged since last pull", provision.getAnyType().getKey(), key);
+
+                ProvisioningReport result = new ProvisioningReport();
+                result.setOperation(ResourceOperation.NONE);
+                result.setAnyType(provision.getAnyType().getKey());
+                result.setStatus(ProvisioningReport.Status.SUCCESS);
+                result.setKey(key);
+                result.setName(delta.getObject().getName().getNameValue());
+                result.setUidValue(delta.getUid().getUidValue());
+                result.setMessage("Unchanged since last pull");
+                results.add(result);
+
+                if (!profile.getActions().isEmpty()) {
+                    AnyTO current = getAnyTO(key);
+                    for (PullActions action : profile.getActions()) {
+                        action.after(profile, delta, current, result);
+                    }
+                }
+
+                synchronized (this) {
+                    this.latestResult = Result.SUCCESS;
+                }
+                continue;
+            }
+
             LOG.debug("About to update {}", key);
 
             ProvisioningReport result = new ProvisioningReport();
@@ -394,6 +503,8 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                         resultStatus = Result.SUCCESS;
                         result.setName(getName(updated));
 
+                        updatePulledFingerprint(key, fingerprint);
+
                         LOG.debug("{} {} successfully updated", provision.getAnyType().getKey(), key);
                     } catch (PropagationException e) {
                         // A propagation failure doesn't imply a pull failure.
@@ -777,6 +888,13 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
         return results;
     }
 
+    protected List<ProvisioningReport> indexed(
+            final SyncDelta delta, final Provision provision, final List<ProvisioningReport> reports) {
+
+        pullUtils.updateCorrelationIndex(correlationIndex, delta.getObject(), provision, reports, false);
+        return reports;
+    }
+
     /**
      * Look into SyncDelta and take necessary profile.getActions() (create / update / delete) on any object(s).
      *
@@ -799,7 +917,7 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 processed.getDeltaType(), processed.getUid().getUidValue(), processed.getObject().getObjectClass());
 
         try {
-            List<String> anyKeys = pullUtils.match(processed.getObject(), provision, anyUtils);
+            List<String> anyKeys = pullUtils.match(processed.getObject(), provision, anyUtils, correlationIndex);
             LOG.debug("Match(es) found for {} as {}: {}",
                     processed.getUid().getUidValue(), processed.getObject().getObjectClass(), anyKeys);
 
@@ -825,15 +943,17 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                 if (anyKeys.isEmpty()) {
                     switch (profile.getTask().getUnmatchingRule()) {
                         case ASSIGN:
-                            profile.getResults().addAll(assign(processed, provision, anyUtils));
+                            profile.getPendingResults().addAll(
+                                    indexed(processed, provision, assign(processed, provision, anyUtils)));
                             break;
 
                         case PROVISION:
-                            profile.getResults().addAll(provision(processed, provision, anyUtils));
+                            profile.getPendingResults().addAll(
+                                    indexed(processed, provision, provision(processed, provision, anyUtils)));
                             break;
 
                         case IGNORE:
-                            profile.getResults().addAll(ignore(processed, null, provision, false));
+                            profile.getPendingResults().addAll(ignore(processed, null, provision, false));
                             break;
 
                         default:
@@ -863,27 +983,29 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
                     switch (profile.getTask().getMatchingRule()) {
                         case UPDATE:
-                            profile.getResults().addAll(update(processed, anyKeys, provision));
+                            profile.getPendingResults().addAll(
+                                    indexed(processed, provision, update(processed, anyKeys, provision)));
                             break;
 
                         case DEPROVISION:
-                            profile.getResults().addAll(deprovision(processed, anyKeys, provision, false));
+                            profile.getPendingResults().addAll(deprovision(processed, anyKeys, provision, false));
                             break;
 
                         case UNASSIGN:
-                            profile.getResults().addAll(deprovision(processed, anyKeys, provision, true));
+                            profile.getPendingResults().addAll(deprovision(processed, anyKeys, provision, true));
                             break;
 
                         case LINK:
-                            profile.getResults().addAll(link(processed, anyKeys, provision, false));
+                            profile.getPendingResults().addAll(
+                                    indexed(processed, provision, link(processed, anyKeys, provision, false)));
                             break;
 
                         case UNLINK:
-                            profile.getResults().addAll(link(processed, anyKeys, provision, true));
+                            profile.getPendingResults().addAll(link(processed, anyKeys, provision, true));
                             break;
 
                         case IGNORE:
-                            profile.getResults().addAll(ignore(processed, anyKeys, provision, true));
+                            profile.getPendingResults().addAll(ignore(processed, anyKeys, provision, true));
                             break;
 
                         default:
@@ -895,7 +1017,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
                     finalize(ResourceOperation.DELETE.name().toLowerCase(), Result.SUCCESS, null, null, processed);
                     LOG.debug("No match found for deletion");
                 } else {
-                    profile.getResults().addAll(delete(processed, anyKeys, provision));
+                    List<ProvisioningReport> deleted = delete(processed, anyKeys, provision);
+                    pullUtils.updateCorrelationIndex(correlationIndex, processed.getObject(), provision, deleted, true);
+                    profile.getPendingResults().addAll(deleted);
                 }
             }
         } catch (IllegalStateException | IllegalArgumentException e) {
@@ -201,7 +201,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
             doHandle(any, provision);
             return true;
         } catch (IgnoreProvisionException e) {
-            ProvisioningReport result = profile.getResults().stream().
+            ProvisioningReport result = profile.getPendingResults().stream().
                     filter(report -> anyKey.equalsIgnoreCase(report.getKey())).
                     findFirst().
                     orElse(null);
@@ -210,7 +210,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                 result.setKey(anyKey);
                 result.setAnyType(any == null ? null : any.getType().getKey());
 
-                profile.getResults().add(result);
+                profile.getPendingResults().add(result);
             }
 
             result.setOperation(ResourceOperation.NONE);
@@ -226,7 +226,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
 
     protected void doHandle(final Any<?> any, final Provision provision) throws JobExecutionException {
         ProvisioningReport result = new ProvisioningReport();
-        profile.getResults().add(result);
+        profile.getPendingResults().add(result);
 
         result.setKey(any.getKey());
         result.setAnyType(any.getType().getKey());
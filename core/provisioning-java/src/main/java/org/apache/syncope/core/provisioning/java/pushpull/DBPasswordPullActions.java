@@ -54,9 +54,9 @@ public class DBPasswordPullActions implements PullActions {
     @Autowired
     private UserDAO userDAO;
 
-    private String encodedPassword;
+    private final ThreadLocal<String> encodedPassword = new ThreadLocal<>();
 
-    private CipherAlgorithm cipher;
+    private final ThreadLocal<CipherAlgorithm> cipher = new ThreadLocal<>();
 
     @Transactional(readOnly = true)
     @Override
@@ -92,11 +92,11 @@ public class DBPasswordPullActions implements PullActions {
             String cipherAlgorithm = getCipherAlgorithm(connInstance);
             if (!CLEARTEXT.equals(cipherAlgorithm)) {
                 try {
-                    encodedPassword = password;
-                    cipher = CipherAlgorithm.valueOf(cipherAlgorithm);
+                    encodedPassword.set(password);
+                    cipher.set(CipherAlgorithm.valueOf(cipherAlgorithm));
                 } catch (IllegalArgumentException e) {
                     LOG.error("Cipher algorithm not allowed: {}", cipherAlgorithm, e);
-                    encodedPassword = null;
+                    encodedPassword.remove();
                 }
             }
         }
@@ -120,13 +120,13 @@ public class DBPasswordPullActions implements PullActions {
             final EntityTO any,
             final ProvisioningReport result) throws JobExecutionException {
 
-        if (any instanceof UserTO && encodedPassword != null && cipher != null) {
+        if (any instanceof UserTO && encodedPassword.get() != null && cipher.get() != null) {
             User user = userDAO.find(any.getKey());
             if (user != null) {
-                user.setEncodedPassword(encodedPassword.toUpperCase(), cipher);
+                user.setEncodedPassword(encodedPassword.get().toUpperCase(), cipher.get());
             }
-            encodedPassword = null;
-            cipher = null;
+            encodedPassword.remove();
+            cipher.remove();
         }
     }
 }
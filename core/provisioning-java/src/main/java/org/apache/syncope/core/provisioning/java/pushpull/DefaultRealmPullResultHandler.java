@@ -113,7 +113,7 @@ public class DefaultRealmPullResultHandler
             ignoreResult.setAnyType(REALM_TYPE);
             ignoreResult.setKey(null);
             ignoreResult.setName(delta.getObject().getName().getNameValue());
-            profile.getResults().add(ignoreResult);
+            profile.getPendingResults().add(ignoreResult);
 
             LOG.warn("Ignoring during pull", e);
 
@@ -706,15 +706,15 @@ public class DefaultRealmPullResultHandler
                 if (keys.isEmpty()) {
                     switch (profile.getTask().getUnmatchingRule()) {
                         case ASSIGN:
-                            profile.getResults().addAll(assign(processed, orgUnit));
+                            profile.getPendingResults().addAll(assign(processed, orgUnit));
                             break;
 
                         case PROVISION:
-                            profile.getResults().addAll(provision(processed, orgUnit));
+                            profile.getPendingResults().addAll(provision(processed, orgUnit));
                             break;
 
                         case IGNORE:
-                            profile.getResults().add(ignore(processed, false));
+                            profile.getPendingResults().add(ignore(processed, false));
                             break;
 
                         default:
@@ -723,27 +723,27 @@ public class DefaultRealmPullResultHandler
                 } else {
                     switch (profile.getTask().getMatchingRule()) {
                         case UPDATE:
-                            profile.getResults().addAll(update(processed, keys));
+                            profile.getPendingResults().addAll(update(processed, keys));
                             break;
 
                         case DEPROVISION:
-                            profile.getResults().addAll(deprovision(processed, keys, false));
+                            profile.getPendingResults().addAll(deprovision(processed, keys, false));
                             break;
 
                         case UNASSIGN:
-                            profile.getResults().addAll(deprovision(processed, keys, true));
+                            profile.getPendingResults().addAll(deprovision(processed, keys, true));
                             break;
 
                         case LINK:
-                            profile.getResults().addAll(link(processed, keys, false));
+                            profile.getPendingResults().addAll(link(processed, keys, false));
                             break;
 
                         case UNLINK:
-                            profile.getResults().addAll(link(processed, keys, true));
+                            profile.getPendingResults().addAll(link(processed, keys, true));
                             break;
 
                         case IGNORE:
-                            profile.getResults().add(ignore(processed, true));
+                            profile.getPendingResults().add(ignore(processed, true));
                             break;
 
                         default:
@@ -755,7 +755,7 @@ public class DefaultRealmPullResultHandler
                     finalize(ResourceOperation.DELETE.name().toLowerCase(), Result.SUCCESS, null, null, processed);
                     LOG.debug("No match found for deletion");
                 } else {
-                    profile.getResults().addAll(delete(processed, keys));
+                    profile.getPendingResults().addAll(delete(processed, keys));
                 }
             }
         } catch (IllegalStateException | IllegalArgumentException e) {
@@ -81,7 +81,7 @@ public class DefaultRealmPushResultHandler
             result.setAnyType(realm == null ? null : REALM_TYPE);
             result.setStatus(ProvisioningReport.Status.IGNORE);
             result.setKey(realmKey);
-            profile.getResults().add(result);
+            profile.getPendingResults().add(result);
 
             LOG.warn("Ignoring during push", e);
             return true;
@@ -185,7 +185,7 @@ public class DefaultRealmPushResultHandler
 
     private void doHandle(final Realm realm) throws JobExecutionException {
         ProvisioningReport result = new ProvisioningReport();
-        profile.getResults().add(result);
+        profile.getPendingResults().add(result);
 
         result.setKey(realm.getKey());
         result.setAnyType(REALM_TYPE);
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.syncope.common.lib.to.EntityTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
@@ -68,7 +69,7 @@ public class LDAPMembershipPullActions extends SchedulingPullActions {
     @Autowired
     private PullUtils pullUtils;
 
-    protected final Map<String, Set<String>> memberships = new HashMap<>();
+    protected final Map<String, Set<String>> memberships = new ConcurrentHashMap<>();
 
     /**
      * Allows easy subclassing for the ConnId AD connector bundle.
@@ -132,15 +133,8 @@ public class LDAPMembershipPullActions extends SchedulingPullActions {
             throws JobExecutionException {
 
         Connector connector = profile.getConnector();
-        getMembAttrValues(delta, connector).stream().map(membValue -> {
-            Set<String> memb = memberships.get(membValue.toString());
-            if (memb == null) {
-                memb = new HashSet<>();
-                memberships.put(membValue.toString(), memb);
-            }
-            return memb;
-        }).forEachOrdered(memb -> {
-            memb.add(groupTO.getKey());
+        getMembAttrValues(delta, connector).forEach(membValue -> {
+            memberships.computeIfAbsent(membValue.toString(), k -> ConcurrentHashMap.newKeySet()).add(groupTO.getKey());
         });
     }
 
@@ -171,18 +165,21 @@ public class LDAPMembershipPullActions extends SchedulingPullActions {
 
     @Override
     public void afterAll(final ProvisioningProfile<?, ?> profile) throws JobExecutionException {
+        // resolve all member names at once
+        Map<String, String> userKeys = pullUtils.match(
+                anyTypeDAO.findUser(),
+                this.memberships.keySet(),
+                profile.getTask().getResource(),
+                profile.getConnector(),
+                false);
+
         Map<String, Set<String>> resolvedMemberships = new HashMap<>();
         this.memberships.forEach((name, memb) -> {
-            Optional<String> userKey = pullUtils.match(
-                    anyTypeDAO.findUser(),
-                    name,
-                    profile.getTask().getResource(),
-                    profile.getConnector(),
-                    false);
-            if (userKey.isPresent()) {
-                resolvedMemberships.put(userKey.get(), memb);
-            } else {
+            String userKey = userKeys.get(name);
+            if (userKey == null) {
                 LOG.warn("Could not find matching user for {}", name);
+            } else {
+                resolvedMemberships.computeIfAbsent(userKey, k -> new HashSet<>()).addAll(memb);
             }
         });
 
@@ -49,9 +49,9 @@ public class LDAPPasswordPullActions implements PullActions {
     @Autowired
     private UserDAO userDAO;
 
-    private String encodedPassword;
+    private final ThreadLocal<String> encodedPassword = new ThreadLocal<>();
 
-    private CipherAlgorithm cipher;
+    private final ThreadLocal<CipherAlgorithm> cipher = new ThreadLocal<>();
 
     @Transactional(readOnly = true)
     @Override
@@ -88,11 +88,11 @@ public class LDAPPasswordPullActions implements PullActions {
                 digest = digest.toUpperCase();
             }
             try {
-                encodedPassword = password.substring(closingBracketIndex + 1);
-                cipher = CipherAlgorithm.valueOf(digest);
+                encodedPassword.set(password.substring(closingBracketIndex + 1));
+                cipher.set(CipherAlgorithm.valueOf(digest));
             } catch (IllegalArgumentException e) {
                 LOG.error("Cipher algorithm not allowed: {}", digest, e);
-                encodedPassword = null;
+                encodedPassword.remove();
             }
         }
     }
@@ -105,16 +105,16 @@ public class LDAPPasswordPullActions implements PullActions {
             final EntityTO entity,
             final ProvisioningReport result) throws JobExecutionException {
 
-        if (entity instanceof UserTO && encodedPassword != null && cipher != null) {
+        if (entity instanceof UserTO && encodedPassword.get() != null && cipher.get() != null) {
             User user = userDAO.find(entity.getKey());
             if (user != null) {
-                byte[] encodedPasswordBytes = Base64.getDecoder().decode(encodedPassword.getBytes());
+                byte[] encodedPasswordBytes = Base64.getDecoder().decode(encodedPassword.get().getBytes());
                 String encodedHexStr = DatatypeConverter.printHexBinary(encodedPasswordBytes).toUpperCase();
 
-                user.setEncodedPassword(encodedHexStr, cipher);
+                user.setEncodedPassword(encodedHexStr, cipher.get());
             }
-            encodedPassword = null;
-            cipher = null;
+            encodedPassword.remove();
+            cipher.remove();
         }
     }
 }
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches the deltas received from the connector to a fixed number of workers, each owning its own
+ * {@link SyncopePullResultHandler} and running on the given executor.
+ *
+ * Deltas are partitioned by the given key - normally the connector object key, as mapped for the provision - so
+ * that changes to the same object are always processed in the order they were received; hand-off queues are
+ * bounded, so that the connector is slowed down when workers cannot keep up.
+ *
+ * Since deltas complete out of order, the sync token reported to the pull executor is the one of the latest delta
+ * such that all the deltas received before it were successfully processed.
+ *
+ * Workers do not share any persistence context with the thread feeding deltas: subclasses handling deltas in their
+ * own transaction shall override {@link #process(SyncopePullResultHandler, SyncDelta)} accordingly.
+ */
+public class PartitionedSyncResultsHandler implements SyncResultsHandler, SyncopePullExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionedSyncResultsHandler.class);
+
+    private static final int QUEUE_CAPACITY = 100;
+
+    private static final Pair<Long, SyncDelta> POISON = Pair.of(-1L, null);
+
+    /**
+     * Partition for the given key.
+     *
+     * @param key partition key
+     * @param partitions number of partitions
+     * @return partition index, between 0 and partitions - 1
+     */
+    protected static int partition(final String key, final int partitions) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    private final SyncopePullExecutor executor;
+
+    private final Function<SyncDelta, String> partitionKey;
+
+    private final ExecutorService workers;
+
+    private final List<SyncopePullResultHandler> handlers = new ArrayList<>();
+
+    private final List<BlockingQueue<Pair<Long, SyncDelta>>> queues = new ArrayList<>();
+
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Tokens of deltas successfully processed but not yet checkpointed, by sequence number.
+     */
+    private final NavigableMap<Long, Pair<ObjectClass, SyncToken>> completed = new TreeMap<>();
+
+    /**
+     * Sequence number of the next delta to checkpoint.
+     */
+    private long checkpoint = 0;
+
+    /**
+     * Sequence number of the next delta to dispatch; only accessed by the connector thread.
+     */
+    private long dispatched = 0;
+
+    /**
+     * @param executor pull executor, to report checkpointed sync tokens to
+     * @param handlerFactory builds the result handler of each worker
+     * @param partitionKey key of each delta, such that deltas with the same key are processed in order
+     * @param workers executor to run workers on, allowing at least the given number of threads; shut down by
+     * {@link #close()}
+     * @param threads number of workers
+     */
+    public PartitionedSyncResultsHandler(
+            final SyncopePullExecutor executor,
+            final Supplier<? extends SyncopePullResultHandler> handlerFactory,
+            final Function<SyncDelta, String> partitionKey,
+            final ExecutorService workers,
+            final int threads) {
+
+        this.executor = executor;
+        this.partitionKey = partitionKey;
+        this.workers = workers;
+
+        for (int i = 0; i < threads; i++) {
+            SyncopePullResultHandler handler = handlerFactory.get();
+            handler.setPullExecutor(this);
+            handlers.add(handler);
+
+            queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+        }
+        for (int i = 0; i < threads; i++) {
+            SyncopePullResultHandler handler = handlers.get(i);
+            BlockingQueue<Pair<Long, SyncDelta>> queue = queues.get(i);
+            futures.add(workers.submit(() -> work(handler, queue)));
+        }
+    }
+
+    public List<SyncopePullResultHandler> getHandlers() {
+        return Collections.unmodifiableList(handlers);
+    }
+
+    @Override
+    public boolean handle(final SyncDelta delta) {
+        if (stop.get()) {
+            return false;
+        }
+
+        int partition = partition(partitionKey.apply(delta), queues.size());
+        Pair<Long, SyncDelta> item = Pair.of(dispatched++, delta);
+        try {
+            while (!queues.get(partition).offer(item, 1, TimeUnit.SECONDS)) {
+                if (stop.get() || futures.get(partition).isDone()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop.set(true);
+            return false;
+        }
+
+        return !stop.get();
+    }
+
+    /**
+     * Handles the given delta with the given worker's handler.
+     *
+     * @param handler worker's result handler
+     * @param delta delta to handle
+     * @return whether pulling shall continue
+     */
+    protected boolean process(final SyncopePullResultHandler handler, final SyncDelta delta) {
+        return handler.handle(delta);
+    }
+
+    private void work(final SyncopePullResultHandler handler, final BlockingQueue<Pair<Long, SyncDelta>> queue) {
+        while (true) {
+            Pair<Long, SyncDelta> item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (item == POISON) {
+                return;
+            }
+
+            // once stopped, keep draining the queue so that the connector thread is never blocked
+            if (!stop.get()) {
+                try {
+                    if (process(handler, item.getRight())) {
+                        complete(item.getLeft(), item.getRight());
+                    } else {
+                        stop.set(true);
+                    }
+                } catch (Throwable t) {
+                    LOG.error("While handling {}", item.getRight(), t);
+                    failure.compareAndSet(null, t);
+                    stop.set(true);
+                }
+            }
+        }
+    }
+
+    private void complete(final long seq, final SyncDelta delta) {
+        Pair<ObjectClass, SyncToken> latest = null;
+        synchronized (completed) {
+            completed.put(seq, Pair.of(delta.getObjectClass(), delta.getToken()));
+            while (!completed.isEmpty() && completed.firstKey() == checkpoint) {
+                latest = completed.pollFirstEntry().getValue();
+                checkpoint++;
+            }
+            if (latest != null) {
+                executor.setLatestSyncToken(latest.getLeft(), latest.getRight());
+            }
+        }
+    }
+
+    /**
+     * Waits for all dispatched deltas to be processed, then stops workers.
+     *
+     * @throws JobExecutionException if any worker failed
+     */
+    public void close() throws JobExecutionException {
+        try {
+            for (int i = 0; i < queues.size(); i++) {
+                while (!queues.get(i).offer(POISON, 1, TimeUnit.SECONDS) && !futures.get(i).isDone()) {
+                    LOG.debug("Waiting for pull worker {} to accept termination", i);
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new JobExecutionException("Interrupted while waiting for pull workers", e);
+        } finally {
+            workers.shutdown();
+        }
+
+        if (failure.get() != null) {
+            throw new JobExecutionException("While pulling from connector", failure.get());
+        }
+    }
+
+    @Override
+    public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
+        // ignore: tokens are checkpointed upon completion, according to the order deltas were received
+    }
+
+    @Override
+    public void reportHandled(final ObjectClass objectClass, final Name name) {
+        executor.reportHandled(objectClass, name);
+    }
+
+    @Override
+    public boolean wasInterruptRequested() {
+        return executor.wasInterruptRequested();
+    }
+
+    @Override
+    public void setInterrupted() {
+        executor.setInterrupted();
+    }
+}
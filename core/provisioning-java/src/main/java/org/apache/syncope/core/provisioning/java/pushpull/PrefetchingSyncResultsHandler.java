@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * Lets the connector run in a background thread, buffering up to the given number of deltas, while these are
+ * handled by the calling thread: this way, the next page of results is fetched while the current one is processed.
+ */
+public class PrefetchingSyncResultsHandler implements SyncResultsHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchingSyncResultsHandler.class);
+
+    private final SyncResultsHandler delegate;
+
+    private final BlockingQueue<Optional<SyncDelta>> queue;
+
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public PrefetchingSyncResultsHandler(final SyncResultsHandler delegate, final int capacity) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Invoked by the connector thread.
+     *
+     * @param delta delta
+     * @return whether the connector shall keep sending deltas
+     */
+    @Override
+    public boolean handle(final SyncDelta delta) {
+        return enqueue(Optional.of(delta));
+    }
+
+    private boolean enqueue(final Optional<SyncDelta> item) {
+        try {
+            while (!queue.offer(item, 1, TimeUnit.SECONDS)) {
+                if (stop.get()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop.set(true);
+            return false;
+        }
+
+        return !stop.get();
+    }
+
+    /**
+     * Runs the given search in a background thread, then handles the deltas received, in the calling thread,
+     * until the search is over or the delegate handler asks to stop.
+     * Should the delegate handler fail, the connector thread is asked to stop and buffered deltas are discarded.
+     *
+     * @param search connector search, expected to send deltas to this handler
+     */
+    public void pull(final Runnable search) {
+        Thread fetcher = new Thread(new DelegatingSecurityContextRunnable(JobProgress.wrap(() -> {
+            try {
+                search.run();
+            } catch (Throwable t) {
+                LOG.error("While fetching from connector", t);
+                failure.set(t);
+            } finally {
+                // signal end, unless the calling thread already stopped taking deltas
+                enqueue(Optional.empty());
+            }
+        })), "PullFetcher");
+        fetcher.setDaemon(true);
+        fetcher.start();
+
+        try {
+            while (!stop.get()) {
+                Optional<SyncDelta> item = queue.poll(1, TimeUnit.SECONDS);
+                if (item != null) {
+                    if (!item.isPresent()) {
+                        break;
+                    }
+                    if (!delegate.handle(item.get())) {
+                        stop.set(true);
+                    }
+                }
+            }
+            // once stopped, the connector thread quits as soon as it attempts to send further deltas
+            fetcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop.set(true);
+            fetcher.interrupt();
+            throw new IllegalStateException("Interrupted while pulling", e);
+        } catch (RuntimeException e) {
+            // no need to interrupt the connector thread: it quits as soon as it attempts to send further deltas
+            stop.set(true);
+            throw e;
+        } finally {
+            // discard buffered deltas, also making room for the connector thread, should it be waiting
+            queue.clear();
+        }
+
+        if (failure.get() instanceof RuntimeException) {
+            throw (RuntimeException) failure.get();
+        } else if (failure.get() != null) {
+            throw new IllegalStateException("While fetching from connector", failure.get());
+        }
+    }
+}
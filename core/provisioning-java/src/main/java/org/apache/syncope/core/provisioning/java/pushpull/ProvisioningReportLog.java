@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.common.lib.types.TraceLevel;
+import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
+import org.apache.syncope.core.provisioning.java.job.ExecDetailsLog;
+
+/**
+ * Aggregates the results of a provisioning task execution without holding them in memory: only counters and a
+ * bounded number of samples are kept, while the results to be traced - according to the given trace level - are
+ * streamed to the execution details, one line each.
+ */
+public class ProvisioningReportLog implements AutoCloseable {
+
+    /**
+     * Maximum number of results kept for each kind, status and operation.
+     */
+    public static final int MAX_SAMPLES = 100;
+
+    private final TraceLevel traceLevel;
+
+    private final Map<String, Integer> counters = new HashMap<>();
+
+    private final Map<String, List<ProvisioningReport>> samples = new HashMap<>();
+
+    private final ExecDetailsLog details = new ExecDetailsLog();
+
+    public ProvisioningReportLog(final TraceLevel traceLevel) {
+        this.traceLevel = traceLevel;
+    }
+
+    private static String bucket(
+            final AnyTypeKind kind,
+            final ProvisioningReport.Status status,
+            final ResourceOperation operation) {
+
+        return (kind == null ? "REALM" : kind.name()) + '.' + status.name()
+                + (status == ProvisioningReport.Status.IGNORE ? "" : "." + operation);
+    }
+
+    private boolean isTraced(final ProvisioningReport.Status status) {
+        return traceLevel == TraceLevel.ALL
+                || (traceLevel == TraceLevel.FAILURES && status == ProvisioningReport.Status.FAILURE);
+    }
+
+    /**
+     * Adds the given result.
+     *
+     * @param result provisioning result
+     * @param kind kind of any type of the given result, null for realms
+     */
+    public synchronized void add(final ProvisioningReport result, final AnyTypeKind kind) {
+        if (result.getStatus() == null) {
+            return;
+        }
+
+        String bucket = bucket(kind, result.getStatus(), result.getOperation());
+        counters.merge(bucket, 1, Integer::sum);
+
+        if (isTraced(result.getStatus())) {
+            List<ProvisioningReport> bucketSamples = samples.computeIfAbsent(bucket, k -> new ArrayList<>());
+            if (bucketSamples.size() < MAX_SAMPLES) {
+                bucketSamples.add(result);
+            }
+
+            details.write(result.getAnyType() + ' ' + result.getReportString(TraceLevel.ALL));
+        }
+    }
+
+    /**
+     * @param kind kind of any type, null for realms
+     * @param status result status
+     * @param operation result operation, ignored for {@link ProvisioningReport.Status#IGNORE}
+     * @return number of results added so far for the given kind, status and operation
+     */
+    public synchronized int count(
+            final AnyTypeKind kind,
+            final ProvisioningReport.Status status,
+            final ResourceOperation operation) {
+
+        return counters.getOrDefault(bucket(kind, status, operation), 0);
+    }
+
+    /**
+     * @param kind kind of any type, null for realms
+     * @param status result status
+     * @param operation result operation, ignored for {@link ProvisioningReport.Status#IGNORE}
+     * @return up to {@link #MAX_SAMPLES} results added for the given kind, status and operation, if traced
+     */
+    public synchronized List<ProvisioningReport> samples(
+            final AnyTypeKind kind,
+            final ProvisioningReport.Status status,
+            final ResourceOperation operation) {
+
+        return Collections.unmodifiableList(
+                samples.getOrDefault(bucket(kind, status, operation), Collections.emptyList()));
+    }
+
+    /**
+     * Stops logging, and streams the log of traced results, one line each, to the details of the given execution.
+     *
+     * @param execKey task execution key
+     * @param taskExecDAO task execution DAO
+     */
+    public void storeDetails(final String execKey, final TaskExecDAO taskExecDAO) {
+        details.store(execKey, taskExecDAO);
+    }
+
+    @Override
+    public void close() {
+        details.close();
+    }
+}
@@ -19,50 +19,74 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.collections.IteratorChain;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.PullMode;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
 import org.apache.syncope.core.persistence.api.entity.resource.OrgUnit;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
 import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.apache.syncope.core.persistence.api.entity.task.PullTask;
 import org.apache.syncope.core.provisioning.api.pushpull.AnyObjectPullResultHandler;
+import org.apache.syncope.core.provisioning.api.pushpull.CorrelationIndex;
 import org.apache.syncope.core.provisioning.api.pushpull.PullActions;
 import org.apache.syncope.core.provisioning.api.pushpull.GroupPullResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.RealmPullResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.UserPullResultHandler;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
 import org.identityconnectors.framework.common.objects.Name;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
+import org.identityconnectors.framework.common.objects.SortKey;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
 import org.identityconnectors.framework.common.objects.SyncToken;
 import org.apache.syncope.core.provisioning.api.pushpull.ReconFilterBuilder;
+import org.apache.syncope.core.spring.BoundedExecutorService;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> implements SyncopePullExecutor {
 
@@ -72,6 +96,9 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
     @Autowired
     protected GroupDAO groupDAO;
 
+    @Autowired
+    protected DynRealmDAO dynRealmDAO;
+
     @Autowired
     protected VirSchemaDAO virSchemaDAO;
 
@@ -81,26 +108,83 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
-    protected final Map<ObjectClass, SyncToken> latestSyncTokens = new HashMap<>();
+    @Autowired
+    protected TaskCheckpointDAO taskCheckpointDAO;
+
+    @Resource(name = "batchExecutor")
+    protected ThreadPoolTaskExecutor batchExecutor;
+
+    protected final Map<ObjectClass, SyncToken> latestSyncTokens = Collections.synchronizedMap(new HashMap<>());
 
     protected final Map<ObjectClass, MutablePair<Integer, String>> handled = new HashMap<>();
 
     protected ProvisioningProfile<PullTask, PullActions> profile;
 
+    /**
+     * Whether reconciliation progress is being checkpointed, so that interrupted executions can be resumed.
+     */
+    protected boolean checkpointing;
+
+    /**
+     * Checkpoints found when the current execution started, by object class.
+     */
+    protected final Map<String, String> resumeFrom = new HashMap<>();
+
+    /**
+     * Checkpoints saved by the current execution, by object class.
+     */
+    protected final Map<ObjectClass, String> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Whether results of successful creations, having an UID value, shall be kept for the current provision.
+     */
+    protected volatile boolean collectCreated;
+
+    /**
+     * Results of successful creations for the current provision, if collected.
+     */
+    protected final List<ProvisioningReport> created = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Transaction each delta is handled in.
+     */
+    protected TransactionTemplate deltaTransaction;
+
     @Override
     public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
         latestSyncTokens.put(objectClass, latestSyncToken);
+
+        // during reconciliation, tokens are paged results cookies: save a checkpoint whenever a new page is reached;
+        // since each delta is committed on its own, all previous pages are already committed by then, hence the
+        // checkpoint is committed on its own as well, to survive should the job execution fail later on
+        if (checkpointing && latestSyncToken != null && latestSyncToken.getValue() != null) {
+            String cookie = latestSyncToken.getValue().toString();
+            if (StringUtils.isNotBlank(cookie) && !cookie.equals(checkpoints.put(objectClass, cookie))) {
+                taskCheckpointDAO.commit(profile.getTask().getKey(), objectClass.getObjectClassValue(), cookie);
+            }
+        }
+    }
+
+    protected void flushResults() {
+        flushResults(profile.getPendingResults()).stream().
+                filter(result -> collectCreated
+                && result.getUidValue() != null && result.getOperation() == ResourceOperation.CREATE).
+                forEach(created::add);
     }
 
     @Override
     public void reportHandled(final ObjectClass objectClass, final Name name) {
-        MutablePair<Integer, String> pair = handled.get(objectClass);
-        if (pair == null) {
-            pair = MutablePair.of(0, null);
-            handled.put(objectClass, pair);
+        flushResults();
+
+        synchronized (handled) {
+            MutablePair<Integer, String> pair = handled.get(objectClass);
+            if (pair == null) {
+                pair = MutablePair.of(0, null);
+                handled.put(objectClass, pair);
+            }
+            pair.setLeft(pair.getLeft() + 1);
+            pair.setRight(name.getNameValue());
         }
-        pair.setLeft(pair.getLeft() + 1);
-        pair.setRight(name.getNameValue());
     }
 
     @Override
@@ -116,15 +200,17 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
     @Override
     public String currentStatus() {
         synchronized (status) {
-            if (!handled.isEmpty()) {
-                StringBuilder builder = new StringBuilder("Processed:\n");
-                handled.forEach((key, value) -> {
-                    builder.append(' ').append(value.getLeft()).append('\t').
-                            append(key.getObjectClassValue()).
-                            append(" / latest: ").append(value.getRight()).
-                            append('\n');
-                });
-                status.set(builder.toString());
+            synchronized (handled) {
+                if (!handled.isEmpty()) {
+                    StringBuilder builder = new StringBuilder("Processed:\n");
+                    handled.forEach((key, value) -> {
+                        builder.append(' ').append(value.getLeft()).append('\t').
+                                append(key.getObjectClassValue()).
+                                append(" / latest: ").append(value.getRight()).
+                                append('\n');
+                    });
+                    status.set(builder.toString());
+                }
             }
         }
         return status.get();
@@ -135,37 +221,68 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
             final boolean userIgnoreCaseMatch,
             final boolean groupIgnoreCaseMatch) {
 
-        ghandler.getGroupOwnerMap().entrySet().stream().map(entry -> {
-            Group group = groupDAO.find(entry.getKey());
-            if (group == null) {
-                throw new NotFoundException("Group " + entry.getKey());
-            }
-            if (StringUtils.isBlank(entry.getValue())) {
-                group.setGroupOwner(null);
-                group.setUserOwner(null);
-            } else {
-                Optional<String> userKey = pullUtils.match(
-                        anyTypeDAO.findUser(),
-                        entry.getValue(),
-                        ghandler.getProfile().getTask().getResource(),
-                        ghandler.getProfile().getConnector(),
-                        userIgnoreCaseMatch);
-                if (userKey.isPresent()) {
-                    group.setUserOwner(userDAO.find(userKey.get()));
-                } else {
-                    pullUtils.match(
-                            anyTypeDAO.findGroup(),
-                            entry.getValue(),
-                            ghandler.getProfile().getTask().getResource(),
-                            ghandler.getProfile().getConnector(),
-                            groupIgnoreCaseMatch).
-                            ifPresent(groupKey -> group.setGroupOwner(groupDAO.find(groupKey)));
+        Map<String, String> groupOwners = ghandler.getGroupOwnerMap();
+        if (groupOwners.isEmpty()) {
+            return;
+        }
+
+        ExternalResource resource = ghandler.getProfile().getTask().getResource();
+        Connector connector = ghandler.getProfile().getConnector();
+
+        // first resolve all owners at once, as users...
+        Set<String> owners = groupOwners.values().stream().
+                filter(StringUtils::isNotBlank).collect(Collectors.toSet());
+        Map<String, String> userOwnerKeys = pullUtils.match(
+                anyTypeDAO.findUser(), owners, resource, connector, userIgnoreCaseMatch);
+        // ...or as groups
+        Map<String, String> groupOwnerKeys = pullUtils.match(
+                anyTypeDAO.findGroup(),
+                owners.stream().filter(owner -> !userOwnerKeys.containsKey(owner)).collect(Collectors.toSet()),
+                resource,
+                connector,
+                groupIgnoreCaseMatch);
+
+        // then update groups by chunks, only if owners actually changed; dynamic group memberships are not
+        // affected, while dynamic realm memberships are refreshed once for each chunk
+        List<String> groupKeys = new ArrayList<>(groupOwners.keySet());
+        for (int i = 0; i < groupKeys.size(); i += AnyDAO.DEFAULT_PAGE_SIZE) {
+            status.set("Setting group owners: " + i + " / " + groupKeys.size());
+
+            List<Group> changedGroups = new ArrayList<>();
+            groupKeys.subList(i, Math.min(groupKeys.size(), i + AnyDAO.DEFAULT_PAGE_SIZE)).forEach(groupKey -> {
+                Group group = groupDAO.find(groupKey);
+                if (group == null) {
+                    throw new NotFoundException("Group " + groupKey);
                 }
-            }
-            return group;
-        }).forEachOrdered(group -> {
-            groupDAO.save(group);
-        });
+
+                String owner = groupOwners.get(groupKey);
+                boolean changed = false;
+                if (StringUtils.isBlank(owner)) {
+                    changed = group.getUserOwner() != null || group.getGroupOwner() != null;
+                    group.setUserOwner(null);
+                    group.setGroupOwner(null);
+                } else if (userOwnerKeys.containsKey(owner)) {
+                    String userKey = userOwnerKeys.get(owner);
+                    if (group.getUserOwner() == null || !userKey.equals(group.getUserOwner().getKey())) {
+                        group.setUserOwner(userDAO.find(userKey));
+                        changed = true;
+                    }
+                } else if (groupOwnerKeys.containsKey(owner)) {
+                    String ownerKey = groupOwnerKeys.get(owner);
+                    if (group.getGroupOwner() == null || !ownerKey.equals(group.getGroupOwner().getKey())) {
+                        group.setGroupOwner(groupDAO.find(ownerKey));
+                        changed = true;
+                    }
+                }
+
+                if (changed) {
+                    changedGroups.add(groupDAO.save(group, false));
+                }
+            });
+            groupDAO.flush();
+
+            changedGroups.forEach(dynRealmDAO::refreshDynMemberships);
+        }
     }
 
     protected RealmPullResultHandler buildRealmHandler() {
@@ -192,6 +309,250 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
         return handler;
     }
 
+    protected SyncopePullResultHandler buildHandler(final AnyTypeKind kind) {
+        SyncopePullResultHandler handler;
+        switch (kind) {
+            case USER:
+                handler = buildUserHandler();
+                break;
+
+            case GROUP:
+                handler = buildGroupHandler();
+                break;
+
+            case ANY_OBJECT:
+            default:
+                handler = buildAnyObjectHandler();
+        }
+        handler.setProfile(profile);
+        handler.setPullExecutor(this);
+
+        return handler;
+    }
+
+    /**
+     * Key used to partition deltas among workers: the connector object key, as mapped for the given provision, or
+     * the delta's UID when the connector object is not available (as with deletions) or lacks the mapped key.
+     *
+     * @param delta delta received from the connector
+     * @param provision provision being pulled
+     * @return partition key
+     */
+    protected String partitionKey(final SyncDelta delta, final Provision provision) {
+        String connObjectKey = delta.getObject() == null
+                ? null
+                : pullUtils.getConnObjectKey(delta.getObject(), provision);
+        return connObjectKey == null ? delta.getUid().getUidValue() : connObjectKey;
+    }
+
+    /**
+     * Builds a profile like the current one, but for the given task instance.
+     *
+     * @param pullTask pull task, as read in the current transaction
+     * @return profile for the given task instance
+     */
+    protected ProvisioningProfile<PullTask, PullActions> profileFor(final PullTask pullTask) {
+        ProvisioningProfile<PullTask, PullActions> other = new ProvisioningProfile<>(profile.getConnector(), pullTask);
+        other.getActions().addAll(profile.getActions());
+        other.setDryRun(profile.isDryRun());
+        other.setConflictResolutionAction(profile.getConflictResolutionAction());
+        return other;
+    }
+
+    /**
+     * @return template for the transaction each delta is handled in, independently from the job's transaction
+     */
+    protected TransactionTemplate newDeltaTransaction() {
+        TransactionTemplate txTemplate = new TransactionTemplate(ApplicationContextProvider.getBeanFactory().
+                getBean(AuthContextUtils.getDomain() + "TransactionManager", PlatformTransactionManager.class));
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return txTemplate;
+    }
+
+    /**
+     * Handles the given delta in a new transaction, so that it is committed on its own - as checkpoints are -
+     * whatever the number of threads pulling. Entities read by the job's transaction are not shared: the pull task -
+     * and hence resource, provisions and mappings - is read again in the new transaction; results are then moved to
+     * the job's profile.
+     *
+     * @param handler result handler
+     * @param delta delta to handle
+     * @param taskKey pull task key
+     * @return whether pull shall continue
+     */
+    protected boolean handleInNewTransaction(
+            final SyncopePullResultHandler handler, final SyncDelta delta, final String taskKey) {
+
+        return deltaTransaction.execute(status -> {
+            ProvisioningProfile<PullTask, PullActions> current = profileFor(taskDAO.find(taskKey));
+            handler.setProfile(current);
+            try {
+                return handler.handle(delta);
+            } finally {
+                profile.getPendingResults().addAll(current.getPendingResults());
+            }
+        });
+    }
+
+    /**
+     * Builds the handler dispatching deltas to the configured number of workers, running on the shared batch
+     * executor; each delta is handled as by {@link #handleInNewTransaction(SyncopePullResultHandler, SyncDelta,
+     * String)}.
+     *
+     * @param pullTask pull task
+     * @param provision provision being pulled
+     * @param correlationIndex correlation index, can be null
+     * @return partitioned handler, to be closed once pull is over
+     */
+    protected PartitionedSyncResultsHandler buildPartitionedHandler(
+            final PullTask pullTask,
+            final Provision provision,
+            final CorrelationIndex correlationIndex) {
+
+        AnyTypeKind kind = provision.getAnyType().getKind();
+        String taskKey = pullTask.getKey();
+
+        return new PartitionedSyncResultsHandler(
+                this,
+                () -> {
+                    SyncopePullResultHandler partition = buildHandler(kind);
+                    partition.setCorrelationIndex(correlationIndex);
+                    return partition;
+                },
+                delta -> partitionKey(delta, provision),
+                new DelegatingSecurityContextExecutorService(new BoundedExecutorService(
+                        batchExecutor, pullTask.getConcurrentThreads(), JobProgress::wrap)),
+                pullTask.getConcurrentThreads()) {
+
+            @Override
+            protected boolean process(final SyncopePullResultHandler handler, final SyncDelta delta) {
+                return handleInNewTransaction(handler, delta, taskKey);
+            }
+        };
+    }
+
+    protected void doPull(
+            final PullTask pullTask,
+            final Connector connector,
+            final Provision provision,
+            final SyncResultsHandler handler,
+            final OperationOptions options) {
+
+        switch (pullTask.getPullMode()) {
+            case INCREMENTAL:
+                connector.sync(
+                        provision.getObjectClass(),
+                        provision.getSyncToken(),
+                        handler,
+                        options);
+                break;
+
+            case FILTERED_RECONCILIATION:
+                ReconFilterBuilder filterBuilder =
+                        ImplementationManager.build(pullTask.getReconFilterBuilder());
+                connector.filteredReconciliation(provision.getObjectClass(),
+                        filterBuilder,
+                        handler,
+                        buildReconOptions(pullTask, options));
+                break;
+
+            case FULL_RECONCILIATION:
+            default:
+                connector.fullReconciliation(provision.getObjectClass(),
+                        handler,
+                        buildReconOptions(pullTask, options));
+                break;
+        }
+    }
+
+    /**
+     * Adds paging and sorting, as configured on the given pull task, to the given options.
+     *
+     * @param pullTask pull task
+     * @param options options
+     * @return options for reconciliation
+     */
+    protected OperationOptions buildReconOptions(final PullTask pullTask, final OperationOptions options) {
+        OperationOptionsBuilder builder = new OperationOptionsBuilder(options).setPageSize(pullTask.getPageSize());
+        if (StringUtils.isNotBlank(pullTask.getSortAttribute())) {
+            builder.setSortKeys(Collections.singletonList(new SortKey(pullTask.getSortAttribute(), true)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Pulls the given provision, letting the connector prefetch the next page of objects while the current one is
+     * being processed, if so configured.
+     *
+     * @param pullTask pull task
+     * @param connector connector
+     * @param provision provision
+     * @param handler handler
+     * @param options options
+     */
+    protected void fetchAndPull(
+            final PullTask pullTask,
+            final Connector connector,
+            final Provision provision,
+            final SyncResultsHandler handler,
+            final OperationOptions options) {
+
+        if (pullTask.isPrefetch() && pullTask.getPullMode() != PullMode.INCREMENTAL) {
+            PrefetchingSyncResultsHandler prefetching =
+                    new PrefetchingSyncResultsHandler(handler, pullTask.getPageSize());
+            prefetching.pull(() -> doPull(pullTask, connector, provision, prefetching, options));
+        } else {
+            doPull(pullTask, connector, provision, handler, options);
+        }
+    }
+
+    /**
+     * Pulls the given provision, resuming from the checkpoint left by a previous, interrupted execution, if any;
+     * should the connector fail before the first page following the checkpoint is reached, the checkpoint is
+     * considered no longer valid and pull starts over.
+     *
+     * @param pullTask pull task
+     * @param connector connector
+     * @param provision provision
+     * @param handler handler
+     * @param options options
+     */
+    protected void resumablePull(
+            final PullTask pullTask,
+            final Connector connector,
+            final Provision provision,
+            final SyncResultsHandler handler,
+            final OperationOptions options) {
+
+        String scope = provision.getObjectClass().getObjectClassValue();
+        String cookie = checkpointing ? resumeFrom.get(scope) : null;
+        if (cookie == null) {
+            fetchAndPull(pullTask, connector, provision, handler, options);
+        } else {
+            LOG.info("Resuming pull of {} from checkpoint", scope);
+            status.set("Resuming " + scope + " from checkpoint");
+
+            try {
+                fetchAndPull(pullTask, connector, provision, handler,
+                        new OperationOptionsBuilder(options).setPagedResultsCookie(cookie).build());
+            } catch (ConnectorException | TimeoutException e) {
+                // only a checkpoint refused by the connector, before any further page was reached, is discarded
+                String reached = checkpoints.get(provision.getObjectClass());
+                if (reached != null && !reached.equals(cookie)) {
+                    throw e;
+                }
+
+                LOG.warn("Could not resume pull of {} from checkpoint, starting over", scope, e);
+                fetchAndPull(pullTask, connector, provision, handler, options);
+            }
+        }
+
+        if (checkpointing && !interrupt) {
+            checkpoints.remove(provision.getObjectClass());
+            taskCheckpointDAO.discard(pullTask.getKey(), scope);
+        }
+    }
+
     @Override
     protected String doExecuteProvisioning(
             final PullTask pullTask,
@@ -218,6 +579,14 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
 
         latestSyncTokens.clear();
 
+        // realms are not checkpointed, provisions are (see below)
+        checkpointing = false;
+        resumeFrom.clear();
+        checkpoints.clear();
+        if (!dryRun && pullTask.getPullMode() != PullMode.INCREMENTAL) {
+            resumeFrom.putAll(taskCheckpointDAO.findAll(pullTask.getKey()));
+        }
+
         if (!profile.isDryRun()) {
             for (PullActions action : actions) {
                 action.beforeAll(profile);
@@ -279,6 +648,9 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
         }
 
         // ...then provisions for any types
+        checkpointing = !dryRun && pullTask.getPullMode() != PullMode.INCREMENTAL;
+        deltaTransaction = newDeltaTransaction();
+
         SyncopePullResultHandler handler;
         GroupPullResultHandler ghandler = buildGroupHandler();
         boolean userIgnoreCaseMatch = false;
@@ -317,49 +689,68 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
                             linkingMappingItems.iterator());
                     OperationOptions options = MappingUtils.buildOperationOptions(mapItems);
 
-                    switch (pullTask.getPullMode()) {
-                        case INCREMENTAL:
-                            if (!dryRun) {
-                                latestSyncTokens.put(provision.getObjectClass(), provision.getSyncToken());
-                            }
-
-                            connector.sync(
-                                    provision.getObjectClass(),
-                                    provision.getSyncToken(),
-                                    handler,
-                                    options);
+                    boolean incremental = pullTask.getPullMode() == PullMode.INCREMENTAL;
+                    if (incremental && !dryRun) {
+                        latestSyncTokens.put(provision.getObjectClass(), provision.getSyncToken());
+                    }
 
-                            if (!dryRun) {
-                                provision.setSyncToken(latestSyncTokens.get(provision.getObjectClass()));
-                                resourceDAO.save(provision.getResource());
+                    // full reconciliation is going to match all objects: look them up in bulk
+                    CorrelationIndex correlationIndex = null;
+                    if (pullTask.getPullMode() == PullMode.FULL_RECONCILIATION) {
+                        status.set("Indexing " + provision.getAnyType().getKey() + " for matching");
+                        correlationIndex = pullUtils.buildCorrelationIndex(provision).orElse(null);
+                        if (correlationIndex != null) {
+                            status.set("Pulling " + provision.getObjectClass().getObjectClassValue()
+                                    + " (correlation index: " + correlationIndex.size() + " entries, about "
+                                    + correlationIndex.getEstimatedSize() / 1024 + " KB)");
+                        }
+                    }
+                    handler.setCorrelationIndex(correlationIndex);
+
+                    created.clear();
+                    collectCreated = provision.getUidOnCreate() != null;
+
+                    if (pullTask.getConcurrentThreads() > 1) {
+                        // deltas are processed in parallel, by partitions; sync tokens are checkpointed accordingly
+                        PartitionedSyncResultsHandler partitioned =
+                                buildPartitionedHandler(pullTask, provision, correlationIndex);
+                        try {
+                            resumablePull(pullTask, connector, provision, partitioned, options);
+                        } finally {
+                            partitioned.close();
+
+                            if (provision.getAnyType().getKind() == AnyTypeKind.GROUP) {
+                                partitioned.getHandlers().forEach(partition -> ghandler.getGroupOwnerMap().
+                                        putAll(((GroupPullResultHandler) partition).getGroupOwnerMap()));
                             }
-                            break;
-
-                        case FILTERED_RECONCILIATION:
-                            ReconFilterBuilder filterBuilder =
-                                    ImplementationManager.build(pullTask.getReconFilterBuilder());
-                            connector.filteredReconciliation(provision.getObjectClass(),
-                                    filterBuilder,
-                                    handler,
-                                    options);
-                            break;
-
-                        case FULL_RECONCILIATION:
-                        default:
-                            connector.fullReconciliation(provision.getObjectClass(),
-                                    handler,
-                                    options);
-                            break;
+                        }
+                    } else {
+                        SyncopePullResultHandler sequential = handler;
+                        try {
+                            resumablePull(pullTask, connector, provision,
+                                    delta -> handleInNewTransaction(sequential, delta, pullTask.getKey()), options);
+                        } finally {
+                            sequential.setProfile(profile);
+                        }
+                    }
+
+                    if (incremental && !dryRun) {
+                        provision.setSyncToken(latestSyncTokens.get(provision.getObjectClass()));
+                        resourceDAO.save(provision.getResource());
                     }
 
                     if (provision.getUidOnCreate() != null) {
+                        flushResults();
+                        collectCreated = false;
+
                         AnyUtils anyUtils = anyUtilsFactory.getInstance(provision.getAnyType().getKind());
-                        profile.getResults().stream().
+                        Stream.concat(created.stream(), profile.getPendingResults().stream()).
                                 filter(result -> result.getUidValue() != null
                                 && result.getOperation() == ResourceOperation.CREATE).
                                 forEach(result -> {
                                     anyUtils.addAttr(result.getKey(), provision.getUidOnCreate(), result.getUidValue());
                                 });
+                        created.clear();
                     }
                 } catch (Throwable t) {
                     throw new JobExecutionException("While pulling from connector", t);
@@ -378,9 +769,16 @@ public class PullJobDelegate extends AbstractProvisioningJobDelegate<PullTask> i
             }
         }
 
+        if (checkpointing && !interrupt) {
+            taskCheckpointDAO.discard(pullTask.getKey());
+        }
+
         status.set("Pull done");
 
-        String result = createReport(profile.getResults(), pullTask.getResource(), dryRun);
+        flushResults();
+        String result = reportLog == null
+                ? createReport(profile.getPendingResults(), pullTask.getResource(), dryRun)
+                : createReport(reportLog, pullTask.getResource(), dryRun);
         LOG.debug("Pull result: {}", result);
         return result;
     }
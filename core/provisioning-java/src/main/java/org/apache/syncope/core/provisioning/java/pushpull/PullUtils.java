@@ -20,11 +20,19 @@ package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.common.lib.types.SchemaType;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.ParsingValidationException;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
@@ -57,6 +65,8 @@ import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.provisioning.api.IntAttrName;
 import org.apache.syncope.core.provisioning.api.data.ItemTransformer;
+import org.apache.syncope.core.provisioning.api.pushpull.CorrelationIndex;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.apache.syncope.core.provisioning.java.IntAttrNameParser;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
@@ -64,7 +74,9 @@ import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.identityconnectors.framework.common.objects.OperationalAttributes;
+import org.identityconnectors.framework.common.objects.filter.Filter;
 import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +90,10 @@ public class PullUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(PullUtils.class);
 
+    private static final int CORRELATION_INDEX_PAGE_SIZE = 10000;
+
+    private static final int MATCH_BATCH_SIZE = 100;
+
     /**
      * Schema DAO.
      */
@@ -169,12 +185,105 @@ public class PullUtils {
         return result;
     }
 
-    private List<String> findByConnObjectKey(
-            final ConnectorObject connObj, final Provision provision, final AnyUtils anyUtils) {
+    /**
+     * Finds internal entities matching the external objects with the given names, as
+     * {@link #match(AnyType, String, ExternalResource, Connector, boolean)} does for a single name, but with much
+     * less round trips: external objects are searched by batches of names, and matched against a correlation index
+     * when many names are given and an index can be built for the related provision.
+     *
+     * @param anyType any type
+     * @param names external object names
+     * @param resource external resource
+     * @param connector connector
+     * @param ignoreCaseMatch whether names shall be matched ignoring case
+     * @return key of the matching entity, for each given name having one
+     */
+    public Map<String, String> match(
+            final AnyType anyType,
+            final Collection<String> names,
+            final ExternalResource resource,
+            final Connector connector,
+            final boolean ignoreCaseMatch) {
+
+        Optional<? extends Provision> provision = resource.getProvision(anyType);
+        if (!provision.isPresent() || names.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        AnyUtils anyUtils = anyUtilsFactory.getInstance(anyType.getKind());
+        CorrelationIndex index = names.size() > MATCH_BATCH_SIZE
+                ? buildCorrelationIndex(provision.get()).orElse(null)
+                : null;
+        OperationOptions options = MappingUtils.buildOperationOptions(
+                MappingUtils.getPullItems(provision.get().getMapping().getItems()).iterator());
+
+        // when ignoring case, names differing only by case are searched once, but all get the match
+        Map<String, List<String>> requested = new HashMap<>();
+        names.forEach(name -> requested.computeIfAbsent(
+                ignoreCaseMatch ? name.toLowerCase() : name, k -> new ArrayList<>()).add(name));
+        List<String> distinct = requested.values().stream().map(same -> same.get(0)).collect(Collectors.toList());
+
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i += MATCH_BATCH_SIZE) {
+            List<String> batch = distinct.subList(i, Math.min(distinct.size(), i + MATCH_BATCH_SIZE));
+
+            Filter filter = batch.stream().map(Name::new).
+                    map(nameAttr -> ignoreCaseMatch
+                    ? FilterBuilder.equalsIgnoreCase(nameAttr)
+                    : FilterBuilder.equalTo(nameAttr)).
+                    reduce(FilterBuilder::or).get();
+
+            AtomicBoolean unknownNames = new AtomicBoolean(false);
+            connector.search(provision.get().getObjectClass(), filter, connObj -> {
+                String nameValue = connObj.getName().getNameValue();
+                List<String> same = requested.get(ignoreCaseMatch ? nameValue.toLowerCase() : nameValue);
+                if (same == null) {
+                    // the connector might return names in a different form (e.g. normalized DNs)
+                    unknownNames.set(true);
+                } else if (!result.containsKey(same.get(0))) {
+                    try {
+                        List<String> anyKeys = match(connObj, provision.get(), anyUtils, index);
+                        if (anyKeys.isEmpty()) {
+                            LOG.debug("No matching {} found for {}", anyUtils.anyTypeKind(), connObj);
+                        } else {
+                            if (anyKeys.size() > 1) {
+                                LOG.warn("More than one {} found {} - taking first only",
+                                        anyUtils.anyTypeKind(), anyKeys);
+                            }
+                            same.forEach(name -> result.put(name, anyKeys.get(0)));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        LOG.warn(e.getMessage());
+                    }
+                }
+                return true;
+            }, options);
+
+            if (unknownNames.get()) {
+                batch.stream().filter(name -> !result.containsKey(name)).forEach(name -> match(
+                        anyType, name, resource, connector, ignoreCaseMatch).
+                        ifPresent(anyKey -> requested.get(ignoreCaseMatch ? name.toLowerCase() : name).
+                        forEach(same -> result.put(same, anyKey))));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Value of the connector object key, as mapped for the given provision.
+     *
+     * @param connObj connector object
+     * @param provision provision
+     * @return connector object key value, or null if not available
+     */
+    public String getConnObjectKey(final ConnectorObject connObj, final Provision provision) {
+        return getConnObjectKey(connObj, MappingUtils.getConnObjectKeyItem(provision));
+    }
 
+    private String getConnObjectKey(final ConnectorObject connObj, final Optional<MappingItem> connObjectKeyItem) {
         String connObjectKey = null;
 
-        Optional<MappingItem> connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
         if (connObjectKeyItem.isPresent()) {
             Attribute connObjectKeyAttr = connObj.getAttributeByName(connObjectKeyItem.get().getExtAttrName());
             if (connObjectKeyAttr != null) {
@@ -182,7 +291,7 @@ public class PullUtils {
             }
         }
         if (connObjectKey == null) {
-            return Collections.emptyList();
+            return null;
         }
 
         for (ItemTransformer transformer : MappingUtils.getItemTransformers(connObjectKeyItem.get())) {
@@ -195,6 +304,52 @@ public class PullUtils {
             }
         }
 
+        return connObjectKey;
+    }
+
+    /**
+     * Keeps the given correlation index aligned with the outcome of pulling the given object: the any objects
+     * successfully created, updated or linked are indexed under its connector object key, so that later deltas for the
+     * same object match them; deleted any objects are removed.
+     *
+     * @param index correlation index, as built by {@link #buildCorrelationIndex(Provision)}; can be null
+     * @param connObj external attributes
+     * @param provision mapping
+     * @param reports outcome of pulling the given object
+     * @param deleted whether the reported any objects were deleted
+     */
+    public void updateCorrelationIndex(
+            final CorrelationIndex index,
+            final ConnectorObject connObj,
+            final Provision provision,
+            final List<ProvisioningReport> reports,
+            final boolean deleted) {
+
+        if (index == null) {
+            return;
+        }
+
+        String connObjectKey = getConnObjectKey(connObj, MappingUtils.getConnObjectKeyItem(provision));
+        reports.stream().
+                filter(report -> report.getStatus() == ProvisioningReport.Status.SUCCESS && report.getKey() != null).
+                forEach(report -> {
+                    if (deleted) {
+                        index.remove(connObjectKey, report.getKey());
+                    } else {
+                        index.add(connObjectKey, report.getKey());
+                    }
+                });
+    }
+
+    private List<String> findByConnObjectKey(
+            final ConnectorObject connObj, final Provision provision, final AnyUtils anyUtils) {
+
+        Optional<MappingItem> connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
+        String connObjectKey = getConnObjectKey(connObj, connObjectKeyItem);
+        if (connObjectKey == null) {
+            return Collections.emptyList();
+        }
+
         List<String> result = new ArrayList<>();
 
         IntAttrName intAttrName;
@@ -342,6 +497,95 @@ public class PullUtils {
         }
     }
 
+    /**
+     * Builds an in-memory index of the values of the internal attribute mapped as connector object key, for
+     * matching in bulk; this is only possible when no correlation rule is defined and the internal attribute is
+     * username or name, or a string plain schema.
+     *
+     * @param provision mapping
+     * @return correlation index, if one can be built for the given provision
+     */
+    public Optional<CorrelationIndex> buildCorrelationIndex(final Provision provision) {
+        if (provision.getResource().getPullPolicy() != null
+                && provision.getResource().getPullPolicy().getCorrelationRule(provision.getAnyType()).isPresent()) {
+
+            return Optional.empty();
+        }
+
+        Optional<MappingItem> connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
+        if (!connObjectKeyItem.isPresent()) {
+            return Optional.empty();
+        }
+
+        IntAttrName intAttrName;
+        try {
+            intAttrName = intAttrNameParser.parse(
+                    connObjectKeyItem.get().getIntAttrName(),
+                    provision.getAnyType().getKind());
+        } catch (ParseException e) {
+            LOG.error("Invalid intAttrName '{}' specified, ignoring", connObjectKeyItem.get().getIntAttrName(), e);
+            return Optional.empty();
+        }
+
+        AnyUtils anyUtils = anyUtilsFactory.getInstance(provision.getAnyType().getKind());
+        // next page, given the last key of the previous one
+        Function<String, List<Pair<String, String>>> pages;
+        if (("username".equals(intAttrName.getField()) && provision.getAnyType().getKind() == AnyTypeKind.USER)
+                || ("name".equals(intAttrName.getField()) && provision.getAnyType().getKind() != AnyTypeKind.USER)) {
+
+            pages = lastKey -> anyUtils.dao().findAllNames(lastKey, CORRELATION_INDEX_PAGE_SIZE);
+        } else if (intAttrName.getSchemaType() == SchemaType.PLAIN) {
+            PlainSchema schema = plainSchemaDAO.find(intAttrName.getSchemaName());
+            if (schema == null
+                    || (schema.getType() != AttrSchemaType.String && schema.getType() != AttrSchemaType.Enum)) {
+
+                return Optional.empty();
+            }
+            pages = lastKey -> anyUtils.dao().findAllPlainAttrStringValues(
+                    schema.getKey(), lastKey, CORRELATION_INDEX_PAGE_SIZE);
+        } else {
+            return Optional.empty();
+        }
+
+        CorrelationIndex index = new CorrelationIndex(provision.isIgnoreCaseMatch());
+        List<Pair<String, String>> page = pages.apply(null);
+        while (!page.isEmpty()) {
+            page.forEach(pair -> index.add(pair.getRight(), pair.getLeft()));
+            page = pages.apply(page.get(page.size() - 1).getLeft());
+        }
+
+        LOG.info("Built correlation index for {} on {}: {} entries, about {} KB",
+                provision.getAnyType().getKey(), provision.getResource().getKey(),
+                index.size(), index.getEstimatedSize() / 1024);
+        return Optional.of(index);
+    }
+
+    /**
+     * Finds internal entities based on external attributes and mapping, looking up first the given correlation
+     * index and then, in case of miss, falling back to {@link #match(ConnectorObject, Provision, AnyUtils)}.
+     *
+     * @param connObj external attributes
+     * @param provision mapping
+     * @param anyUtils any utils
+     * @param index correlation index, as built by {@link #buildCorrelationIndex(Provision)}; can be null
+     * @return list of matching users' / groups' / any objects' keys
+     */
+    public List<String> match(
+            final ConnectorObject connObj,
+            final Provision provision,
+            final AnyUtils anyUtils,
+            final CorrelationIndex index) {
+
+        if (index != null) {
+            List<String> found = index.get(getConnObjectKey(connObj, MappingUtils.getConnObjectKeyItem(provision)));
+            if (!found.isEmpty()) {
+                return found;
+            }
+        }
+
+        return match(connObj, provision, anyUtils);
+    }
+
     /**
      * Finds internal realms based on external attributes and mapping.
      *
@@ -24,15 +24,26 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttributeCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
@@ -49,14 +60,20 @@ import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.provisioning.api.pushpull.AnyObjectPushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.GroupPushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
 import org.apache.syncope.core.provisioning.api.pushpull.PushActions;
 import org.apache.syncope.core.provisioning.api.pushpull.RealmPushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.UserPushResultHandler;
+import org.apache.syncope.core.spring.BoundedExecutorService;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.provisioning.java.ConnectorManager;
+import org.apache.syncope.core.provisioning.java.job.JobProgress;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 
 public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
@@ -72,18 +89,26 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
+    @Autowired
+    protected TaskCheckpointDAO taskCheckpointDAO;
+
+    @Resource(name = "batchExecutor")
+    protected ThreadPoolTaskExecutor batchExecutor;
+
     protected ProvisioningProfile<PushTask, PushActions> profile;
 
     protected final Map<String, MutablePair<Integer, String>> handled = new HashMap<>();
 
     protected void reportHandled(final String anyType, final String key) {
-        MutablePair<Integer, String> pair = handled.get(anyType);
-        if (pair == null) {
-            pair = MutablePair.of(0, null);
-            handled.put(anyType, pair);
+        synchronized (status) {
+            MutablePair<Integer, String> pair = handled.get(anyType);
+            if (pair == null) {
+                pair = MutablePair.of(0, null);
+                handled.put(anyType, pair);
+            }
+            pair.setLeft(pair.getLeft() + 1);
+            pair.setRight(key);
         }
-        pair.setLeft(pair.getLeft() + 1);
-        pair.setRight(key);
     }
 
     @Override
@@ -103,6 +128,14 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         return status.get();
     }
 
+    protected static String name(final Any<?> any) {
+        return any instanceof User
+                ? ((User) any).getUsername()
+                : any instanceof Group
+                        ? ((Group) any).getName()
+                        : ((AnyObject) any).getName();
+    }
+
     protected void doHandle(
             final List<? extends Any<?>> anys,
             final SyncopePushResultHandler handler,
@@ -111,14 +144,11 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
         for (int i = 0; i < anys.size() && !interrupt; i++) {
             try {
-                handler.handle(anys.get(i).getKey());
-                reportHandled(
-                        anys.get(i).getType().getKey(),
-                        (anys.get(i) instanceof User
-                        ? ((User) anys.get(i)).getUsername()
-                        : anys.get(i) instanceof Group
-                        ? ((Group) anys.get(i)).getName()
-                        : ((AnyObject) anys.get(i)).getName()));
+                try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.PERSISTENCE)) {
+                    handler.handle(anys.get(i).getKey());
+                }
+                flushResults(profile.getPendingResults());
+                reportHandled(anys.get(i).getType().getKey(), name(anys.get(i)));
             } catch (Exception e) {
                 LOG.warn("Failure pushing '{}' on '{}'", anys.get(i), resource, e);
                 throw new JobExecutionException("While pushing " + anys.get(i) + " on " + resource, e);
@@ -126,6 +156,153 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         }
     }
 
+    /**
+     * Number of anys to push at the same time: as configured for the task, but never more than allowed for the
+     * resource.
+     *
+     * @param pushTask push task
+     * @return number of worker threads
+     */
+    protected int concurrentThreads(final PushTask pushTask) {
+        return Math.max(1, Math.min(
+                pushTask.getConcurrentThreads(), ConnectorManager.getMaxConcurrentRequests(pushTask.getResource())));
+    }
+
+    protected ProvisioningProfile<PushTask, PushActions> childProfile() {
+        ProvisioningProfile<PushTask, PushActions> child =
+                new ProvisioningProfile<>(profile.getConnector(), profile.getTask());
+        child.getActions().addAll(profile.getActions());
+        child.setDryRun(profile.isDryRun());
+        child.setConflictResolutionAction(profile.getConflictResolutionAction());
+        return child;
+    }
+
+    /**
+     * Submits the given anys to the workers: each any is pushed with its own profile, so that results can be later
+     * collected in submission order; anys not yet started when interrupt is requested, or after a failure, are
+     * skipped. Each push holds one of the resource permits while running.
+     *
+     * @param anys anys to push
+     * @param workers worker threads
+     * @param handlers push result handler of each worker thread
+     * @param permits permits for pushing on the resource, shared with other push tasks
+     * @param abort set upon failure
+     * @return push results for each any, or null if skipped
+     */
+    protected List<Future<List<ProvisioningReport>>> submit(
+            final List<? extends Any<?>> anys,
+            final ExecutorService workers,
+            final ThreadLocal<SyncopePushResultHandler> handlers,
+            final Semaphore permits,
+            final AtomicBoolean abort) {
+
+        return anys.stream().map(Any::getKey).map(key -> workers.submit(() -> {
+            if (interrupt || abort.get()) {
+                return null;
+            }
+
+            permits.acquire();
+            try {
+                if (interrupt || abort.get()) {
+                    return null;
+                }
+
+                ProvisioningProfile<PushTask, PushActions> child = childProfile();
+                SyncopePushResultHandler handler = handlers.get();
+                handler.setProfile(child);
+                try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.PERSISTENCE)) {
+                    handler.handle(key);
+                } catch (RuntimeException e) {
+                    abort.set(true);
+                    throw e;
+                }
+                return child.getPendingResults();
+            } finally {
+                permits.release();
+            }
+        })).collect(Collectors.toList());
+    }
+
+    /**
+     * Waits for all the given pushes to complete - including those still running after interrupt was requested or
+     * a failure occurred - and collects their results in submission order.
+     *
+     * @param anys anys being pushed
+     * @param pushes push results, as returned by {@link #submit}
+     * @param resource external resource
+     * @return whether all anys were pushed
+     * @throws JobExecutionException if any push failed
+     */
+    protected boolean await(
+            final List<? extends Any<?>> anys,
+            final List<Future<List<ProvisioningReport>>> pushes,
+            final ExternalResource resource)
+            throws JobExecutionException {
+
+        JobExecutionException failure = null;
+        boolean complete = true;
+        for (int i = 0; i < pushes.size(); i++) {
+            try {
+                List<ProvisioningReport> results = pushes.get(i).get();
+                if (results == null) {
+                    complete = false;
+                } else {
+                    profile.getPendingResults().addAll(results);
+                    flushResults(profile.getPendingResults());
+                    reportHandled(anys.get(i).getType().getKey(), name(anys.get(i)));
+                }
+            } catch (ExecutionException e) {
+                complete = false;
+                LOG.warn("Failure pushing '{}' on '{}'", anys.get(i), resource, e.getCause());
+                if (failure == null) {
+                    failure = new JobExecutionException(
+                            "While pushing " + anys.get(i) + " on " + resource, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pushes.forEach(push -> push.cancel(false));
+                throw new JobExecutionException("Interrupted while waiting for push workers", e);
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+        return complete;
+    }
+
+    protected static SearchCond afterKey(final String key) {
+        AnyCond keyCond = new AnyCond(AttributeCond.Type.GT);
+        keyCond.setSchema("key");
+        keyCond.setExpression(key);
+        return SearchCond.getLeafCond(keyCond);
+    }
+
+    protected SearchCond buildCond(final PushTask pushTask, final Provision provision) {
+        Optional<? extends PushTaskAnyFilter> anyFilter = pushTask.getFilter(provision.getAnyType());
+        String filter = anyFilter.isPresent()
+                ? anyFilter.get().getFIQLCond()
+                : null;
+        return StringUtils.isBlank(filter)
+                ? anyUtilsFactory.getInstance(provision.getAnyType().getKind()).dao().getAllMatchingCond()
+                : SearchCondConverter.convert(filter);
+    }
+
+    protected List<? extends Any<?>> search(
+            final Provision provision,
+            final SearchCond cond,
+            final String latestKey,
+            final OrderByClause byKey) {
+
+        return searchDAO.search(
+                Collections.singleton(profile.getTask().getSourceRealm().getFullPath()),
+                latestKey == null ? cond : SearchCond.getAndCond(cond, afterKey(latestKey)),
+                1,
+                AnyDAO.DEFAULT_PAGE_SIZE,
+                Collections.singletonList(byKey),
+                provision.getAnyType().getKind());
+    }
+
     protected RealmPushResultHandler buildRealmHandler() {
         return (RealmPushResultHandler) ApplicationContextProvider.getBeanFactory().
                 createBean(DefaultRealmPushResultHandler.class, AbstractBeanDefinition.AUTOWIRE_BY_NAME, false);
@@ -146,6 +323,20 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
                 createBean(DefaultGroupPushResultHandler.class, AbstractBeanDefinition.AUTOWIRE_BY_NAME, false);
     }
 
+    protected SyncopePushResultHandler buildHandler(final AnyTypeKind kind) {
+        switch (kind) {
+            case USER:
+                return buildUserHandler();
+
+            case GROUP:
+                return buildGroupHandler();
+
+            case ANY_OBJECT:
+            default:
+                return buildAnyObjectHandler();
+        }
+    }
+
     @Override
     protected String doExecuteProvisioning(
             final PushTask pushTask,
@@ -176,6 +367,28 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
             }
         }
 
+        Map<String, String> checkpoints = dryRun
+                ? Collections.<String, String>emptyMap()
+                : taskCheckpointDAO.findAll(pushTask.getKey());
+
+        List<Realm> realms = pushTask.getResource().getOrgUnit() == null
+                ? Collections.emptyList()
+                : realmDAO.findDescendants(profile.getTask().getSourceRealm());
+
+        // what is left to push is counted upfront, so that progress can tell an estimated end
+        if (progress != null) {
+            progress.addTotal(realms.stream().filter(realm -> realm.getParent() != null).count());
+            pushTask.getResource().getProvisions().stream().filter(provision -> provision.getMapping() != null).
+                    forEach(provision -> {
+                        SearchCond cond = buildCond(pushTask, provision);
+                        String latestKey = checkpoints.get(provision.getAnyType().getKey());
+                        progress.addTotal(searchDAO.count(
+                                Collections.singleton(pushTask.getSourceRealm().getFullPath()),
+                                latestKey == null ? cond : SearchCond.getAndCond(cond, afterKey(latestKey)),
+                                provision.getAnyType().getKind()));
+                    });
+        }
+
         status.set("Initialization completed");
 
         // First realms...
@@ -185,11 +398,14 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
             RealmPushResultHandler handler = buildRealmHandler();
             handler.setProfile(profile);
 
-            for (Realm realm : realmDAO.findDescendants(profile.getTask().getSourceRealm())) {
+            for (Realm realm : realms) {
                 // Never push the root realm
                 if (realm.getParent() != null) {
                     try {
-                        handler.handle(realm.getKey());
+                        try (JobProgress.Timer timer = JobProgress.time(JobProgress.Phase.PERSISTENCE)) {
+                            handler.handle(realm.getKey());
+                        }
+                        flushResults(profile.getPendingResults());
                         reportHandled(SyncopeConstants.REALM_ANYTYPE, realm.getName());
                     } catch (Exception e) {
                         LOG.warn("Failure pushing '{}' on '{}'", realm, pushTask.getResource(), e);
@@ -200,48 +416,76 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         }
 
         // ...then provisions for any types
+        OrderByClause byKey = new OrderByClause();
+        byKey.setField("key");
+        byKey.setDirection(OrderByClause.Direction.ASC);
         for (Provision provision : pushTask.getResource().getProvisions()) {
             if (provision.getMapping() != null) {
                 status.set("Pushing " + provision.getAnyType().getKey());
 
-                AnyDAO<?> anyDAO = anyUtilsFactory.getInstance(provision.getAnyType().getKind()).dao();
+                SyncopePushResultHandler handler = buildHandler(provision.getAnyType().getKind());
+                handler.setProfile(profile);
 
-                SyncopePushResultHandler handler;
-                switch (provision.getAnyType().getKind()) {
-                    case USER:
-                        handler = buildUserHandler();
-                        break;
+                SearchCond cond = buildCond(pushTask, provision);
 
-                    case GROUP:
-                        handler = buildGroupHandler();
-                        break;
+                // anys are pushed by key order, page after page: the latest key of each completed page is saved as
+                // checkpoint, so that an interrupted push can be resumed from there
+                String scope = provision.getAnyType().getKey();
+                String latestKey = dryRun ? null : checkpoints.get(scope);
+                if (latestKey != null) {
+                    LOG.info("Resuming push of {} after {}", scope, latestKey);
+                    status.set("Resuming push of " + scope + " from checkpoint");
+                }
 
-                    case ANY_OBJECT:
-                    default:
-                        handler = buildAnyObjectHandler();
+                int threads = concurrentThreads(pushTask);
+                if (threads > 1) {
+                    // anys are pushed in parallel, page after page; while a page is being pushed, the next one is
+                    // fetched, and a page is checkpointed only once all of its anys were pushed
+                    AnyTypeKind kind = provision.getAnyType().getKind();
+                    ThreadLocal<SyncopePushResultHandler> handlers = ThreadLocal.withInitial(() -> buildHandler(kind));
+                    ExecutorService workers = new DelegatingSecurityContextExecutorService(
+                            new BoundedExecutorService(batchExecutor, threads, JobProgress::wrap));
+                    Semaphore permits = connFactory.getPermits(pushTask.getResource());
+                    AtomicBoolean abort = new AtomicBoolean(false);
+                    try {
+                        List<? extends Any<?>> anys = search(provision, cond, latestKey, byKey);
+                        while (!anys.isEmpty() && !interrupt) {
+                            List<Future<List<ProvisioningReport>>> pushes =
+                                    submit(anys, workers, handlers, permits, abort);
+
+                            List<? extends Any<?>> next = anys.size() < AnyDAO.DEFAULT_PAGE_SIZE
+                                    ? Collections.emptyList()
+                                    : search(provision, cond, anys.get(anys.size() - 1).getKey(), byKey);
+
+                            if (await(anys, pushes, pushTask.getResource()) && !interrupt) {
+                                latestKey = anys.get(anys.size() - 1).getKey();
+                                if (!dryRun) {
+                                    taskCheckpointDAO.commit(pushTask.getKey(), scope, latestKey);
+                                }
+                            }
+
+                            anys = next;
+                        }
+                    } finally {
+                        workers.shutdown();
+                    }
+                } else {
+                    List<? extends Any<?>> anys;
+                    do {
+                        anys = search(provision, cond, latestKey, byKey);
+                        doHandle(anys, handler, pushTask.getResource());
+
+                        if (!anys.isEmpty() && !interrupt) {
+                            latestKey = anys.get(anys.size() - 1).getKey();
+                            if (!dryRun) {
+                                taskCheckpointDAO.commit(pushTask.getKey(), scope, latestKey);
+                            }
+                        }
+                    } while (anys.size() == AnyDAO.DEFAULT_PAGE_SIZE && !interrupt);
                 }
-                handler.setProfile(profile);
 
-                Optional<? extends PushTaskAnyFilter> anyFilter = pushTask.getFilter(provision.getAnyType());
-                String filter = anyFilter.isPresent()
-                        ? anyFilter.get().getFIQLCond()
-                        : null;
-                SearchCond cond = StringUtils.isBlank(filter)
-                        ? anyDAO.getAllMatchingCond()
-                        : SearchCondConverter.convert(filter);
-                int count = searchDAO.count(
-                        Collections.singleton(profile.getTask().getSourceRealm().getFullPath()),
-                        cond,
-                        provision.getAnyType().getKind());
-                for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1 && !interrupt; page++) {
-                    List<? extends Any<?>> anys = searchDAO.search(
-                            Collections.singleton(profile.getTask().getSourceRealm().getFullPath()),
-                            cond,
-                            page,
-                            AnyDAO.DEFAULT_PAGE_SIZE,
-                            Collections.<OrderByClause>emptyList(),
-                            provision.getAnyType().getKind());
-                    doHandle(anys, handler, pushTask.getResource());
+                if (!dryRun && !interrupt) {
+                    taskCheckpointDAO.delete(pushTask.getKey(), scope);
                 }
             }
         }
@@ -254,11 +498,16 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
 
         if (interrupt) {
             interrupted = true;
+        } else if (!dryRun) {
+            taskCheckpointDAO.delete(pushTask.getKey());
         }
 
         status.set("Push done");
 
-        String result = createReport(profile.getResults(), pushTask.getResource(), dryRun);
+        flushResults(profile.getPendingResults());
+        String result = reportLog == null
+                ? createReport(profile.getPendingResults(), pushTask.getResource(), dryRun)
+                : createReport(reportLog, pushTask.getResource(), dryRun);
         LOG.debug("Push result: {}", result);
         return result;
     }
@@ -114,6 +114,10 @@ public class SinglePullJobDelegate extends PullJobDelegate implements SyncopeSin
             pullTask.setSyncStatus(pullTaskTO.isSyncStatus());
             pullTask.setDestinationRealm(realm);
             pullTask.setRemediation(pullTaskTO.isRemediation());
+            pullTask.setConcurrentThreads(Math.max(1, pullTaskTO.getConcurrentThreads()));
+            pullTask.setPageSize(Math.max(1, pullTaskTO.getPageSize()));
+            pullTask.setSortAttribute(pullTaskTO.getSortAttribute());
+            pullTask.setPrefetch(pullTaskTO.isPrefetch());
             // validate JEXL expressions from templates and proceed if fine
             templateUtils.check(pullTaskTO.getTemplates(), ClientExceptionType.InvalidPullTask);
             pullTaskTO.getTemplates().forEach((type, template) -> {
@@ -185,7 +189,7 @@ public class SinglePullJobDelegate extends PullJobDelegate implements SyncopeSin
                 action.afterAll(profile);
             }
 
-            return profile.getResults();
+            return profile.getPendingResults();
         } catch (Exception e) {
             throw e instanceof JobExecutionException
                     ? (JobExecutionException) e
@@ -113,7 +113,7 @@ public class SinglePushJobDelegate extends PushJobDelegate implements SyncopeSin
                 action.afterAll(profile);
             }
 
-            return profile.getResults();
+            return profile.getPendingResults();
         } catch (Exception e) {
             throw e instanceof JobExecutionException
                     ? (JobExecutionException) e
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.identityconnectors.common.security.GuardedByteArray;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Digests of attribute values, used to tell what changed since the last exchange with an external resource without
+ * storing the values themselves.
+ */
+public final class ConnObjectSnapshotUtils {
+
+    private static boolean isGuarded(final Attribute attr) {
+        return attr.getValue() != null && attr.getValue().stream().
+                anyMatch(value -> value instanceof GuardedString || value instanceof GuardedByteArray);
+    }
+
+    private static String toString(final Object value) {
+        return value instanceof byte[]
+                ? Base64.getEncoder().encodeToString((byte[]) value)
+                : String.valueOf(value);
+    }
+
+    private static String digest(final Attribute attr) {
+        List<String> values = attr.getValue() == null
+                ? null
+                : attr.getValue().stream().map(ConnObjectSnapshotUtils::toString).collect(Collectors.toList());
+        return DigestUtils.md5DigestAsHex(String.valueOf(values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Digests the values of the given attributes; attributes with guarded values (as passwords) are not digested.
+     *
+     * @param attrs attributes
+     * @return value digests, by upper-cased attribute name
+     */
+    public static Map<String, String> digest(final Collection<Attribute> attrs) {
+        Map<String, String> result = new HashMap<>();
+        attrs.stream().filter(attr -> !isGuarded(attr)).
+                forEach(attr -> result.put(attr.getName().toUpperCase(), digest(attr)));
+        return result;
+    }
+
+    /**
+     * Returns the attributes whose values differ from the given digests; attributes with guarded values are always
+     * returned, since they cannot be compared.
+     *
+     * @param digests value digests, as returned by {@link #digest(java.util.Collection)}
+     * @param attrs attributes
+     * @return attributes changed since digests were taken
+     */
+    public static Set<Attribute> delta(final Map<String, String> digests, final Collection<Attribute> attrs) {
+        return attrs.stream().
+                filter(attr -> isGuarded(attr) || !digest(attr).equals(digests.get(attr.getName().toUpperCase()))).
+                collect(Collectors.toSet());
+    }
+
+    /**
+     * Builds a single fingerprint of the given attributes and of the context (as mapping) they were read with; no
+     * fingerprint is built if any attribute has guarded values, since those cannot be compared.
+     *
+     * @param attrs attributes
+     * @param context any further information which, when changed, shall invalidate the fingerprint
+     * @return fingerprint, or empty if attributes cannot be compared
+     */
+    public static Optional<String> fingerprint(final Collection<Attribute> attrs, final String context) {
+        if (attrs.stream().anyMatch(ConnObjectSnapshotUtils::isGuarded)) {
+            return Optional.empty();
+        }
+
+        StringBuilder input = new StringBuilder(context);
+        new TreeMap<>(digest(attrs)).forEach((name, digest) -> input.append('\n').append(name).append('=').
+                append(digest));
+        return Optional.of(DigestUtils.md5DigestAsHex(input.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Private default constructor, for static-only classes.
+     */
+    private ConnObjectSnapshotUtils() {
+    }
+}
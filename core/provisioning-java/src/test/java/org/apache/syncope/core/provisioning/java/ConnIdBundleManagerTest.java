@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.identityconnectors.framework.api.ConnectorInfo;
+import org.identityconnectors.framework.api.ConnectorInfoManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ConnIdBundleManagerTest {
+
+    private static final String LOCATION = "connid://key@localhost:4554";
+
+    /**
+     * Simulates a remote connector server which can be made reachable or not, counting lookups.
+     */
+    private static class TestConnIdBundleManager extends ConnIdBundleManagerImpl {
+
+        private volatile boolean reachable;
+
+        private final AtomicInteger discoveries = new AtomicInteger();
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        protected ConnectorInfoManager initRemote(final URI location) {
+            discoveries.incrementAndGet();
+            if (!reachable) {
+                throw new IllegalStateException(location + " unreachable");
+            }
+
+            ConnectorInfo info = stub(ConnectorInfo.class, (method, args) -> {
+                if ("getConnectorDisplayName".equals(method)) {
+                    return "Test Connector";
+                }
+                throw new UnsupportedOperationException(method);
+            });
+            return stub(ConnectorInfoManager.class, (method, args) -> {
+                if ("findConnectorInfo".equals(method)) {
+                    lookups.incrementAndGet();
+                    return info;
+                }
+                if ("getConnectorInfos".equals(method)) {
+                    return Collections.singletonList(info);
+                }
+                throw new UnsupportedOperationException(method);
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T stub(final Class<T> type, final Handler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                ConnIdBundleManagerTest.class.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+
+                        case "equals":
+                            return proxy == args[0];
+
+                        case "toString":
+                            return type.getSimpleName();
+
+                        default:
+                            return handler.invoke(method.getName(), args);
+                    }
+                }));
+    }
+
+    private static ConnInstance connInstance() {
+        return stub(ConnInstance.class, (method, args) -> {
+            switch (method) {
+                case "getLocation":
+                    return LOCATION;
+
+                case "getBundleName":
+                    return "net.tirasa.connid.bundles.test";
+
+                case "getVersion":
+                    return "1.0";
+
+                case "getConnectorName":
+                    return "net.tirasa.connid.bundles.test.TestConnector";
+
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    private TestConnIdBundleManager manager;
+
+    @BeforeEach
+    public void before() {
+        manager = new TestConnIdBundleManager();
+        manager.setStringLocations(LOCATION);
+        manager.setRemoteTimeout(1);
+        manager.setRefreshInterval(0);
+    }
+
+    @AfterEach
+    public void after() {
+        manager.destroy();
+    }
+
+    @Test
+    public void cache() {
+        manager.reachable = true;
+
+        ConnectorInfo info = manager.getConnectorInfo(connInstance()).getRight();
+        assertSame(info, manager.getConnectorInfo(connInstance()).getRight());
+
+        // location is discovered and bundle is looked up only once
+        assertEquals(1, manager.discoveries.get());
+        assertEquals(1, manager.lookups.get());
+        assertEquals(1, manager.getConnManagers().size());
+    }
+
+    @Test
+    public void retryUnreachable() throws InterruptedException {
+        // first discovery fails
+        assertTrue(manager.getConnManagers().isEmpty());
+        assertEquals(1, manager.discoveries.get());
+
+        // retried on demand, but not again until remoteTimeout has elapsed
+        assertThrows(NotFoundException.class, () -> manager.getConnectorInfo(connInstance()));
+        assertThrows(NotFoundException.class, () -> manager.getConnectorInfo(connInstance()));
+        assertEquals(1, manager.discoveries.get());
+
+        Thread.sleep(1100);
+        manager.reachable = true;
+
+        manager.getConnectorInfo(connInstance());
+        assertEquals(2, manager.discoveries.get());
+        assertFalse(manager.getConnManagers().isEmpty());
+    }
+
+    @Test
+    public void refresh() {
+        manager.reachable = true;
+
+        ConnectorInfo info = manager.getConnectorInfo(connInstance()).getRight();
+        ConnectorInfoManager infoManager = manager.getConnManagers().values().iterator().next();
+
+        // refresh replaces the manager and evicts the cached bundles found at the refreshed location
+        ReflectionTestUtils.invokeMethod(manager, "refreshRemotes");
+        for (int i = 0; i < 20 && manager.getConnManagers().values().iterator().next() == infoManager; i++) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        assertEquals(2, manager.discoveries.get());
+        assertNotSame(infoManager, manager.getConnManagers().values().iterator().next());
+
+        assertNotSame(info, manager.getConnectorInfo(connInstance()).getRight());
+        assertEquals(2, manager.lookups.get());
+
+        // after reset, locations are discovered again
+        manager.resetConnManagers();
+        manager.getConnectorInfo(connInstance());
+        assertEquals(3, manager.discoveries.get());
+    }
+}
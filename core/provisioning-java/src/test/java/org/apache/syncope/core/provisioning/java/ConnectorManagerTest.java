@@ -19,8 +19,25 @@
 package org.apache.syncope.core.provisioning.java;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnPoolConfTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.entity.ConnInstance;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
 import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -41,11 +58,18 @@ public class ConnectorManagerTest extends AbstractTest {
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private RealmDAO realmDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
     @BeforeEach
     public void before() {
         connManager = new ConnectorManager();
         ReflectionTestUtils.setField(connManager, "connIdBundleManager", connIdBundleManager);
         ReflectionTestUtils.setField(connManager, "resourceDAO", resourceDAO);
+        ReflectionTestUtils.setField(connManager, "realmDAO", realmDAO);
 
         // Remove any other connector instance bean set up by standard ConnectorManager.load()
         connManager.unload();
@@ -63,4 +87,90 @@ public class ConnectorManagerTest extends AbstractTest {
                 ApplicationContextProvider.getBeanFactory().
                         getBeanNamesForType(Connector.class, false, true).length);
     }
+
+    @Test
+    public void buildConnInstanceOverride() {
+        ConnInstanceTO connInstanceTO = new ConnInstanceTO();
+        connInstanceTO.setAdminRealm(SyncopeConstants.ROOT_REALM);
+        connInstanceTO.setConnRequestTimeout(10);
+
+        // no pool configuration: ConnId defaults are left untouched
+        assertNull(connManager.buildConnInstanceOverride(
+                connInstanceTO, Collections.emptyList(), null).getPoolConf());
+
+        ConnPoolConfTO poolConf = new ConnPoolConfTO();
+        poolConf.setMaxObjects(20);
+        poolConf.setMinIdle(5);
+        connInstanceTO.setPoolConf(poolConf);
+
+        ConnInstance override = connManager.buildConnInstanceOverride(
+                connInstanceTO, Collections.emptyList(), null);
+        assertNotNull(override.getPoolConf());
+        assertEquals(20, override.getPoolConf().getMaxObjects().intValue());
+        assertEquals(5, override.getPoolConf().getMinIdle().intValue());
+    }
+
+    @Test
+    public void aggregateStats() {
+        ConnInstance connInstance = entityFactory.newEntity(ConnInstance.class);
+
+        ConnectorStats stats1 = new ConnectorStats();
+        long start = stats1.begin();
+        stats1.begin();
+        stats1.end(start, false, false);
+
+        ConnectorStats stats2 = new ConnectorStats();
+        stats2.end(stats2.begin(), true, true);
+        stats2.warmUp(CompletableFuture.completedFuture(null));
+
+        // no pool configuration: no pool figures reported
+        ConnectorStatsTO connStats = ConnectorManager.aggregate(connInstance, Arrays.asList(stats1, stats2));
+        assertEquals(2, connStats.getFacades());
+        assertEquals(1, connStats.getInFlight());
+        assertEquals(2, connStats.getPeakInFlight());
+        assertEquals(2, connStats.getRequests());
+        assertEquals(1, connStats.getFailures());
+        assertEquals(1, connStats.getTimeouts());
+        assertEquals(1, connStats.getWarmUpRequested());
+        assertEquals(1, connStats.getWarmUpCompleted());
+        assertNull(connStats.getMaxObjects());
+        assertNull(connStats.getMinIdle());
+        assertEquals(3, connStats.getSuggestedMaxObjects().intValue());
+
+        connInstance.setPoolConf(entityFactory.newConnPoolConf());
+        connInstance.getPoolConf().setMaxObjects(2);
+        connInstance.getPoolConf().setMinIdle(4);
+
+        connStats = ConnectorManager.aggregate(connInstance, Arrays.asList(stats1, stats2));
+        assertEquals(2, connStats.getMaxObjects().intValue());
+        assertEquals(4, connStats.getMinIdle().intValue());
+        assertEquals(4, connStats.getSuggestedMaxObjects().intValue());
+
+        // nothing served yet, nothing to suggest
+        assertNull(ConnectorManager.aggregate(connInstance, Collections.emptyList()).getSuggestedMaxObjects());
+    }
+
+    @Test
+    public void permits() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        resource.getConnector().setPoolConf(null);
+
+        // no pool configuration: default permits
+        Semaphore permits = connManager.getPermits(resource);
+        assertEquals(ConnectorManager.DEFAULT_MAX_CONCURRENT_REQUESTS, permits.availablePermits());
+        assertSame(permits, connManager.getPermits(resource));
+
+        // permits are sized again only after the resource is updated or deleted
+        resource.getConnector().setPoolConf(entityFactory.newConnPoolConf());
+        resource.getConnector().getPoolConf().setMaxObjects(2);
+        assertSame(permits, connManager.getPermits(resource));
+
+        connManager.unregisterConnector(resource);
+        Semaphore renewed = connManager.getPermits(resource);
+        assertNotSame(permits, renewed);
+        assertEquals(2, renewed.availablePermits());
+
+        // permits are by resource
+        assertNotSame(renewed, connManager.getPermits(resourceDAO.find("resource-testdb2")));
+    }
 }
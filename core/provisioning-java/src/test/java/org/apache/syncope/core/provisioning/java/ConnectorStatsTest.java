@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class ConnectorStatsTest {
+
+    @Test
+    public void inFlight() throws InterruptedException {
+        ConnectorStats stats = new ConnectorStats();
+
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                boolean failed = i == 0;
+                executor.submit(() -> {
+                    long start = stats.begin();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    stats.end(start, failed, false);
+                });
+            }
+
+            started.await(5, TimeUnit.SECONDS);
+            assertEquals(3, stats.getInFlight());
+            assertEquals(3, stats.getPeakInFlight());
+            assertEquals(0, stats.getRequests());
+
+            release.countDown();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(0, stats.getInFlight());
+        assertEquals(3, stats.getPeakInFlight());
+        assertEquals(3, stats.getRequests());
+        assertEquals(1, stats.getFailures());
+        assertEquals(0, stats.getTimeouts());
+
+        // peak is kept
+        stats.end(stats.begin(), true, true);
+        assertEquals(3, stats.getPeakInFlight());
+        assertEquals(4, stats.getRequests());
+        assertEquals(2, stats.getFailures());
+        assertEquals(1, stats.getTimeouts());
+    }
+
+    @Test
+    public void warmUp() {
+        ConnectorStats stats = new ConnectorStats();
+
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException());
+        stats.warmUp(CompletableFuture.completedFuture(null));
+        stats.warmUp(pending);
+        stats.warmUp(failed);
+
+        assertEquals(3, stats.getWarmUpRequested());
+        assertEquals(1, stats.getWarmUpCompleted());
+
+        pending.complete(null);
+        assertEquals(2, stats.getWarmUpCompleted());
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.syncope.core.provisioning.java;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -30,13 +32,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import org.apache.commons.jexl3.JxltEngine;
 import org.apache.commons.jexl3.MapContext;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.syncope.common.lib.to.AttrTO;
 import org.apache.syncope.common.lib.to.MembershipTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
 import org.apache.syncope.core.provisioning.java.jexl.JexlUtils;
 import org.apache.syncope.core.persistence.api.dao.MailTemplateDAO;
+import org.apache.syncope.core.persistence.api.entity.MailTemplate;
+import org.apache.syncope.core.provisioning.java.notification.MailTemplateCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,6 +53,9 @@ public class MailTemplateTest extends AbstractTest {
     @Autowired
     private MailTemplateDAO mailTemplateDAO;
 
+    @Autowired
+    private MailTemplateCache mailTemplateCache;
+
     private String evaluate(final String template, final Map<String, Object> jexlVars) {
         StringWriter writer = new StringWriter();
         JexlUtils.newJxltEngine().
@@ -125,4 +134,21 @@ public class MailTemplateTest extends AbstractTest {
         assertTrue(htmlBody.contains("<li>another@syncope.apache.org</li>"));
         assertTrue(htmlBody.contains("<li>a group</li>"));
     }
+
+    @Test
+    public void cache() {
+        MailTemplate mailTemplate = mailTemplateDAO.find("confirmPasswordReset");
+
+        JxltEngine.Template compiled = mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT);
+        assertSame(compiled, mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT));
+
+        // changed text is compiled again, even if not evicted
+        mailTemplate.setTextTemplate(mailTemplate.getTextTemplate() + " ${user.username}");
+        JxltEngine.Template changed = mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT);
+        assertNotSame(compiled, changed);
+        assertSame(changed, mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT));
+
+        mailTemplateCache.evict(mailTemplate.getKey());
+        assertNotSame(changed, mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT));
+    }
 }
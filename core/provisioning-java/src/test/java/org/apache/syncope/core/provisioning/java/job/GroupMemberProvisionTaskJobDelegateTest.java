@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.to.PropagationStatus;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.BulkMembersActionType;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class GroupMemberProvisionTaskJobDelegateTest extends AbstractTest {
+
+    private static final String TASK_KEY = "e95555d2-1b09-42c8-b25b-f4c4ec597979";
+
+    private static final String GROUP_KEY = "37d15e4c-cdc1-460b-a591-8505c8133806";
+
+    /**
+     * Members spanning three chunks: two full pages and a partial one.
+     */
+    private static final List<String> MEMBERS = IntStream.range(0, 2 * AnyDAO.DEFAULT_PAGE_SIZE + 200).
+            mapToObj(i -> String.format("member%04d", i)).collect(Collectors.toList());
+
+    /**
+     * Reads members from {@link #MEMBERS} and records the chunks being (de)provisioned; the chunk including the given
+     * member fails.
+     */
+    private static class TestGroupMemberProvisionTaskJobDelegate extends GroupMemberProvisionTaskJobDelegate {
+
+        private final List<String> readAfter = new ArrayList<>();
+
+        private final List<List<String>> chunks = Collections.synchronizedList(new ArrayList<>());
+
+        private final String failOn;
+
+        TestGroupMemberProvisionTaskJobDelegate(final String failOn) {
+            this.failOn = failOn;
+        }
+
+        @Override
+        protected List<Pair<String, String>> nextMembers(final AnyTypeKind kind, final String latestKey) {
+            readAfter.add(latestKey);
+            return MEMBERS.stream().
+                    filter(key -> latestKey == null || key.compareTo(latestKey) > 0).
+                    limit(AnyDAO.DEFAULT_PAGE_SIZE).
+                    map(key -> Pair.of(key, "User " + key)).
+                    collect(Collectors.toList());
+        }
+
+        @Override
+        protected Map<String, List<PropagationStatus>> execute(
+                final AnyTypeKind kind,
+                final List<String> keys,
+                final Collection<String> resources) {
+
+            chunks.add(keys);
+            if (keys.contains(failOn)) {
+                throw new IllegalStateException("Failing on " + failOn);
+            }
+            return keys.stream().collect(Collectors.toMap(Function.identity(), key -> Collections.emptyList()));
+        }
+    }
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private TaskCheckpointDAO taskCheckpointDAO;
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    @Qualifier("MasterTransactionManager")
+    private PlatformTransactionManager txManager;
+
+    @AfterEach
+    public void cleanup() {
+        taskCheckpointDAO.discard(TASK_KEY);
+    }
+
+    /**
+     * Provisions user members with two chunks at a time, in a transaction standing for the job's.
+     */
+    private void provision(final TestGroupMemberProvisionTaskJobDelegate delegate) {
+        ReflectionTestUtils.setField(delegate, "taskCheckpointDAO", taskCheckpointDAO);
+        ReflectionTestUtils.setField(delegate, "searchDAO", searchDAO);
+        ReflectionTestUtils.setField(delegate, "groupKey", GROUP_KEY);
+        ReflectionTestUtils.setField(delegate, "actionType", BulkMembersActionType.PROVISION);
+        ReflectionTestUtils.setField(delegate, "concurrentThreads", 2);
+        ReflectionTestUtils.setField(delegate, "checkpoints", taskCheckpointDAO.findAll(TASK_KEY));
+
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            new TransactionTemplate(txManager).execute(status -> {
+                delegate.task = taskDAO.find(TASK_KEY);
+                try {
+                    delegate.provision(
+                            AnyTypeKind.USER, Collections.singletonList("resource-testdb"), workers,
+                            new StringBuilder());
+                } catch (JobExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            });
+        } finally {
+            workers.shutdown();
+            delegate.completeExecution(null, false);
+        }
+    }
+
+    @Test
+    public void resumeFromCheckpoint() {
+        // 1. the second chunk fails: only the first one is checkpointed, even though the third one was processed
+        TestGroupMemberProvisionTaskJobDelegate failed =
+                new TestGroupMemberProvisionTaskJobDelegate(MEMBERS.get(AnyDAO.DEFAULT_PAGE_SIZE));
+        assertThrows(IllegalStateException.class, () -> provision(failed));
+        assertEquals(
+                Arrays.asList(AnyDAO.DEFAULT_PAGE_SIZE, AnyDAO.DEFAULT_PAGE_SIZE, 200),
+                failed.chunks.stream().map(List::size).sorted((c1, c2) -> c2 - c1).collect(Collectors.toList()));
+        assertEquals(
+                MEMBERS.get(AnyDAO.DEFAULT_PAGE_SIZE - 1),
+                taskCheckpointDAO.findAll(TASK_KEY).get(AnyTypeKind.USER.name()));
+
+        // 2. execute again: resumes after the checkpoint, by chunks, and checkpoints the latest member
+        TestGroupMemberProvisionTaskJobDelegate resumed = new TestGroupMemberProvisionTaskJobDelegate(null);
+        provision(resumed);
+        assertEquals(MEMBERS.get(AnyDAO.DEFAULT_PAGE_SIZE - 1), resumed.readAfter.get(0));
+        assertEquals(
+                Arrays.asList(
+                        MEMBERS.subList(AnyDAO.DEFAULT_PAGE_SIZE, 2 * AnyDAO.DEFAULT_PAGE_SIZE),
+                        MEMBERS.subList(2 * AnyDAO.DEFAULT_PAGE_SIZE, MEMBERS.size())),
+                resumed.chunks.stream().sorted(Comparator.comparing((List<String> chunk) -> chunk.get(0))).
+                        collect(Collectors.toList()));
+        assertEquals(
+                MEMBERS.get(MEMBERS.size() - 1),
+                taskCheckpointDAO.findAll(TASK_KEY).get(AnyTypeKind.USER.name()));
+    }
+}
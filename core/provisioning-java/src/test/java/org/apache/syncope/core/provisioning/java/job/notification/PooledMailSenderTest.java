@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+public class PooledMailSenderTest {
+
+    private ServerSetup smtp;
+
+    private GreenMail greenMail;
+
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    public void startSMTP() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            smtp = new ServerSetup(socket.getLocalPort(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP);
+        }
+        greenMail = new GreenMail(smtp);
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(smtp.getBindAddress());
+        mailSender.setPort(smtp.getPort());
+    }
+
+    @AfterEach
+    public void stopSMTP() {
+        greenMail.stop();
+    }
+
+    private static MimeMessage message(final PooledMailSender sender, final int index) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo("recipient" + index + "@syncope.apache.org");
+        helper.setFrom("admin@syncope.apache.org");
+        helper.setSubject("Notification " + index);
+        helper.setText("text", "<p>html</p>");
+        return message;
+    }
+
+    @Test
+    public void concurrentSend() throws Exception {
+        int messages = 20;
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try (PooledMailSender sender = new PooledMailSender(mailSender, 2)) {
+            List<Future<?>> sent = new ArrayList<>();
+            for (int i = 0; i < messages; i++) {
+                int index = i;
+                sent.add(workers.submit(() -> {
+                    sender.send(message(sender, index));
+                    return null;
+                }));
+            }
+            for (Future<?> future : sent) {
+                future.get();
+            }
+        } finally {
+            workers.shutdown();
+        }
+
+        greenMail.waitForIncomingEmail(messages);
+        assertEquals(messages, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void reconnect() throws Exception {
+        try (PooledMailSender sender = new PooledMailSender(mailSender, 1)) {
+            sender.send(message(sender, 0));
+
+            // the idle connection is dropped by the SMTP server: the message is sent over a new connection
+            greenMail.stop();
+            greenMail = new GreenMail(smtp);
+            greenMail.start();
+            sender.send(message(sender, 1));
+
+            greenMail.waitForIncomingEmail(1);
+            assertEquals(1, greenMail.getReceivedMessages().length);
+
+            // no SMTP server available at all
+            greenMail.stop();
+            assertThrows(MessagingException.class, () -> sender.send(message(sender, 2)));
+
+            greenMail = new GreenMail(smtp);
+            greenMail.start();
+            sender.send(message(sender, 3));
+        }
+
+        greenMail.waitForIncomingEmail(1);
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class ContentHandlerBufferTest {
+
+    private static void user(final ContentHandler handler, final AttributesImpl atts, final String key)
+            throws SAXException {
+
+        atts.clear();
+        atts.addAttribute("", "", "key", ReportXMLConst.XSD_STRING, key);
+        handler.startElement("", "", "user", atts);
+        char[] chars = ("user " + key).toCharArray();
+        handler.characters(chars, 0, chars.length);
+        handler.endElement("", "", "user");
+    }
+
+    @Test
+    public void replayInOrder() throws Exception {
+        AttributesImpl atts = new AttributesImpl();
+
+        // buffers are filled out of order, reusing the same attributes
+        ContentHandlerBuffer second = new ContentHandlerBuffer();
+        user(second, atts, "2");
+        ContentHandlerBuffer first = new ContentHandlerBuffer();
+        user(first, atts, "1");
+
+        TransformerHandler handler = ((SAXTransformerFactory) TransformerFactory.newInstance()).
+                newTransformerHandler();
+        handler.getTransformer().setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        StringWriter writer = new StringWriter();
+        handler.setResult(new StreamResult(writer));
+
+        handler.startDocument();
+        handler.startElement("", "", "users", null);
+        first.replay(handler);
+        second.replay(handler);
+        handler.endElement("", "", "users");
+        handler.endDocument();
+
+        assertEquals("<users><user key=\"1\">user 1</user><user key=\"2\">user 2</user></users>", writer.toString());
+    }
+}
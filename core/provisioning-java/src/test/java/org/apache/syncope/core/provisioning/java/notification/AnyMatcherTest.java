@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class AnyMatcherTest extends AbstractTest {
+
+    @Autowired
+    private AnyMatcher anyMatcher;
+
+    @Autowired
+    private AnySearchDAO searchDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Test
+    public void evaluate() {
+        User rossini = userDAO.find("1417acbe-cbf6-4277-9372-e75e04f97000");
+
+        assertTrue(anyMatcher.evaluate(rossini, anyMatcher.getCond("username==rossini")).get());
+        assertFalse(anyMatcher.evaluate(rossini, anyMatcher.getCond("username==vivaldi")).get());
+        assertTrue(anyMatcher.evaluate(rossini, anyMatcher.getCond("firstname==Gioacchino;surname==Rossini")).get());
+        assertFalse(anyMatcher.evaluate(rossini, anyMatcher.getCond("firstname==Antonio;$groups==root")).get());
+        assertTrue(anyMatcher.evaluate(rossini, anyMatcher.getCond("$groups==root,firstname==Antonio")).get());
+        assertTrue(anyMatcher.evaluate(rossini, anyMatcher.getCond("$roles==Other")).get());
+
+        // case-insensitive database collations might match anyway
+        assertFalse(anyMatcher.evaluate(rossini, anyMatcher.getCond("username==ROSSINI")).isPresent());
+        // might be matched via dynamic memberships
+        assertFalse(anyMatcher.evaluate(rossini, anyMatcher.getCond("$groups==citizen")).isPresent());
+    }
+
+    @Test
+    public void matchesAsSearch() {
+        String[] fiqls = new String[] {
+            "username==rossini", "username==vivaldi", "username==ROSSINI", "username=~ROSSINI",
+            "firstname==Gioacchino;surname==Rossini", "firstname==Antonio,surname==Rossini",
+            "firstname==Antonio;$groups==root", "$groups==root,firstname==Antonio", "$groups==citizen",
+            "$roles==Other", "$roles!=Other", "$resources==resource-testdb2", "$resources==ws-target-resource-2",
+            "loginDate==$null", "ctype!=$null", "userId!=rossini@apache.org" };
+
+        userDAO.findAll(1, 100).forEach(user -> {
+            for (String fiql : fiqls) {
+                assertEquals(
+                        searchDAO.matches(user, SearchCondConverter.convert(fiql)),
+                        anyMatcher.matches(user, fiql),
+                        fiql + " for " + user.getUsername());
+            }
+        });
+    }
+}
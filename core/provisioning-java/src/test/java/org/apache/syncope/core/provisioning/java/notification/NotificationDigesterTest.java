@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
+import org.apache.syncope.core.persistence.api.dao.NotificationDigestEventDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.entity.NotificationDigestEvent;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class NotificationDigesterTest extends AbstractTest {
+
+    @Autowired
+    private NotificationDAO notificationDAO;
+
+    @Autowired
+    private NotificationDigestEventDAO digestEventDAO;
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private NotificationDigester digester;
+
+    @Test
+    public void collect() {
+        Notification notification = notificationDAO.find("9e2b911c-25de-4c77-bcea-b86ed9451050");
+        notification.setDigestWindow(60);
+
+        String rossini = "rossini@apache.org";
+        String vivaldi = "vivaldi@apache.org";
+        Set<String> both = new HashSet<>(Arrays.asList(rossini, vivaldi));
+
+        int tasks = taskDAO.findAll(TaskType.NOTIFICATION).size();
+
+        digester.collect(notification, null, both, Collections.singletonMap("event", "create"));
+        digester.collect(
+                notification, null, Collections.singleton(rossini), Collections.singletonMap("event", "update"));
+
+        // one event each, along with its recipients; no notification tasks until complete
+        List<NotificationDigestEvent> collected = digestEventDAO.findAll();
+        assertEquals(2, collected.size());
+        assertTrue(collected.stream().anyMatch(event -> both.equals(event.getRecipients())
+                && "create".equals(digester.getModel(event).get("event"))));
+        assertEquals(tasks, taskDAO.findAll(TaskType.NOTIFICATION).size());
+
+        // window not elapsed yet
+        assertTrue(digester.findComplete().isEmpty());
+
+        // max events reached, for one recipient only
+        for (int i = 2; i < NotificationDigester.MAX_EVENTS; i++) {
+            digester.collect(notification, null, Collections.singleton(rossini), Collections.singletonMap("event", i));
+        }
+        assertEquals(NotificationDigester.MAX_EVENTS, digestEventDAO.findAll().size());
+
+        List<Pair<String, List<NotificationDigestEvent>>> digests = digester.findComplete();
+        assertEquals(1, digests.size());
+        assertEquals(rossini, digests.get(0).getLeft());
+        assertEquals(NotificationDigester.MAX_EVENTS, digests.get(0).getRight().size());
+        assertTrue(digests.get(0).getRight().stream().map(digester::getModel).
+                anyMatch(event -> "update".equals(event.get("event"))));
+
+        // once sent, events are kept only for the recipients still waiting for their digest
+        digester.sent(rossini, digests.get(0).getRight());
+        collected = digestEventDAO.findAll();
+        assertEquals(1, collected.size());
+        assertEquals(Collections.singleton(vivaldi), collected.get(0).getRecipients());
+        assertEquals("create", digester.getModel(collected.get(0)).get("event"));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.to.PropagationTaskTO;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class PropagationTaskTraceWriterTest extends AbstractTest {
+
+    /**
+     * Records stored tasks instead of saving them; storage from the writer thread can be held, in order to fill
+     * the queue.
+     */
+    private static class RecordingTraceWriter extends PropagationTaskTraceWriter {
+
+        private final List<Pair<String, PropagationTaskTO>> stored =
+                Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch writerEntered = new CountDownLatch(1);
+
+        private volatile CountDownLatch hold;
+
+        @Override
+        protected void store(final String domain, final List<PropagationTaskTO> taskTOs) {
+            if (Thread.currentThread() == writer) {
+                writerEntered.countDown();
+                if (hold != null) {
+                    try {
+                        hold.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            taskTOs.forEach(taskTO -> stored.add(Pair.of(Thread.currentThread().getName(), taskTO)));
+        }
+    }
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    @Autowired
+    @Qualifier("MasterTransactionManager")
+    private PlatformTransactionManager txManager;
+
+    private RecordingTraceWriter traceWriter;
+
+    @BeforeEach
+    public void before() {
+        traceWriter = new RecordingTraceWriter();
+        traceWriter.setAsync(true);
+        traceWriter.setCapacity(1);
+        traceWriter.setFlushInterval(50L);
+        traceWriter.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void after() throws Exception {
+        if (traceWriter.hold != null) {
+            traceWriter.hold.countDown();
+        }
+        traceWriter.destroy();
+    }
+
+    private PropagationTask task(final String connObjectKey) {
+        PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+        task.setResource(resourceDAO.find("resource-testdb"));
+        task.setOperation(ResourceOperation.UPDATE);
+        task.setAnyTypeKind(AnyTypeKind.USER);
+        task.setAnyType(AnyTypeKind.USER.name());
+        task.setEntityKey(UUID.randomUUID().toString());
+        task.setConnObjectKey(connObjectKey);
+        task.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+        task.setAttributes(Collections.singleton(AttributeBuilder.build("surname", "Rossini")));
+
+        TaskExec exec = entityFactory.newEntity(TaskExec.class);
+        exec.setStatus(PropagationTaskExecStatus.SUCCESS.name());
+        exec.setStart(new Date());
+        exec.setEnd(new Date());
+        exec.setTask(task);
+        task.add(exec);
+
+        return task;
+    }
+
+    private void awaitStored(final int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && traceWriter.stored.size() < expected; i++) {
+            Thread.sleep(50L);
+        }
+        assertEquals(expected, traceWriter.stored.size());
+    }
+
+    @Test
+    public void storedAfterCommit() throws InterruptedException {
+        new TransactionTemplate(txManager).execute(status -> {
+            assertTrue(traceWriter.offer(task("committed")));
+
+            // not queued until commit
+            assertEquals(0, traceWriter.getPending());
+            return null;
+        });
+
+        awaitStored(1);
+        assertEquals("committed", traceWriter.stored.get(0).getRight().getConnObjectKey());
+        assertEquals(1, traceWriter.stored.get(0).getRight().getExecutions().size());
+    }
+
+    @Test
+    public void discardedOnRollback() throws InterruptedException {
+        new TransactionTemplate(txManager).execute(status -> {
+            assertTrue(traceWriter.offer(task("rolledBack")));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // give the writer the chance to store anything, if wrongly queued
+        Thread.sleep(500L);
+        assertEquals(0, traceWriter.getPending());
+        assertTrue(traceWriter.stored.isEmpty());
+    }
+
+    @Test
+    public void storedSynchronouslyWhenQueueIsFull() throws InterruptedException {
+        traceWriter.hold = new CountDownLatch(1);
+
+        // 1. taken by the writer thread, which is then held
+        assertTrue(traceWriter.offer(task("first")));
+        assertTrue(traceWriter.writerEntered.await(5, TimeUnit.SECONDS));
+
+        // 2. fills the queue
+        assertTrue(traceWriter.offer(task("second")));
+        assertEquals(1, traceWriter.getPending());
+
+        // 3. stored by the caller
+        assertTrue(traceWriter.offer(task("third")));
+        assertEquals(1, traceWriter.stored.size());
+        assertEquals(Thread.currentThread().getName(), traceWriter.stored.get(0).getLeft());
+        assertEquals("third", traceWriter.stored.get(0).getRight().getConnObjectKey());
+
+        traceWriter.hold.countDown();
+        awaitStored(3);
+    }
+
+    @Test
+    public void storedSynchronouslyAfterShutdown() throws Exception {
+        PropagationTask task = task("late");
+        traceWriter.destroy();
+
+        // not taken anymore: the caller is expected to store it
+        assertFalse(traceWriter.offer(task));
+
+        // taken before shutdown but queued only afterwards, as upon late commit: stored by the caller
+        traceWriter.enqueue(Pair.of(SyncopeConstants.MASTER_DOMAIN, traceWriter.detach(task)));
+        assertEquals(1, traceWriter.stored.size());
+        assertEquals(Thread.currentThread().getName(), traceWriter.stored.get(0).getLeft());
+        assertEquals(0, traceWriter.getPending());
+    }
+
+    @Test
+    public void store() {
+        ExternalResource resource = resourceDAO.find("resource-testdb");
+        String connObjectKey = UUID.randomUUID().toString();
+
+        PropagationTaskTraceWriter storing = new PropagationTaskTraceWriter();
+        ReflectionTestUtils.setField(storing, "taskDAO", taskDAO);
+        ReflectionTestUtils.setField(storing, "resourceDAO", resourceDAO);
+        ReflectionTestUtils.setField(storing, "entityFactory", entityFactory);
+
+        PropagationTask task = task(connObjectKey);
+        storing.store(Collections.singletonList(Pair.of(SyncopeConstants.MASTER_DOMAIN, storing.detach(task))));
+
+        new TransactionTemplate(txManager).execute(status -> {
+            List<PropagationTask> found = taskDAO.findAll(TaskType.PROPAGATION,
+                    resource, null, AnyTypeKind.USER, task.getEntityKey(), -1, -1, Collections.emptyList());
+            assertEquals(1, found.size());
+
+            PropagationTask stored = found.get(0);
+            assertEquals(connObjectKey, stored.getConnObjectKey());
+            assertEquals(task.getEntityKey(), stored.getEntityKey());
+            assertEquals(task.getAttributes(), stored.getAttributes());
+            assertEquals(1, stored.getExecs().size());
+            assertEquals(PropagationTaskExecStatus.SUCCESS.name(), stored.getExecs().get(0).getStatus());
+
+            taskDAO.delete(stored);
+            return null;
+        });
+    }
+}
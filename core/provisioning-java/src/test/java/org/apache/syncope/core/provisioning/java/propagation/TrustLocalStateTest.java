@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.dao.ConnObjectSnapshotDAO;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.Mapping;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class TrustLocalStateTest extends AbstractTest {
+
+    private static final String USER_KEY = "1417acbe-cbf6-4277-9372-e75e04f97000";
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    private ConnObjectSnapshotDAO connObjectSnapshotDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    private PriorityPropagationTaskExecutor executor;
+
+    private ExternalResource resource;
+
+    /**
+     * Attributes sent via {@link Connector#update}, one set per invocation.
+     */
+    private final List<Set<Attribute>> updated = new ArrayList<>();
+
+    private Connector connector;
+
+    @BeforeEach
+    public void before() {
+        executor = new PriorityPropagationTaskExecutor();
+        ReflectionTestUtils.setField(executor, "connObjectSnapshotDAO", connObjectSnapshotDAO);
+        ReflectionTestUtils.setField(executor, "entityFactory", entityFactory);
+
+        resource = resourceDAO.find("resource-testdb");
+        resource.setTrustLocalState(true);
+
+        updated.clear();
+        connector = (Connector) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] { Connector.class },
+                (proxy, method, args) -> {
+                    if ("update".equals(method.getName())) {
+                        @SuppressWarnings("unchecked")
+                        Set<Attribute> attrs = (Set<Attribute>) args[2];
+                        updated.add(new HashSet<>(attrs));
+                        return args[1];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private PropagationTask task(final Attribute... attrs) {
+        PropagationTask task = entityFactory.newEntity(PropagationTask.class);
+        task.setResource(resource);
+        task.setOperation(ResourceOperation.UPDATE);
+        task.setAnyTypeKind(AnyTypeKind.USER);
+        task.setAnyType(AnyTypeKind.USER.name());
+        task.setEntityKey(USER_KEY);
+        task.setConnObjectKey("rossini");
+        task.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+        task.setAttributes(new HashSet<>(Arrays.asList(attrs)));
+        return task;
+    }
+
+    private TaskExec exec(final PropagationTaskExecStatus status) {
+        TaskExec exec = entityFactory.newEntity(TaskExec.class);
+        exec.setStatus(status.name());
+        return exec;
+    }
+
+    private Set<Attribute> propagate(final PropagationTask task) {
+        updated.clear();
+        Pair<ConnectorObject, Uid> result = executor.createOrUpdateTrustingLocalState(
+                task, connector, null, new AtomicReference<>(false));
+        assertNull(result.getLeft());
+        assertEquals("rossini", result.getRight().getUidValue());
+
+        assertTrue(updated.size() <= 1);
+        return updated.isEmpty() ? null : updated.get(0);
+    }
+
+    private Provision provision(final String connObjectKeyExtAttrName) {
+        MappingItem item = entityFactory.newEntity(MappingItem.class);
+        item.setIntAttrName("username");
+        item.setExtAttrName(connObjectKeyExtAttrName);
+
+        Mapping mapping = entityFactory.newEntity(Mapping.class);
+        mapping.setConnObjectKeyItem(item);
+
+        Provision provision = entityFactory.newEntity(Provision.class);
+        provision.setMapping(mapping);
+        return provision;
+    }
+
+    @Test
+    public void isTrustingLocalState() {
+        PropagationTask task = task();
+        Provision provision = provision(Uid.NAME);
+        assertTrue(executor.isTrustingLocalState(task, provision, null));
+
+        // connObjectKey is not the remote uid
+        assertFalse(executor.isTrustingLocalState(task, provision("ID"), null));
+
+        // no provision
+        assertFalse(executor.isTrustingLocalState(task, null, null));
+
+        // deletes are never trusted
+        task.setOperation(ResourceOperation.DELETE);
+        assertFalse(executor.isTrustingLocalState(task, provision, null));
+        task.setOperation(ResourceOperation.UPDATE);
+
+        // resource not trusting local state
+        resource.setTrustLocalState(false);
+        assertFalse(executor.isTrustingLocalState(task, provision, null));
+    }
+
+    @Test
+    public void deltaPropagation() {
+        Attribute name = new Name("rossini");
+        Attribute surname = AttributeBuilder.build("surname", "Rossini");
+        Attribute email = AttributeBuilder.build("email", "rossini@apache.org");
+
+        // 1. no snapshot yet: all attributes are sent
+        PropagationTask task = task(name, surname, email);
+        Set<Attribute> sent = propagate(task);
+        assertEquals(new HashSet<>(Arrays.asList(surname, email)), sent);
+
+        executor.updateSnapshot(task, task.getAttributes(), exec(PropagationTaskExecStatus.SUCCESS));
+        assertNotNull(connObjectSnapshotDAO.find(USER_KEY, resource));
+
+        // 2. unchanged: nothing is sent
+        assertNull(propagate(task(name, surname, email)));
+
+        // 3. one attribute changed: only that is sent
+        Attribute newSurname = AttributeBuilder.build("surname", "Verdi");
+        task = task(name, newSurname, email);
+        assertEquals(Collections.singleton(newSurname), propagate(task));
+        executor.updateSnapshot(task, task.getAttributes(), exec(PropagationTaskExecStatus.SUCCESS));
+
+        // 4. one attribute added and one attribute removed: both are sent
+        Attribute fullname = AttributeBuilder.build("fullname", "Giuseppe Verdi");
+        Attribute noEmail = AttributeBuilder.build("email", Collections.emptyList());
+        task = task(name, newSurname, noEmail, fullname);
+        assertEquals(new HashSet<>(Arrays.asList(noEmail, fullname)), propagate(task));
+
+        // 5. propagation not attempted: snapshot is left untouched, same delta is sent next time
+        executor.updateSnapshot(task, task.getAttributes(), exec(PropagationTaskExecStatus.NOT_ATTEMPTED));
+        assertEquals(new HashSet<>(Arrays.asList(noEmail, fullname)), propagate(task));
+
+        // 6. propagation failed: snapshot is dropped, all attributes are sent next time
+        executor.updateSnapshot(task, task.getAttributes(), exec(PropagationTaskExecStatus.FAILURE));
+        assertNull(connObjectSnapshotDAO.find(USER_KEY, resource));
+        assertEquals(new HashSet<>(Arrays.asList(newSurname, noEmail, fullname)), propagate(task));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.syncope.core.persistence.api.entity.task.PullTask;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.api.pushpull.PullActions;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullExecutor;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePullResultHandler;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.AttributeUtil;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobExecutionException;
+
+public class PartitionedSyncResultsHandlerTest {
+
+    private static final String KEY_ATTR = "key";
+
+    /**
+     * Records checkpointed sync tokens.
+     */
+    private static class RecordingPullExecutor implements SyncopePullExecutor {
+
+        private final List<Object> tokens = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void setLatestSyncToken(final ObjectClass objectClass, final SyncToken latestSyncToken) {
+            tokens.add(latestSyncToken.getValue());
+        }
+
+        @Override
+        public void reportHandled(final ObjectClass objectClass, final Name name) {
+            // nothing to do
+        }
+
+        @Override
+        public boolean wasInterruptRequested() {
+            return false;
+        }
+
+        @Override
+        public void setInterrupted() {
+            // nothing to do
+        }
+    }
+
+    /**
+     * Records the UIDs of handled deltas, after running the given action.
+     */
+    private static class RecordingHandler implements SyncopePullResultHandler {
+
+        private final Consumer<SyncDelta> action;
+
+        private final List<String> handled = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingHandler(final Consumer<SyncDelta> action) {
+            this.action = action;
+        }
+
+        @Override
+        public ProvisioningProfile<PullTask, PullActions> getProfile() {
+            return null;
+        }
+
+        @Override
+        public void setProfile(final ProvisioningProfile<PullTask, PullActions> profile) {
+            // nothing to do
+        }
+
+        @Override
+        public void setPullExecutor(final SyncopePullExecutor executor) {
+            // nothing to do
+        }
+
+        @Override
+        public boolean handle(final SyncDelta delta) {
+            action.accept(delta);
+            handled.add(delta.getUid().getUidValue());
+            return true;
+        }
+    }
+
+    private static SyncDelta delta(final int seq, final String key) {
+        return new SyncDeltaBuilder().
+                setToken(new SyncToken(seq)).
+                setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                setObject(new ConnectorObjectBuilder().
+                        setUid("uid" + seq).
+                        setName("name" + seq).
+                        addAttribute(AttributeBuilder.build(KEY_ATTR, key)).
+                        build()).
+                build();
+    }
+
+    private static String key(final SyncDelta delta) {
+        return AttributeUtil.getStringValue(delta.getObject().getAttributeByName(KEY_ATTR));
+    }
+
+    private static PartitionedSyncResultsHandler partitioned(
+            final SyncopePullExecutor executor,
+            final List<RecordingHandler> handlers,
+            final Consumer<SyncDelta> action,
+            final int threads) {
+
+        return new PartitionedSyncResultsHandler(
+                executor,
+                () -> {
+                    RecordingHandler handler = new RecordingHandler(action);
+                    handlers.add(handler);
+                    return handler;
+                },
+                PartitionedSyncResultsHandlerTest::key,
+                Executors.newFixedThreadPool(threads),
+                threads);
+    }
+
+    /**
+     * Two keys, such that the first is in partition 0 and the second in partition 1 (out of 2).
+     */
+    private static String[] keysOnDistinctPartitions() {
+        String[] keys = new String[2];
+        for (int i = 0; keys[0] == null || keys[1] == null; i++) {
+            String key = "key" + i;
+            keys[PartitionedSyncResultsHandler.partition(key, 2)] = key;
+        }
+        return keys;
+    }
+
+    @Test
+    public void routeByPartitionKey() throws JobExecutionException {
+        int threads = 3;
+        List<RecordingHandler> handlers = new ArrayList<>();
+        PartitionedSyncResultsHandler partitioned =
+                partitioned(new RecordingPullExecutor(), handlers, delta -> {
+                }, threads);
+
+        List<SyncDelta> deltas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            deltas.add(delta(i, "key" + (i % 7)));
+        }
+        deltas.forEach(partitioned::handle);
+        partitioned.close();
+
+        assertEquals(50, handlers.stream().mapToInt(handler -> handler.handled.size()).sum());
+        for (SyncDelta delta : deltas) {
+            // routed by the partition key, not by UID
+            RecordingHandler handler = handlers.get(PartitionedSyncResultsHandler.partition(key(delta), threads));
+            assertTrue(handler.handled.contains(delta.getUid().getUidValue()));
+        }
+        for (RecordingHandler handler : handlers) {
+            // deltas for the same key were handled in the order they were received
+            List<Integer> seqs = new ArrayList<>();
+            handler.handled.forEach(uid -> seqs.add(Integer.valueOf(uid.substring(3))));
+            List<Integer> sorted = new ArrayList<>(seqs);
+            Collections.sort(sorted);
+            assertEquals(sorted, seqs);
+        }
+    }
+
+    @Test
+    public void tokensAdvanceInOrder() throws InterruptedException, JobExecutionException {
+        String[] keys = keysOnDistinctPartitions();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch overtaken = new CountDownLatch(2);
+
+        RecordingPullExecutor executor = new RecordingPullExecutor();
+        PartitionedSyncResultsHandler partitioned = partitioned(executor, new ArrayList<>(), delta -> {
+            if ("uid0".equals(delta.getUid().getUidValue())) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                overtaken.countDown();
+            }
+        }, 2);
+
+        partitioned.handle(delta(0, keys[0]));
+        partitioned.handle(delta(1, keys[1]));
+        partitioned.handle(delta(2, keys[1]));
+
+        // deltas 1 and 2 are done, but cannot be checkpointed until delta 0 is
+        assertTrue(overtaken.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertTrue(executor.tokens.isEmpty());
+
+        release.countDown();
+        partitioned.close();
+
+        assertEquals(Collections.singletonList(2), executor.tokens);
+    }
+
+    @Test
+    public void failureStopsCheckpoints() {
+        String[] keys = keysOnDistinctPartitions();
+
+        RecordingPullExecutor executor = new RecordingPullExecutor();
+        PartitionedSyncResultsHandler partitioned = partitioned(executor, new ArrayList<>(), delta -> {
+            if ("uid1".equals(delta.getUid().getUidValue())) {
+                throw new IllegalStateException("Failing on purpose");
+            }
+        }, 2);
+
+        partitioned.handle(delta(0, keys[0]));
+        partitioned.handle(delta(1, keys[1]));
+        partitioned.handle(delta(2, keys[0]));
+
+        JobExecutionException e = assertThrows(JobExecutionException.class, partitioned::close);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        // whatever was handled after the failure, the checkpoint never went past the failed delta
+        executor.tokens.forEach(token -> assertNotEquals(1, token));
+        executor.tokens.forEach(token -> assertNotEquals(2, token));
+    }
+}
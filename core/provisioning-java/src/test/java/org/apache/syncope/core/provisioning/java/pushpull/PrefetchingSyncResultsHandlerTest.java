@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchingSyncResultsHandlerTest {
+
+    private static final int DELTAS = 10;
+
+    /**
+     * Sends up to {@link #DELTAS} deltas, until told to stop, recording what the handler replied.
+     */
+    private static class Search implements Runnable {
+
+        private final SyncResultsHandler handler;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private final List<Boolean> replies = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        Search(final SyncResultsHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < DELTAS; i++) {
+                    attempts.incrementAndGet();
+                    boolean reply = handler.handle(new SyncDeltaBuilder().
+                            setToken(new SyncToken(i)).
+                            setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                            setObject(new ConnectorObjectBuilder().setUid("uid" + i).setName("name" + i).build()).
+                            build());
+                    replies.add(reply);
+                    if (!reply) {
+                        return;
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void pull() {
+        List<SyncDelta> handled = Collections.synchronizedList(new ArrayList<>());
+        PrefetchingSyncResultsHandler prefetching = new PrefetchingSyncResultsHandler(handled::add, 2);
+
+        prefetching.pull(new Search(prefetching));
+
+        assertEquals(DELTAS, handled.size());
+    }
+
+    @Test
+    public void delegateStops() throws InterruptedException {
+        AtomicInteger handled = new AtomicInteger();
+        PrefetchingSyncResultsHandler prefetching =
+                new PrefetchingSyncResultsHandler(delta -> handled.incrementAndGet() < 3, 1);
+
+        Search search = new Search(prefetching);
+        prefetching.pull(search);
+
+        assertEquals(3, handled.get());
+        assertTrue(search.done.await(5, TimeUnit.SECONDS));
+        assertFalse(search.replies.get(search.replies.size() - 1));
+    }
+
+    @Test
+    public void delegateFailsWhileQueueIsFull() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("Failing on purpose");
+
+        AtomicInteger handled = new AtomicInteger();
+        Search[] search = new Search[1];
+        PrefetchingSyncResultsHandler prefetching = new PrefetchingSyncResultsHandler(delta -> {
+            handled.incrementAndGet();
+            // wait for the connector thread to be blocked: one delta being handled, one buffered, one waiting
+            while (search[0].attempts.get() < 3) {
+                Thread.yield();
+            }
+            throw failure;
+        }, 1);
+        search[0] = new Search(prefetching);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> prefetching.pull(search[0])));
+        assertEquals(1, handled.get());
+
+        // the connector thread was told to stop, rather than being left blocked on the full queue
+        assertTrue(search[0].done.await(5, TimeUnit.SECONDS));
+        assertFalse(search[0].replies.get(search[0].replies.size() - 1));
+        assertTrue(search[0].attempts.get() < DELTAS);
+    }
+}
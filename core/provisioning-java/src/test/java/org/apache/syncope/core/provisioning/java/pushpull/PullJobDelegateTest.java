@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.syncope.core.persistence.api.dao.TaskCheckpointDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.api.entity.task.PullTask;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.OperationOptionsBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaBuilder;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.SyncResultsHandler;
+import org.identityconnectors.framework.common.objects.SyncToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class PullJobDelegateTest extends AbstractTest {
+
+    private static final String PULL_TASK_KEY = "7c2242f4-14af-4ab5-af31-cdae23783655";
+
+    private static final int PAGES = 3;
+
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * Simulates a connector returning {@link #PAGES} pages, each delta carrying as token the paged results cookie of
+     * its page; the connection can be killed while on the given page.
+     */
+    private static class TestPullJobDelegate extends PullJobDelegate {
+
+        private final List<String> startedFrom = new ArrayList<>();
+
+        private final List<String> handled = new ArrayList<>();
+
+        private final Integer killOnPage;
+
+        TestPullJobDelegate(final Integer killOnPage) {
+            this.killOnPage = killOnPage;
+        }
+
+        @Override
+        protected void doPull(
+                final PullTask pullTask,
+                final Connector connector,
+                final Provision provision,
+                final SyncResultsHandler handler,
+                final OperationOptions options) {
+
+            String cookie = options.getPagedResultsCookie();
+            startedFrom.add(cookie);
+
+            for (int page = cookie == null ? 0 : Integer.parseInt(cookie.substring(4)); page < PAGES; page++) {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    if (killOnPage != null && killOnPage == page && i == PAGE_SIZE - 1) {
+                        throw new IllegalStateException("Killed on page " + page);
+                    }
+
+                    String uid = "obj" + page + i;
+                    handler.handle(new SyncDeltaBuilder().
+                            setToken(new SyncToken(page == 0 ? "" : "page" + page)).
+                            setDeltaType(SyncDeltaType.CREATE_OR_UPDATE).
+                            setObject(new ConnectorObjectBuilder().setUid(uid).setName(uid).build()).
+                            build());
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private TaskCheckpointDAO taskCheckpointDAO;
+
+    @Autowired
+    @Qualifier("MasterTransactionManager")
+    private PlatformTransactionManager txManager;
+
+    @AfterEach
+    public void cleanup() {
+        taskCheckpointDAO.discard(PULL_TASK_KEY);
+    }
+
+    /**
+     * Runs a reconciliation of the task's first provision in a transaction standing for the job's, handling each
+     * delta as the result handlers do, i.e. reporting its token once handled.
+     */
+    private void reconcile(final TestPullJobDelegate delegate) {
+        ReflectionTestUtils.setField(delegate, "taskCheckpointDAO", taskCheckpointDAO);
+        delegate.checkpointing = true;
+        delegate.resumeFrom.putAll(taskCheckpointDAO.findAll(PULL_TASK_KEY));
+
+        new TransactionTemplate(txManager).execute(status -> {
+            PullTask pullTask = taskDAO.find(PULL_TASK_KEY);
+            Provision provision = pullTask.getResource().getProvisions().get(0);
+            delegate.profile = new ProvisioningProfile<>(null, pullTask);
+
+            delegate.resumablePull(pullTask, null, provision, delta -> {
+                delegate.handled.add(delta.getUid().getUidValue());
+                delegate.setLatestSyncToken(delta.getObjectClass(), delta.getToken());
+                return true;
+            }, new OperationOptionsBuilder().build());
+            return null;
+        });
+    }
+
+    @Test
+    public void resumeFromCheckpoint() {
+        // 1. kill the pull midway: the job's transaction is rolled back, not the checkpoint
+        TestPullJobDelegate killed = new TestPullJobDelegate(1);
+        assertThrows(IllegalStateException.class, () -> reconcile(killed));
+        assertEquals(Arrays.asList("obj00", "obj01", "obj10"), killed.handled);
+        assertEquals(
+                Collections.singletonMap(ObjectClass.ACCOUNT_NAME, "page1"),
+                taskCheckpointDAO.findAll(PULL_TASK_KEY));
+
+        // 2. pull again: resumes from the page being pulled when killed, then discards the checkpoint
+        TestPullJobDelegate resumed = new TestPullJobDelegate(null);
+        reconcile(resumed);
+        assertEquals(Collections.singletonList("page1"), resumed.startedFrom);
+        assertEquals(Arrays.asList("obj10", "obj11", "obj20", "obj21"), resumed.handled);
+        assertTrue(taskCheckpointDAO.findAll(PULL_TASK_KEY).isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.pushpull;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.entity.task.PushTask;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningProfile;
+import org.apache.syncope.core.provisioning.api.pushpull.ProvisioningReport;
+import org.apache.syncope.core.provisioning.api.pushpull.PushActions;
+import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class PushJobDelegateTest extends AbstractTest {
+
+    private static final String PUSH_TASK_KEY = "af558be4-9d2f-4359-bf85-a554e6e90be1";
+
+    private static final int PERMITS = 2;
+
+    /**
+     * Records how many pushes are running at the same time; earlier anys take longer, so that pushes complete in
+     * reverse order.
+     */
+    private static class TestPushResultHandler implements SyncopePushResultHandler {
+
+        private final List<String> keys;
+
+        private final AtomicInteger running;
+
+        private final AtomicInteger peak;
+
+        private ProvisioningProfile<PushTask, PushActions> profile;
+
+        TestPushResultHandler(final List<String> keys, final AtomicInteger running, final AtomicInteger peak) {
+            this.keys = keys;
+            this.running = running;
+            this.peak = peak;
+        }
+
+        @Override
+        public ProvisioningProfile<PushTask, PushActions> getProfile() {
+            return profile;
+        }
+
+        @Override
+        public void setProfile(final ProvisioningProfile<PushTask, PushActions> profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean handle(final String anyKey) {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10L * (keys.size() - keys.indexOf(anyKey)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+
+            ProvisioningReport result = new ProvisioningReport();
+            result.setKey(anyKey);
+            result.setStatus(ProvisioningReport.Status.SUCCESS);
+            profile.getPendingResults().add(result);
+            return true;
+        }
+    }
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Test
+    public void concurrentPushes() throws Exception {
+        PushTask pushTask = taskDAO.find(PUSH_TASK_KEY);
+        List<User> users = userDAO.findAll(1, 100);
+        assertTrue(users.size() > PERMITS);
+        List<String> keys = users.stream().map(User::getKey).collect(Collectors.toList());
+
+        PushJobDelegate delegate = new PushJobDelegate();
+        delegate.profile = new ProvisioningProfile<>(null, pushTask);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ThreadLocal<SyncopePushResultHandler> handlers =
+                ThreadLocal.withInitial(() -> new TestPushResultHandler(keys, running, peak));
+
+        // more workers than permits: the permits only shall cap the pushes running on the resource
+        ExecutorService workers = Executors.newFixedThreadPool(users.size());
+        try {
+            List<Future<List<ProvisioningReport>>> pushes =
+                    delegate.submit(users, workers, handlers, new Semaphore(PERMITS), new AtomicBoolean());
+            assertTrue(delegate.await(users, pushes, pushTask.getResource()));
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue(peak.get() <= PERMITS);
+
+        // results are collected in submission order, whatever the completion order
+        assertEquals(keys, delegate.profile.getPendingResults().stream().
+                map(ProvisioningReport::getKey).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.junit.jupiter.api.Test;
+
+public class ConnObjectSnapshotUtilsTest {
+
+    private static Set<Attribute> attrs(final Attribute... attrs) {
+        return new HashSet<>(Arrays.asList(attrs));
+    }
+
+    @Test
+    public void digest() {
+        Map<String, String> digests = ConnObjectSnapshotUtils.digest(attrs(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@apache.org", "gioacchino@apache.org"),
+                AttributeBuilder.build("__PASSWORD__", new GuardedString("password".toCharArray()))));
+
+        // names are upper-cased, guarded values are never digested
+        assertEquals(new HashSet<>(Arrays.asList("SURNAME", "EMAIL")), digests.keySet());
+
+        // same values, same digest
+        assertEquals(
+                digests.get("SURNAME"),
+                ConnObjectSnapshotUtils.digest(attrs(AttributeBuilder.build("SURNAME", "Rossini"))).get("SURNAME"));
+
+        // value order matters, as for multi-valued attributes propagated as lists
+        assertNotEquals(
+                digests.get("EMAIL"),
+                ConnObjectSnapshotUtils.digest(attrs(
+                        AttributeBuilder.build("email", "gioacchino@apache.org", "rossini@apache.org"))).get("EMAIL"));
+    }
+
+    @Test
+    public void deltaUnchanged() {
+        Set<Attribute> attrs = attrs(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("loginDate", Collections.emptyList()),
+                AttributeBuilder.build("photo", (Object) new byte[] { 1, 2, 3 }));
+
+        Map<String, String> digests = ConnObjectSnapshotUtils.digest(attrs);
+        assertTrue(ConnObjectSnapshotUtils.delta(digests, attrs).isEmpty());
+
+        // attribute names are compared case-insensitively
+        assertTrue(ConnObjectSnapshotUtils.delta(
+                digests, attrs(AttributeBuilder.build("SURNAME", "Rossini"))).isEmpty());
+    }
+
+    @Test
+    public void deltaChanged() {
+        Map<String, String> digests = ConnObjectSnapshotUtils.digest(attrs(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@apache.org")));
+
+        Attribute surname = AttributeBuilder.build("surname", "Verdi");
+        Set<Attribute> delta = ConnObjectSnapshotUtils.delta(digests, attrs(
+                surname, AttributeBuilder.build("email", "rossini@apache.org")));
+        assertEquals(Collections.singleton(surname), delta);
+    }
+
+    @Test
+    public void deltaAdded() {
+        Map<String, String> digests = ConnObjectSnapshotUtils.digest(attrs(
+                AttributeBuilder.build("surname", "Rossini")));
+
+        Attribute fullname = AttributeBuilder.build("fullname", "Gioacchino Rossini");
+        Set<Attribute> delta = ConnObjectSnapshotUtils.delta(digests, attrs(
+                AttributeBuilder.build("surname", "Rossini"), fullname));
+        assertEquals(Collections.singleton(fullname), delta);
+    }
+
+    @Test
+    public void deltaRemoved() {
+        Map<String, String> digests = ConnObjectSnapshotUtils.digest(attrs(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@apache.org")));
+
+        // values removed locally are propagated as empty attributes, which differ from what was propagated before
+        Attribute email = AttributeBuilder.build("email", Collections.emptyList());
+        Set<Attribute> delta = ConnObjectSnapshotUtils.delta(digests, attrs(
+                AttributeBuilder.build("surname", "Rossini"), email));
+        assertEquals(Collections.singleton(email), delta);
+
+        // attributes no longer propagated at all are not part of the delta
+        assertTrue(ConnObjectSnapshotUtils.delta(
+                digests, attrs(AttributeBuilder.build("surname", "Rossini"))).isEmpty());
+    }
+
+    @Test
+    public void deltaGuarded() {
+        Attribute password = AttributeBuilder.build("__PASSWORD__", new GuardedString("password".toCharArray()));
+        Set<Attribute> attrs = attrs(AttributeBuilder.build("surname", "Rossini"), password);
+
+        assertEquals(
+                Collections.singleton(password),
+                ConnObjectSnapshotUtils.delta(ConnObjectSnapshotUtils.digest(attrs), attrs));
+    }
+
+    @Test
+    public void fingerprint() {
+        Set<Attribute> attrs = attrs(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", "rossini@apache.org"));
+
+        String fingerprint = ConnObjectSnapshotUtils.fingerprint(attrs, "mapping").get();
+        assertEquals(fingerprint, ConnObjectSnapshotUtils.fingerprint(new HashSet<>(attrs), "mapping").get());
+        assertNotEquals(fingerprint, ConnObjectSnapshotUtils.fingerprint(attrs, "other mapping").get());
+        assertNotEquals(fingerprint, ConnObjectSnapshotUtils.fingerprint(
+                attrs(AttributeBuilder.build("surname", "Verdi")), "mapping").get());
+
+        assertFalse(ConnObjectSnapshotUtils.fingerprint(attrs(AttributeBuilder.build(
+                "__PASSWORD__", new GuardedString("password".toCharArray()))), "mapping").isPresent());
+    }
+}
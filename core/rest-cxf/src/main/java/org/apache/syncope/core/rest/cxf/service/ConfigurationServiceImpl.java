@@ -24,6 +24,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.syncope.common.lib.to.AttrTO;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.common.rest.api.service.ConfigurationService;
 import org.apache.syncope.core.logic.ConfigurationLogic;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
@@ -35,17 +36,21 @@ public class ConfigurationServiceImpl extends AbstractServiceImpl implements Con
 
     private static final String CONTENT_XML = "Content.xml";
 
+    private static final String CONTENT_SNAPSHOT = "Content.snapshot";
+
     @Autowired
     private ConfigurationLogic logic;
 
     @Override
-    public Response export() {
-        StreamingOutput sout = (os) -> logic.export(os);
+    public Response export(final ContentExportFormat fmt) {
+        ContentExportFormat format = fmt == null ? ContentExportFormat.XML : fmt;
+        StreamingOutput sout = (os) -> logic.export(os, format);
 
         return Response.ok(sout).
-                type(MediaType.TEXT_XML).
+                type(format == ContentExportFormat.XML ? MediaType.TEXT_XML : MediaType.APPLICATION_OCTET_STREAM).
                 header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=" + AuthContextUtils.getDomain() + CONTENT_XML).
+                        "attachment; filename=" + AuthContextUtils.getDomain()
+                        + (format == ContentExportFormat.XML ? CONTENT_XML : CONTENT_SNAPSHOT)).
                 build();
     }
 
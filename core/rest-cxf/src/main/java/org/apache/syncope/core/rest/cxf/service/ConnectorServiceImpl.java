@@ -24,6 +24,7 @@ import javax.ws.rs.core.Response;
 import org.apache.syncope.common.lib.to.ConnBundleTO;
 import org.apache.syncope.common.lib.to.ConnIdObjectClassTO;
 import org.apache.syncope.common.lib.to.ConnInstanceTO;
+import org.apache.syncope.common.lib.to.ConnectorStatsTO;
 import org.apache.syncope.common.rest.api.RESTHeaders;
 import org.apache.syncope.common.rest.api.service.ConnectorService;
 import org.apache.syncope.core.logic.ConnectorLogic;
@@ -72,6 +73,11 @@ public class ConnectorServiceImpl extends AbstractServiceImpl implements Connect
         return logic.read(key, lang);
     }
 
+    @Override
+    public ConnectorStatsTO readStats(final String key) {
+        return logic.readStats(key);
+    }
+
     @Override
     public ConnInstanceTO readByResource(final String resourceName, final String lang) {
         return logic.readByResource(resourceName, lang);
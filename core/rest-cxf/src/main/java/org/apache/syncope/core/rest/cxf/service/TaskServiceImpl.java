@@ -21,11 +21,14 @@ package org.apache.syncope.core.rest.cxf.service;
 import java.net.URI;
 import java.util.List;
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.to.TaskTO;
 import org.apache.syncope.common.lib.to.BulkAction;
 import org.apache.syncope.common.lib.to.BulkActionResult;
+import org.apache.syncope.common.lib.to.JobProgressTO;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.SchedTaskTO;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -34,6 +37,7 @@ import org.apache.syncope.common.rest.api.beans.TaskQuery;
 import org.apache.syncope.common.rest.api.service.TaskService;
 import org.apache.syncope.core.logic.AbstractExecutableLogic;
 import org.apache.syncope.core.logic.TaskLogic;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -94,6 +98,21 @@ public class TaskServiceImpl extends AbstractExecutableService implements TaskSe
         logic.updateSchedTask(type, taskTO);
     }
 
+    @Override
+    public Response exportExecutionDetails(final String executionKey) {
+        TaskExec taskExec = logic.getExecutionWithDetails(executionKey);
+        StreamingOutput sout = (os) -> logic.exportExecutionDetails(os, taskExec);
+
+        return Response.ok(sout).
+                header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + executionKey + ".log").
+                build();
+    }
+
+    @Override
+    public JobProgressTO getJobProgress(final String key) {
+        return logic.getJobProgress(key);
+    }
+
     @Override
     public BulkActionResult bulk(final BulkAction bulkAction) {
         BulkActionResult result = new BulkActionResult();
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs tasks on a shared executor, with at most the given number of them running or waiting there at the same
+ * time; callers submitting more tasks are blocked until one of theirs completes.
+ * Shutting down only prevents further submissions: the shared executor is left untouched.
+ */
+public class BoundedExecutorService extends AbstractExecutorService {
+
+    private final Executor executor;
+
+    private final int concurrency;
+
+    private final Semaphore permits;
+
+    private final TaskDecorator decorator;
+
+    private volatile boolean shutdown;
+
+    public BoundedExecutorService(final Executor executor, final int concurrency) {
+        this(executor, concurrency, task -> task);
+    }
+
+    /**
+     * @param executor shared executor
+     * @param concurrency max number of tasks running or waiting on the shared executor at the same time
+     * @param decorator applied to each task in the submitting thread, as to propagate thread-bound state
+     */
+    public BoundedExecutorService(final Executor executor, final int concurrency, final TaskDecorator decorator) {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+        this.permits = new Semaphore(this.concurrency);
+        this.decorator = decorator;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor was shut down");
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a task to complete", e);
+        }
+
+        Runnable task = decorator.decorate(command);
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Prevents further submissions; tasks already submitted are not interrupted, callers are expected to cancel
+     * their futures.
+     *
+     * @return empty list
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && permits.availablePermits() == concurrency;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (!permits.tryAcquire(concurrency, timeout, unit)) {
+            return false;
+        }
+        permits.release(concurrency);
+        return true;
+    }
+}
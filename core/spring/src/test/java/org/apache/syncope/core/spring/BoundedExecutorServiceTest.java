@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BoundedExecutorServiceTest {
+
+    private ExecutorService shared;
+
+    @BeforeEach
+    public void before() {
+        shared = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void after() {
+        shared.shutdownNow();
+    }
+
+    @Test
+    public void concurrency() throws Exception {
+        BoundedExecutorService executor = new BoundedExecutorService(shared, 2);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS).intValue());
+        }
+        assertEquals(2, peak.get());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    public void shutdownKeepsSharedExecutor() throws Exception {
+        BoundedExecutorService executor = new BoundedExecutorService(shared, 1);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> {
+            release.await();
+            return null;
+        });
+
+        executor.shutdownNow();
+        assertTrue(executor.isShutdown());
+        assertFalse(executor.isTerminated());
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> null));
+
+        // shared executor is still available to others
+        assertEquals("other", new BoundedExecutorService(shared, 1).submit(() -> "other").get(5, TimeUnit.SECONDS));
+        assertFalse(shared.isShutdown());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void decorator() throws Exception {
+        ThreadLocal<String> bound = new ThreadLocal<>();
+        bound.set("caller");
+
+        BoundedExecutorService executor = new BoundedExecutorService(shared, 1, task -> {
+            String value = bound.get();
+            return () -> {
+                bound.set(value);
+                try {
+                    task.run();
+                } finally {
+                    bound.remove();
+                }
+            };
+        });
+
+        assertEquals("caller", executor.submit(bound::get).get(5, TimeUnit.SECONDS));
+        bound.remove();
+    }
+}
@@ -39,6 +39,7 @@ import org.apache.syncope.common.lib.to.AttrTO;
 import org.apache.syncope.common.lib.to.PlainSchemaTO;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.lib.types.ContentExportFormat;
 import org.apache.syncope.common.lib.types.EntityViolationType;
 import org.apache.syncope.common.lib.types.SchemaType;
 import org.apache.syncope.fit.AbstractITCase;
@@ -138,7 +139,7 @@ public class ConfigurationITCase extends AbstractITCase {
 
     @Test
     public void dbExport() throws IOException {
-        Response response = configurationService.export();
+        Response response = configurationService.export(ContentExportFormat.XML);
         assertNotNull(response);
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatusInfo().getStatusCode());
         assertTrue(response.getMediaType().toString().startsWith(MediaType.TEXT_XML));
@@ -152,6 +153,20 @@ public class ConfigurationITCase extends AbstractITCase {
         assertTrue(configExport.length() > 1000);
     }
 
+    @Test
+    public void dbExportSnapshot() throws IOException {
+        Response response = configurationService.export(ContentExportFormat.SNAPSHOT);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatusInfo().getStatusCode());
+        assertTrue(response.getMediaType().toString().startsWith(MediaType.APPLICATION_OCTET_STREAM));
+        assertTrue(response.getHeaderString(HttpHeaders.CONTENT_DISPOSITION).endsWith("Content.snapshot"));
+
+        byte[] snapshot = IOUtils.toByteArray((InputStream) response.getEntity());
+        assertTrue(snapshot.length > 1000);
+        // GZIP magic number
+        assertEquals((byte) 0x1f, snapshot[0]);
+        assertEquals((byte) 0x8b, snapshot[1]);
+    }
+
     @Test
     public void issueSYNCOPE418() {
         PlainSchemaTO failing = new PlainSchemaTO();
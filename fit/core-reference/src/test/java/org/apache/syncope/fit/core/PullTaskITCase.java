@@ -76,6 +76,7 @@ import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
 import org.apache.syncope.common.lib.types.ImplementationEngine;
 import org.apache.syncope.common.lib.types.ImplementationType;
+import org.apache.syncope.common.lib.types.MappingPurpose;
 import org.apache.syncope.common.lib.types.PolicyType;
 import org.apache.syncope.common.lib.types.PropagationTaskExecStatus;
 import org.apache.syncope.common.lib.types.ResourceDeassociationAction;
@@ -662,6 +663,74 @@ public class PullTaskITCase extends AbstractTaskITCase {
         }
     }
 
+    @Test
+    public void skipUnchanged() {
+        String id = UUID.randomUUID().toString();
+        ResourceTO originalResource = resourceService.read(RESOURCE_NAME_DBPULL);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(testDataSource);
+        UserTO userTO = null;
+        try {
+            // 1. populate the external table and pull: user is created
+            jdbcTemplate.execute("INSERT INTO testpull VALUES"
+                    + "('" + id + "', 'skipunchanged', 'Surname', false, 'skipunchanged@syncope.apache.org', NULL)");
+
+            ExecTO execution = execProvisioningTask(
+                    taskService, TaskType.PULL, "7c2242f4-14af-4ab5-af31-cdae23783655", 50, false);
+            assertEquals(PropagationTaskExecStatus.SUCCESS, PropagationTaskExecStatus.valueOf(execution.getStatus()));
+
+            userTO = userService.read("skipunchanged");
+            assertNotNull(userTO);
+
+            // 2. pull again, with nothing changed: update is skipped
+            execution = execProvisioningTask(
+                    taskService, TaskType.PULL, "7c2242f4-14af-4ab5-af31-cdae23783655", 50, false);
+            assertEquals(PropagationTaskExecStatus.SUCCESS, PropagationTaskExecStatus.valueOf(execution.getStatus()));
+            assertTrue(execution.getMessage().contains("NONE SUCCESS (key/name): " + userTO.getKey() + "/"));
+            assertFalse(execution.getMessage().contains("UPDATE SUCCESS (key/name): " + userTO.getKey() + "/"));
+
+            // 3. modify the user locally and pull again: user is updated
+            UserPatch userPatch = new UserPatch();
+            userPatch.setKey(userTO.getKey());
+            userPatch.getPlainAttrs().add(attrAddReplacePatch("ctype", "locally modified"));
+            updateUser(userPatch);
+
+            execution = execProvisioningTask(
+                    taskService, TaskType.PULL, "7c2242f4-14af-4ab5-af31-cdae23783655", 50, false);
+            assertEquals(PropagationTaskExecStatus.SUCCESS, PropagationTaskExecStatus.valueOf(execution.getStatus()));
+            assertTrue(execution.getMessage().contains("UPDATE SUCCESS (key/name): " + userTO.getKey() + "/"));
+
+            // 4. pull again, with nothing changed since then: update is skipped
+            execution = execProvisioningTask(
+                    taskService, TaskType.PULL, "7c2242f4-14af-4ab5-af31-cdae23783655", 50, false);
+            assertTrue(execution.getMessage().contains("NONE SUCCESS (key/name): " + userTO.getKey() + "/"));
+
+            // 5. change the mapping and pull again: user is updated, according to the new mapping
+            ResourceTO resource = SerializationUtils.clone(originalResource);
+            ItemTO item = new ItemTO();
+            item.setIntAttrName("ctype");
+            item.setExtAttrName("SURNAME");
+            item.setPurpose(MappingPurpose.PULL);
+            resource.getProvision(AnyTypeKind.USER.name()).get().getMapping().add(item);
+            resourceService.update(resource);
+
+            execution = execProvisioningTask(
+                    taskService, TaskType.PULL, "7c2242f4-14af-4ab5-af31-cdae23783655", 50, false);
+            assertEquals(PropagationTaskExecStatus.SUCCESS, PropagationTaskExecStatus.valueOf(execution.getStatus()));
+            assertTrue(execution.getMessage().contains("UPDATE SUCCESS (key/name): " + userTO.getKey() + "/"));
+
+            userTO = userService.read(userTO.getKey());
+            assertEquals("Surname", userTO.getPlainAttr("ctype").get().getValues().get(0));
+        } finally {
+            resourceService.update(originalResource);
+
+            jdbcTemplate.execute("DELETE FROM testpull WHERE id = '" + id + "'");
+            if (userTO != null) {
+                userService.delete(userTO.getKey());
+            }
+        }
+    }
+
     @Test
     public void remediation() {
         // First of all, clear any potential conflict with existing user / group